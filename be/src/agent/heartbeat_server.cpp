@@ -30,11 +30,14 @@
 #include "agent/master_info.h"
 #include "common/status.h"
 #include "gen_cpp/HeartbeatService.h"
+#include "runtime/exec_env.h"
 #include "runtime/heartbeat_flags.h"
+#include "runtime/mem_tracker.h"
 #include "service/backend_options.h"
 #include "storage/storage_engine.h"
 #include "util/debug_util.h"
 #include "util/network_util.h"
+#include "util/starrocks_metrics.h"
 #include "util/thrift_server.h"
 
 using std::fstream;
@@ -102,7 +105,26 @@ void HeartbeatServer::heartbeat(THeartbeatResult& heartbeat_result, const TMaste
 #endif
         heartbeat_result.backend_info.__set_version(get_short_version());
         heartbeat_result.backend_info.__set_num_hardware_cores(num_hardware_cores);
+        MemTracker* process_mem_tracker = ExecEnv::GetInstance()->process_mem_tracker();
+        if (process_mem_tracker != nullptr) {
+            heartbeat_result.backend_info.__set_mem_used_bytes(process_mem_tracker->consumption());
+            heartbeat_result.backend_info.__set_mem_limit_bytes(process_mem_tracker->limit());
+        }
+        heartbeat_result.backend_info.__set_num_running_loads(_get_num_running_loads());
+    }
+}
+
+int32_t HeartbeatServer::_get_num_running_loads() {
+    static const char* const kLoadMetrics[] = {"streaming_load_current_processing",
+                                               "transaction_streaming_load_current_processing"};
+    int64_t num = 0;
+    for (const char* name : kLoadMetrics) {
+        auto* metric = dynamic_cast<IntGauge*>(StarRocksMetrics::instance()->metrics()->get_metric(name));
+        if (metric != nullptr) {
+            num += metric->value();
+        }
     }
+    return static_cast<int32_t>(num);
 }
 
 StatusOr<HeartbeatServer::CmpResult> HeartbeatServer::compare_master_info(const TMasterInfo& master_info) {
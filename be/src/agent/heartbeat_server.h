@@ -66,6 +66,9 @@ private:
 
     StatusOr<CmpResult> compare_master_info(const TMasterInfo& master_info);
 
+    // number of the stream loads and transaction stream loads being processed
+    static int32_t _get_num_running_loads();
+
     StorageEngine* _olap_engine;
 }; // class HeartBeatServer
 
@@ -754,6 +754,12 @@ CONF_Int32(max_batch_publish_latency_ms, "100");
 // Config for opentelemetry tracing.
 CONF_String(jaeger_endpoint, "");
 
+// The max number of connections to a JDBC source, the connections are shared by the scans of the source.
+// A scan which finds all of them in use opens a connection of its own.
+CONF_Int32(jdbc_connection_pool_size, "8");
+// Idle connections to JDBC sources are closed after this time, so are the pools of sources not queried for this time.
+CONF_Int32(jdbc_connection_idle_timeout_ms, "600000");
+
 #ifdef USE_STAROS
 CONF_String(starmgr_addr, "");
 CONF_Int32(starlet_port, "9070");
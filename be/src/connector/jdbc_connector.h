@@ -57,6 +57,7 @@ private:
 
     // ====================================
     const JDBCDataSourceProvider* _provider;
+    const TScanRange _scan_range;
     ObjectPool _obj_pool;
     ObjectPool* _pool = &_obj_pool;
     RuntimeState* _runtime_state = nullptr;
@@ -4,7 +4,9 @@
 
 #include <type_traits>
 
+#include "common/config.h"
 #include "jni_md.h"
+#include "simd/simd.h"
 #include "util/defer_op.h"
 
 namespace starrocks::vectorized {
@@ -17,16 +19,6 @@ namespace starrocks::vectorized {
         return Status::InternalError(fmt::format("{}, error: {}", error_message, err)); \
     }
 
-#define PROCESS_NULL_VALUE(val, column)                                                                         \
-    if (val == nullptr) {                                                                                       \
-        if (!column->is_nullable()) {                                                                           \
-            return Status::DataQualityError(                                                                    \
-                    fmt::format("Unexpected NULL value occurs on NOT NULL column[{}]", slot_desc->col_name())); \
-        }                                                                                                       \
-        column->append_nulls(1);                                                                                \
-        return Status::OK();                                                                                    \
-    }
-
 JDBCScanner::~JDBCScanner() {}
 
 Status JDBCScanner::reset_jni_env() {
@@ -50,15 +42,15 @@ Status JDBCScanner::open(RuntimeState* state) {
 
     RETURN_IF_ERROR(_init_column_class_name());
 
-    // init JDBCUtil method
-    _jdbc_util_cls = _jni_env->FindClass(JDBC_UTIL_CLASS_NAME);
-    DCHECK(_jdbc_util_cls != nullptr);
-    _util_format_date =
-            _jni_env->GetStaticMethodID(_jdbc_util_cls, "formatDate", "(Ljava/sql/Date;)Ljava/lang/String;");
-    DCHECK(_util_format_date != nullptr);
-    _util_format_localdatetime = _jni_env->GetStaticMethodID(_jdbc_util_cls, "formatLocalDatetime",
-                                                             "(Ljava/time/LocalDateTime;)Ljava/lang/String;");
-    DCHECK(_util_format_localdatetime != nullptr);
+    // init JDBCColumnBuffer method
+    _jdbc_column_buffer_cls = _jni_env->FindClass(JDBC_COLUMN_BUFFER_CLASS_NAME);
+    DCHECK(_jdbc_column_buffer_cls != nullptr);
+    _column_buffer_get_nulls = _jni_env->GetMethodID(_jdbc_column_buffer_cls, "getNulls", "()[B");
+    DCHECK(_column_buffer_get_nulls != nullptr);
+    _column_buffer_get_data = _jni_env->GetMethodID(_jdbc_column_buffer_cls, "getData", "()Ljava/lang/Object;");
+    DCHECK(_column_buffer_get_data != nullptr);
+    _column_buffer_get_offsets = _jni_env->GetMethodID(_jdbc_column_buffer_cls, "getOffsets", "()[I");
+    DCHECK(_column_buffer_get_offsets != nullptr);
 
     return Status::OK();
 }
@@ -70,15 +62,9 @@ Status JDBCScanner::get_next(RuntimeState* state, ChunkPtr* chunk, bool* eos) {
         *eos = true;
         return Status::OK();
     }
-    jobject jchunk;
-    DeferOp defer([&jchunk, this]() {
-        if (jchunk != nullptr) {
-            _jni_env->DeleteLocalRef(jchunk);
-        }
-    });
-
-    RETURN_IF_ERROR(_get_next_chunk(&jchunk));
-    RETURN_IF_ERROR(_fill_chunk(jchunk, chunk));
+    int num_rows = 0;
+    RETURN_IF_ERROR(_get_next_chunk(&num_rows));
+    RETURN_IF_ERROR(_fill_chunk(num_rows, chunk));
     return Status::OK();
 }
 
@@ -114,16 +100,19 @@ Status JDBCScanner::_init_jdbc_scan_context(RuntimeState* state) {
 
     jmethodID constructor = _jni_env->GetMethodID(
             scan_context_cls, "<init>",
-            "(Ljava/lang/String;Ljava/lang/String;Ljava/lang/String;Ljava/lang/String;Ljava/lang/String;I)V");
+            "(Ljava/lang/String;Ljava/lang/String;Ljava/lang/String;Ljava/lang/String;Ljava/lang/String;III)V");
     jstring driver_class_name = _jni_env->NewStringUTF(_scan_ctx.driver_class_name.c_str());
     jstring jdbc_url = _jni_env->NewStringUTF(_scan_ctx.jdbc_url.c_str());
     jstring user = _jni_env->NewStringUTF(_scan_ctx.user.c_str());
     jstring passwd = _jni_env->NewStringUTF(_scan_ctx.passwd.c_str());
     jstring sql = _jni_env->NewStringUTF(_scan_ctx.sql.c_str());
     int statement_fetch_size = state->chunk_size();
+    int connection_pool_size = config::jdbc_connection_pool_size;
+    int connection_idle_timeout_ms = config::jdbc_connection_idle_timeout_ms;
 
     _jdbc_scan_context = _jni_env->NewObject(scan_context_cls, constructor, driver_class_name, jdbc_url, user, passwd,
-                                             sql, statement_fetch_size);
+                                             sql, statement_fetch_size, connection_pool_size,
+                                             connection_idle_timeout_ms);
 
     _jni_env->DeleteLocalRef(driver_class_name);
     _jni_env->DeleteLocalRef(jdbc_url);
@@ -151,8 +140,11 @@ Status JDBCScanner::_init_jdbc_scanner() {
     // init jmethod
     _scanner_has_next = _jni_env->GetMethodID(_jdbc_scanner_cls, "hasNext", "()Z");
     DCHECK(_scanner_has_next != nullptr);
-    _scanner_get_next_chunk = _jni_env->GetMethodID(_jdbc_scanner_cls, "getNextChunk", "()Ljava/util/List;");
+    _scanner_get_next_chunk = _jni_env->GetMethodID(_jdbc_scanner_cls, "getNextChunk", "()I");
     DCHECK(_scanner_get_next_chunk != nullptr);
+    _scanner_get_column_buffer = _jni_env->GetMethodID(_jdbc_scanner_cls, "getColumnBuffer",
+                                                       "(I)Lcom/starrocks/jdbcbridge/JDBCColumnBuffer;");
+    DCHECK(_scanner_get_column_buffer != nullptr);
     _scanner_close = _jni_env->GetMethodID(_jdbc_scanner_cls, "close", "()V");
     DCHECK(_scanner_close != nullptr);
 
@@ -280,10 +272,10 @@ Status JDBCScanner::_has_next(bool* result) {
     return Status::OK();
 }
 
-Status JDBCScanner::_get_next_chunk(jobject* chunk) {
+Status JDBCScanner::_get_next_chunk(int* num_rows) {
     SCOPED_TIMER(_profile.io_timer);
     COUNTER_UPDATE(_profile.io_counter, 1);
-    *chunk = _jni_env->CallObjectMethod(_jdbc_scanner, _scanner_get_next_chunk);
+    *num_rows = _jni_env->CallIntMethod(_jdbc_scanner, _scanner_get_next_chunk);
     CHECK_JAVA_EXCEPTION("getNextChunk failed")
     return Status::OK();
 }
@@ -317,241 +309,253 @@ void JDBCScanner::_append_data(Column* column, CppType& value) {
     }
 }
 
-template <>
-Status JDBCScanner::_append_value_from_result<std::string>(jobject jval,
-                                                           std::function<std::string(jobject)> get_value_func,
-                                                           SlotDescriptor* slot_desc, Column* column) {
-    PROCESS_NULL_VALUE(jval, column)
-
-    std::string cpp_val = get_value_func(jval);
-    int max_len = slot_desc->type().len;
-    if (cpp_val.size() > max_len) {
-        return Status::DataQualityError(
-                fmt::format("Value length exceeds limit on column[{}], max length is [{}], value is [{}]",
-                            slot_desc->col_name(), max_len, cpp_val));
-    }
-    switch (slot_desc->type().type) {
-    case TYPE_CHAR:
-    case TYPE_VARCHAR: {
-        Slice val(cpp_val);
-        _append_data<TYPE_VARCHAR, Slice>(column, val);
-        break;
-    }
-    default: {
-        DCHECK(false) << "unreachable path, unknown type:" << slot_desc->type().type;
-        return Status::InternalError(fmt::format("unknown type {}", slot_desc->type().type));
-    }
-    }
-    return Status::OK();
-}
-
-template <typename CppType>
-Status JDBCScanner::_append_value_from_result(jobject jval, std::function<CppType(jobject)> get_value_func,
-                                              SlotDescriptor* slot_desc, Column* column) {
-    PROCESS_NULL_VALUE(jval, column)
-
-#define CHECK_DATA_OVERFLOW(val, min_val, max_val)                                                                  \
-    if (val > max_val || val < min_val) {                                                                           \
-        return Status::DataQualityError(                                                                            \
-                fmt::format("Data out of range on column[{}], invalid value is [{}]", slot_desc->col_name(), val)); \
-    }
-
-    CppType cpp_val = get_value_func(jval);
-    switch (slot_desc->type().type) {
-    case TYPE_INT: {
-        CHECK_DATA_OVERFLOW(cpp_val, INT_MIN, INT_MAX)
-        _append_data<TYPE_INT, CppType>(column, cpp_val);
-        break;
-    }
-    case TYPE_TINYINT: {
-        CHECK_DATA_OVERFLOW(cpp_val, INT8_MIN, INT8_MAX)
-        _append_data<TYPE_TINYINT, CppType>(column, cpp_val);
-        break;
-    }
-    case TYPE_SMALLINT: {
-        CHECK_DATA_OVERFLOW(cpp_val, INT16_MIN, INT16_MAX)
-        _append_data<TYPE_SMALLINT, CppType>(column, cpp_val);
-        break;
-    }
-    case TYPE_BIGINT: {
-        CHECK_DATA_OVERFLOW(cpp_val, INT64_MIN, INT64_MAX)
-        _append_data<TYPE_BIGINT, CppType>(column, cpp_val);
-        break;
-    }
-    case TYPE_DOUBLE: {
-        _append_data<TYPE_DOUBLE, CppType>(column, cpp_val);
-        break;
-    }
-    case TYPE_FLOAT: {
-        _append_data<TYPE_FLOAT, CppType>(column, cpp_val);
-        break;
-    }
-    case TYPE_BOOLEAN: {
-        _append_data<TYPE_BOOLEAN, CppType>(column, cpp_val);
-        break;
-    }
-    default: {
-        DCHECK(false) << "unknown type:" << slot_desc->type().type;
-        return Status::InternalError(fmt::format("unknown type {}", slot_desc->type().type));
-    }
-    }
-    return Status::OK();
-}
-
-Status JDBCScanner::_fill_chunk(jobject jchunk, ChunkPtr* chunk) {
+Status JDBCScanner::_fill_chunk(int num_rows, ChunkPtr* chunk) {
     SCOPED_TIMER(_profile.fill_chunk_timer);
-    auto& helper = JVMFunctionHelper::getInstance();
-    jobject first_column = helper.list_get(jchunk, 0);
-    int num_rows = helper.list_size(first_column);
-    _jni_env->DeleteLocalRef(first_column);
     COUNTER_UPDATE(_profile.rows_read_counter, num_rows);
+    _null_buffer.resize(num_rows);
 
     for (size_t col_idx = 0; col_idx < _slot_descs.size(); col_idx++) {
         SlotDescriptor* slot_desc = _slot_descs[col_idx];
         ColumnPtr& column = (*chunk)->get_column_by_slot_id(slot_desc->id());
         const auto& column_class = _column_class_name[col_idx];
 
-        jobject jcolumn = helper.list_get(jchunk, col_idx);
-        DeferOp defer([&jcolumn, this]() { _jni_env->DeleteLocalRef(jcolumn); });
+        jobject jcolumn_buffer = _jni_env->CallObjectMethod(_jdbc_scanner, _scanner_get_column_buffer, (jint)col_idx);
+        CHECK_JAVA_EXCEPTION("get column buffer failed")
+        if (jcolumn_buffer == nullptr) {
+            return Status::InternalError(fmt::format("buffer of column[{}] is null", slot_desc->col_name()));
+        }
+        DeferOp defer([&jcolumn_buffer, this]() { _jni_env->DeleteLocalRef(jcolumn_buffer); });
+
+        // copy the null map of the column
+        auto jnulls = (jbyteArray)_jni_env->CallObjectMethod(jcolumn_buffer, _column_buffer_get_nulls);
+        CHECK_JAVA_EXCEPTION("get column nulls failed")
+        if (jnulls == nullptr) {
+            return Status::InternalError(fmt::format("null map of column[{}] is null", slot_desc->col_name()));
+        }
+        _jni_env->GetByteArrayRegion(jnulls, 0, num_rows, reinterpret_cast<jbyte*>(_null_buffer.data()));
+        _jni_env->DeleteLocalRef(jnulls);
+        CHECK_JAVA_EXCEPTION("copy column nulls failed")
+        if (!column->is_nullable() && SIMD::count_nonzero(_null_buffer) > 0) {
+            return Status::DataQualityError(
+                    fmt::format("Unexpected NULL value occurs on NOT NULL column[{}]", slot_desc->col_name()));
+        }
+
+        jobject jdata = _jni_env->CallObjectMethod(jcolumn_buffer, _column_buffer_get_data);
+        CHECK_JAVA_EXCEPTION("get column data failed")
+        if (jdata == nullptr) {
+            return Status::InternalError(fmt::format("data of column[{}] is null", slot_desc->col_name()));
+        }
+        DeferOp defer_data([&jdata, this]() { _jni_env->DeleteLocalRef(jdata); });
 
-#define FILL_COLUMN(get_value_func, cpp_type)                                                                         \
-    {                                                                                                                 \
-        auto func = std::bind(&JVMFunctionHelper::get_value_func, &helper, std::placeholders::_1);                    \
-        for (int i = 0; i < num_rows; i++) {                                                                          \
-            RETURN_IF_ERROR(                                                                                          \
-                    _append_value_from_result<cpp_type>(helper.list_get(jcolumn, i), func, slot_desc, column.get())); \
-        }                                                                                                             \
-    }
         if (column_class == "java.lang.Short") {
-            FILL_COLUMN(valint16_t, int16_t);
+            RETURN_IF_ERROR(_fill_numeric_column<jshort>(jdata, num_rows, slot_desc, column.get()));
         } else if (column_class == "java.lang.Integer") {
-            FILL_COLUMN(valint32_t, int32_t);
-        } else if (column_class == "java.lang.String") {
-            FILL_COLUMN(to_string, std::string);
+            RETURN_IF_ERROR(_fill_numeric_column<jint>(jdata, num_rows, slot_desc, column.get()));
         } else if (column_class == "java.lang.Long") {
-            FILL_COLUMN(valint64_t, int64_t);
+            RETURN_IF_ERROR(_fill_numeric_column<jlong>(jdata, num_rows, slot_desc, column.get()));
         } else if (column_class == "java.lang.Boolean") {
-            FILL_COLUMN(valuint8_t, uint8_t);
+            // booleans are passed as bytes of 0 and 1
+            RETURN_IF_ERROR(_fill_numeric_column<jbyte>(jdata, num_rows, slot_desc, column.get()));
         } else if (column_class == "java.lang.Float") {
-            FILL_COLUMN(valfloat, float)
+            RETURN_IF_ERROR(_fill_numeric_column<jfloat>(jdata, num_rows, slot_desc, column.get()));
         } else if (column_class == "java.lang.Double") {
-            FILL_COLUMN(valdouble, double);
-        } else if (column_class == "java.sql.Timestamp") {
-            DCHECK(slot_desc->type().type == TYPE_DATETIME);
-            for (int i = 0; i < num_rows; i++) {
-                RETURN_IF_ERROR(_append_datetime_val(helper.list_get(jcolumn, i), slot_desc, column.get()));
-            }
-        } else if (column_class == "java.sql.Date") {
-            DCHECK(slot_desc->type().type == TYPE_DATE);
-            for (int i = 0; i < num_rows; i++) {
-                RETURN_IF_ERROR(_append_date_val(helper.list_get(jcolumn, i), slot_desc, column.get()));
-            }
-        } else if (column_class == "java.time.LocalDateTime") {
-            DCHECK(slot_desc->type().type == TYPE_DATETIME);
-            for (int i = 0; i < num_rows; i++) {
-                RETURN_IF_ERROR(_append_localdatetime_val(helper.list_get(jcolumn, i), slot_desc, column.get()));
+            RETURN_IF_ERROR(_fill_numeric_column<jdouble>(jdata, num_rows, slot_desc, column.get()));
+        } else {
+            jobject joffsets = _jni_env->CallObjectMethod(jcolumn_buffer, _column_buffer_get_offsets);
+            CHECK_JAVA_EXCEPTION("get column offsets failed")
+            if (joffsets == nullptr) {
+                return Status::InternalError(fmt::format("offsets of column[{}] is null", slot_desc->col_name()));
             }
-        } else if (column_class == "java.math.BigDecimal") {
-            for (int i = 0; i < num_rows; i++) {
-                RETURN_IF_ERROR(_append_decimal_val(helper.list_get(jcolumn, i), slot_desc, column.get()));
+            DeferOp defer_offsets([&joffsets, this]() { _jni_env->DeleteLocalRef(joffsets); });
+            RETURN_IF_ERROR(_fill_string_column(column_class, jdata, joffsets, num_rows, slot_desc, column.get()));
+        }
+    }
+    return Status::OK();
+}
+
+template <typename JavaType>
+Status JDBCScanner::_fill_numeric_column(jobject jdata, int num_rows, SlotDescriptor* slot_desc, Column* column) {
+    // no JNI call is allowed before the array is released
+    auto* values = static_cast<JavaType*>(_jni_env->GetPrimitiveArrayCritical((jarray)jdata, nullptr));
+    if (values == nullptr) {
+        return Status::InternalError(fmt::format("get data of column[{}] failed", slot_desc->col_name()));
+    }
+    DeferOp defer([&]() { _jni_env->ReleasePrimitiveArrayCritical((jarray)jdata, values, JNI_ABORT); });
+
+    switch (slot_desc->type().type) {
+#define APPEND_NUMERIC_VALUES(TYPE) \
+    case TYPE:                      \
+        return _append_numeric_values<TYPE, JavaType>(values, num_rows, slot_desc, column);
+        APPEND_NUMERIC_VALUES(TYPE_BOOLEAN)
+        APPEND_NUMERIC_VALUES(TYPE_TINYINT)
+        APPEND_NUMERIC_VALUES(TYPE_SMALLINT)
+        APPEND_NUMERIC_VALUES(TYPE_INT)
+        APPEND_NUMERIC_VALUES(TYPE_BIGINT)
+        APPEND_NUMERIC_VALUES(TYPE_FLOAT)
+        APPEND_NUMERIC_VALUES(TYPE_DOUBLE)
+#undef APPEND_NUMERIC_VALUES
+    default: {
+        DCHECK(false) << "unknown type:" << slot_desc->type().type;
+        return Status::InternalError(fmt::format("unknown type {}", slot_desc->type().type));
+    }
+    }
+}
+
+template <PrimitiveType type, typename JavaType>
+Status JDBCScanner::_append_numeric_values(const JavaType* values, int num_rows, SlotDescriptor* slot_desc,
+                                           Column* column) {
+    using CppType = RunTimeCppType<type>;
+    if constexpr (std::is_integral_v<JavaType> && std::is_integral_v<CppType> && sizeof(CppType) < sizeof(JavaType)) {
+        for (int i = 0; i < num_rows; i++) {
+            if (!_null_buffer[i] && (values[i] > std::numeric_limits<CppType>::max() ||
+                                     values[i] < std::numeric_limits<CppType>::lowest())) {
+                return Status::DataQualityError(fmt::format("Data out of range on column[{}], invalid value is [{}]",
+                                                            slot_desc->col_name(), (int64_t)values[i]));
             }
-        } else {
-            return Status::InternalError(fmt::format("not support type {}", column_class));
         }
     }
+
+    Column* data_column = column;
+    if (column->is_nullable()) {
+        auto* nullable_column = down_cast<NullableColumn*>(column);
+        NullData& null_data = nullable_column->null_column_data();
+        null_data.insert(null_data.end(), _null_buffer.begin(), _null_buffer.end());
+        data_column = nullable_column->mutable_data_column();
+    }
+    auto& data = down_cast<RunTimeColumnType<type>*>(data_column)->get_data();
+    size_t offset = data.size();
+    data.resize(offset + num_rows);
+    for (int i = 0; i < num_rows; i++) {
+        data[offset + i] = static_cast<CppType>(values[i]);
+    }
+    if (column->is_nullable()) {
+        down_cast<NullableColumn*>(column)->update_has_null();
+    }
     return Status::OK();
 }
 
-Status JDBCScanner::_append_datetime_val(jobject jval, SlotDescriptor* slot_desc, Column* column) {
-    PROCESS_NULL_VALUE(jval, column)
-    DeferOp defer([&jval, this]() { _jni_env->DeleteLocalRef(jval); });
+Status JDBCScanner::_fill_string_column(const std::string& column_class, jobject jbytes, jobject joffsets,
+                                        int num_rows, SlotDescriptor* slot_desc, Column* column) {
+    _offset_buffer.resize(num_rows + 1);
+    _jni_env->GetIntArrayRegion((jintArray)joffsets, 0, num_rows + 1, _offset_buffer.data());
+    // the offsets are not copied if the array is shorter than expected, and the pending exception
+    // must be cleared before the next JNI call
+    if (_jni_env->ExceptionCheck()) {
+        _jni_env->ExceptionClear();
+        return Status::InternalError(fmt::format("get offsets of column[{}] failed, expect {} offsets",
+                                                 slot_desc->col_name(), num_rows + 1));
+    }
+    if (_offset_buffer[num_rows] < 0) {
+        return Status::InternalError(fmt::format("invalid offsets of column[{}]", slot_desc->col_name()));
+    }
+    _bytes_buffer.resize(_offset_buffer[num_rows]);
+    _jni_env->GetByteArrayRegion((jbyteArray)jbytes, 0, _offset_buffer[num_rows],
+                                 reinterpret_cast<jbyte*>(_bytes_buffer.data()));
+    CHECK_JAVA_EXCEPTION("get column bytes failed")
+
+    Status (JDBCScanner::*append_func)(const Slice&, SlotDescriptor*, Column*);
+    if (column_class == "java.lang.String") {
+        append_func = &JDBCScanner::_append_string_val;
+    } else if (column_class == "java.sql.Timestamp" || column_class == "java.time.LocalDateTime") {
+        append_func = &JDBCScanner::_append_datetime_val;
+    } else if (column_class == "java.sql.Date") {
+        append_func = &JDBCScanner::_append_date_val;
+    } else if (column_class == "java.math.BigDecimal") {
+        append_func = &JDBCScanner::_append_decimal_val;
+    } else {
+        return Status::InternalError(fmt::format("not support type {}", column_class));
+    }
 
-    std::string origin_str = JVMFunctionHelper::getInstance().to_string(jval);
-    std::string datetime_str = origin_str.substr(0, origin_str.find('.'));
-    TimestampValue tsv;
-    if (!tsv.from_datetime_format_str(datetime_str.c_str(), datetime_str.size(), "%Y-%m-%d %H:%i:%s")) {
-        return Status::DataQualityError(fmt::format("Invalid datetime value occurs on column[{}], value is [{}]",
-                                                    slot_desc->col_name(), origin_str));
+    for (int i = 0; i < num_rows; i++) {
+        if (_null_buffer[i]) {
+            column->append_nulls(1);
+            continue;
+        }
+        Slice value(_bytes_buffer.data() + _offset_buffer[i], _offset_buffer[i + 1] - _offset_buffer[i]);
+        RETURN_IF_ERROR((this->*append_func)(value, slot_desc, column));
     }
-    _append_data<TYPE_DATETIME, TimestampValue>(column, tsv);
     return Status::OK();
 }
 
-Status JDBCScanner::_append_localdatetime_val(jobject jval, SlotDescriptor* slot_desc, Column* column) {
-    PROCESS_NULL_VALUE(jval, column)
-    DeferOp defer([&jval, this]() { _jni_env->DeleteLocalRef(jval); });
+Status JDBCScanner::_append_string_val(const Slice& value, SlotDescriptor* slot_desc, Column* column) {
+    int max_len = slot_desc->type().len;
+    if (value.size > max_len) {
+        return Status::DataQualityError(
+                fmt::format("Value length exceeds limit on column[{}], max length is [{}], value is [{}]",
+                            slot_desc->col_name(), max_len, value.to_string()));
+    }
+    switch (slot_desc->type().type) {
+    case TYPE_CHAR:
+    case TYPE_VARCHAR: {
+        Slice val(value);
+        _append_data<TYPE_VARCHAR, Slice>(column, val);
+        break;
+    }
+    default: {
+        DCHECK(false) << "unreachable path, unknown type:" << slot_desc->type().type;
+        return Status::InternalError(fmt::format("unknown type {}", slot_desc->type().type));
+    }
+    }
+    return Status::OK();
+}
 
-    std::string localdatetime_str = _get_localdatetime_string(jval);
+Status JDBCScanner::_append_datetime_val(const Slice& value, SlotDescriptor* slot_desc, Column* column) {
+    // Timestamp has fractional seconds, which are dropped
+    size_t len = value.size;
+    for (size_t i = 0; i < value.size; i++) {
+        if (value.data[i] == '.') {
+            len = i;
+            break;
+        }
+    }
     TimestampValue tsv;
-    if (!tsv.from_datetime_format_str(localdatetime_str.c_str(), localdatetime_str.size(), "%Y-%m-%d %H:%i:%s")) {
+    if (!tsv.from_datetime_format_str(value.data, len, "%Y-%m-%d %H:%i:%s")) {
         return Status::DataQualityError(fmt::format("Invalid datetime value occurs on column[{}], value is [{}]",
-                                                    slot_desc->col_name(), localdatetime_str));
+                                                    slot_desc->col_name(), value.to_string()));
     }
     _append_data<TYPE_DATETIME, TimestampValue>(column, tsv);
     return Status::OK();
 }
 
-Status JDBCScanner::_append_date_val(jobject jval, SlotDescriptor* slot_desc, Column* column) {
-    PROCESS_NULL_VALUE(jval, column)
-    DeferOp defer([&jval, this]() { _jni_env->DeleteLocalRef(jval); });
-
-    std::string date_str = _get_date_string(jval);
+Status JDBCScanner::_append_date_val(const Slice& value, SlotDescriptor* slot_desc, Column* column) {
     DateValue dv;
-    if (!dv.from_string(date_str.c_str(), date_str.size())) {
-        return Status::DataQualityError(
-                fmt::format("Invalid date value occurs on column[{}], value is [{}]", slot_desc->col_name(), date_str));
+    if (!dv.from_string(value.data, value.size)) {
+        return Status::DataQualityError(fmt::format("Invalid date value occurs on column[{}], value is [{}]",
+                                                    slot_desc->col_name(), value.to_string()));
     }
     _append_data<TYPE_DATE, DateValue>(column, dv);
     return Status::OK();
 }
 
-std::string JDBCScanner::_get_date_string(jobject jval) {
-    jstring date_str = (jstring)_jni_env->CallStaticObjectMethod(_jdbc_util_cls, _util_format_date, jval);
-    std::string result = JVMFunctionHelper::getInstance().to_string(date_str);
-    _jni_env->DeleteLocalRef(date_str);
-    return result;
-}
-
-std::string JDBCScanner::_get_localdatetime_string(jobject jval) {
-    jstring datetime_str = (jstring)_jni_env->CallStaticObjectMethod(_jdbc_util_cls, _util_format_localdatetime, jval);
-    std::string result = JVMFunctionHelper::getInstance().to_string(datetime_str);
-    _jni_env->DeleteLocalRef(datetime_str);
-    return result;
-}
-
-Status JDBCScanner::_append_decimal_val(jobject jval, SlotDescriptor* slot_desc, Column* column) {
-    PROCESS_NULL_VALUE(jval, column)
-    DeferOp defer([&jval, this]() { _jni_env->DeleteLocalRef(jval); });
-
+Status JDBCScanner::_append_decimal_val(const Slice& value, SlotDescriptor* slot_desc, Column* column) {
     auto type = slot_desc->type().type;
     int precision = slot_desc->type().precision;
     int scale = slot_desc->type().scale;
 
-    std::string decimal_str = JVMFunctionHelper::getInstance().to_string(jval);
     switch (type) {
     case TYPE_DECIMAL32: {
         int32_t cpp_val;
-        if (DecimalV3Cast::from_string<int32_t>(&cpp_val, precision, scale, decimal_str.data(), decimal_str.size())) {
+        if (DecimalV3Cast::from_string<int32_t>(&cpp_val, precision, scale, value.data, value.size)) {
             return Status::DataQualityError(fmt::format("Invalid value occurs in column[{}], value is [{}]",
-                                                        slot_desc->col_name(), decimal_str));
+                                                        slot_desc->col_name(), value.to_string()));
         }
         _append_data<TYPE_DECIMAL32, int32_t>(column, cpp_val);
         break;
     }
     case TYPE_DECIMAL64: {
         int64_t cpp_val;
-        if (DecimalV3Cast::from_string<int64_t>(&cpp_val, precision, scale, decimal_str.data(), decimal_str.size())) {
+        if (DecimalV3Cast::from_string<int64_t>(&cpp_val, precision, scale, value.data, value.size)) {
             return Status::DataQualityError(fmt::format("Invalid value occurs in column[{}], value is [{}]",
-                                                        slot_desc->col_name(), decimal_str));
+                                                        slot_desc->col_name(), value.to_string()));
         }
         _append_data<TYPE_DECIMAL64, int64_t>(column, cpp_val);
         break;
     }
     case TYPE_DECIMAL128: {
         int128_t cpp_val;
-        if (DecimalV3Cast::from_string<int128_t>(&cpp_val, precision, scale, decimal_str.data(), decimal_str.size())) {
+        if (DecimalV3Cast::from_string<int128_t>(&cpp_val, precision, scale, value.data, value.size)) {
             return Status::DataQualityError(fmt::format("Invalid value occurs in column[{}], value is [{}]",
-                                                        slot_desc->col_name(), decimal_str));
+                                                        slot_desc->col_name(), value.to_string()));
         }
         _append_data<TYPE_DECIMAL128, int128_t>(column, cpp_val);
         break;
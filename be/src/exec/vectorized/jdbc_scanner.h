@@ -66,30 +66,33 @@ private:
 
     Status _has_next(bool* result);
 
-    Status _get_next_chunk(jobject* chunk);
+    Status _get_next_chunk(int* num_rows);
 
-    Status _fill_chunk(jobject jchunk, ChunkPtr* chunk);
+    Status _fill_chunk(int num_rows, ChunkPtr* chunk);
 
     Status _close_jdbc_scanner();
 
     template <PrimitiveType type, typename CppType>
     void _append_data(Column* column, CppType& value);
 
-    template <typename CppType>
-    Status _append_value_from_result(jobject jval, std::function<CppType(jobject)> get_value_func,
-                                     SlotDescriptor* slot_desc, Column* column);
+    // JavaType: element type of the java array of the column
+    template <typename JavaType>
+    Status _fill_numeric_column(jobject jdata, int num_rows, SlotDescriptor* slot_desc, Column* column);
 
-    Status _append_datetime_val(jobject jval, SlotDescriptor* slot_desc, Column* column);
+    template <PrimitiveType type, typename JavaType>
+    Status _append_numeric_values(const JavaType* values, int num_rows, SlotDescriptor* slot_desc, Column* column);
 
-    Status _append_localdatetime_val(jobject jval, SlotDescriptor* slot_desc, Column* column);
+    // the values of string, date, datetime and decimal columns are passed as strings
+    Status _fill_string_column(const std::string& column_class, jobject jbytes, jobject joffsets, int num_rows,
+                               SlotDescriptor* slot_desc, Column* column);
 
-    Status _append_date_val(jobject jval, SlotDescriptor* slot_desc, Column* column);
+    Status _append_string_val(const Slice& value, SlotDescriptor* slot_desc, Column* column);
 
-    Status _append_decimal_val(jobject jval, SlotDescriptor* slot_desc, Column* column);
+    Status _append_datetime_val(const Slice& value, SlotDescriptor* slot_desc, Column* column);
 
-    std::string _get_date_string(jobject jval);
+    Status _append_date_val(const Slice& value, SlotDescriptor* slot_desc, Column* column);
 
-    std::string _get_localdatetime_string(jobject jval);
+    Status _append_decimal_val(const Slice& value, SlotDescriptor* slot_desc, Column* column);
 
     JDBCScanContext _scan_ctx;
     // result tuple desc
@@ -103,26 +106,33 @@ private:
 
     jclass _jdbc_bridge_cls;
     jclass _jdbc_scanner_cls;
-    jclass _jdbc_util_cls;
+    jclass _jdbc_column_buffer_cls;
 
     jmethodID _scanner_has_next;
     jmethodID _scanner_get_next_chunk;
+    jmethodID _scanner_get_column_buffer;
     jmethodID _scanner_close;
-    // JDBCUtil method
-    jmethodID _util_format_date;
-    jmethodID _util_format_localdatetime;
+    // JDBCColumnBuffer method
+    jmethodID _column_buffer_get_nulls;
+    jmethodID _column_buffer_get_data;
+    jmethodID _column_buffer_get_offsets;
     // _jdbc_bridge and _jdbc_scan_context are only used for cross-function passing,
     // they will be invalid after invoking _init_jdbc_scanner
     jobject _jdbc_bridge;
     jobject _jdbc_scan_context;
     jobject _jdbc_scanner;
 
+    // null map, offsets and bytes of the column being filled
+    std::vector<uint8_t> _null_buffer;
+    std::vector<jint> _offset_buffer;
+    std::vector<char> _bytes_buffer;
+
     RuntimeProfile* _runtime_profile = nullptr;
     JDBCScannerProfile _profile;
 
     static constexpr const char* JDBC_BRIDGE_CLASS_NAME = "com/starrocks/jdbcbridge/JDBCBridge";
     static constexpr const char* JDBC_SCAN_CONTEXT_CLASS_NAME = "com/starrocks/jdbcbridge/JDBCScanContext";
     static constexpr const char* JDBC_SCANNER_CLASS_NAME = "com/starrocks/jdbcbridge/JDBCScanner";
-    static constexpr const char* JDBC_UTIL_CLASS_NAME = "com/starrocks/jdbcbridge/JDBCUtil";
+    static constexpr const char* JDBC_COLUMN_BUFFER_CLASS_NAME = "com/starrocks/jdbcbridge/JDBCColumnBuffer";
 };
 } // namespace starrocks::vectorized
\ No newline at end of file
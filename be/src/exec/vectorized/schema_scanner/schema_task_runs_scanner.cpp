@@ -20,7 +20,8 @@ SchemaScanner::ColumnDesc SchemaTaskRunsScanner::_s_tbls_columns[] = {
         {"DEFINITION", TYPE_VARCHAR, sizeof(StringValue), false},
         {"EXPIRE_TIME", TYPE_DATETIME, sizeof(StringValue), true},
         {"ERROR_CODE", TYPE_BIGINT, sizeof(StringValue), true},
-        {"ERROR_MESSAGE", TYPE_VARCHAR, sizeof(StringValue), true}};
+        {"ERROR_MESSAGE", TYPE_VARCHAR, sizeof(StringValue), true},
+        {"PROGRESS", TYPE_VARCHAR, sizeof(StringValue), true}};
 
 SchemaTaskRunsScanner::SchemaTaskRunsScanner()
         : SchemaScanner(_s_tbls_columns, sizeof(_s_tbls_columns) / sizeof(SchemaScanner::ColumnDesc)) {}
@@ -187,6 +188,21 @@ Status SchemaTaskRunsScanner::fill_chunk(ChunkPtr* chunk) {
             }
             break;
         }
+        case 11: {
+            // PROGRESS
+            {
+                ColumnPtr column = (*chunk)->get_column_by_slot_id(11);
+                if (task_run_info.__isset.progress) {
+                    const std::string* str = &task_run_info.progress;
+                    Slice value(str->c_str(), str->length());
+                    fill_column_with_slot<TYPE_VARCHAR>(column.get(), (void*)&value);
+                } else {
+                    auto* nullable_column = down_cast<NullableColumn*>(column.get());
+                    nullable_column->append_nulls(1);
+                }
+            }
+            break;
+        }
         default:
             break;
         }
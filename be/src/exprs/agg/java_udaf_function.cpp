@@ -68,6 +68,20 @@ Status init_udaf_context(int64_t id, const std::string& url, const std::string&
     udaf_ctx->update_batch_call_stub = std::make_unique<AggBatchCallStub>(
             context, udaf_ctx->handle.handle(), std::move(update_stub_clazz), JavaGlobalRef(std::move(method)));
 
+    // optional updateBatch(State state, int rows, T1[] a, ...) for the rows of a single state
+    bool has_update_batch = false;
+    RETURN_IF_ERROR(analyzer->has_method(udaf_clazz, "updateBatch", &has_update_batch));
+    if (has_update_batch) {
+        bool is_batch = false;
+        RETURN_IF_ERROR(analyzer->is_batch_method(udaf_clazz, "updateBatch", &is_batch));
+        if (!is_batch) {
+            return Status::InternalError("updateBatch should be void updateBatch(State state, int rows, T1[] a, ...)");
+        }
+        udaf_ctx->update_batch = std::make_unique<JavaMethodDescriptor>();
+        udaf_ctx->update_batch->name = "updateBatch";
+        ASSIGN_OR_RETURN(udaf_ctx->update_batch->method, analyzer->get_method_object(udaf_clazz, "updateBatch"));
+    }
+
     RETURN_IF_ERROR(add_method("merge", udaf_ctx->udaf_class.clazz(), &udaf_ctx->merge));
     RETURN_IF_ERROR(add_method("finalize", udaf_ctx->udaf_class.clazz(), &udaf_ctx->finalize));
     RETURN_IF_ERROR(add_method("serialize", udaf_ctx->udaf_class.clazz(), &udaf_ctx->serialize));
@@ -6,15 +6,18 @@
 #include <memory>
 #include <numeric>
 #include <string>
+#include <unordered_map>
 #include <vector>
 
 #include "column/binary_column.h"
+#include "column/column_helper.h"
 #include "column/nullable_column.h"
 #include "column/vectorized_fwd.h"
 #include "exprs/agg/aggregate.h"
 #include "gutil/casts.h"
 #include "jni.h"
 #include "runtime/primitive_type.h"
+#include "simd/simd.h"
 #include "udf/java/java_data_converter.h"
 #include "udf/java/java_udf.h"
 #include "udf/udf.h"
@@ -171,6 +174,10 @@ public:
 
     void update_batch(FunctionContext* ctx, size_t batch_size, size_t state_offset, const Column** columns,
                       AggDataPtr* states) const override {
+        if (ctx->impl()->udaf_ctxs()->update_batch != nullptr &&
+            update_batch_by_arrays(ctx, batch_size, state_offset, columns, states)) {
+            return;
+        }
         auto& helper = JVMFunctionHelper::getInstance();
         std::vector<DirectByteBuffer> buffers;
         std::vector<jobject> args;
@@ -206,6 +213,10 @@ public:
 
     void update_batch_single_state(FunctionContext* ctx, size_t batch_size, const Column** columns,
                                    AggDataPtr __restrict state) const override {
+        if (ctx->impl()->udaf_ctxs()->update_batch != nullptr) {
+            update_batch_single_state_by_arrays(ctx, batch_size, columns, state);
+            return;
+        }
         auto& helper = JVMFunctionHelper::getInstance();
         auto* env = helper.getEnv();
         std::vector<jobject> args;
@@ -222,6 +233,117 @@ public:
         env->PopLocalFrame(nullptr);
     }
 
+    // call updateBatch(State state, int rows, T1[] a, ...) once with the primitive arrays of all rows,
+    // null could not be passed in primitive arrays, so the rows with any null argument are skipped
+    void update_batch_single_state_by_arrays(FunctionContext* ctx, size_t batch_size, const Column** columns,
+                                             AggDataPtr __restrict state) const {
+        int num_cols = ctx->get_num_args();
+        std::vector<const Column*> inputs(columns, columns + num_cols);
+        Columns holders;
+        Filter not_null;
+        for (int i = 0; i < num_cols; ++i) {
+            if (inputs[i]->only_null()) {
+                return;
+            }
+            if (inputs[i]->is_constant()) {
+                holders.emplace_back(
+                        ColumnHelper::unpack_and_duplicate_const_column(batch_size, inputs[i]->clone_shared()));
+                inputs[i] = holders.back().get();
+            }
+            if (inputs[i]->has_null()) {
+                const auto& null_data = down_cast<const NullableColumn*>(inputs[i])->immutable_null_column_data();
+                not_null.resize(batch_size, 1);
+                for (size_t j = 0; j < batch_size; ++j) {
+                    not_null[j] &= !null_data[j];
+                }
+            }
+        }
+        size_t num_rows = batch_size;
+        if (!not_null.empty()) {
+            num_rows = SIMD::count_nonzero(not_null.data(), not_null.size());
+            for (auto& input : inputs) {
+                holders.emplace_back(input->clone_shared());
+                holders.back()->filter(not_null);
+                input = holders.back().get();
+            }
+        }
+        if (num_rows == 0) {
+            return;
+        }
+
+        auto& helper = JVMFunctionHelper::getInstance();
+        auto* env = helper.getEnv();
+        std::vector<jobject> args;
+        std::vector<DirectByteBuffer> buffers;
+        env->PushLocalFrame(num_cols + 1);
+        {
+            JavaDataTypeConverter::convert_to_native_array(ctx, &buffers, inputs.data(), num_cols, num_rows, &args);
+            ctx->impl()->udaf_ctxs()->_func->update_batch(this->data(state).handle, num_rows, args.data(), num_cols);
+        }
+        env->PopLocalFrame(nullptr);
+    }
+
+    // group the rows by their states and call updateBatch once for each state. It only pays off when the
+    // states have many rows each, otherwise return false and the rows are updated by the boxed call stub
+    bool update_batch_by_arrays(FunctionContext* ctx, size_t batch_size, size_t state_offset, const Column** columns,
+                                AggDataPtr* states) const {
+        static constexpr size_t kMinRowsPerState = 16;
+        std::unordered_map<AggDataPtr, uint32_t> state_to_group;
+        std::vector<AggDataPtr> group_states;
+        std::vector<uint32_t> row_groups(batch_size);
+        for (size_t i = 0; i < batch_size; ++i) {
+            auto [iter, inserted] = state_to_group.emplace(states[i], group_states.size());
+            if (inserted) {
+                group_states.emplace_back(states[i]);
+                if (group_states.size() * kMinRowsPerState > batch_size) {
+                    return false;
+                }
+            }
+            row_groups[i] = iter->second;
+        }
+
+        int num_cols = ctx->get_num_args();
+        if (group_states.size() == 1) {
+            update_batch_single_state_by_arrays(ctx, batch_size, columns, group_states[0] + state_offset);
+            return true;
+        }
+        // bucket the row indexes by group, so that each group only copies its own rows out of the inputs
+        std::vector<uint32_t> group_offsets(group_states.size() + 1, 0);
+        for (size_t i = 0; i < batch_size; ++i) {
+            ++group_offsets[row_groups[i] + 1];
+        }
+        for (size_t group = 0; group < group_states.size(); ++group) {
+            group_offsets[group + 1] += group_offsets[group];
+        }
+        std::vector<uint32_t> row_indexes(batch_size);
+        {
+            std::vector<uint32_t> cursors(group_offsets.begin(), group_offsets.end() - 1);
+            for (size_t i = 0; i < batch_size; ++i) {
+                row_indexes[cursors[row_groups[i]]++] = i;
+            }
+        }
+
+        Columns group_columns(num_cols);
+        std::vector<const Column*> inputs(num_cols);
+        for (uint32_t group = 0; group < group_states.size(); ++group) {
+            uint32_t from = group_offsets[group];
+            uint32_t num_rows = group_offsets[group + 1] - from;
+            for (int i = 0; i < num_cols; ++i) {
+                // constant columns are unpacked to num_rows by update_batch_single_state_by_arrays
+                if (columns[i]->is_constant()) {
+                    inputs[i] = columns[i];
+                    continue;
+                }
+                group_columns[i] = columns[i]->clone_empty();
+                group_columns[i]->reserve(num_rows);
+                group_columns[i]->append_selective(*columns[i], row_indexes.data(), from, num_rows);
+                inputs[i] = group_columns[i].get();
+            }
+            update_batch_single_state_by_arrays(ctx, num_rows, inputs.data(), group_states[group] + state_offset);
+        }
+        return true;
+    }
+
     void merge_batch(FunctionContext* ctx, size_t batch_size, size_t state_offset, const Column* column,
                      AggDataPtr* states) const override {
         for (size_t i = 0; i < batch_size; ++i) {
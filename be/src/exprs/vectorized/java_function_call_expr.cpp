@@ -48,6 +48,9 @@ struct UDFFunctionCallHelper {
 
     // Now we don't support primitive type function
     ColumnPtr call(FunctionContext* ctx, Columns& columns, size_t size) {
+        if (fn_desc->batch_evaluate) {
+            return call_batch(ctx, columns, size);
+        }
         auto& helper = JVMFunctionHelper::getInstance();
         JNIEnv* env = helper.getEnv();
         std::vector<DirectByteBuffer> buffers;
@@ -81,6 +84,67 @@ struct UDFFunctionCallHelper {
         return result_cols;
     }
 
+    // call evaluate(int rows, T1[] a, ...) once with the primitive arrays of all rows,
+    // the result of a row is null if any argument is null
+    ColumnPtr call_batch(FunctionContext* ctx, Columns& columns, size_t size) {
+        auto& helper = JVMFunctionHelper::getInstance();
+        JNIEnv* env = helper.getEnv();
+        std::vector<DirectByteBuffer> buffers;
+        int num_cols = ctx->get_num_args();
+        std::vector<const Column*> input_cols;
+        std::vector<uint8_t> result_nulls;
+
+        for (auto& column : columns) {
+            if (column->only_null()) {
+                return ColumnHelper::create_const_null_column(size);
+            }
+            if (column->is_constant()) {
+                column = ColumnHelper::unpack_and_duplicate_const_column(size, column);
+            }
+            if (column->has_null()) {
+                const auto& null_data = down_cast<const NullableColumn*>(column.get())->immutable_null_column_data();
+                result_nulls.resize(size, 0);
+                for (size_t i = 0; i < size; ++i) {
+                    result_nulls[i] |= null_data[i];
+                }
+            }
+            input_cols.emplace_back(column.get());
+        }
+
+        // each input arguments as a local reference and the result as a ref
+        env->PushLocalFrame(num_cols + 2);
+        std::vector<jobject> input_col_objs;
+        JavaDataTypeConverter::convert_to_native_array(ctx, &buffers, input_cols.data(), num_cols, size,
+                                                       &input_col_objs);
+        std::vector<jvalue> jni_inputs(1 + num_cols);
+        jni_inputs[0].i = size;
+        for (int i = 0; i < num_cols; ++i) {
+            jni_inputs[1 + i].l = input_col_objs[i];
+        }
+        jobject res =
+                env->CallObjectMethodA(fn_desc->udf_handle.handle(), call_desc->get_method_id(), jni_inputs.data());
+        CHECK_UDF_CALL_EXCEPTION(env, ctx);
+
+        ColumnPtr result_col;
+        if (res == nullptr) {
+            result_col = ColumnHelper::create_const_null_column(size);
+        } else {
+            TypeDescriptor type_desc(call_desc->method_desc[0].type);
+            result_col = ColumnHelper::create_column(type_desc, true);
+            helper.get_result_from_primitive_array(ctx, type_desc.type, result_col.get(), res, size);
+            auto* nullable_col = down_cast<NullableColumn*>(result_col.get());
+            if (!result_nulls.empty()) {
+                auto& null_data = nullable_col->null_column_data();
+                for (size_t i = 0; i < size; ++i) {
+                    null_data[i] |= result_nulls[i];
+                }
+            }
+            nullable_col->update_has_null();
+        }
+        env->PopLocalFrame(nullptr);
+        return result_col;
+    }
+
     ColumnPtr get_boxed_result(FunctionContext* ctx, jobject result, size_t num_rows) {
         if (result == nullptr) {
             return ColumnHelper::create_const_null_column(num_rows);
@@ -182,7 +246,7 @@ Status JavaFunctionCallExpr::open(RuntimeState* state, ExprContext* context,
 
         ASSIGN_OR_RETURN(_func_desc->udf_class, _func_desc->udf_classloader->getClass(_fn.scalar_fn.symbol));
 
-        auto add_method = [&](const std::string& name, std::unique_ptr<JavaMethodDescriptor>* res) {
+        auto add_method = [&](const std::string& name, bool batch, std::unique_ptr<JavaMethodDescriptor>* res) {
             bool has_method = false;
             std::string method_name = name;
             std::string signature;
@@ -191,7 +255,15 @@ Status JavaFunctionCallExpr::open(RuntimeState* state, ExprContext* context,
             if (has_method) {
                 RETURN_IF_ERROR(
                         _func_desc->analyzer->get_signature(_func_desc->udf_class.clazz(), method_name, &signature));
-                RETURN_IF_ERROR(_func_desc->analyzer->get_method_desc(signature, &mtdesc));
+                if (batch) {
+                    // arguments of batch methods are arrays, whose element types are the same as the function
+                    mtdesc.emplace_back(MethodTypeDescriptor{_type.type, false});
+                    for (Expr* child : _children) {
+                        mtdesc.emplace_back(MethodTypeDescriptor{child->type().type, false});
+                    }
+                } else {
+                    RETURN_IF_ERROR(_func_desc->analyzer->get_method_desc(signature, &mtdesc));
+                }
                 *res = std::make_unique<JavaMethodDescriptor>();
                 (*res)->name = std::move(method_name);
                 (*res)->signature = std::move(signature);
@@ -203,27 +275,31 @@ Status JavaFunctionCallExpr::open(RuntimeState* state, ExprContext* context,
         };
 
         // Now we don't support prepare/close for UDF
-        // RETURN_IF_ERROR(add_method("prepare", &_func_desc->prepare));
-        // RETURN_IF_ERROR(add_method("method_close", &_func_desc->close));
-        RETURN_IF_ERROR(add_method("evaluate", &_func_desc->evaluate));
+        // RETURN_IF_ERROR(add_method("prepare", false, &_func_desc->prepare));
+        // RETURN_IF_ERROR(add_method("method_close", false, &_func_desc->close));
+        RETURN_IF_ERROR(_func_desc->analyzer->is_batch_method(_func_desc->udf_class.clazz(), "evaluate",
+                                                              &_func_desc->batch_evaluate));
+        RETURN_IF_ERROR(add_method("evaluate", _func_desc->batch_evaluate, &_func_desc->evaluate));
 
         // create UDF function instance
         ASSIGN_OR_RETURN(_func_desc->udf_handle, _func_desc->udf_class.newInstance());
-        // BatchEvaluateStub
-        auto* stub_clazz = BatchEvaluateStub::stub_clazz_name;
-        auto* stub_method_name = BatchEvaluateStub::batch_evaluate_method_name;
-        auto udf_clazz = _func_desc->udf_class.clazz();
-        auto update_method = _func_desc->evaluate->method.handle();
-
-        ASSIGN_OR_RETURN(auto update_stub_clazz,
-                         _func_desc->udf_classloader->genCallStub(stub_clazz, udf_clazz, update_method,
-                                                                  ClassLoader::BATCH_EVALUATE));
-        ASSIGN_OR_RETURN(auto method,
-                         _func_desc->analyzer->get_method_object(update_stub_clazz.clazz(), stub_method_name));
-        auto function_ctx = context->fn_context(_fn_context_index);
-        _func_desc->call_stub =
-                std::make_unique<BatchEvaluateStub>(function_ctx, _func_desc->udf_handle.handle(),
-                                                    std::move(update_stub_clazz), JavaGlobalRef(std::move(method)));
+        // batch method is called directly, BatchEvaluateStub is only used to call evaluate for each row
+        if (!_func_desc->batch_evaluate) {
+            auto* stub_clazz = BatchEvaluateStub::stub_clazz_name;
+            auto* stub_method_name = BatchEvaluateStub::batch_evaluate_method_name;
+            auto udf_clazz = _func_desc->udf_class.clazz();
+            auto update_method = _func_desc->evaluate->method.handle();
+
+            ASSIGN_OR_RETURN(auto update_stub_clazz,
+                             _func_desc->udf_classloader->genCallStub(stub_clazz, udf_clazz, update_method,
+                                                                      ClassLoader::BATCH_EVALUATE));
+            ASSIGN_OR_RETURN(auto method,
+                             _func_desc->analyzer->get_method_object(update_stub_clazz.clazz(), stub_method_name));
+            auto function_ctx = context->fn_context(_fn_context_index);
+            _func_desc->call_stub =
+                    std::make_unique<BatchEvaluateStub>(function_ctx, _func_desc->udf_handle.handle(),
+                                                        std::move(update_stub_clazz), JavaGlobalRef(std::move(method)));
+        }
 
         _call_helper = std::make_shared<UDFFunctionCallHelper>();
         _call_helper->fn_desc = _func_desc.get();
@@ -177,6 +177,10 @@ Status StreamLoadExecutor::commit_txn(StreamLoadContext* ctx) {
     request.commitInfos = std::move(ctx->commit_infos);
     request.__isset.commitInfos = true;
     request.__set_thrift_rpc_timeout_ms(config::txn_commit_rpc_timeout_ms);
+    auto backend_id = get_backend_id();
+    if (backend_id.has_value()) {
+        request.__set_backend_id(backend_id.value());
+    }
 
     // set attachment if has
     TTxnCommitAttachment attachment;
@@ -150,6 +150,20 @@ void PInternalServiceImplBase<T>::exec_plan_fragment(google::protobuf::RpcContro
     st.to_protobuf(response->mutable_status());
 }
 
+template <typename T>
+void PInternalServiceImplBase<T>::exec_batch_plan_fragments(google::protobuf::RpcController* cntl_base,
+                                                            const PExecBatchPlanFragmentsRequest* request,
+                                                            PExecBatchPlanFragmentsResult* response,
+                                                            google::protobuf::Closure* done) {
+    ClosureGuard closure_guard(done);
+    brpc::Controller* cntl = static_cast<brpc::Controller*>(cntl_base);
+    auto st = _exec_batch_plan_fragments(cntl);
+    if (!st.ok()) {
+        LOG(WARNING) << "exec batch plan fragments failed, errmsg=" << st.get_error_msg();
+    }
+    st.to_protobuf(response->mutable_status());
+}
+
 template <typename T>
 void PInternalServiceImplBase<T>::tablet_writer_add_batch(google::protobuf::RpcController* controller,
                                                           const PTabletWriterAddBatchRequest* request,
@@ -183,6 +197,63 @@ Status PInternalServiceImplBase<T>::_exec_plan_fragment(brpc::Controller* cntl)
         uint32_t len = ser_request.size();
         RETURN_IF_ERROR(deserialize_thrift_msg(buf, &len, TProtocolType::BINARY, &t_request));
     }
+    return _exec_plan_fragment_by_params(t_request);
+}
+
+template <typename T>
+Status PInternalServiceImplBase<T>::_exec_batch_plan_fragments(brpc::Controller* cntl) {
+    auto ser_request = cntl->request_attachment().to_string();
+    TExecBatchPlanFragmentsParams t_batch_request;
+    {
+        const uint8_t* buf = (const uint8_t*)ser_request.data();
+        uint32_t len = ser_request.size();
+        RETURN_IF_ERROR(deserialize_thrift_msg(buf, &len, TProtocolType::BINARY, &t_batch_request));
+    }
+    auto& unique_requests = t_batch_request.unique_param_per_instance;
+    if (!t_batch_request.__isset.common_param || unique_requests.empty()) {
+        return Status::InvalidArgument("empty batch of plan fragments");
+    }
+
+    // The common part is copied only once, and the fields of each instance are overwritten in place.
+    TExecPlanFragmentParams t_request = std::move(t_batch_request.common_param);
+    const bool common_has_pipeline_dop = t_request.__isset.pipeline_dop;
+    const int32_t common_pipeline_dop = t_request.pipeline_dop;
+    for (size_t i = 0; i < unique_requests.size(); ++i) {
+        auto& unique_request = unique_requests[i];
+        t_request.params.__set_fragment_instance_id(unique_request.params.fragment_instance_id);
+        t_request.params.__set_per_node_scan_ranges(std::move(unique_request.params.per_node_scan_ranges));
+        if (unique_request.params.__isset.node_to_per_driver_seq_scan_ranges) {
+            t_request.params.__set_node_to_per_driver_seq_scan_ranges(
+                    std::move(unique_request.params.node_to_per_driver_seq_scan_ranges));
+        } else {
+            t_request.params.node_to_per_driver_seq_scan_ranges.clear();
+            t_request.params.__isset.node_to_per_driver_seq_scan_ranges = false;
+        }
+        t_request.params.__set_sender_id(unique_request.params.sender_id);
+        t_request.__set_backend_num(unique_request.backend_num);
+        if (unique_request.__isset.pipeline_dop) {
+            t_request.__set_pipeline_dop(unique_request.pipeline_dop);
+        } else {
+            t_request.pipeline_dop = common_pipeline_dop;
+            t_request.__isset.pipeline_dop = common_has_pipeline_dop;
+        }
+
+        RETURN_IF_ERROR(_exec_plan_fragment_by_params(t_request));
+
+        // The descriptor table has been cached in the query context by the first pipeline instance,
+        // so the following instances needn't create it again.
+        bool is_pipeline = t_request.__isset.is_pipeline && t_request.is_pipeline;
+        if (i == 0 && is_pipeline && t_request.desc_tbl.__isset.is_cached && !t_request.desc_tbl.is_cached) {
+            TDescriptorTable cached_desc_tbl;
+            cached_desc_tbl.__set_is_cached(true);
+            t_request.__set_desc_tbl(cached_desc_tbl);
+        }
+    }
+    return Status::OK();
+}
+
+template <typename T>
+Status PInternalServiceImplBase<T>::_exec_plan_fragment_by_params(const TExecPlanFragmentParams& t_request) {
     bool is_pipeline = t_request.__isset.is_pipeline && t_request.is_pipeline;
     LOG(INFO) << "exec plan fragment, fragment_instance_id=" << print_id(t_request.params.fragment_instance_id)
               << ", coord=" << t_request.coord << ", backend=" << t_request.backend_num
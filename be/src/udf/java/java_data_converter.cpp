@@ -3,6 +3,7 @@
 #include "udf/java/java_data_converter.h"
 
 #include "column/binary_column.h"
+#include "column/column_helper.h"
 #include "column/const_column.h"
 #include "column/fixed_length_column.h"
 #include "column/nullable_column.h"
@@ -278,4 +279,21 @@ void JavaDataTypeConverter::convert_to_boxed_array(FunctionContext* ctx, std::ve
         res->emplace_back(arg);
     }
 }
-} // namespace starrocks::vectorized
\ No newline at end of file
+
+void JavaDataTypeConverter::convert_to_native_array(FunctionContext* ctx, std::vector<DirectByteBuffer>* buffers,
+                                                    const Column** columns, int num_cols, int num_rows,
+                                                    std::vector<jobject>* res) {
+    auto& helper = JVMFunctionHelper::getInstance();
+    ConvertDirectBufferVistor vistor(*buffers);
+    for (int i = 0; i < num_cols; ++i) {
+        // callers unpack const columns and handle the null rows, only data is converted
+        DCHECK(!columns[i]->only_null() && !columns[i]->is_constant());
+        const Column* data_column = ColumnHelper::get_data_column(columns[i]);
+        int buffers_offset = buffers->size();
+        data_column->accept(&vistor);
+        int buffers_sz = buffers->size() - buffers_offset;
+        res->emplace_back(helper.create_primitive_array(ctx->get_arg_type(i)->type, num_rows,
+                                                        &(*buffers)[buffers_offset], buffers_sz));
+    }
+}
+} // namespace starrocks::vectorized
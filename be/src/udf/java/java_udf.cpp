@@ -146,6 +146,10 @@ void JVMFunctionHelper::_init() {
                                               "([Ljava/lang/Object;Ljava/lang/reflect/Method;I)[I");
     _get_boxed_result =
             _env->GetStaticMethodID(_udf_helper_class, "getResultFromBoxedArray", "(IILjava/lang/Object;J)V");
+    _create_primitive_array = _env->GetStaticMethodID(_udf_helper_class, "createPrimitiveArray",
+                                                      "(II[Ljava/nio/ByteBuffer;)Ljava/lang/Object;");
+    _get_primitive_result =
+            _env->GetStaticMethodID(_udf_helper_class, "getResultFromPrimitiveArray", "(IILjava/lang/Object;J)V");
     _direct_buffer_class = JNI_FIND_CLASS("java/nio/ByteBuffer");
     _direct_buffer_clear = _env->GetMethodID(_direct_buffer_class, "clear", "()Ljava/nio/Buffer;");
     DCHECK(_batch_call);
@@ -153,6 +157,8 @@ void JVMFunctionHelper::_init() {
     DCHECK(_batch_update_state);
     DCHECK(_batch_update_if_not_null);
     DCHECK(_get_boxed_result);
+    DCHECK(_create_primitive_array);
+    DCHECK(_get_primitive_result);
     DCHECK(_direct_buffer_clear);
 
     _list_get = _env->GetMethodID(_list_class, "get", "(I)Ljava/lang/Object;");
@@ -310,6 +316,20 @@ jobject JVMFunctionHelper::create_boxed_array(int type, int num_rows, bool nulla
     return res;
 }
 
+jobject JVMFunctionHelper::create_primitive_array(int type, int num_rows, DirectByteBuffer* buffs, int sz) {
+    jobjectArray input_arr = _env->NewObjectArray(sz, _direct_buffer_class, nullptr);
+    LOCAL_REF_GUARD(input_arr);
+    for (int i = 0; i < sz; ++i) {
+        _env->SetObjectArrayElement(input_arr, i, buffs[i].handle());
+    }
+    jobject res = _env->CallStaticObjectMethod(_udf_helper_class, _create_primitive_array, type, num_rows, input_arr);
+    if (_env->ExceptionCheck()) {
+        LOG(WARNING) << "fail to create array " << this->dumpExceptionString(_env->ExceptionOccurred());
+        _env->ExceptionClear();
+    }
+    return res;
+}
+
 jobject JVMFunctionHelper::create_object_array(jobject o, int num_rows) {
     jobjectArray res_arr = _env->NewObjectArray(num_rows, _object_array_class, o);
     return res_arr;
@@ -371,6 +391,14 @@ void JVMFunctionHelper::get_result_from_boxed_array(FunctionContext* ctx, int ty
     CHECK_UDF_CALL_EXCEPTION(_env, ctx);
 }
 
+void JVMFunctionHelper::get_result_from_primitive_array(FunctionContext* ctx, int type, Column* col, jobject jcolumn,
+                                                        int rows) {
+    col->resize(rows);
+    _env->CallStaticVoidMethod(_udf_helper_class, _get_primitive_result, type, rows, jcolumn,
+                               reinterpret_cast<int64_t>(col));
+    CHECK_UDF_CALL_EXCEPTION(_env, ctx);
+}
+
 jobject JVMFunctionHelper::list_get(jobject obj, int idx) {
     return _env->CallObjectMethod(obj, _list_get, idx);
 }
@@ -670,6 +698,38 @@ Status ClassAnalyzer::get_signature(jclass clazz, const std::string& method, std
     return Status::OK();
 }
 
+Status ClassAnalyzer::is_batch_method(jclass clazz, const std::string& method, bool* batch) {
+    DCHECK(clazz != nullptr);
+    DCHECK(batch != nullptr);
+    auto& helper = JVMFunctionHelper::getInstance();
+    JNIEnv* env = helper.getEnv();
+    std::string anlyzer_clazz_name = JVMFunctionHelper::to_jni_class_name(CLASS_ANALYZER_NAME);
+    jclass class_analyzer = env->FindClass(anlyzer_clazz_name.c_str());
+    LOCAL_REF_GUARD(class_analyzer);
+
+    if (class_analyzer == nullptr) {
+        return Status::InternalError(fmt::format("ClassAnalyzer Not Found: {}", CLASS_ANALYZER_NAME));
+    }
+    jmethodID isBatchMethod =
+            env->GetStaticMethodID(class_analyzer, "isBatchMethod", "(Ljava/lang/String;Ljava/lang/Class;)Z");
+    if (isBatchMethod == nullptr) {
+        return Status::InternalError("couldn't found isBatchMethod method");
+    }
+
+    jstring method_name = helper.to_jstring(method.c_str());
+    LOCAL_REF_GUARD(method_name);
+
+    *batch = env->CallStaticBooleanMethod(class_analyzer, isBatchMethod, method_name, (jobject)clazz);
+
+    if (jthrowable jthr = env->ExceptionOccurred(); jthr) {
+        LOCAL_REF_GUARD(jthr);
+        std::string err = helper.dumpExceptionString(jthr);
+        env->ExceptionClear();
+        return Status::InternalError(fmt::format("call isBatchMethod failed: {} err:{}", method, err));
+    }
+    return Status::OK();
+}
+
 StatusOr<jobject> ClassAnalyzer::get_method_object(jclass clazz, const std::string& method) {
     auto& helper = JVMFunctionHelper::getInstance();
     JNIEnv* env = helper.getEnv();
@@ -842,6 +902,21 @@ void UDAFFunction::update(jvalue* val) {
     CHECK_UDF_CALL_EXCEPTION(env, _function_context);
 }
 
+void UDAFFunction::update_batch(int state, int num_rows, jobject* input, int cols) {
+    auto [env, helper] = JVMFunctionHelper::getInstanceWithEnv();
+    auto obj = helper.convert_handle_to_jobject(_function_context, state);
+    LOCAL_REF_GUARD(obj);
+    std::vector<jvalue> jni_inputs(2 + cols);
+    jni_inputs[0].l = obj;
+    jni_inputs[1].i = num_rows;
+    for (int i = 0; i < cols; ++i) {
+        jni_inputs[2 + i].l = input[i];
+    }
+    jmethodID update_batch = _ctx->update_batch->get_method_id();
+    env->CallVoidMethodA(_udaf_handle, update_batch, jni_inputs.data());
+    CHECK_UDF_CALL_EXCEPTION(env, _function_context);
+}
+
 void UDAFFunction::merge(int state, jobject buffer) {
     auto [env, helper] = JVMFunctionHelper::getInstanceWithEnv();
     auto obj = helper.convert_handle_to_jobject(_function_context, state);
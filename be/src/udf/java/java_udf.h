@@ -59,6 +59,8 @@ public:
     jobject create_boxed_array(int type, int num_rows, bool nullable, DirectByteBuffer* buffs, int sz);
     // create object array with the same elements
     jobject create_object_array(jobject o, int num_rows);
+    // convert column data to primitive array or StringColumnView, used by batch methods
+    jobject create_primitive_array(int type, int num_rows, DirectByteBuffer* buffs, int sz);
 
     // batch update single
     void batch_update_single(AggBatchCallStub* stub, int state, jobject* input, int cols, int rows);
@@ -88,6 +90,11 @@ public:
     // jcolumn: Integer[]/String[]
     void get_result_from_boxed_array(FunctionContext* ctx, int type, Column* col, jobject jcolumn, int rows);
 
+    // type: PrimitiveType
+    // col: result column, null map of primitive results is not filled
+    // jcolumn: int[]/String[]
+    void get_result_from_primitive_array(FunctionContext* ctx, int type, Column* col, jobject jcolumn, int rows);
+
     // convert int handle to jobject
     // return a local ref
     jobject convert_handle_to_jobject(FunctionContext* ctx, int state);
@@ -163,6 +170,8 @@ private:
     jmethodID _batch_call_no_args;
     jmethodID _int_batch_call;
     jmethodID _get_boxed_result;
+    jmethodID _create_primitive_array;
+    jmethodID _get_primitive_result;
     jclass _direct_buffer_class;
     jmethodID _direct_buffer_clear;
 
@@ -408,6 +417,8 @@ public:
     Status get_method_desc(const std::string& sign, std::vector<MethodTypeDescriptor>* desc);
     StatusOr<jobject> get_method_object(jclass clazz, const std::string& method_name);
     Status get_udaf_method_desc(const std::string& sign, std::vector<MethodTypeDescriptor>* desc);
+    // whether the method takes primitive arrays of a batch of rows, see UDFClassAnalyzer.isBatchMethod
+    Status is_batch_method(jclass clazz, const std::string& method, bool* batch);
 };
 
 struct JavaUDFContext {
@@ -417,6 +428,8 @@ struct JavaUDFContext {
     std::unique_ptr<ClassLoader> udf_classloader;
     std::unique_ptr<ClassAnalyzer> analyzer;
     std::unique_ptr<BatchEvaluateStub> call_stub;
+    // evaluate is a batch method, called directly without call stub
+    bool batch_evaluate = false;
 
     JVMClass udf_class = nullptr;
     JavaGlobalRef udf_handle = nullptr;
@@ -440,6 +453,8 @@ public:
     void destroy(int state);
     // UDAF Update Function
     void update(jvalue* val);
+    // UDAF updateBatch, input: primitive arrays of num_rows rows
+    void update_batch(int state, int num_rows, jobject* input, int cols);
     // UDAF merge
     void merge(int state, jobject buffer);
     void serialize(int state, jobject buffer);
@@ -472,6 +487,8 @@ struct JavaUDAFContext {
     std::unique_ptr<UDAFStateList> states;
     std::unique_ptr<JavaMethodDescriptor> update;
     std::unique_ptr<AggBatchCallStub> update_batch_call_stub;
+    // optional batch method, used instead of update for the rows of a single state
+    std::unique_ptr<JavaMethodDescriptor> update_batch;
     std::unique_ptr<JavaMethodDescriptor> merge;
     std::unique_ptr<JavaMethodDescriptor> finalize;
     std::unique_ptr<JavaMethodDescriptor> serialize;
@@ -684,6 +684,7 @@ public class Alter {
                             "table " + olapTable.getName() + " is colocate table, cannot change replicationNum");
                 }
                 partitionInfo.setReplicationNum(partition.getId(), newReplicationNum);
+                GlobalStateMgr.getCurrentState().getTabletChecker().markPartitionDirty(partition);
                 // update default replication num if this table is unpartitioned table
                 if (partitionInfo.getType() == PartitionType.UNPARTITIONED) {
                     olapTable.setReplicationNum(newReplicationNum);
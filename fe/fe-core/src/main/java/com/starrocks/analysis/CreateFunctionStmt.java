@@ -73,6 +73,7 @@ public class CreateFunctionStmt extends DdlStmt {
     public static final String DESTROY_METHOD_NAME = "destroy";
     public static final String SERIALIZE_METHOD_NAME = "serialize";
     public static final String UPDATE_METHOD_NAME = "update";
+    public static final String UPDATE_BATCH_METHOD_NAME = "updateBatch";
     public static final String MERGE_METHOD_NAME = "merge";
     public static final String FINALIZE_METHOD_NAME = "finalize";
     public static final String STATE_CLASS_NAME = "State";
@@ -110,6 +111,21 @@ public class CreateFunctionStmt extends DdlStmt {
                     .put(PrimitiveType.VARCHAR, String.class)
                     .build();
 
+    // column types of batch methods, string arguments are passed as StringColumnView
+    private static final String STRING_COLUMN_VIEW_CLASS_NAME = "com.starrocks.udf.StringColumnView";
+    private static final ImmutableMap<PrimitiveType, Class> PrimitiveTypeToBatchJavaClassType =
+            new ImmutableMap.Builder<PrimitiveType, Class>()
+                    .put(PrimitiveType.BOOLEAN, boolean[].class)
+                    .put(PrimitiveType.TINYINT, byte[].class)
+                    .put(PrimitiveType.SMALLINT, short[].class)
+                    .put(PrimitiveType.INT, int[].class)
+                    .put(PrimitiveType.FLOAT, float[].class)
+                    .put(PrimitiveType.DOUBLE, double[].class)
+                    .put(PrimitiveType.BIGINT, long[].class)
+                    .put(PrimitiveType.CHAR, String[].class)
+                    .put(PrimitiveType.VARCHAR, String[].class)
+                    .build();
+
     private static class UDFInternalClass {
         public Class clazz = null;
         public Map<String, Method> methods = null;
@@ -215,6 +231,26 @@ public class CreateFunctionStmt extends DdlStmt {
                                 cls.getCanonicalName()));
             }
         }
+
+        private void checkBatchUdfType(Method method, Type expType, Class ptype, String pname, boolean isReturn)
+                throws AnalysisException {
+            Class cls = expType instanceof ScalarType ?
+                    PrimitiveTypeToBatchJavaClassType.get(((ScalarType) expType).getPrimitiveType()) : null;
+            if (cls == null) {
+                throw new AnalysisException(
+                        String.format("UDF class '%s' batch method '%s' does not support type '%s'",
+                                clazz.getCanonicalName(), method.getName(), expType));
+            }
+            // StringColumnView may be loaded by the class loader of the jar, so compare the names
+            String expName = (cls == String[].class && !isReturn) ? STRING_COLUMN_VIEW_CLASS_NAME :
+                    cls.getCanonicalName();
+            if (!expName.equals(ptype.getCanonicalName())) {
+                throw new AnalysisException(
+                        String.format("UDF class '%s' method '%s' parameter %s[%s] type does not match %s",
+                                clazz.getCanonicalName(), method.getName(), pname, ptype.getCanonicalName(),
+                                expName));
+            }
+        }
     }
 
     private UDFInternalClass mainClass;
@@ -360,9 +396,19 @@ public class CreateFunctionStmt extends DdlStmt {
 
     private void checkStarrocksJarUdfClass() throws AnalysisException {
         {
-            // RETURN_TYPE evaluate(...)
             Method method = mainClass.getMethod(EVAL_METHOD_NAME, true);
             mainClass.checkMethodNonStaticAndPublic(method);
+            if (isBatchEvaluate(method)) {
+                // RETURN_TYPE[] evaluate(int rows, ARG_TYPE[] ...)
+                mainClass.checkBatchUdfType(method, returnType.getType(), method.getReturnType(), RETURN_FIELD_NAME,
+                        true);
+                for (int i = 0; i < argsDef.getArgTypes().length; i++) {
+                    Parameter p = method.getParameters()[i + 1];
+                    mainClass.checkBatchUdfType(method, argsDef.getArgTypes()[i], p.getType(), p.getName(), false);
+                }
+                return;
+            }
+            // RETURN_TYPE evaluate(...)
             mainClass.checkArgumentCount(method, argsDef.getArgTypes().length);
             mainClass.checkReturnUdfType(method, returnType.getType());
             for (int i = 0; i < method.getParameters().length; i++) {
@@ -372,6 +418,13 @@ public class CreateFunctionStmt extends DdlStmt {
         }
     }
 
+    // The columns of batch methods are passed as arrays, the first parameter is the number of rows
+    private boolean isBatchEvaluate(Method method) {
+        Parameter[] parameters = method.getParameters();
+        return parameters.length == argsDef.getArgTypes().length + 1 && parameters[0].getType() == int.class &&
+                method.getReturnType().isArray();
+    }
+
     private void analyzeStarrocksJarUdf() throws AnalysisException {
         checkStarrocksJarUdfClass();
         function = ScalarFunction.createUdf(
@@ -427,6 +480,21 @@ public class CreateFunctionStmt extends DdlStmt {
                 mainClass.checkParamUdfType(method, argsDef.getArgTypes()[i], method.getParameters()[i + 1]);
             }
         }
+        {
+            // optional void updateBatch(State, int rows, ARG_TYPE[] ...)
+            Method method = mainClass.getMethod(UPDATE_BATCH_METHOD_NAME, false);
+            if (method != null) {
+                mainClass.checkMethodNonStaticAndPublic(method);
+                mainClass.checkReturnJavaType(method, void.class);
+                mainClass.checkArgumentCount(method, argsDef.getArgTypes().length + 2);
+                mainClass.checkParamJavaType(method, udafStateClass.clazz, method.getParameters()[0]);
+                mainClass.checkParamJavaType(method, int.class, method.getParameters()[1]);
+                for (int i = 0; i < argsDef.getArgTypes().length; i++) {
+                    Parameter p = method.getParameters()[i + 2];
+                    mainClass.checkBatchUdfType(method, argsDef.getArgTypes()[i], p.getType(), p.getName(), false);
+                }
+            }
+        }
         {
             // void serialize(State, java.nio.ByteBuffer)
             Method method = mainClass.getMethod(SERIALIZE_METHOD_NAME, true);
@@ -40,7 +40,7 @@ public class ShowRestoreStmt extends ShowStmt {
             .add("AllowLoad").add("ReplicationNum")
             .add("RestoreObjs").add("CreateTime").add("MetaPreparedTime").add("SnapshotFinishedTime")
             .add("DownloadFinishedTime").add("FinishedTime").add("UnfinishedTasks").add("Progress")
-            .add("TaskErrMsg").add("Status").add("Timeout")
+            .add("TaskErrMsg").add("Status").add("Timeout").add("PipelineProgress")
             .build();
 
     private String dbName;
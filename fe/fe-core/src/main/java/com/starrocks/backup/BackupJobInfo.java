@@ -25,6 +25,7 @@ import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.starrocks.backup.RestoreFileMapping.IdChain;
 import com.starrocks.catalog.MaterializedIndex;
 import com.starrocks.catalog.MaterializedIndex.IndexExtState;
@@ -79,6 +80,11 @@ public class BackupJobInfo implements Writable {
     // origin -> alias
     public Map<String, String> tblAlias = Maps.newHashMap();
 
+    // The state of a pipelined restore job. They are saved in the json only if restorePipelined is true,
+    // and are ignored by the earlier versions, so the restore job can still be read after downgrade.
+    public boolean restorePipelined = false;
+    public Set<Long> restoreVisibleTblIds = Sets.newHashSet();
+
     public boolean containsTbl(String tblName) {
         return tables.containsKey(tblName);
     }
@@ -344,6 +350,14 @@ public class BackupJobInfo implements Writable {
             jobInfo.starrocksMetaVersion = FeConstants.starrocks_meta_version;
         }
 
+        jobInfo.restorePipelined = root.optBoolean("restore_pipelined", false);
+        JSONArray visibleTblIds = root.optJSONArray("restore_visible_table_ids");
+        if (visibleTblIds != null) {
+            for (int i = 0; i < visibleTblIds.length(); i++) {
+                jobInfo.restoreVisibleTblIds.add(visibleTblIds.getLong(i));
+            }
+        }
+
         JSONObject backupObjs = root.getJSONObject("backup_objects");
         String[] tblNames = JSONObject.getNames(backupObjs);
         for (String tblName : tblNames) {
@@ -442,6 +456,10 @@ public class BackupJobInfo implements Writable {
         root.put("backup_objects", backupObj);
         root.put("meta_version", FeConstants.meta_version);
         root.put("starrocks_meta_version", FeConstants.starrocks_meta_version);
+        if (verbose && restorePipelined) {
+            root.put("restore_pipelined", true);
+            root.put("restore_visible_table_ids", new JSONArray(restoreVisibleTblIds));
+        }
 
         for (BackupTableInfo tblInfo : tables.values()) {
             JSONObject tbl = new JSONObject();
@@ -22,6 +22,7 @@
 package com.starrocks.backup;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.starrocks.backup.Status.ErrCode;
 import com.starrocks.catalog.FsBroker;
@@ -29,6 +30,7 @@ import com.starrocks.common.AnalysisException;
 import com.starrocks.common.ClientPool;
 import com.starrocks.common.Config;
 import com.starrocks.common.Pair;
+import com.starrocks.common.ThreadPoolManager;
 import com.starrocks.common.io.Text;
 import com.starrocks.common.io.Writable;
 import com.starrocks.common.util.BrokerUtil;
@@ -71,19 +73,29 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.io.UnsupportedEncodingException;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.FileVisitOption;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
 
 public class BlobStorage implements Writable {
     private static final Logger LOG = LogManager.getLogger(BlobStorage.class);
 
+    // the max bytes of a pread or pwrite request to broker
+    private static final long TRANSFER_BUFFER_SIZE = 1024 * 1024L;
+    private static final int DOWNLOAD_PART_RETRY_TIMES = 3;
+
     private String brokerName;
     private Map<String, String> properties = Maps.newHashMap();
 
@@ -108,6 +120,11 @@ public class BlobStorage implements Writable {
         LOG.debug("download from {} to {}, file size: {}.",
                 remoteFilePath, localFilePath, fileSize);
 
+        if (Config.backup_download_concurrency > 1 && Config.backup_download_part_size > 0
+                && fileSize > Config.backup_download_part_size) {
+            return downloadByParts(remoteFilePath, localFilePath, fileSize);
+        }
+
         long start = System.currentTimeMillis();
 
         // 1. get a proper broker
@@ -143,33 +160,17 @@ public class BlobStorage implements Writable {
         }
         Preconditions.checkNotNull(fd);
 
-        // 3. delete local file if exist
+        // 3. delete local file if exist and create local file
         File localFile = new File(localFilePath);
-        if (localFile.exists()) {
-            try {
-                Files.walk(Paths.get(localFilePath),
-                                FileVisitOption.FOLLOW_LINKS).sorted(Comparator.reverseOrder()).map(Path::toFile)
-                        .forEach(File::delete);
-            } catch (IOException e) {
-                return new Status(ErrCode.COMMON_ERROR, "failed to delete exist local file: " + localFilePath);
-            }
-        }
-
-        // 4. create local file
-        Status status = Status.OK;
-        try {
-            if (!localFile.createNewFile()) {
-                return new Status(ErrCode.COMMON_ERROR, "failed to create local file: " + localFilePath);
-            }
-        } catch (IOException e) {
-            return new Status(ErrCode.COMMON_ERROR, "failed to create local file: "
-                    + localFilePath + ", msg: " + e.getMessage());
+        Status status = createLocalFile(localFile);
+        if (!status.ok()) {
+            return status;
         }
 
-        // 5. read remote file with broker and write to local
+        // 4. read remote file with broker and write to local
         String lastErrMsg = null;
         try (BufferedOutputStream out = new BufferedOutputStream(new FileOutputStream(localFile))) {
-            final long bufSize = 1024 * 1024; // 1MB
+            final long bufSize = TRANSFER_BUFFER_SIZE;
             long leftSize = fileSize;
             long readOffset = 0;
             while (leftSize > 0) {
@@ -276,6 +277,203 @@ public class BlobStorage implements Writable {
         return status;
     }
 
+    private Status createLocalFile(File localFile) {
+        if (localFile.exists()) {
+            try {
+                Files.walk(localFile.toPath(),
+                                FileVisitOption.FOLLOW_LINKS).sorted(Comparator.reverseOrder()).map(Path::toFile)
+                        .forEach(File::delete);
+            } catch (IOException e) {
+                return new Status(ErrCode.COMMON_ERROR, "failed to delete exist local file: " + localFile);
+            }
+        }
+
+        try {
+            if (!localFile.createNewFile()) {
+                return new Status(ErrCode.COMMON_ERROR, "failed to create local file: " + localFile);
+            }
+        } catch (IOException e) {
+            return new Status(ErrCode.COMMON_ERROR, "failed to create local file: "
+                    + localFile + ", msg: " + e.getMessage());
+        }
+        return Status.OK;
+    }
+
+    /*
+     * Download the remote file by parts of Config.backup_download_part_size bytes, and at most
+     * Config.backup_download_concurrency parts are downloaded concurrently. Each part is read by its own broker
+     * reader and written to the same range of the local file, the written range is verified by the checksum of
+     * the data read, and a failed part is retried alone.
+     */
+    private Status downloadByParts(String remoteFilePath, String localFilePath, long fileSize) {
+        long start = System.currentTimeMillis();
+        File localFile = new File(localFilePath);
+        Status status = createLocalFile(localFile);
+        if (!status.ok()) {
+            return status;
+        }
+
+        long partSize = Config.backup_download_part_size;
+        int partNum = (int) ((fileSize + partSize - 1) / partSize);
+        int concurrency = Math.min(partNum, Config.backup_download_concurrency);
+        ExecutorService executor = ThreadPoolManager.newDaemonFixedThreadPool(concurrency, partNum,
+                "blob-storage-download", false);
+        AtomicBoolean failed = new AtomicBoolean(false);
+        try (RandomAccessFile file = new RandomAccessFile(localFile, "rw")) {
+            file.setLength(fileSize);
+            FileChannel channel = file.getChannel();
+            List<Future<Status>> futures = Lists.newArrayList();
+            for (int i = 0; i < partNum; i++) {
+                long offset = i * partSize;
+                long length = Math.min(partSize, fileSize - offset);
+                futures.add(executor.submit(() -> {
+                    if (failed.get()) {
+                        return new Status(ErrCode.COMMON_ERROR, "cancelled");
+                    }
+                    Status partStatus = downloadPartWithRetry(remoteFilePath, channel, offset, length, fileSize);
+                    if (!partStatus.ok()) {
+                        failed.set(true);
+                    }
+                    return partStatus;
+                }));
+            }
+            for (Future<Status> future : futures) {
+                Status partStatus = future.get();
+                // return the first error, the others may be cancelled because of it
+                if (!partStatus.ok() && status.ok()) {
+                    status = partStatus;
+                }
+            }
+        } catch (IOException | ExecutionException e) {
+            status = new Status(ErrCode.COMMON_ERROR, "failed to download " + remoteFilePath + " to "
+                    + localFilePath + ", msg: " + e.getMessage());
+        } catch (InterruptedException e) {
+            status = new Status(ErrCode.COMMON_ERROR, "interrupted when downloading " + remoteFilePath);
+        } finally {
+            failed.set(true);
+            executor.shutdown();
+        }
+
+        LOG.info("finished to download from {} to {} with size: {} by {} parts, concurrency: {}. cost {} ms",
+                remoteFilePath, localFilePath, fileSize, partNum, concurrency, System.currentTimeMillis() - start);
+        return status;
+    }
+
+    private Status downloadPartWithRetry(String remoteFilePath, FileChannel channel, long offset, long length,
+                                         long fileSize) {
+        Status status = Status.OK;
+        for (int i = 0; i < DOWNLOAD_PART_RETRY_TIMES; i++) {
+            status = downloadPart(remoteFilePath, channel, offset, length, fileSize);
+            if (status.ok()) {
+                return status;
+            }
+            LOG.warn("failed to download part [{}, {}) of {}, tried {} times. {}", offset, offset + length,
+                    remoteFilePath, i + 1, status.getErrMsg());
+        }
+        return status;
+    }
+
+    // download [offset, offset + length) of the remote file to the same range of the local file
+    private Status downloadPart(String remoteFilePath, FileChannel channel, long offset, long length, long fileSize) {
+        Pair<TFileBrokerService.Client, TNetworkAddress> pair = new Pair<>(null, null);
+        Status status = getBroker(pair);
+        if (!status.ok()) {
+            return status;
+        }
+        TFileBrokerService.Client client = pair.first;
+        TNetworkAddress address = pair.second;
+
+        TBrokerFD fd = null;
+        try {
+            TBrokerOpenReaderRequest req = new TBrokerOpenReaderRequest(TBrokerVersion.VERSION_ONE, remoteFilePath,
+                    offset, clientId(), properties);
+            TBrokerOpenReaderResponse rep = client.openReader(req);
+            TBrokerOperationStatus opst = rep.getOpStatus();
+            if (opst.getStatusCode() != TBrokerOperationStatusCode.OK) {
+                ClientPool.brokerPool.returnObject(address, client);
+                return new Status(ErrCode.COMMON_ERROR,
+                        "failed to open reader on broker " + BrokerUtil.printBroker(brokerName, address)
+                                + " for file: " + remoteFilePath + ". msg: " + opst.getMessage());
+            }
+            fd = rep.getFd();
+        } catch (TException e) {
+            ClientPool.brokerPool.invalidateObject(address, client);
+            return new Status(ErrCode.BAD_CONNECTION,
+                    "failed to open reader on broker " + BrokerUtil.printBroker(brokerName, address)
+                            + " for file: " + remoteFilePath + ". msg: " + e.getMessage());
+        }
+
+        CRC32 crc32 = new CRC32();
+        try {
+            long readOffset = offset;
+            long end = offset + length;
+            while (readOffset < end) {
+                long readLen = Math.min(end - readOffset, TRANSFER_BUFFER_SIZE);
+                TBrokerReadResponse rep = client.pread(new TBrokerPReadRequest(TBrokerVersion.VERSION_ONE, fd,
+                        readOffset, readLen));
+                if (rep.getOpStatus().getStatusCode() != TBrokerOperationStatusCode.OK) {
+                    status = new Status(ErrCode.COMMON_ERROR, String.format("failed to read via broker %s. "
+                                    + "current read offset: %d, read length: %d, file size: %d, file: %s, "
+                                    + "err code: %d, msg: %s", BrokerUtil.printBroker(brokerName, address),
+                            readOffset, readLen, fileSize, remoteFilePath,
+                            rep.getOpStatus().getStatusCode().getValue(), rep.getOpStatus().getMessage()));
+                    break;
+                }
+                byte[] data = rep.getData();
+                if (data.length == 0 || data.length > readLen) {
+                    status = new Status(ErrCode.COMMON_ERROR, String.format("failed to read via broker %s. "
+                                    + "current read offset: %d, read length: %d, actual read length: %d, "
+                                    + "file size: %d, file: %s", BrokerUtil.printBroker(brokerName, address),
+                            readOffset, readLen, data.length, fileSize, remoteFilePath));
+                    break;
+                }
+                crc32.update(data, 0, data.length);
+                ByteBuffer buffer = ByteBuffer.wrap(data);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer, readOffset + buffer.position());
+                }
+                readOffset += data.length;
+            }
+            if (status.ok() && checksum(channel, offset, length) != crc32.getValue()) {
+                status = new Status(ErrCode.BAD_FILE, String.format("checksum of part [%d, %d) of local file "
+                        + "does not equal to the data read from %s", offset, end, remoteFilePath));
+            }
+        } catch (TException e) {
+            status = new Status(ErrCode.BAD_CONNECTION, String.format("failed to read via broker %s. "
+                            + "part offset: %d, part length: %d, file size: %d, file: %s. msg: %s",
+                    BrokerUtil.printBroker(brokerName, address), offset, length, fileSize, remoteFilePath,
+                    e.getMessage()));
+        } catch (IOException e) {
+            status = new Status(ErrCode.COMMON_ERROR, "failed to write local file, msg: " + e.getMessage());
+        } finally {
+            Status closeStatus = closeReader(client, address, fd);
+            if (closeStatus.ok() && status.getErrCode() != ErrCode.BAD_CONNECTION) {
+                ClientPool.brokerPool.returnObject(address, client);
+            } else {
+                ClientPool.brokerPool.invalidateObject(address, client);
+            }
+        }
+        return status;
+    }
+
+    private static long checksum(FileChannel channel, long offset, long length) throws IOException {
+        CRC32 crc32 = new CRC32();
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(length, TRANSFER_BUFFER_SIZE));
+        long position = offset;
+        long end = offset + length;
+        while (position < end) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), end - position));
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                break;
+            }
+            crc32.update(buffer.array(), 0, read);
+            position += read;
+        }
+        return crc32.getValue();
+    }
+
     // directly upload the content to remote file
     public Status directUpload(String content, String remoteFile) {
         Status status = Status.OK;
@@ -351,7 +549,7 @@ public class BlobStorage implements Writable {
         // 3. read local file and write to remote with broker
         File localFile = new File(localPath);
         long fileLength = localFile.length();
-        byte[] readBuf = new byte[1024];
+        byte[] readBuf = new byte[(int) TRANSFER_BUFFER_SIZE];
         try (BufferedInputStream in = new BufferedInputStream(new FileInputStream(localFile))) {
             // save the last err msg
             String lastErrMsg = null;
@@ -30,7 +30,7 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Range;
-import com.google.common.collect.Table.Cell;
+import com.google.common.collect.Sets;
 import com.starrocks.backup.BackupJobInfo.BackupIndexInfo;
 import com.starrocks.backup.BackupJobInfo.BackupPartitionInfo;
 import com.starrocks.backup.BackupJobInfo.BackupTableInfo;
@@ -154,6 +154,13 @@ public class RestoreJob extends AbstractJob {
     private int metaVersion = -1;
     private int starrocksMetaVersion = -1;
 
+    // restore the partitions in pipeline after snapshots are made, see startPipeline()
+    private boolean pipelined = false;
+    // the restored tables which have been made visible by the pipeline before the job finished
+    private Set<Long> visibleTblIds = Sets.newHashSet();
+    // not persisted, the pipeline is created again after FE restarts
+    private RestorePipeline pipeline;
+
     public RestoreJob() {
         super(JobType.RESTORE);
     }
@@ -170,6 +177,7 @@ public class RestoreJob extends AbstractJob {
         this.state = RestoreJobState.PENDING;
         this.metaVersion = metaVersion;
         this.starrocksMetaVersion = starrocksMetaVersion;
+        this.pipelined = Config.enable_restore_pipeline;
     }
 
     public RestoreJobState getState() {
@@ -184,6 +192,14 @@ public class RestoreJob extends AbstractJob {
         return metaVersion;
     }
 
+    public boolean isPipelined() {
+        return pipelined;
+    }
+
+    public Set<Long> getVisibleTblIds() {
+        return visibleTblIds;
+    }
+
     public synchronized boolean finishTabletSnapshotTask(SnapshotTask task, TFinishTaskRequest request) {
         if (checkTaskStatus(task, task.getJobId(), request)) {
             return false;
@@ -237,6 +253,9 @@ public class RestoreJob extends AbstractJob {
         }
 
         taskErrMsg.remove(task.getSignature());
+        if (pipeline != null) {
+            pipeline.finishTask(task.getSignature());
+        }
         return true;
     }
 
@@ -253,6 +272,9 @@ public class RestoreJob extends AbstractJob {
         }
 
         taskErrMsg.remove(task.getSignature());
+        if (pipeline != null) {
+            pipeline.finishTask(task.getSignature());
+        }
         return true;
     }
 
@@ -274,6 +296,9 @@ public class RestoreJob extends AbstractJob {
             case DOWNLOAD:
                 replayCheckAndPrepareMeta();
                 break;
+            case DOWNLOADING:
+                replayPipeline();
+                break;
             case FINISHED:
                 replayWaitingAllTabletsCommitted();
                 break;
@@ -332,10 +357,18 @@ public class RestoreJob extends AbstractJob {
                     waitingAllSnapshotsFinished();
                     break;
                 case DOWNLOAD:
-                    downloadSnapshots();
+                    if (pipelined) {
+                        startPipeline();
+                    } else {
+                        downloadSnapshots();
+                    }
                     break;
                 case DOWNLOADING:
-                    waitingAllDownloadFinished();
+                    if (pipelined) {
+                        runPipeline();
+                    } else {
+                        waitingAllDownloadFinished();
+                    }
                     break;
                 case COMMIT:
                     commit();
@@ -370,6 +403,10 @@ public class RestoreJob extends AbstractJob {
         db.readLock();
         try {
             for (IdChain idChain : fileMapping.getMapping().keySet()) {
+                if (visibleTblIds.contains(idChain.getTblId())) {
+                    // the table is restored and visible, it is no longer protected by the restore job
+                    continue;
+                }
                 OlapTable tbl = (OlapTable) db.getTable(idChain.getTblId());
                 if (tbl == null) {
                     status = new Status(ErrCode.NOT_FOUND, "table " + idChain.getTblId() + " has been dropped");
@@ -1037,63 +1074,10 @@ public class RestoreJob extends AbstractJob {
                         int currentBatchTaskNum = (batch == batchNum - 1) ? totalNum - index : taskNumPerBatch;
                         for (int j = 0; j < currentBatchTaskNum; j++) {
                             SnapshotInfo info = beSnapshotInfos.get(index++);
-                            Table tbl = db.getTable(info.getTblId());
-                            if (tbl == null) {
-                                status = new Status(ErrCode.NOT_FOUND, "restored table "
-                                        + info.getTabletId() + " does not exist");
-                                return;
-                            }
-                            OlapTable olapTbl = (OlapTable) tbl;
-
-                            Partition part = olapTbl.getPartition(info.getPartitionId());
-                            if (part == null) {
-                                status = new Status(ErrCode.NOT_FOUND, "partition "
-                                        + info.getPartitionId() + " does not exist in restored table: "
-                                        + tbl.getName());
-                                return;
-                            }
-
-                            MaterializedIndex idx = part.getIndex(info.getIndexId());
-                            if (idx == null) {
-                                status = new Status(ErrCode.NOT_FOUND,
-                                        "index " + info.getIndexId() + " does not exist in partion " + part.getName()
-                                                + "of restored table " + tbl.getName());
-                                return;
-                            }
-
-                            LocalTablet tablet = (LocalTablet) idx.getTablet(info.getTabletId());
-                            if (tablet == null) {
-                                status = new Status(ErrCode.NOT_FOUND,
-                                        "tablet " + info.getTabletId() + " does not exist in restored table "
-                                                + tbl.getName());
-                                return;
-                            }
-
-                            Replica replica = tablet.getReplicaByBackendId(info.getBeId());
-                            if (replica == null) {
-                                status = new Status(ErrCode.NOT_FOUND,
-                                        "replica in be " + info.getBeId() + " of tablet "
-                                                + tablet.getId() + " does not exist in restored table "
-                                                + tbl.getName());
-                                return;
-                            }
-
-                            IdChain catalogIds = new IdChain(tbl.getId(), part.getId(), idx.getId(),
-                                    info.getTabletId(), replica.getId());
-                            IdChain repoIds = fileMapping.get(catalogIds);
-                            if (repoIds == null) {
-                                status = new Status(ErrCode.NOT_FOUND,
-                                        "failed to get id mapping of globalStateMgr ids: " + catalogIds.toString());
-                                LOG.info("current file mapping: {}", fileMapping);
+                            String src = getDownloadSrcPath(db, info);
+                            if (src == null) {
                                 return;
                             }
-
-                            String repoTabletPath = jobInfo.getFilePath(repoIds);
-
-                            // eg:
-                            // bos://location/__starrocks_repository_my_repo/_ss_my_ss/_ss_content/__db_10000/
-                            // __tbl_10001/__part_10002/_idx_10001/__10003
-                            String src = repo.getRepoPath(label, repoTabletPath);
                             SnapshotInfo snapshotInfo = snapshotInfos.get(info.getTabletId(), info.getBeId());
                             Preconditions.checkNotNull(snapshotInfo, info.getTabletId() + "-" + info.getBeId());
                             // download to previous exist snapshot dir
@@ -1126,6 +1110,272 @@ public class RestoreJob extends AbstractJob {
         return;
     }
 
+    /**
+     * Return the repository path of the snapshot to download,
+     * or return null and set the status if the restored replica of the snapshot does not exist.
+     */
+    private String getDownloadSrcPath(Database db, SnapshotInfo info) {
+        Table tbl = db.getTable(info.getTblId());
+        if (tbl == null) {
+            status = new Status(ErrCode.NOT_FOUND, "restored table "
+                    + info.getTabletId() + " does not exist");
+            return null;
+        }
+        OlapTable olapTbl = (OlapTable) tbl;
+
+        Partition part = olapTbl.getPartition(info.getPartitionId());
+        if (part == null) {
+            status = new Status(ErrCode.NOT_FOUND, "partition "
+                    + info.getPartitionId() + " does not exist in restored table: "
+                    + tbl.getName());
+            return null;
+        }
+
+        MaterializedIndex idx = part.getIndex(info.getIndexId());
+        if (idx == null) {
+            status = new Status(ErrCode.NOT_FOUND,
+                    "index " + info.getIndexId() + " does not exist in partion " + part.getName()
+                            + "of restored table " + tbl.getName());
+            return null;
+        }
+
+        LocalTablet tablet = (LocalTablet) idx.getTablet(info.getTabletId());
+        if (tablet == null) {
+            status = new Status(ErrCode.NOT_FOUND,
+                    "tablet " + info.getTabletId() + " does not exist in restored table "
+                            + tbl.getName());
+            return null;
+        }
+
+        Replica replica = tablet.getReplicaByBackendId(info.getBeId());
+        if (replica == null) {
+            status = new Status(ErrCode.NOT_FOUND,
+                    "replica in be " + info.getBeId() + " of tablet "
+                            + tablet.getId() + " does not exist in restored table "
+                            + tbl.getName());
+            return null;
+        }
+
+        IdChain catalogIds = new IdChain(tbl.getId(), part.getId(), idx.getId(),
+                info.getTabletId(), replica.getId());
+        IdChain repoIds = fileMapping.get(catalogIds);
+        if (repoIds == null) {
+            status = new Status(ErrCode.NOT_FOUND,
+                    "failed to get id mapping of globalStateMgr ids: " + catalogIds.toString());
+            LOG.info("current file mapping: {}", fileMapping);
+            return null;
+        }
+
+        String repoTabletPath = jobInfo.getFilePath(repoIds);
+
+        // eg:
+        // bos://location/__starrocks_repository_my_repo/_ss_my_ss/_ss_content/__db_10000/
+        // __tbl_10001/__part_10002/_idx_10001/__10003
+        return repo.getRepoPath(label, repoTabletPath);
+    }
+
+    private DirMoveTask createDirMoveTask(SnapshotInfo info) {
+        long signature = globalStateMgr.getNextId();
+        return new DirMoveTask(null, info.getBeId(), signature, jobId, dbId,
+                info.getTblId(), info.getPartitionId(), info.getIndexId(), info.getTabletId(),
+                info.getTabletPath(), info.getSchemaHash(), true /* need reload tablet header */);
+    }
+
+    /*
+     * Pipelined restore: instead of downloading all snapshots, then moving all dirs and then committing
+     * all tables, the partitions are restored as independent units by RestorePipeline. A unit sends its
+     * dir move tasks as soon as its downloads are finished, and a table is made visible as soon as all of
+     * its partitions are committed. The visible tables are logged, so they are kept visible after FE restarts,
+     * and they are not rolled back if the job is cancelled later.
+     */
+    private void startPipeline() {
+        unfinishedSignatureToId.clear();
+        taskProgress.clear();
+        taskErrMsg.clear();
+        pipeline = null;
+
+        // backupMeta is useless now
+        backupMeta = null;
+        state = RestoreJobState.DOWNLOADING;
+        LOG.info("begin to restore in pipeline. {}", this);
+
+        runPipeline();
+    }
+
+    private synchronized void runPipeline() {
+        Database db = globalStateMgr.getDb(dbId);
+        if (db == null) {
+            status = new Status(ErrCode.NOT_FOUND, "db " + dbId + " does not exist");
+            return;
+        }
+
+        if (pipeline == null) {
+            // the pipeline is not persisted, the units of the invisible tables are restored again after FE restarts
+            if (!createPipeline(db)) {
+                return;
+            }
+        }
+
+        AgentBatchTask batchTask = new AgentBatchTask();
+        // send dir move tasks of the downloaded units
+        List<RestorePipeline.Unit> moveUnits = pipeline.startMoves();
+        for (RestorePipeline.Unit unit : moveUnits) {
+            for (SnapshotInfo info : unit.getSnapshotInfos()) {
+                DirMoveTask task = createDirMoveTask(info);
+                batchTask.addTask(task);
+                pipeline.addTask(unit, task.getSignature(), info.getBeId());
+                unfinishedSignatureToId.put(task.getSignature(), info.getTabletId());
+            }
+        }
+
+        // send download tasks of the units which can be started
+        List<RestorePipeline.Unit> downloadUnits =
+                pipeline.startDownloads(Config.restore_pipeline_max_download_tasks_per_be);
+        if (!downloadUnits.isEmpty() && !addDownloadTasks(db, downloadUnits, batchTask)) {
+            // no task of this round is sent, so none of them should be waited for
+            for (AgentTask task : batchTask.getAllTasks()) {
+                unfinishedSignatureToId.remove(task.getSignature());
+            }
+            pipeline.resetUnits(moveUnits);
+            pipeline.resetUnits(downloadUnits);
+            return;
+        }
+
+        if (batchTask.getTaskNum() > 0) {
+            for (AgentTask task : batchTask.getAllTasks()) {
+                AgentTaskQueue.addTask(task);
+            }
+            AgentTaskExecutor.submit(batchTask);
+        }
+
+        if (pipeline.isFinished()) {
+            downloadFinishedTime = System.currentTimeMillis();
+            LOG.info("finished to restore all units in pipeline. {}", this);
+            Status st = allTabletCommitted(false /* not replay */);
+            if (!st.ok()) {
+                status = st;
+            }
+            return;
+        }
+
+        // make the tables visible whose partitions are all committed
+        List<Long> tblIds = pipeline.pollVisibleTables();
+        if (!tblIds.isEmpty()) {
+            for (long tblId : tblIds) {
+                setTableVisible(db, tblId, false /* not replay */);
+            }
+            visibleTblIds.addAll(tblIds);
+            globalStateMgr.getEditLog().logRestoreJob(this);
+            LOG.info("finished to restore tables {} in pipeline. {}", tblIds, this);
+        }
+
+        LOG.info("send {} tasks, restore progress: {}. {}", batchTask.getTaskNum(), pipeline.getProgress(), this);
+    }
+
+    // add a download task to batchTask for each backend of the units, return false and set status on error
+    private boolean addDownloadTasks(Database db, List<RestorePipeline.Unit> units, AgentBatchTask batchTask) {
+        Map<Long, FsBroker> beToBroker = Maps.newHashMap();
+        db.readLock();
+        try {
+            for (RestorePipeline.Unit unit : units) {
+                ArrayListMultimap<Long, SnapshotInfo> beToSnapshots = unit.getSnapshotInfosByBackend();
+                for (Long beId : beToSnapshots.keySet()) {
+                    if (!beToBroker.containsKey(beId)) {
+                        List<FsBroker> brokerAddrs = Lists.newArrayList();
+                        Status st = repo.getBrokerAddress(beId, globalStateMgr, brokerAddrs);
+                        if (!st.ok()) {
+                            status = st;
+                            return false;
+                        }
+                        Preconditions.checkState(brokerAddrs.size() == 1);
+                        beToBroker.put(beId, brokerAddrs.get(0));
+                    }
+
+                    Map<String, String> srcToDest = Maps.newHashMap();
+                    for (SnapshotInfo info : beToSnapshots.get(beId)) {
+                        String src = getDownloadSrcPath(db, info);
+                        if (src == null) {
+                            return false;
+                        }
+                        // download to previous exist snapshot dir
+                        srcToDest.put(src, info.getTabletPath());
+                    }
+                    long signature = globalStateMgr.getNextId();
+                    DownloadTask task = new DownloadTask(null, beId, signature, jobId, dbId,
+                            srcToDest, beToBroker.get(beId), repo.getStorage().getProperties());
+                    batchTask.addTask(task);
+                    pipeline.addTask(unit, signature, beId);
+                    unfinishedSignatureToId.put(signature, beId);
+                }
+            }
+        } finally {
+            db.readUnlock();
+        }
+        return true;
+    }
+
+    private boolean createPipeline(Database db) {
+        List<SnapshotInfo> infos = snapshotInfos.values().stream()
+                .filter(info -> !visibleTblIds.contains(info.getTblId())).collect(Collectors.toList());
+        RestorePipeline newPipeline = new RestorePipeline(infos);
+        db.readLock();
+        try {
+            for (RestorePipeline.Unit unit : newPipeline.getUnits()) {
+                Table tbl = db.getTable(unit.getTblId());
+                if (tbl == null) {
+                    status = new Status(ErrCode.NOT_FOUND, "restored table " + unit.getTblId() + " does not exist");
+                    return false;
+                }
+                Partition part = ((OlapTable) tbl).getPartition(unit.getPartId());
+                if (part == null) {
+                    status = new Status(ErrCode.NOT_FOUND, "partition " + unit.getPartId()
+                            + " does not exist in restored table: " + tbl.getName());
+                    return false;
+                }
+                unit.setName(tbl.getName() + "." + part.getName());
+            }
+        } finally {
+            db.readUnlock();
+        }
+        pipeline = newPipeline;
+        LOG.info("create restore pipeline with {} units, visible tables: {}. {}",
+                pipeline.getUnits().size(), visibleTblIds, this);
+        return true;
+    }
+
+    // set the versions of the restored partitions and the state of the table to NORMAL
+    private void setTableVisible(Database db, long tblId, boolean isReplay) {
+        OlapTable olapTbl;
+        db.writeLock();
+        try {
+            olapTbl = (OlapTable) db.getTable(tblId);
+            // the table is NORMAL if it has been made visible before
+            if (olapTbl == null || (olapTbl.getState() != OlapTableState.RESTORE
+                    && olapTbl.getState() != OlapTableState.RESTORE_WITH_LOAD)) {
+                return;
+            }
+            updateRestoredVersion(olapTbl, restoredVersionInfo.row(tblId));
+            olapTbl.setState(OlapTableState.NORMAL);
+        } finally {
+            db.writeUnlock();
+        }
+
+        if (!isReplay) {
+            DynamicPartitionUtil.registerOrRemoveDynamicPartitionTable(db.getId(), olapTbl);
+        }
+        LOG.info("set restored table {} visible. is replay: {}. {}", olapTbl.getName(), isReplay, this);
+    }
+
+    private void replayPipeline() {
+        Database db = globalStateMgr.getDb(dbId);
+        if (db == null) {
+            return;
+        }
+        for (long tblId : visibleTblIds) {
+            setTableVisible(db, tblId, true /* is replay */);
+        }
+    }
+
     private void waitingAllDownloadFinished() {
         if (unfinishedSignatureToId.isEmpty()) {
             downloadFinishedTime = System.currentTimeMillis();
@@ -1148,15 +1398,10 @@ public class RestoreJob extends AbstractJob {
         taskErrMsg.clear();
         AgentBatchTask batchTask = new AgentBatchTask();
         // tablet id->(be id -> download info)
-        for (Cell<Long, Long, SnapshotInfo> cell : snapshotInfos.cellSet()) {
-            SnapshotInfo info = cell.getValue();
-            long signature = globalStateMgr.getNextId();
-            DirMoveTask task = new DirMoveTask(null, cell.getColumnKey(), signature, jobId, dbId,
-                    info.getTblId(), info.getPartitionId(), info.getTabletId(),
-                    cell.getRowKey(), info.getTabletPath(), info.getSchemaHash(),
-                    true /* need reload tablet header */);
+        for (SnapshotInfo info : snapshotInfos.values()) {
+            DirMoveTask task = createDirMoveTask(info);
             batchTask.addTask(task);
-            unfinishedSignatureToId.put(signature, info.getTabletId());
+            unfinishedSignatureToId.put(task.getSignature(), info.getTabletId());
         }
 
         // send task
@@ -1197,37 +1442,15 @@ public class RestoreJob extends AbstractJob {
             setTableStateToNormal(db);
 
             for (long tblId : restoredVersionInfo.rowKeySet()) {
+                if (visibleTblIds.contains(tblId)) {
+                    // the versions have been updated when the table was made visible
+                    continue;
+                }
                 Table tbl = db.getTable(tblId);
                 if (tbl == null) {
                     continue;
                 }
-                OlapTable olapTbl = (OlapTable) tbl;
-                Map<Long, Long> map = restoredVersionInfo.rowMap().get(tblId);
-                for (Map.Entry<Long, Long> entry : map.entrySet()) {
-                    long partId = entry.getKey();
-                    Partition part = olapTbl.getPartition(partId);
-                    if (part == null) {
-                        continue;
-                    }
-
-                    // update partition visible version
-                    part.updateVersionForRestore(entry.getValue());
-
-                    // we also need to update the replica version of these overwritten restored partitions
-                    for (MaterializedIndex idx : part.getMaterializedIndices(IndexExtState.VISIBLE)) {
-                        for (Tablet tablet : idx.getTablets()) {
-                            for (Replica replica : ((LocalTablet) tablet).getReplicas()) {
-                                if (!replica.checkVersionCatchUp(part.getVisibleVersion(), false)) {
-                                    replica.updateRowCount(part.getVisibleVersion(),
-                                            replica.getDataSize(), replica.getRowCount());
-                                }
-                            }
-                        }
-                    }
-
-                    LOG.debug("restore set partition {} version in table {}, version: {}",
-                            partId, tblId, entry.getValue());
-                }
+                updateRestoredVersion((OlapTable) tbl, restoredVersionInfo.rowMap().get(tblId));
             }
         } finally {
             db.writeUnlock();
@@ -1269,6 +1492,34 @@ public class RestoreJob extends AbstractJob {
         return Status.OK;
     }
 
+    private void updateRestoredVersion(OlapTable olapTbl, Map<Long, Long> partIdToVersion) {
+        for (Map.Entry<Long, Long> entry : partIdToVersion.entrySet()) {
+            long partId = entry.getKey();
+            Partition part = olapTbl.getPartition(partId);
+            if (part == null) {
+                continue;
+            }
+
+            // update partition visible version
+            part.updateVersionForRestore(entry.getValue());
+
+            // we also need to update the replica version of these overwritten restored partitions
+            for (MaterializedIndex idx : part.getMaterializedIndices(IndexExtState.VISIBLE)) {
+                for (Tablet tablet : idx.getTablets()) {
+                    for (Replica replica : ((LocalTablet) tablet).getReplicas()) {
+                        if (!replica.checkVersionCatchUp(part.getVisibleVersion(), false)) {
+                            replica.updateRowCount(part.getVisibleVersion(),
+                                    replica.getDataSize(), replica.getRowCount());
+                        }
+                    }
+                }
+            }
+
+            LOG.debug("restore set partition {} version in table {}, version: {}",
+                    partId, olapTbl.getId(), entry.getValue());
+        }
+    }
+
     private void releaseSnapshots() {
         if (snapshotInfos.isEmpty()) {
             return;
@@ -1312,6 +1563,7 @@ public class RestoreJob extends AbstractJob {
                 + "]").collect(Collectors.toList())));
         info.add(status.toString());
         info.add(String.valueOf(timeoutMs / 1000));
+        info.add(pipeline == null ? "" : pipeline.getProgress());
         return info;
     }
 
@@ -1355,6 +1607,10 @@ public class RestoreJob extends AbstractJob {
                     // remove all down tasks in AgentTaskQueue
                     for (Long taskId : unfinishedSignatureToId.keySet()) {
                         AgentTaskQueue.removeTaskOfType(TTaskType.DOWNLOAD, taskId);
+                        if (pipelined) {
+                            // the dir move tasks are sent in DOWNLOADING state by the pipeline
+                            AgentTaskQueue.removeTaskOfType(TTaskType.MOVE, taskId);
+                        }
                     }
                     break;
                 case COMMITTING:
@@ -1376,8 +1632,11 @@ public class RestoreJob extends AbstractJob {
                 // rollback table's state to NORMAL
                 setTableStateToNormal(db);
 
-                // remove restored tbls
+                // remove restored tbls, except the ones which have been visible
                 for (OlapTable restoreTbl : restoredTbls) {
+                    if (visibleTblIds.contains(restoreTbl.getId())) {
+                        continue;
+                    }
                     LOG.info("remove restored table when cancelled: {}", restoreTbl.getName());
                     for (Partition part : restoreTbl.getPartitions()) {
                         for (MaterializedIndex idx : part.getMaterializedIndices(IndexExtState.VISIBLE)) {
@@ -1392,7 +1651,7 @@ public class RestoreJob extends AbstractJob {
                 // remove restored partitions
                 for (Pair<String, Partition> entry : restoredPartitions) {
                     OlapTable restoreTbl = (OlapTable) db.getTable(entry.first);
-                    if (restoreTbl == null) {
+                    if (restoreTbl == null || visibleTblIds.contains(restoreTbl.getId())) {
                         continue;
                     }
                     LOG.info("remove restored partition in table {} when cancelled: {}",
@@ -1456,6 +1715,9 @@ public class RestoreJob extends AbstractJob {
         super.write(out);
 
         Text.writeString(out, backupTimestamp);
+        // the pipeline state is saved in the json of job info, which the earlier versions ignore
+        jobInfo.restorePipelined = pipelined;
+        jobInfo.restoreVisibleTblIds = visibleTblIds;
         jobInfo.write(out);
         out.writeBoolean(allowLoad);
 
@@ -1516,6 +1778,8 @@ public class RestoreJob extends AbstractJob {
 
         backupTimestamp = Text.readString(in);
         jobInfo = BackupJobInfo.read(in);
+        pipelined = jobInfo.restorePipelined;
+        visibleTblIds = jobInfo.restoreVisibleTblIds;
         allowLoad = in.readBoolean();
 
         state = RestoreJobState.valueOf(Text.readString(in));
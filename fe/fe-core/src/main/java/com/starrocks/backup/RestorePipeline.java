@@ -0,0 +1,243 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.backup;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.collect.TreeBasedTable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * RestorePipeline schedules the data phase of a pipelined restore job.
+ * The snapshots to restore are grouped into units by partition, and each unit goes through
+ * PENDING -> DOWNLOADING -> DOWNLOADED -> MOVING -> COMMITTED independently, so the downloads of some units
+ * are overlapped with the dir moves of the others, and a table can be made visible as soon as all of its units
+ * are committed.
+ * A unit sends one download task to each backend of its replicas, and it is started only if none of these
+ * backends has reached the limit of unfinished download tasks. The units are started in the order of table id,
+ * so the tables are restored one after another.
+ * RestorePipeline is not thread safe, it is protected by the lock of the restore job.
+ */
+public class RestorePipeline {
+    public enum UnitState {
+        PENDING, // Waiting for the download slots of its backends.
+        DOWNLOADING, // Downloading snapshots from repository.
+        DOWNLOADED, // All snapshots are downloaded, waiting to move the snapshot dirs.
+        MOVING, // Moving the snapshot dirs to the tablets.
+        COMMITTED // All replicas of the unit are restored.
+    }
+
+    public static class Unit {
+        private final long tblId;
+        private final long partId;
+        private String name;
+        private final List<SnapshotInfo> snapshotInfos = Lists.newArrayList();
+        private UnitState state = UnitState.PENDING;
+        // signature -> backend id of the unfinished tasks
+        private final Map<Long, Long> unfinishedTasks = Maps.newHashMap();
+
+        private Unit(long tblId, long partId) {
+            this.tblId = tblId;
+            this.partId = partId;
+            this.name = tblId + "." + partId;
+        }
+
+        public long getTblId() {
+            return tblId;
+        }
+
+        public long getPartId() {
+            return partId;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public UnitState getState() {
+            return state;
+        }
+
+        public List<SnapshotInfo> getSnapshotInfos() {
+            return snapshotInfos;
+        }
+
+        // backend id -> snapshots on the backend
+        public ArrayListMultimap<Long, SnapshotInfo> getSnapshotInfosByBackend() {
+            ArrayListMultimap<Long, SnapshotInfo> beToSnapshots = ArrayListMultimap.create();
+            for (SnapshotInfo info : snapshotInfos) {
+                beToSnapshots.put(info.getBeId(), info);
+            }
+            return beToSnapshots;
+        }
+
+        @Override
+        public String toString() {
+            return name + "(" + state.name() + ")";
+        }
+    }
+
+    // table id -> partition id -> unit, ordered by ids
+    private final TreeBasedTable<Long, Long, Unit> units = TreeBasedTable.create();
+    // signature -> unit of the unfinished tasks
+    private final Map<Long, Unit> signatureToUnit = Maps.newHashMap();
+    // backend id -> num of unfinished download tasks
+    private final Map<Long, Integer> backendDownloadTaskNum = Maps.newHashMap();
+    // the tables which have been returned by pollVisibleTables()
+    private final Set<Long> visibleTblIds = Sets.newHashSet();
+
+    public RestorePipeline(Collection<SnapshotInfo> snapshotInfos) {
+        for (SnapshotInfo info : snapshotInfos) {
+            Unit unit = units.get(info.getTblId(), info.getPartitionId());
+            if (unit == null) {
+                unit = new Unit(info.getTblId(), info.getPartitionId());
+                units.put(info.getTblId(), info.getPartitionId(), unit);
+            }
+            unit.snapshotInfos.add(info);
+        }
+    }
+
+    public Collection<Unit> getUnits() {
+        return units.values();
+    }
+
+    /**
+     * Return the pending units which can start downloading now, their state is set to DOWNLOADING
+     * and a download slot is reserved on each of their backends.
+     * The caller should send one download task to each backend of the returned units, and add the tasks by addTask().
+     */
+    public List<Unit> startDownloads(int maxDownloadTasksPerBackend) {
+        List<Unit> startedUnits = Lists.newArrayList();
+        for (Unit unit : units.values()) {
+            if (unit.state != UnitState.PENDING) {
+                continue;
+            }
+            Set<Long> beIds = unit.getSnapshotInfosByBackend().keySet();
+            for (long beId : beIds) {
+                if (backendDownloadTaskNum.getOrDefault(beId, 0) >= maxDownloadTasksPerBackend) {
+                    // start the units in order, so the tables are visible one after another
+                    return startedUnits;
+                }
+            }
+            for (long beId : beIds) {
+                backendDownloadTaskNum.merge(beId, 1, Integer::sum);
+            }
+            unit.state = UnitState.DOWNLOADING;
+            startedUnits.add(unit);
+        }
+        return startedUnits;
+    }
+
+    /**
+     * Return the downloaded units, their state is set to MOVING.
+     * The caller should send a dir move task for each snapshot of the returned units, and add the tasks by addTask().
+     */
+    public List<Unit> startMoves() {
+        List<Unit> startedUnits = Lists.newArrayList();
+        for (Unit unit : units.values()) {
+            if (unit.state == UnitState.DOWNLOADED) {
+                unit.state = UnitState.MOVING;
+                startedUnits.add(unit);
+            }
+        }
+        return startedUnits;
+    }
+
+    public void addTask(Unit unit, long signature, long beId) {
+        unit.unfinishedTasks.put(signature, beId);
+        signatureToUnit.put(signature, unit);
+    }
+
+    /**
+     * Undo startDownloads() or startMoves() of the units whose tasks are not sent, the added tasks of them are removed
+     * and the reserved download slots are released.
+     */
+    public void resetUnits(Collection<Unit> startedUnits) {
+        for (Unit unit : startedUnits) {
+            for (long signature : unit.unfinishedTasks.keySet()) {
+                signatureToUnit.remove(signature);
+            }
+            unit.unfinishedTasks.clear();
+            if (unit.state == UnitState.DOWNLOADING) {
+                for (long beId : unit.getSnapshotInfosByBackend().keySet()) {
+                    backendDownloadTaskNum.computeIfPresent(beId, (k, v) -> v > 1 ? v - 1 : null);
+                }
+                unit.state = UnitState.PENDING;
+            } else if (unit.state == UnitState.MOVING) {
+                unit.state = UnitState.DOWNLOADED;
+            }
+        }
+    }
+
+    /**
+     * Mark the task as finished, the unit goes to the next state once all of its tasks are finished.
+     * Return false if the task does not belong to this pipeline.
+     */
+    public boolean finishTask(long signature) {
+        Unit unit = signatureToUnit.remove(signature);
+        if (unit == null) {
+            return false;
+        }
+        Long beId = unit.unfinishedTasks.remove(signature);
+        if (unit.state == UnitState.DOWNLOADING) {
+            backendDownloadTaskNum.computeIfPresent(beId, (k, v) -> v > 1 ? v - 1 : null);
+        }
+        if (unit.unfinishedTasks.isEmpty()) {
+            if (unit.state == UnitState.DOWNLOADING) {
+                unit.state = UnitState.DOWNLOADED;
+            } else if (unit.state == UnitState.MOVING) {
+                unit.state = UnitState.COMMITTED;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Return the tables whose units are all committed, each table is returned only once.
+     */
+    public List<Long> pollVisibleTables() {
+        List<Long> tblIds = Lists.newArrayList();
+        for (Map.Entry<Long, Map<Long, Unit>> entry : units.rowMap().entrySet()) {
+            if (visibleTblIds.contains(entry.getKey())) {
+                continue;
+            }
+            if (entry.getValue().values().stream().allMatch(unit -> unit.state == UnitState.COMMITTED)) {
+                visibleTblIds.add(entry.getKey());
+                tblIds.add(entry.getKey());
+            }
+        }
+        return tblIds;
+    }
+
+    public boolean isFinished() {
+        return units.values().stream().allMatch(unit -> unit.state == UnitState.COMMITTED);
+    }
+
+    // eg: committed 3/10 units, downloading: [tbl1.p4, tbl1.p5], moving: [tbl1.p3]
+    public String getProgress() {
+        long committedNum = units.values().stream().filter(unit -> unit.state == UnitState.COMMITTED).count();
+        StringBuilder sb = new StringBuilder();
+        sb.append("committed ").append(committedNum).append("/").append(units.size()).append(" units");
+        sb.append(", downloading: [").append(getUnitNames(UnitState.DOWNLOADING)).append("]");
+        sb.append(", moving: [").append(getUnitNames(UnitState.DOWNLOADED, UnitState.MOVING)).append("]");
+        return sb.toString();
+    }
+
+    private String getUnitNames(UnitState... states) {
+        Set<UnitState> stateSet = Sets.newHashSet(states);
+        return Joiner.on(", ").join(units.values().stream().filter(unit -> stateSet.contains(unit.state))
+                .map(Unit::getName).collect(Collectors.toList()));
+    }
+}
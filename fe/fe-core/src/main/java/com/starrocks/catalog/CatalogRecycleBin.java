@@ -34,18 +34,23 @@ import com.starrocks.common.Config;
 import com.starrocks.common.DdlException;
 import com.starrocks.common.ErrorCode;
 import com.starrocks.common.ErrorReport;
+import com.starrocks.common.FeConstants;
 import com.starrocks.common.FeMetaVersion;
 import com.starrocks.common.io.Text;
 import com.starrocks.common.io.Writable;
 import com.starrocks.common.util.MasterDaemon;
 import com.starrocks.common.util.RangeUtils;
+import com.starrocks.meta.MetaContext;
 import com.starrocks.persist.RecoverInfo;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.task.AgentBatchTask;
 import com.starrocks.thrift.TStorageMedium;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.xerial.snappy.Snappy;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInput;
 import java.io.DataInputStream;
 import java.io.DataOutput;
@@ -57,6 +62,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static com.starrocks.server.GlobalStateMgr.isCheckpointThread;
@@ -76,6 +83,8 @@ public class CatalogRecycleBin extends MasterDaemon implements Writable {
     // The first Long type is DdId, the second String is TableName
     private com.google.common.collect.Table<Long, String, RecycleTableInfo> nameToTableInfo;
     private Map<Long, RecyclePartitionInfo> idToPartition;
+    // ids of the compacted partitions, it can be read without the lock of recycle bin
+    private Set<Long> compactedPartitionIds;
 
     private Map<Long, Long> idToRecycleTime;
 
@@ -85,6 +94,7 @@ public class CatalogRecycleBin extends MasterDaemon implements Writable {
         idToTableInfo = HashBasedTable.create();
         nameToTableInfo = HashBasedTable.create();
         idToPartition = Maps.newHashMap();
+        compactedPartitionIds = ConcurrentHashMap.newKeySet();
         idToRecycleTime = Maps.newHashMap();
     }
 
@@ -166,10 +176,14 @@ public class CatalogRecycleBin extends MasterDaemon implements Writable {
                 isInMemory);
         idToRecycleTime.put(partition.getId(), System.currentTimeMillis());
         idToPartition.put(partition.getId(), partitionInfo);
+        if (Config.enable_recycle_bin_partition_compaction) {
+            compactPartition(partitionInfo);
+        }
         LOG.info("recycle partition[{}-{}]", partition.getId(), partition.getName());
         return true;
     }
 
+    // return null if the partition is compacted, it is invisible until recovered
     public synchronized Partition getPartition(long partitionId) {
         RecyclePartitionInfo partitionInfo = idToPartition.get(partitionId);
         if (partitionInfo != null) {
@@ -178,6 +192,89 @@ public class CatalogRecycleBin extends MasterDaemon implements Writable {
         return null;
     }
 
+    public boolean isPartitionCompacted(long partitionId) {
+        return compactedPartitionIds.contains(partitionId);
+    }
+
+    /*
+     * Apply a replayed change to a partition in recycle bin. A compacted partition is loaded with its replicas
+     * for the change, and compacted again. Whether a partition is compacted depends on the config of each FE,
+     * so the journal written by one FE may change a partition compacted on another FE.
+     * Return false if the partition is not in recycle bin.
+     */
+    public synchronized boolean replayUpdatePartition(long partitionId, Consumer<Partition> updater) {
+        RecyclePartitionInfo partitionInfo = idToPartition.get(partitionId);
+        if (partitionInfo == null) {
+            return false;
+        }
+        if (!partitionInfo.isCompacted()) {
+            updater.accept(partitionInfo.getPartition());
+            return true;
+        }
+        updater.accept(loadPartition(partitionInfo, true));
+        compactPartition(partitionInfo);
+        return true;
+    }
+
+    /*
+     * Keep the partition in serialized form, and remove its replicas from tablet inverted index.
+     * The tablets are kept in inverted index, so that the replicas on backends are not dropped
+     * as tablets not found in meta.
+     */
+    private void compactPartition(RecyclePartitionInfo partitionInfo) {
+        Partition partition = partitionInfo.getPartition();
+        try {
+            partitionInfo.compact();
+        } catch (IOException e) {
+            LOG.warn("failed to compact partition[{}-{}] in recycle bin", partition.getId(), partition.getName(), e);
+            return;
+        }
+        compactedPartitionIds.add(partition.getId());
+
+        if (!partition.isUseStarOS()) {
+            TabletInvertedIndex invertedIndex = GlobalStateMgr.getCurrentInvertedIndex();
+            for (MaterializedIndex index : partition.getMaterializedIndices(IndexExtState.ALL)) {
+                for (Tablet tablet : index.getTablets()) {
+                    for (Replica replica : ((LocalTablet) tablet).getReplicas()) {
+                        if (invertedIndex.getReplica(tablet.getId(), replica.getBackendId()) != null) {
+                            invertedIndex.deleteReplica(tablet.getId(), replica.getBackendId());
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /*
+     * Return the partition of partitionInfo, a compacted partition is deserialized.
+     * If addReplicas is true, the replicas of the compacted partition are added back to tablet inverted index.
+     */
+    private Partition loadPartition(RecyclePartitionInfo partitionInfo, boolean addReplicas) {
+        if (!partitionInfo.isCompacted()) {
+            return partitionInfo.getPartition();
+        }
+        Partition partition;
+        try {
+            partition = partitionInfo.load();
+        } catch (IOException e) {
+            // should not happen, the data is serialized by ourselves
+            throw new IllegalStateException("failed to load compacted partition " + partitionInfo.getPartitionId(), e);
+        }
+        compactedPartitionIds.remove(partition.getId());
+
+        if (addReplicas && !partition.isUseStarOS()) {
+            TabletInvertedIndex invertedIndex = GlobalStateMgr.getCurrentInvertedIndex();
+            for (MaterializedIndex index : partition.getMaterializedIndices(IndexExtState.ALL)) {
+                for (Tablet tablet : index.getTablets()) {
+                    for (Replica replica : ((LocalTablet) tablet).getReplicas()) {
+                        invertedIndex.addReplica(tablet.getId(), replica);
+                    }
+                }
+            }
+        }
+        return partition;
+    }
+
     public synchronized short getPartitionReplicationNum(long partitionId) {
         RecyclePartitionInfo partitionInfo = idToPartition.get(partitionId);
         if (partitionInfo != null) {
@@ -210,9 +307,10 @@ public class CatalogRecycleBin extends MasterDaemon implements Writable {
         return false;
     }
 
+    // the compacted partitions are not returned
     public synchronized List<Partition> getPartitions(long tableId) {
         return idToPartition.values().stream()
-                .filter(v -> (v.getTableId() == tableId))
+                .filter(v -> (v.getTableId() == tableId && !v.isCompacted()))
                 .map(RecyclePartitionInfo::getPartition)
                 .collect(Collectors.toList());
     }
@@ -344,10 +442,10 @@ public class CatalogRecycleBin extends MasterDaemon implements Writable {
         while (iterator.hasNext()) {
             Map.Entry<Long, RecyclePartitionInfo> entry = iterator.next();
             RecyclePartitionInfo partitionInfo = entry.getValue();
-            Partition partition = partitionInfo.getPartition();
 
             long partitionId = entry.getKey();
             if (isExpire(partitionId, currentTimeMs)) {
+                Partition partition = loadPartition(partitionInfo, false);
                 GlobalStateMgr.getCurrentState().onErasePartition(partition);
                 // erase partition
                 iterator.remove();
@@ -373,8 +471,8 @@ public class CatalogRecycleBin extends MasterDaemon implements Writable {
                 continue;
             }
 
-            Partition partition = partitionInfo.getPartition();
-            if (partition.getName().equals(partitionName)) {
+            if (partitionInfo.getPartitionName().equals(partitionName)) {
+                Partition partition = loadPartition(partitionInfo, false);
                 GlobalStateMgr.getCurrentState().onErasePartition(partition);
                 iterator.remove();
                 idToRecycleTime.remove(entry.getKey());
@@ -389,12 +487,14 @@ public class CatalogRecycleBin extends MasterDaemon implements Writable {
         RecyclePartitionInfo partitionInfo = idToPartition.remove(partitionId);
         idToRecycleTime.remove(partitionId);
 
-        Partition partition = partitionInfo.getPartition();
         if (!isCheckpointThread()) {
+            Partition partition = loadPartition(partitionInfo, false);
             GlobalStateMgr.getCurrentState().onErasePartition(partition);
+        } else {
+            compactedPartitionIds.remove(partitionId);
         }
 
-        LOG.info("replay erase partition[{}-{}] finished", partitionId, partition.getName());
+        LOG.info("replay erase partition[{}-{}] finished", partitionId, partitionInfo.getPartitionName());
     }
 
     public synchronized Database recoverDatabase(String dbName) throws DdlException {
@@ -513,7 +613,7 @@ public class CatalogRecycleBin extends MasterDaemon implements Writable {
                 continue;
             }
 
-            if (!partitionInfo.getPartition().getName().equalsIgnoreCase(partitionName)) {
+            if (!partitionInfo.getPartitionName().equalsIgnoreCase(partitionName)) {
                 continue;
             }
 
@@ -533,7 +633,7 @@ public class CatalogRecycleBin extends MasterDaemon implements Writable {
         }
 
         // recover partition
-        Partition recoverPartition = recoverPartitionInfo.getPartition();
+        Partition recoverPartition = loadPartition(recoverPartitionInfo, true);
         Preconditions.checkState(recoverPartition.getName().equalsIgnoreCase(partitionName));
         table.addPartition(recoverPartition);
 
@@ -560,13 +660,13 @@ public class CatalogRecycleBin extends MasterDaemon implements Writable {
         while (iterator.hasNext()) {
             Map.Entry<Long, RecyclePartitionInfo> entry = iterator.next();
             RecyclePartitionInfo partitionInfo = entry.getValue();
-            if (partitionInfo.getPartition().getId() != partitionId) {
+            if (partitionInfo.getPartitionId() != partitionId) {
                 continue;
             }
 
             Preconditions.checkState(partitionInfo.getTableId() == table.getId());
 
-            table.addPartition(partitionInfo.getPartition());
+            table.addPartition(loadPartition(partitionInfo, true));
             RangePartitionInfo rangePartitionInfo = (RangePartitionInfo) table.getPartitionInfo();
             rangePartitionInfo.setRange(partitionId, false, partitionInfo.getRange());
             rangePartitionInfo.setDataProperty(partitionId, partitionInfo.getDataProperty());
@@ -576,7 +676,7 @@ public class CatalogRecycleBin extends MasterDaemon implements Writable {
             iterator.remove();
             idToRecycleTime.remove(partitionId);
 
-            LOG.info("replay recover partition[{}-{}] finished", partitionId, partitionInfo.getPartition().getName());
+            LOG.info("replay recover partition[{}-{}] finished", partitionId, partitionInfo.getPartitionName());
             break;
         }
     }
@@ -670,6 +770,9 @@ public class CatalogRecycleBin extends MasterDaemon implements Writable {
                     }
                 }
             } // end for indices
+            if (Config.enable_recycle_bin_partition_compaction) {
+                compactPartition(partitionInfo);
+            }
         }
 
     }
@@ -853,7 +956,11 @@ public class CatalogRecycleBin extends MasterDaemon implements Writable {
     public class RecyclePartitionInfo implements Writable {
         private long dbId;
         private long tableId;
+        private long partitionId;
+        private String partitionName;
         private Partition partition;
+        // the partition serialized by Partition.write() and compressed by snappy, set if the partition is compacted
+        private byte[] compactedPartition;
         private Range<PartitionKey> range;
         private DataProperty dataProperty;
         private short replicationNum;
@@ -868,6 +975,8 @@ public class CatalogRecycleBin extends MasterDaemon implements Writable {
                                     boolean isInMemory) {
             this.dbId = dbId;
             this.tableId = tableId;
+            this.partitionId = partition.getId();
+            this.partitionName = partition.getName();
             this.partition = partition;
             this.range = range;
             this.dataProperty = dataProperty;
@@ -883,10 +992,54 @@ public class CatalogRecycleBin extends MasterDaemon implements Writable {
             return tableId;
         }
 
+        public long getPartitionId() {
+            return partitionId;
+        }
+
+        public String getPartitionName() {
+            return partitionName;
+        }
+
+        // return null if the partition is compacted
         public Partition getPartition() {
             return partition;
         }
 
+        public boolean isCompacted() {
+            return compactedPartition != null;
+        }
+
+        public void compact() throws IOException {
+            ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(byteArrayOutputStream)) {
+                partition.write(out);
+            }
+            compactedPartition = Snappy.compress(byteArrayOutputStream.toByteArray());
+            partition = null;
+        }
+
+        // deserialize the compacted partition
+        public Partition load() throws IOException {
+            // the partition is written in the latest meta version
+            MetaContext oldContext = MetaContext.get();
+            MetaContext metaContext = new MetaContext();
+            metaContext.setMetaVersion(FeConstants.meta_version);
+            metaContext.setStarRocksMetaVersion(FeConstants.starrocks_meta_version);
+            metaContext.setThreadLocalInfo();
+            try (DataInputStream in = new DataInputStream(
+                    new ByteArrayInputStream(Snappy.uncompress(compactedPartition)))) {
+                partition = Partition.read(in);
+                compactedPartition = null;
+                return partition;
+            } finally {
+                if (oldContext != null) {
+                    oldContext.setThreadLocalInfo();
+                } else {
+                    MetaContext.remove();
+                }
+            }
+        }
+
         public Range<PartitionKey> getRange() {
             return range;
         }
@@ -907,7 +1060,12 @@ public class CatalogRecycleBin extends MasterDaemon implements Writable {
         public void write(DataOutput out) throws IOException {
             out.writeLong(dbId);
             out.writeLong(tableId);
-            partition.write(out);
+            if (isCompacted()) {
+                // same as the output of partition.write()
+                out.write(Snappy.uncompress(compactedPartition));
+            } else {
+                partition.write(out);
+            }
             RangeUtils.writeRange(out, range);
             dataProperty.write(out);
             out.writeShort(replicationNum);
@@ -918,6 +1076,8 @@ public class CatalogRecycleBin extends MasterDaemon implements Writable {
             dbId = in.readLong();
             tableId = in.readLong();
             partition = Partition.read(in);
+            partitionId = partition.getId();
+            partitionName = partition.getName();
             range = RangeUtils.readRange(in);
             dataProperty = DataProperty.read(in);
             replicationNum = in.readShort();
@@ -19,6 +19,12 @@ import org.apache.parquet.Strings;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -27,9 +33,21 @@ public class JDBCTable extends Table {
 
     private static final String TABLE = "table";
     private static final String RESOURCE = "resource";
+    // Optional, the table is read by partitionNum scans in parallel, each scan reads a range of the partition column.
+    // [lower bound, upper bound) is split evenly, the rows out of it are read by the first and the last range.
+    private static final String PARTITION_COLUMN = "partition_column";
+    private static final String PARTITION_NUM = "partition_num";
+    private static final String PARTITION_LOWER_BOUND = "partition_lower_bound";
+    private static final String PARTITION_UPPER_BOUND = "partition_upper_bound";
+
+    private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
     private String resourceName;
     private String jdbcTable;
+    private String partitionColumn;
+    private int partitionNum = 1;
+    private String partitionLowerBound;
+    private String partitionUpperBound;
 
     public JDBCTable() {
         super(TableType.JDBC);
@@ -48,6 +66,75 @@ public class JDBCTable extends Table {
         return jdbcTable;
     }
 
+    public boolean isPartitioned() {
+        return partitionColumn != null && partitionNum > 1;
+    }
+
+    public String getPartitionColumn() {
+        return partitionColumn;
+    }
+
+    public int getPartitionNum() {
+        return partitionNum;
+    }
+
+    /**
+     * The predicates of the partition ranges, the rows of the table are read by exactly one of them.
+     * The first range also reads the rows whose partition column is null.
+     */
+    public List<String> getPartitionPredicates(boolean isMySQL) {
+        List<String> predicates = new ArrayList<>();
+        if (!isPartitioned()) {
+            return predicates;
+        }
+        Column column = getColumn(partitionColumn);
+        long lower = toPartitionValue(column.getType(), partitionLowerBound);
+        long upper = toPartitionValue(column.getType(), partitionUpperBound);
+        // the bounds are checked when the table is created
+        long range = upper - lower;
+        int num = (int) Math.min(partitionNum, range);
+        long stride = range / num;
+        long remainder = range % num;
+
+        String name = isMySQL ? "`" + partitionColumn + "`" : partitionColumn;
+        String prevBound = null;
+        for (int i = 1; i <= num; i++) {
+            String bound = i == num ? null :
+                    toPartitionLiteral(column.getType(), lower + i * stride + Math.min(i, remainder));
+            StringBuilder predicate = new StringBuilder();
+            if (prevBound == null) {
+                predicate.append(name).append(" < ").append(bound).append(" OR ").append(name).append(" IS NULL");
+            } else if (bound == null) {
+                predicate.append(name).append(" >= ").append(prevBound);
+            } else {
+                predicate.append(name).append(" >= ").append(prevBound).append(" AND ").append(name).append(" < ")
+                        .append(bound);
+            }
+            predicates.add(predicate.toString());
+            prevBound = bound;
+        }
+        return predicates;
+    }
+
+    // integers are themselves, dates are days and datetimes are seconds since epoch
+    private static long toPartitionValue(Type type, String value) {
+        if (type.isDatetime()) {
+            return LocalDateTime.parse(value, DATETIME_FORMATTER).toEpochSecond(ZoneOffset.UTC);
+        } else if (type.isDate()) {
+            return LocalDate.parse(value).toEpochDay();
+        }
+        return Long.parseLong(value);
+    }
+
+    private static String toPartitionLiteral(Type type, long value) {
+        if (type.isDatetime()) {
+            return "'" + LocalDateTime.ofEpochSecond(value, 0, ZoneOffset.UTC).format(DATETIME_FORMATTER) + "'";
+        } else if (type.isDate()) {
+            return "'" + LocalDate.ofEpochDay(value) + "'";
+        }
+        return Long.toString(value);
+    }
+
     private void validate(Map<String, String> properties) throws DdlException {
         if (properties == null) {
             throw new DdlException("Please set properties of jdbc table, they are: table and resource");
@@ -70,6 +157,56 @@ public class JDBCTable extends Table {
         if (resource.getType() != ResourceType.JDBC) {
             throw new DdlException("resource [" + resourceName + "] is not jdbc resource");
         }
+
+        validatePartition(properties);
+    }
+
+    private void validatePartition(Map<String, String> properties) throws DdlException {
+        partitionColumn = properties.get(PARTITION_COLUMN);
+        if (Strings.isNullOrEmpty(partitionColumn)) {
+            partitionColumn = null;
+            return;
+        }
+        Column column = getColumn(partitionColumn);
+        if (column == null) {
+            throw new DdlException("partition column [" + partitionColumn + "] not exists");
+        }
+        if (!column.getType().isIntegerType() && !column.getType().isDateType()) {
+            throw new DdlException("partition column [" + partitionColumn + "] must be integer, date or datetime");
+        }
+
+        String num = properties.get(PARTITION_NUM);
+        partitionLowerBound = properties.get(PARTITION_LOWER_BOUND);
+        partitionUpperBound = properties.get(PARTITION_UPPER_BOUND);
+        if (Strings.isNullOrEmpty(num) || Strings.isNullOrEmpty(partitionLowerBound) ||
+                Strings.isNullOrEmpty(partitionUpperBound)) {
+            throw new DdlException("property " + PARTITION_NUM + ", " + PARTITION_LOWER_BOUND + " and " +
+                    PARTITION_UPPER_BOUND + " must be set with " + PARTITION_COLUMN);
+        }
+        try {
+            partitionNum = Integer.parseInt(num);
+        } catch (NumberFormatException e) {
+            throw new DdlException("invalid " + PARTITION_NUM + ": " + num);
+        }
+        if (partitionNum <= 0) {
+            throw new DdlException(PARTITION_NUM + " must be positive");
+        }
+        long lower;
+        long upper;
+        try {
+            lower = toPartitionValue(column.getType(), partitionLowerBound);
+            upper = toPartitionValue(column.getType(), partitionUpperBound);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new DdlException("invalid partition bound of column [" + partitionColumn + "]: " + e.getMessage());
+        }
+        if (lower >= upper) {
+            throw new DdlException(PARTITION_LOWER_BOUND + " must be less than " + PARTITION_UPPER_BOUND);
+        }
+        try {
+            Math.subtractExact(upper, lower);
+        } catch (ArithmeticException e) {
+            throw new DdlException("the range of partition bounds is too large");
+        }
     }
 
     @Override
@@ -99,6 +236,12 @@ public class JDBCTable extends Table {
         JsonObject obj = new JsonObject();
         obj.addProperty(TABLE, jdbcTable);
         obj.addProperty(RESOURCE, resourceName);
+        if (partitionColumn != null) {
+            obj.addProperty(PARTITION_COLUMN, partitionColumn);
+            obj.addProperty(PARTITION_NUM, partitionNum);
+            obj.addProperty(PARTITION_LOWER_BOUND, partitionLowerBound);
+            obj.addProperty(PARTITION_UPPER_BOUND, partitionUpperBound);
+        }
         Text.writeString(out, obj.toString());
     }
 
@@ -109,6 +252,12 @@ public class JDBCTable extends Table {
         JsonObject obj = JsonParser.parseString(jsonStr).getAsJsonObject();
         jdbcTable = obj.getAsJsonPrimitive(TABLE).getAsString();
         resourceName = obj.getAsJsonPrimitive(RESOURCE).getAsString();
+        if (obj.has(PARTITION_COLUMN)) {
+            partitionColumn = obj.getAsJsonPrimitive(PARTITION_COLUMN).getAsString();
+            partitionNum = obj.getAsJsonPrimitive(PARTITION_NUM).getAsInt();
+            partitionLowerBound = obj.getAsJsonPrimitive(PARTITION_LOWER_BOUND).getAsString();
+            partitionUpperBound = obj.getAsJsonPrimitive(PARTITION_UPPER_BOUND).getAsString();
+        }
     }
 
     @Override
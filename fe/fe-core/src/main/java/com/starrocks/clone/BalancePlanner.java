@@ -0,0 +1,505 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.clone;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.starrocks.catalog.Replica;
+import com.starrocks.catalog.TabletInvertedIndex;
+import com.starrocks.clone.BackendLoadStatistic.LoadScore;
+import com.starrocks.common.Config;
+import com.starrocks.system.Backend;
+import com.starrocks.system.SystemInfoService;
+import com.starrocks.thrift.TStorageMedium;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * BalancePlanner plans the balance moves of one storage medium as a batch.
+ * 1. Each backend is modeled as a node with its load, its failure domain and its balance budget:
+ *    the number of balance slots, and the bytes it can send or receive in one round of tablet selection,
+ *    which is Config.tablet_balance_bandwidth_mb_per_backend * the interval of tablet selection.
+ * 2. Each candidate tablet can be moved from its source backend to one slot of a low load backend.
+ *    The cost of the move is the change of load score skew, computed as ClusterLoadStatistic.isMoreBalanced(),
+ *    and the k-th slot of a backend is charged as if it has received k tablets already, so the moves
+ *    are spread over the low load backends.
+ *    A move is infeasible if it does not make the cluster more balanced, the destination already has
+ *    a replica of the tablet, or the destination is in the same failure domain as a replica of the tablet.
+ * 3. The candidates are assigned to slots by solving the min-cost assignment problem,
+ *    and the assigned moves are then accepted in ascending order of cost within the bandwidth budgets.
+ *
+ * The planner works on a snapshot of the load statistic, so it can also simulate a whole rebalance of
+ * the cluster offline, see simulate().
+ */
+public class BalancePlanner {
+    private static final Logger LOG = LogManager.getLogger(BalancePlanner.class);
+
+    // cost of an infeasible assignment, larger than the sum of all feasible costs
+    private static final double INFEASIBLE_COST = 1e9;
+
+    public static class BackendNode {
+        private final long beId;
+        private final String domain;
+        private final long totalCapacityB;
+        private long usedCapacityB;
+        private long replicaNum;
+        private final int slotNum;
+        private final long bandwidthBudgetB;
+        private final boolean available;
+
+        public BackendNode(long beId, String domain, long totalCapacityB, long usedCapacityB, long replicaNum,
+                           int slotNum, long bandwidthBudgetB, boolean available) {
+            this.beId = beId;
+            this.domain = domain;
+            this.totalCapacityB = totalCapacityB;
+            this.usedCapacityB = usedCapacityB;
+            this.replicaNum = replicaNum;
+            this.slotNum = slotNum;
+            this.bandwidthBudgetB = bandwidthBudgetB;
+            this.available = available;
+        }
+
+        public long getBeId() {
+            return beId;
+        }
+
+        public String getDomain() {
+            return domain;
+        }
+
+        public long getUsedCapacityB() {
+            return usedCapacityB;
+        }
+
+        public long getReplicaNum() {
+            return replicaNum;
+        }
+    }
+
+    public static class Candidate {
+        private final long tabletId;
+        private final long srcBeId;
+        private final long size;
+        private final Set<Long> replicaBeIds;
+
+        public Candidate(long tabletId, long srcBeId, long size, Set<Long> replicaBeIds) {
+            this.tabletId = tabletId;
+            this.srcBeId = srcBeId;
+            this.size = size;
+            this.replicaBeIds = replicaBeIds;
+        }
+
+        public long getTabletId() {
+            return tabletId;
+        }
+    }
+
+    public static class Move {
+        private final long tabletId;
+        private final long srcBeId;
+        private final long destBeId;
+        private final long size;
+        private final double cost;
+
+        public Move(long tabletId, long srcBeId, long destBeId, long size, double cost) {
+            this.tabletId = tabletId;
+            this.srcBeId = srcBeId;
+            this.destBeId = destBeId;
+            this.size = size;
+            this.cost = cost;
+        }
+
+        public long getTabletId() {
+            return tabletId;
+        }
+
+        public long getSrcBeId() {
+            return srcBeId;
+        }
+
+        public long getDestBeId() {
+            return destBeId;
+        }
+
+        @Override
+        public String toString() {
+            return "tablet " + tabletId + ": " + srcBeId + " -> " + destBeId + ", size: " + size;
+        }
+    }
+
+    public static class SimulationResult {
+        private final List<Move> moves;
+        private final int rounds;
+        private final double initialSkew;
+        private final double finalSkew;
+
+        public SimulationResult(List<Move> moves, int rounds, double initialSkew, double finalSkew) {
+            this.moves = moves;
+            this.rounds = rounds;
+            this.initialSkew = initialSkew;
+            this.finalSkew = finalSkew;
+        }
+
+        public List<Move> getMoves() {
+            return moves;
+        }
+
+        public int getRounds() {
+            return rounds;
+        }
+
+        // skew is the difference between the max and min load score of backends
+        public double getInitialSkew() {
+            return initialSkew;
+        }
+
+        public double getFinalSkew() {
+            return finalSkew;
+        }
+    }
+
+    private final Map<Long, BackendNode> nodes = Maps.newLinkedHashMap();
+    private final double avgUsedCapacityPercent;
+    private final double avgReplicaNum;
+
+    public BalancePlanner(List<BackendNode> backendNodes) {
+        long totalCapacityB = 0;
+        long totalUsedCapacityB = 0;
+        long totalReplicaNum = 0;
+        for (BackendNode node : backendNodes) {
+            nodes.put(node.beId, node);
+            totalCapacityB += node.totalCapacityB;
+            totalUsedCapacityB += node.usedCapacityB;
+            totalReplicaNum += node.replicaNum;
+        }
+        // moves do not change the total used capacity and replica number,
+        // so the averages are constant during a simulation
+        this.avgUsedCapacityPercent = totalUsedCapacityB / (double) Math.max(totalCapacityB, 1L);
+        this.avgReplicaNum = totalReplicaNum / (double) Math.max(nodes.size(), 1);
+    }
+
+    /*
+     * Create a planner from the load statistic of the given medium.
+     * The failure domain of a backend is its host, which is also what the rebalancers check for now.
+     */
+    public static BalancePlanner create(ClusterLoadStatistic clusterStat, TStorageMedium medium,
+                                        SystemInfoService infoService) {
+        long bandwidthBudgetB = Config.tablet_balance_bandwidth_mb_per_backend * 1024L * 1024L
+                * TabletScheduler.STAT_UPDATE_INTERVAL_MS / 1000;
+        List<BackendNode> backendNodes = Lists.newArrayList();
+        for (BackendLoadStatistic beStat : clusterStat.getAllBackendLoadStatistic()) {
+            if (!beStat.hasMedium(medium)) {
+                continue;
+            }
+            Backend backend = infoService.getBackend(beStat.getBeId());
+            String domain = backend == null ? String.valueOf(beStat.getBeId()) : backend.getHost();
+            int slotNum = (int) beStat.getAvailPathNum(medium) * TabletScheduler.BALANCE_SLOT_NUM_FOR_PATH;
+            backendNodes.add(new BackendNode(beStat.getBeId(), domain, beStat.getTotalCapacityB(medium),
+                    beStat.getTotalUsedCapacityB(medium), beStat.getReplicaNum(medium), slotNum, bandwidthBudgetB,
+                    beStat.isAvailable() && beStat.hasAvailDisk()));
+        }
+        return new BalancePlanner(backendNodes);
+    }
+
+    public BackendNode getNode(long beId) {
+        return nodes.get(beId);
+    }
+
+    private double getLoadScore(BackendNode node, long deltaCapacityB, long deltaReplicaNum) {
+        LoadScore score = BackendLoadStatistic.calcSore(node.usedCapacityB + deltaCapacityB,
+                Math.max(node.totalCapacityB, 1L), node.replicaNum + deltaReplicaNum,
+                avgUsedCapacityPercent, avgReplicaNum);
+        return score.score;
+    }
+
+    private double getAvgLoadScore() {
+        double totalScore = 0.0;
+        for (BackendNode node : nodes.values()) {
+            totalScore += getLoadScore(node, 0, 0);
+        }
+        return totalScore / Math.max(nodes.size(), 1);
+    }
+
+    public double getLoadScoreSkew() {
+        double maxScore = -Double.MAX_VALUE;
+        double minScore = Double.MAX_VALUE;
+        for (BackendNode node : nodes.values()) {
+            double score = getLoadScore(node, 0, 0);
+            maxScore = Math.max(maxScore, score);
+            minScore = Math.min(minScore, score);
+        }
+        return nodes.isEmpty() ? 0.0 : maxScore - minScore;
+    }
+
+    private boolean isLow(BackendNode node, double avgLoadScore) {
+        double score = getLoadScore(node, 0, 0);
+        return avgLoadScore > 0 && score < avgLoadScore
+                && (avgLoadScore - score) / avgLoadScore > Config.balance_load_score_threshold;
+    }
+
+    private boolean isHigh(BackendNode node, double avgLoadScore) {
+        double score = getLoadScore(node, 0, 0);
+        return avgLoadScore > 0 && score > avgLoadScore
+                && (score - avgLoadScore) / avgLoadScore > Config.balance_load_score_threshold;
+    }
+
+    /*
+     * Cost of moving the candidate to a destination which has received 'receivedNum' tablets of 'receivedSize'.
+     * Return INFEASIBLE_COST if the move is not allowed or does not make the cluster more balanced.
+     */
+    private double getMoveCost(Candidate candidate, Set<String> replicaDomains, BackendNode dest,
+                               int receivedNum, long receivedSize, double avgLoadScore) {
+        if (candidate.replicaBeIds.contains(dest.beId) || replicaDomains.contains(dest.domain)) {
+            return INFEASIBLE_COST;
+        }
+        BackendNode src = nodes.get(candidate.srcBeId);
+        if (src == null) {
+            return INFEASIBLE_COST;
+        }
+        long destUsedCapacityB = dest.usedCapacityB + receivedSize + candidate.size;
+        if (destUsedCapacityB / (double) Math.max(dest.totalCapacityB, 1L)
+                > Config.storage_high_watermark_usage_percent / 100.0) {
+            return INFEASIBLE_COST;
+        }
+
+        double currentSrcScore = getLoadScore(src, 0, 0);
+        double currentDestScore = getLoadScore(dest, receivedSize, receivedNum);
+        double newSrcScore = getLoadScore(src, -candidate.size, -1);
+        double newDestScore = getLoadScore(dest, receivedSize + candidate.size, receivedNum + 1);
+        double currentDiff = Math.abs(currentSrcScore - avgLoadScore) + Math.abs(currentDestScore - avgLoadScore);
+        double newDiff = Math.abs(newSrcScore - avgLoadScore) + Math.abs(newDestScore - avgLoadScore);
+        return newDiff < currentDiff ? newDiff - currentDiff : INFEASIBLE_COST;
+    }
+
+    /*
+     * Plan the moves of the candidates in a batch, at most one move for each tablet.
+     */
+    public List<Move> plan(List<Candidate> candidates) {
+        List<Move> moves = Lists.newArrayList();
+        if (candidates.isEmpty()) {
+            return moves;
+        }
+
+        double avgLoadScore = getAvgLoadScore();
+        List<BackendNode> destSlots = Lists.newArrayList();
+        for (BackendNode node : nodes.values()) {
+            if (node.available && isLow(node, avgLoadScore)) {
+                for (int i = 0; i < node.slotNum; i++) {
+                    destSlots.add(node);
+                }
+            }
+        }
+        if (destSlots.isEmpty()) {
+            return moves;
+        }
+
+        long avgCandidateSize = (long) candidates.stream().mapToLong(c -> c.size).average().orElse(0.0);
+        int rowNum = candidates.size();
+        // each candidate has a dummy column of cost 0, which means the candidate is not moved
+        int colNum = destSlots.size() + rowNum;
+        double[][] cost = new double[rowNum][colNum];
+        for (int i = 0; i < rowNum; i++) {
+            Candidate candidate = candidates.get(i);
+            Set<String> replicaDomains = Sets.newHashSet();
+            for (Long beId : candidate.replicaBeIds) {
+                BackendNode node = nodes.get(beId);
+                if (node != null) {
+                    replicaDomains.add(node.domain);
+                }
+            }
+            Map<Long, Integer> slotIndexes = Maps.newHashMap();
+            for (int j = 0; j < destSlots.size(); j++) {
+                BackendNode dest = destSlots.get(j);
+                int slotIndex = slotIndexes.merge(dest.beId, 1, Integer::sum) - 1;
+                cost[i][j] = getMoveCost(candidate, replicaDomains, dest, slotIndex, slotIndex * avgCandidateSize,
+                        avgLoadScore);
+            }
+        }
+
+        int[] assignment = solveAssignment(cost);
+        List<Move> assignedMoves = Lists.newArrayList();
+        for (int i = 0; i < rowNum; i++) {
+            int j = assignment[i];
+            if (j < destSlots.size() && cost[i][j] < INFEASIBLE_COST) {
+                Candidate candidate = candidates.get(i);
+                assignedMoves.add(new Move(candidate.tabletId, candidate.srcBeId, destSlots.get(j).beId,
+                        candidate.size, cost[i][j]));
+            }
+        }
+
+        // accept the most beneficial moves first within the bandwidth budget of src and dest.
+        // a backend can always take part in one move, even if the tablet is larger than its budget.
+        assignedMoves.sort(Comparator.comparingDouble(m -> m.cost));
+        Map<Long, Long> transferredBytes = Maps.newHashMap();
+        Set<Long> movedTablets = Sets.newHashSet();
+        for (Move move : assignedMoves) {
+            if (movedTablets.contains(move.tabletId)
+                    || !withinBudget(move.srcBeId, move.size, transferredBytes)
+                    || !withinBudget(move.destBeId, move.size, transferredBytes)) {
+                continue;
+            }
+            transferredBytes.merge(move.srcBeId, move.size, Long::sum);
+            transferredBytes.merge(move.destBeId, move.size, Long::sum);
+            movedTablets.add(move.tabletId);
+            moves.add(move);
+        }
+
+        LOG.debug("plan {} balance moves from {} candidates and {} dest slots: {}",
+                moves.size(), candidates.size(), destSlots.size(), moves);
+        return moves;
+    }
+
+    private boolean withinBudget(long beId, long size, Map<Long, Long> transferredBytes) {
+        BackendNode node = nodes.get(beId);
+        Long transferred = transferredBytes.get(beId);
+        return transferred == null || node.bandwidthBudgetB <= 0 || transferred + size <= node.bandwidthBudgetB;
+    }
+
+    /*
+     * Simulate the rebalance of the cluster until it is balanced, no more move can be planned,
+     * or maxRounds is reached. Each round plans the moves of tablets on high load backends and applies them
+     * to the snapshot, so the planner should not be used for the online planning after simulation.
+     * tabletReplicas: tablet id -> backend ids of its replicas, tabletSizes: tablet id -> size of the tablet.
+     */
+    public SimulationResult simulate(Map<Long, Set<Long>> tabletReplicas, Map<Long, Long> tabletSizes,
+                                     int maxRounds) {
+        double initialSkew = getLoadScoreSkew();
+        List<Move> allMoves = Lists.newArrayList();
+        int round = 0;
+        while (round < maxRounds) {
+            double avgLoadScore = getAvgLoadScore();
+            List<Candidate> candidates = Lists.newArrayList();
+            for (BackendNode node : nodes.values()) {
+                if (!isHigh(node, avgLoadScore)) {
+                    continue;
+                }
+                // like BeLoadRebalancer, select at most 'slotNum' tablets from a high load backend in a round
+                int remaining = node.slotNum;
+                for (Map.Entry<Long, Set<Long>> entry : tabletReplicas.entrySet()) {
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    if (entry.getValue().contains(node.beId) && entry.getValue().size() < nodes.size()) {
+                        candidates.add(new Candidate(entry.getKey(), node.beId,
+                                tabletSizes.getOrDefault(entry.getKey(), 0L), Sets.newHashSet(entry.getValue())));
+                        remaining--;
+                    }
+                }
+            }
+
+            List<Move> moves = plan(candidates);
+            if (moves.isEmpty()) {
+                break;
+            }
+            round++;
+            for (Move move : moves) {
+                BackendNode src = nodes.get(move.srcBeId);
+                BackendNode dest = nodes.get(move.destBeId);
+                src.usedCapacityB -= move.size;
+                src.replicaNum--;
+                dest.usedCapacityB += move.size;
+                dest.replicaNum++;
+                Set<Long> replicas = tabletReplicas.get(move.tabletId);
+                replicas.remove(move.srcBeId);
+                replicas.add(move.destBeId);
+            }
+            allMoves.addAll(moves);
+        }
+
+        SimulationResult result = new SimulationResult(allMoves, round, initialSkew, getLoadScoreSkew());
+        LOG.info("simulate rebalance finished. rounds: {}, moves: {}, load score skew: {} -> {}",
+                round, allMoves.size(), result.getInitialSkew(), result.getFinalSkew());
+        return result;
+    }
+
+    /*
+     * Simulate the rebalance of the given medium from the current load statistic and tablet inverted index.
+     */
+    public static SimulationResult simulate(ClusterLoadStatistic clusterStat, TStorageMedium medium,
+                                            SystemInfoService infoService, TabletInvertedIndex invertedIndex,
+                                            int maxRounds) {
+        BalancePlanner planner = create(clusterStat, medium, infoService);
+        Map<Long, Set<Long>> tabletReplicas = Maps.newTreeMap();
+        Map<Long, Long> tabletSizes = Maps.newHashMap();
+        for (Long beId : planner.nodes.keySet()) {
+            for (Long tabletId : invertedIndex.getTabletIdsByBackendIdAndStorageMedium(beId, medium)) {
+                tabletReplicas.computeIfAbsent(tabletId, k -> Sets.newHashSet()).add(beId);
+                Replica replica = invertedIndex.getReplica(tabletId, beId);
+                if (replica != null) {
+                    tabletSizes.merge(tabletId, replica.getDataSize(), Long::max);
+                }
+            }
+        }
+        return planner.simulate(tabletReplicas, tabletSizes, maxRounds);
+    }
+
+    /*
+     * Hungarian algorithm of the rectangular assignment problem, the number of rows should not be
+     * larger than the number of columns. Return the assigned column of each row, which minimize the total cost.
+     */
+    static int[] solveAssignment(double[][] cost) {
+        int n = cost.length;
+        int m = cost[0].length;
+        // potentials of rows and columns, and the row matched to each column, all 1-based
+        double[] u = new double[n + 1];
+        double[] v = new double[m + 1];
+        int[] match = new int[m + 1];
+        int[] way = new int[m + 1];
+        double[] minv = new double[m + 1];
+        boolean[] used = new boolean[m + 1];
+        for (int i = 1; i <= n; i++) {
+            match[0] = i;
+            int j0 = 0;
+            Arrays.fill(minv, Double.MAX_VALUE);
+            Arrays.fill(used, false);
+            do {
+                used[j0] = true;
+                int i0 = match[j0];
+                double delta = Double.MAX_VALUE;
+                int j1 = 0;
+                for (int j = 1; j <= m; j++) {
+                    if (!used[j]) {
+                        double cur = cost[i0 - 1][j - 1] - u[i0] - v[j];
+                        if (cur < minv[j]) {
+                            minv[j] = cur;
+                            way[j] = j0;
+                        }
+                        if (minv[j] < delta) {
+                            delta = minv[j];
+                            j1 = j;
+                        }
+                    }
+                }
+                for (int j = 0; j <= m; j++) {
+                    if (used[j]) {
+                        u[match[j]] += delta;
+                        v[j] -= delta;
+                    } else {
+                        minv[j] -= delta;
+                    }
+                }
+                j0 = j1;
+            } while (match[j0] != 0);
+            do {
+                int j1 = way[j0];
+                match[j0] = match[j1];
+                j0 = j1;
+            } while (j0 != 0);
+        }
+
+        int[] assignment = new int[n];
+        for (int j = 1; j <= m; j++) {
+            if (match[j] != 0) {
+                assignment[match[j] - 1] = j - 1;
+            }
+        }
+        return assignment;
+    }
+}
@@ -31,6 +31,7 @@ import com.starrocks.catalog.TabletMeta;
 import com.starrocks.clone.SchedException.Status;
 import com.starrocks.clone.TabletSchedCtx.Priority;
 import com.starrocks.clone.TabletScheduler.PathSlot;
+import com.starrocks.common.Config;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.system.Backend;
 import com.starrocks.system.SystemInfoService;
@@ -39,6 +40,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -52,10 +54,19 @@ import java.util.Set;
 public class BeLoadRebalancer extends Rebalancer {
     private static final Logger LOG = LogManager.getLogger(BeLoadRebalancer.class);
 
+    // tablet id -> dest backend id planned by BalancePlanner in the last round of tablet selection
+    private Map<Long, Long> plannedDestBackends = Maps.newHashMap();
+
     public BeLoadRebalancer(SystemInfoService infoService, TabletInvertedIndex invertedIndex) {
         super(infoService, invertedIndex);
     }
 
+    @Override
+    public List<TabletSchedCtx> selectAlternativeTablets() {
+        plannedDestBackends.clear();
+        return super.selectAlternativeTablets();
+    }
+
     /*
      * Try to select alternative tablets to balance the specified cluster.
      * 1. Classify the backend into low, mid and high class by load score.
@@ -107,6 +118,9 @@ public class BeLoadRebalancer extends Rebalancer {
         LOG.info("get number of low load paths: {}, with medium: {}", numOfLowPaths, medium);
 
         int clusterAvailableBEnum = infoService.getBackendIds(true).size();
+        // tablet id -> the backend it is selected from, and the size of the replica
+        Map<Long, Long> srcBackends = Maps.newHashMap();
+        Map<Long, Long> tabletSizes = Maps.newHashMap();
         ColocateTableIndex colocateTableIndex = GlobalStateMgr.getCurrentColocateIndex();
         // choose tablets from high load backends.
         // BackendLoadStatistic is sorted by load score in ascend order,
@@ -169,6 +183,8 @@ public class BeLoadRebalancer extends Rebalancer {
                     tabletCtx.setOrigPriority(Priority.LOW);
 
                     alternativeTablets.add(tabletCtx);
+                    srcBackends.put(tabletId, beStat.getBeId());
+                    tabletSizes.put(tabletId, replica.getDataSize());
                     if (--numOfLowPaths <= 0) {
                         // enough
                         break OUTER;
@@ -185,12 +201,55 @@ public class BeLoadRebalancer extends Rebalancer {
             }
         } // end for high backends
 
+        if (Config.tablet_balance_enable_batch_plan) {
+            alternativeTablets = planAlternativeTablets(clusterStat, medium, alternativeTablets,
+                    srcBackends, tabletSizes);
+        }
+
         LOG.info("select alternative tablets for cluster: {}, medium: {}, num: {}, detail: {}",
                 clusterName, medium, alternativeTablets.size(),
                 alternativeTablets.stream().mapToLong(TabletSchedCtx::getTabletId).toArray());
         return alternativeTablets;
     }
 
+    /*
+     * Plan the destinations of the alternative tablets as a batch, and only keep the tablets which can be moved.
+     * The planned destination is tried first when the tablet is being scheduled,
+     * and all the checks in completeSchedCtx() are still done.
+     */
+    private List<TabletSchedCtx> planAlternativeTablets(ClusterLoadStatistic clusterStat, TStorageMedium medium,
+                                                        List<TabletSchedCtx> alternativeTablets,
+                                                        Map<Long, Long> srcBackends, Map<Long, Long> tabletSizes) {
+        if (alternativeTablets.isEmpty()) {
+            return alternativeTablets;
+        }
+
+        List<BalancePlanner.Candidate> candidates = Lists.newArrayList();
+        for (TabletSchedCtx tabletCtx : alternativeTablets) {
+            long tabletId = tabletCtx.getTabletId();
+            Set<Long> replicaBeIds = Sets.newHashSet();
+            for (Replica replica : invertedIndex.getReplicasByTabletId(tabletId)) {
+                replicaBeIds.add(replica.getBackendId());
+            }
+            candidates.add(new BalancePlanner.Candidate(tabletId, srcBackends.get(tabletId),
+                    tabletSizes.get(tabletId), replicaBeIds));
+        }
+
+        List<BalancePlanner.Move> moves = BalancePlanner.create(clusterStat, medium, infoService).plan(candidates);
+        for (BalancePlanner.Move move : moves) {
+            plannedDestBackends.put(move.getTabletId(), move.getDestBeId());
+        }
+        List<TabletSchedCtx> plannedTablets = Lists.newArrayList();
+        for (TabletSchedCtx tabletCtx : alternativeTablets) {
+            if (plannedDestBackends.containsKey(tabletCtx.getTabletId())) {
+                plannedTablets.add(tabletCtx);
+            }
+        }
+        LOG.debug("plan balance moves with medium: {}, alternative tablets: {}, moves: {}",
+                medium, alternativeTablets.size(), moves);
+        return plannedTablets;
+    }
+
     /*
      * Create a clone task of this selected tablet for balance.
      * 1. Check if this tablet has replica on high load backend. If not, the balance will be cancelled.
@@ -258,7 +317,11 @@ public class BeLoadRebalancer extends Rebalancer {
             throw new SchedException(Status.UNRECOVERABLE, "unable to take src slot");
         }
 
-        // Select a low load backend as destination.
+        // Select a low load backend as destination, try the planned one first.
+        Long plannedDestBeId = plannedDestBackends.remove(tabletCtx.getTabletId());
+        if (plannedDestBeId != null) {
+            lowBe.sort(Comparator.comparing(b -> b.getBeId() != plannedDestBeId));
+        }
         boolean setDest = false;
         for (BackendLoadStatistic beStat : lowBe) {
             if (beStat.isAvailable() && replicas.stream().noneMatch(r -> r.getBackendId() == beStat.getBeId())) {
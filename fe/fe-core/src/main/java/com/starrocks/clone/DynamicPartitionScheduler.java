@@ -28,8 +28,10 @@ import com.starrocks.analysis.AddPartitionClause;
 import com.starrocks.analysis.DistributionDesc;
 import com.starrocks.analysis.DropPartitionClause;
 import com.starrocks.analysis.HashDistributionDesc;
+import com.starrocks.analysis.PartitionDesc;
 import com.starrocks.analysis.PartitionKeyDesc;
 import com.starrocks.analysis.PartitionValue;
+import com.starrocks.analysis.RangePartitionDesc;
 import com.starrocks.analysis.SingleRangePartitionDesc;
 import com.starrocks.catalog.Column;
 import com.starrocks.catalog.Database;
@@ -61,6 +63,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * This class is used to periodically add or drop partition on an olapTable which specify dynamic partition properties
@@ -277,6 +280,7 @@ public class DynamicPartitionScheduler extends MasterDaemon {
             ArrayList<AddPartitionClause> addPartitionClauses = new ArrayList<>();
             ArrayList<DropPartitionClause> dropPartitionClauses;
             String tableName;
+            List<String> partitionColNames;
             boolean skipAddPartition = false;
             OlapTable olapTable;
             db.readLock();
@@ -323,6 +327,7 @@ public class DynamicPartitionScheduler extends MasterDaemon {
                 }
                 dropPartitionClauses = getDropPartitionClause(db, olapTable, partitionColumn, partitionFormat);
                 tableName = olapTable.getName();
+                partitionColNames = Collections.singletonList(partitionColumn.getName());
             } finally {
                 db.readUnlock();
             }
@@ -340,14 +345,37 @@ public class DynamicPartitionScheduler extends MasterDaemon {
             }
 
             if (!skipAddPartition) {
-                for (AddPartitionClause addPartitionClause : addPartitionClauses) {
-                    try {
-                        GlobalStateMgr.getCurrentState().addPartitions(db, tableName, addPartitionClause);
-                        clearCreatePartitionFailedMsg(tableName);
-                    } catch (DdlException | AnalysisException e) {
-                        recordCreatePartitionFailedMsg(db.getFullName(), tableName, e.getMessage());
-                    }
-                }
+                addPartitions(db, tableName, partitionColNames, addPartitionClauses);
+            }
+        }
+    }
+
+    // Add the partitions in a batch, so the replicas of all partitions are created concurrently and only one edit
+    // log is written. If the batch fails, add the partitions one by one to add as many partitions as possible.
+    private void addPartitions(Database db, String tableName, List<String> partitionColNames,
+                               List<AddPartitionClause> addPartitionClauses) {
+        if (addPartitionClauses.size() > 1) {
+            List<PartitionDesc> partitionDescs = addPartitionClauses.stream()
+                    .map(AddPartitionClause::getPartitionDesc).collect(Collectors.toList());
+            AddPartitionClause batchClause = new AddPartitionClause(
+                    new RangePartitionDesc(partitionColNames, partitionDescs),
+                    addPartitionClauses.get(0).getDistributionDesc(), null, false);
+            try {
+                GlobalStateMgr.getCurrentState().addPartitions(db, tableName, batchClause);
+                clearCreatePartitionFailedMsg(tableName);
+                return;
+            } catch (DdlException | AnalysisException e) {
+                LOG.warn("dynamic add {} partitions in batch failed: {}, db: {}, table: {}, add them one by one",
+                        addPartitionClauses.size(), e.getMessage(), db.getFullName(), tableName);
+            }
+        }
+
+        for (AddPartitionClause addPartitionClause : addPartitionClauses) {
+            try {
+                GlobalStateMgr.getCurrentState().addPartitions(db, tableName, addPartitionClause);
+                clearCreatePartitionFailedMsg(tableName);
+            } catch (DdlException | AnalysisException e) {
+                recordCreatePartitionFailedMsg(db.getFullName(), tableName, e.getMessage());
             }
         }
     }
@@ -24,6 +24,7 @@ package com.starrocks.clone;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.google.common.collect.Table.Cell;
 import com.starrocks.analysis.AdminCancelRepairTableStmt;
@@ -33,22 +34,27 @@ import com.starrocks.catalog.LocalTablet;
 import com.starrocks.catalog.LocalTablet.TabletStatus;
 import com.starrocks.catalog.MaterializedIndex;
 import com.starrocks.catalog.MaterializedIndex.IndexExtState;
+import com.starrocks.catalog.MaterializedIndex.IndexState;
 import com.starrocks.catalog.OlapTable;
 import com.starrocks.catalog.Partition;
 import com.starrocks.catalog.Partition.PartitionState;
 import com.starrocks.catalog.Table;
 import com.starrocks.catalog.Table.TableType;
 import com.starrocks.catalog.Tablet;
+import com.starrocks.catalog.TabletInvertedIndex;
+import com.starrocks.catalog.TabletMeta;
 import com.starrocks.clone.TabletScheduler.AddResult;
 import com.starrocks.common.Config;
 import com.starrocks.common.DdlException;
 import com.starrocks.common.Pair;
 import com.starrocks.common.util.MasterDaemon;
+import com.starrocks.metric.MetricRepo;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.system.SystemInfoService;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -73,6 +79,13 @@ public class TabletChecker extends MasterDaemon {
     // priority of replicas of partitions in this table will be set to VERY_HIGH if not healthy
     private com.google.common.collect.Table<Long, Long, Set<PrioPart>> prios = HashBasedTable.create();
 
+    // tablets to be checked in next incremental round, and backends whose tablets are all to be checked
+    private final Set<Long> dirtyTabletIds = Sets.newConcurrentHashSet();
+    private final Set<Long> dirtyBackendIds = Sets.newConcurrentHashSet();
+    // the first round is always a full round
+    private volatile boolean needFullCheck = true;
+    private long lastFullCheckTime = 0;
+
     // represent a partition which need to be repaired preferentially
     public static class PrioPart {
         public long partId;
@@ -167,7 +180,45 @@ public class TabletChecker extends MasterDaemon {
     }
 
     /*
-     * For each cycle, TabletChecker will check all OlapTable's tablet.
+     * Tablets whose replicas may be changed are marked dirty by tablet reports, backend state changes and
+     * tablet scheduling. In an incremental round, only the dirty tablets are checked, and a full round
+     * which checks all tablets is done every Config.tablet_checker_full_check_interval_second,
+     * in case some changes are not marked.
+     */
+    public void markTabletDirty(long tabletId) {
+        if (dirtyTabletIds.size() >= Config.tablet_checker_max_dirty_tablets) {
+            needFullCheck = true;
+            return;
+        }
+        dirtyTabletIds.add(tabletId);
+    }
+
+    public void markTabletsDirty(Collection<Long> tabletIds) {
+        for (long tabletId : tabletIds) {
+            markTabletDirty(tabletId);
+        }
+    }
+
+    // all tablets which have replica on this backend will be checked in next round
+    public void markBackendDirty(long backendId) {
+        dirtyBackendIds.add(backendId);
+    }
+
+    // the caller should hold the db lock
+    public void markPartitionDirty(Partition partition) {
+        for (MaterializedIndex idx : partition.getMaterializedIndices(IndexExtState.VISIBLE)) {
+            for (Tablet tablet : idx.getTablets()) {
+                markTabletDirty(tablet.getId());
+            }
+        }
+    }
+
+    public void requestFullCheck() {
+        needFullCheck = true;
+    }
+
+    /*
+     * For each cycle, TabletChecker will check all dirty tablets, or all OlapTable's tablet in a full round.
      * If a tablet is not healthy, a TabletInfo will be created and sent to TabletScheduler for repairing.
      */
     @Override
@@ -181,7 +232,13 @@ public class TabletChecker extends MasterDaemon {
             return;
         }
 
-        checkTablets();
+        if (needFullCheck || !Config.tablet_checker_enable_incremental_check
+                || System.currentTimeMillis() - lastFullCheckTime
+                >= Config.tablet_checker_full_check_interval_second * 1000L) {
+            checkAllTablets();
+        } else {
+            checkDirtyTablets();
+        }
 
         removePriosIfNecessary();
 
@@ -202,13 +259,103 @@ public class TabletChecker extends MasterDaemon {
         return !(tabletCtx.needCloneFromSource() && tabletCtx.getHealthyReplicas().size() == 0);
     }
 
-    private void checkTablets() {
-        long start = System.currentTimeMillis();
+    private static class CheckStat {
         long totalTabletNum = 0;
         long unhealthyTabletNum = 0;
         long addToSchedulerTabletNum = 0;
         long tabletInScheduler = 0;
         long tabletNotReady = 0;
+    }
+
+    // return -1 if the tablets of this partition should not be checked
+    private short getReplicaNumToCheck(OlapTable olapTbl, Partition partition) {
+        if (partition.isUseStarOS()) {
+            // replicas are managed by StarOS and cloud storage.
+            return (short) -1;
+        }
+
+        if (partition.getState() != PartitionState.NORMAL) {
+            // when alter job is in FINISHING state, partition state will be set to NORMAL,
+            // and we can schedule the tablets in it.
+            return (short) -1;
+        }
+        return globalStateMgr.getReplicationNumIncludeRecycleBin(olapTbl.getPartitionInfo(), partition.getId());
+    }
+
+    /*
+     * Check the health status of the tablet, and add it to TabletScheduler if it is not healthy.
+     * Unhealthy tablets which are not added to TabletScheduler are marked dirty to be checked again in next round.
+     * Return false if TabletScheduler is full.
+     */
+    private boolean checkTablet(Database db, OlapTable olapTbl, Partition partition, MaterializedIndex idx,
+                                LocalTablet localTablet, short replicaNum, List<Long> aliveBeIdsInCluster,
+                                boolean isInPrios, long checkTime, CheckStat checkStat) {
+        checkStat.totalTabletNum++;
+
+        if (tabletScheduler.containsTablet(localTablet.getId())) {
+            // the tablet will be marked dirty again when it is removed from TabletScheduler
+            checkStat.tabletInScheduler++;
+            return true;
+        }
+
+        Pair<TabletStatus, TabletSchedCtx.Priority> statusWithPrio =
+                localTablet.getHealthStatusWithPriority(
+                        infoService,
+                        db.getClusterName(),
+                        partition.getVisibleVersion(),
+                        replicaNum,
+                        aliveBeIdsInCluster);
+
+        if (statusWithPrio.first == TabletStatus.HEALTHY) {
+            // Only set last status check time when status is healthy.
+            localTablet.setLastStatusCheckTime(checkTime);
+            return true;
+        } else if (isInPrios) {
+            statusWithPrio.second = TabletSchedCtx.Priority.VERY_HIGH;
+        }
+
+        checkStat.unhealthyTabletNum++;
+
+        if (!localTablet.readyToBeRepaired(statusWithPrio.second)) {
+            checkStat.tabletNotReady++;
+            markTabletDirty(localTablet.getId());
+            return true;
+        }
+
+        TabletSchedCtx tabletCtx = new TabletSchedCtx(
+                TabletSchedCtx.Type.REPAIR,
+                db.getClusterName(),
+                db.getId(), olapTbl.getId(),
+                partition.getId(), idx.getId(), localTablet.getId(),
+                System.currentTimeMillis());
+        // the tablet status will be set again when being scheduled
+        tabletCtx.setTabletStatus(statusWithPrio.first);
+        tabletCtx.setOrigPriority(statusWithPrio.second);
+        tabletCtx.setTablet(localTablet);
+        if (!tryChooseSrcBeforeSchedule(tabletCtx)) {
+            markTabletDirty(localTablet.getId());
+            return true;
+        }
+
+        AddResult res = tabletScheduler.addTablet(tabletCtx, false /* not force */);
+        if (res == AddResult.LIMIT_EXCEED) {
+            LOG.info("number of scheduling tablets in tablet scheduler"
+                    + " exceed to limit. stop tablet checker");
+            markTabletDirty(localTablet.getId());
+            return false;
+        } else if (res == AddResult.ADDED) {
+            checkStat.addToSchedulerTabletNum++;
+        }
+        return true;
+    }
+
+    private void checkAllTablets() {
+        long start = System.currentTimeMillis();
+        CheckStat checkStat = new CheckStat();
+        // all tablets will be checked in this round
+        needFullCheck = false;
+        dirtyTabletIds.clear();
+        dirtyBackendIds.clear();
 
         List<Long> dbIds = globalStateMgr.getDbIdsIncludeRecycleBin();
         OUT:
@@ -232,86 +379,27 @@ public class TabletChecker extends MasterDaemon {
 
                     OlapTable olapTbl = (OlapTable) table;
                     for (Partition partition : globalStateMgr.getAllPartitionsIncludeRecycleBin(olapTbl)) {
-                        if (partition.isUseStarOS()) {
-                            // replicas are managed by StarOS and cloud storage.
-                            continue;
-                        }
-
-                        if (partition.getState() != PartitionState.NORMAL) {
-                            // when alter job is in FINISHING state, partition state will be set to NORMAL,
-                            // and we can schedule the tablets in it.
-                            continue;
-                        }
-                        short replicaNum = globalStateMgr.getReplicationNumIncludeRecycleBin(olapTbl.getPartitionInfo(),
-                                partition.getId());
+                        short replicaNum = getReplicaNumToCheck(olapTbl, partition);
                         if (replicaNum == (short) -1) {
                             continue;
                         }
                         boolean isInPrios = isInPrios(dbId, table.getId(), partition.getId());
-                        boolean prioPartIsHealthy = true;
+                        long unhealthyTabletNum = checkStat.unhealthyTabletNum;
                         /*
                          * Tablet in SHADOW index can not be repaired of balanced
                          */
                         for (MaterializedIndex idx : partition.getMaterializedIndices(IndexExtState.VISIBLE)) {
                             for (Tablet tablet : idx.getTablets()) {
-                                LocalTablet localTablet = (LocalTablet) tablet;
-                                totalTabletNum++;
-
-                                if (tabletScheduler.containsTablet(tablet.getId())) {
-                                    tabletInScheduler++;
-                                    continue;
-                                }
-
-                                Pair<TabletStatus, TabletSchedCtx.Priority> statusWithPrio =
-                                        localTablet.getHealthStatusWithPriority(
-                                                infoService,
-                                                db.getClusterName(),
-                                                partition.getVisibleVersion(),
-                                                replicaNum,
-                                                aliveBeIdsInCluster);
-
-                                if (statusWithPrio.first == TabletStatus.HEALTHY) {
-                                    // Only set last status check time when status is healthy.
-                                    localTablet.setLastStatusCheckTime(start);
-                                    continue;
-                                } else if (isInPrios) {
-                                    statusWithPrio.second = TabletSchedCtx.Priority.VERY_HIGH;
-                                    prioPartIsHealthy = false;
-                                }
-
-                                unhealthyTabletNum++;
-
-                                if (!localTablet.readyToBeRepaired(statusWithPrio.second)) {
-                                    tabletNotReady++;
-                                    continue;
-                                }
-
-                                TabletSchedCtx tabletCtx = new TabletSchedCtx(
-                                        TabletSchedCtx.Type.REPAIR,
-                                        db.getClusterName(),
-                                        db.getId(), olapTbl.getId(),
-                                        partition.getId(), idx.getId(), tablet.getId(),
-                                        System.currentTimeMillis());
-                                // the tablet status will be set again when being scheduled
-                                tabletCtx.setTabletStatus(statusWithPrio.first);
-                                tabletCtx.setOrigPriority(statusWithPrio.second);
-                                tabletCtx.setTablet(localTablet);
-                                if (!tryChooseSrcBeforeSchedule(tabletCtx)) {
-                                    continue;
-                                }
-
-                                AddResult res = tabletScheduler.addTablet(tabletCtx, false /* not force */);
-                                if (res == AddResult.LIMIT_EXCEED) {
-                                    LOG.info("number of scheduling tablets in tablet scheduler"
-                                            + " exceed to limit. stop tablet checker");
+                                if (!checkTablet(db, olapTbl, partition, idx, (LocalTablet) tablet, replicaNum,
+                                        aliveBeIdsInCluster, isInPrios, start, checkStat)) {
+                                    // the tablets after this one are not checked
+                                    needFullCheck = true;
                                     break OUT;
-                                } else if (res == AddResult.ADDED) {
-                                    addToSchedulerTabletNum++;
                                 }
                             }
                         } // indices
 
-                        if (prioPartIsHealthy && isInPrios) {
+                        if (isInPrios && checkStat.unhealthyTabletNum == unhealthyTabletNum) {
                             // if all replicas in this partition are healthy, remove this partition from
                             // priorities.
                             LOG.debug("partition is healthy, remove from prios: {}-{}-{}",
@@ -326,15 +414,111 @@ public class TabletChecker extends MasterDaemon {
             }
         } // end for dbs
 
+        lastFullCheckTime = System.currentTimeMillis();
+        finishCheck("all", start, checkStat);
+    }
+
+    private void checkDirtyTablets() {
+        long start = System.currentTimeMillis();
+        CheckStat checkStat = new CheckStat();
+        TabletInvertedIndex invertedIndex = GlobalStateMgr.getCurrentInvertedIndex();
+
+        Set<Long> tabletIds = Sets.newHashSet();
+        Iterator<Long> iter = dirtyBackendIds.iterator();
+        while (iter.hasNext()) {
+            tabletIds.addAll(invertedIndex.getTabletIdsByBackendId(iter.next()));
+            iter.remove();
+        }
+        iter = dirtyTabletIds.iterator();
+        while (iter.hasNext()) {
+            tabletIds.add(iter.next());
+            iter.remove();
+        }
+
+        // db id -> tablet ids, so that each db is locked only once
+        Map<Long, List<Long>> dbToTabletIds = Maps.newHashMap();
+        for (long tabletId : tabletIds) {
+            TabletMeta tabletMeta = invertedIndex.getTabletMeta(tabletId);
+            if (tabletMeta == null) {
+                // tablet has been dropped
+                continue;
+            }
+            dbToTabletIds.computeIfAbsent(tabletMeta.getDbId(), k -> Lists.newArrayList()).add(tabletId);
+        }
+
+        boolean schedulerFull = false;
+        for (Map.Entry<Long, List<Long>> entry : dbToTabletIds.entrySet()) {
+            if (schedulerFull) {
+                markTabletsDirty(entry.getValue());
+                continue;
+            }
+            Database db = globalStateMgr.getDbIncludeRecycleBin(entry.getKey());
+            if (db == null || db.isInfoSchemaDb()) {
+                continue;
+            }
+
+            db.readLock();
+            try {
+                List<Long> aliveBeIdsInCluster = infoService.getBackendIds(true);
+                for (long tabletId : entry.getValue()) {
+                    if (schedulerFull) {
+                        markTabletDirty(tabletId);
+                        continue;
+                    }
+                    TabletMeta tabletMeta = invertedIndex.getTabletMeta(tabletId);
+                    if (tabletMeta == null) {
+                        continue;
+                    }
+                    Table table = globalStateMgr.getTableIncludeRecycleBin(db, tabletMeta.getTableId());
+                    if (table == null || !table.needSchedule(false)) {
+                        continue;
+                    }
+                    OlapTable olapTbl = (OlapTable) table;
+                    Partition partition = globalStateMgr.getPartitionIncludeRecycleBin(olapTbl,
+                            tabletMeta.getPartitionId());
+                    if (partition == null) {
+                        continue;
+                    }
+                    short replicaNum = getReplicaNumToCheck(olapTbl, partition);
+                    if (replicaNum == (short) -1) {
+                        continue;
+                    }
+                    MaterializedIndex idx = partition.getIndex(tabletMeta.getIndexId());
+                    // Tablet in SHADOW index can not be repaired of balanced
+                    if (idx == null || idx.getState() == IndexState.SHADOW) {
+                        continue;
+                    }
+                    Tablet tablet = idx.getTablet(tabletId);
+                    if (tablet == null) {
+                        continue;
+                    }
+                    boolean isInPrios = isInPrios(db.getId(), olapTbl.getId(), partition.getId());
+                    schedulerFull = !checkTablet(db, olapTbl, partition, idx, (LocalTablet) tablet, replicaNum,
+                            aliveBeIdsInCluster, isInPrios, start, checkStat);
+                }
+            } finally {
+                db.readUnlock();
+            }
+        }
+
+        finishCheck("dirty", start, checkStat);
+    }
+
+    private void finishCheck(String checkType, long start, CheckStat checkStat) {
         long cost = System.currentTimeMillis() - start;
 
         stat.counterTabletCheckCostMs.addAndGet(cost);
-        stat.counterTabletChecked.addAndGet(totalTabletNum);
-        stat.counterUnhealthyTabletNum.addAndGet(unhealthyTabletNum);
-        stat.counterTabletAddToBeScheduled.addAndGet(addToSchedulerTabletNum);
+        stat.counterTabletChecked.addAndGet(checkStat.totalTabletNum);
+        stat.counterUnhealthyTabletNum.addAndGet(checkStat.unhealthyTabletNum);
+        stat.counterTabletAddToBeScheduled.addAndGet(checkStat.addToSchedulerTabletNum);
+        if (MetricRepo.isInit) {
+            MetricRepo.GAUGE_TABLET_CHECK_COST_MS.setValue(cost);
+            MetricRepo.GAUGE_TABLET_CHECK_NUM.setValue(checkStat.totalTabletNum);
+        }
 
-        LOG.info("finished to check tablets. unhealth/total/added/in_sched/not_ready: {}/{}/{}/{}/{}, cost: {} ms",
-                unhealthyTabletNum, totalTabletNum, addToSchedulerTabletNum, tabletInScheduler, tabletNotReady, cost);
+        LOG.info("finished to check {} tablets. unhealth/total/added/in_sched/not_ready: {}/{}/{}/{}/{}, cost: {} ms",
+                checkType, checkStat.unhealthyTabletNum, checkStat.totalTabletNum,
+                checkStat.addToSchedulerTabletNum, checkStat.tabletInScheduler, checkStat.tabletNotReady, cost);
     }
 
     private boolean isInPrios(long dbId, long tblId, long partId) {
@@ -407,6 +591,8 @@ public class TabletChecker extends MasterDaemon {
         RepairTabletInfo repairTabletInfo =
                 getRepairTabletInfo(stmt.getDbName(), stmt.getTblName(), stmt.getPartitions());
         addPrios(repairTabletInfo, stmt.getTimeoutS());
+        // check all tablets in next round to set the priority of unhealthy tablets
+        requestFullCheck();
         LOG.info("repair database: {}, table: {}, partition: {}", repairTabletInfo.dbId, repairTabletInfo.tblId,
                 repairTabletInfo.partIds);
     }
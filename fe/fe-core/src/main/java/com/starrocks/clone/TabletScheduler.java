@@ -95,9 +95,11 @@ public class TabletScheduler extends MasterDaemon {
     private static final int MIN_BATCH_NUM = 50;
 
     // the minimum interval of updating cluster statistics and priority of tablet info
-    private static final long STAT_UPDATE_INTERVAL_MS = 20 * 1000; // 20s
+    static final long STAT_UPDATE_INTERVAL_MS = 20 * 1000; // 20s
 
     private static final long SCHEDULE_INTERVAL_MS = 1000; // 1s
+    // each round waits for signals until SCHEDULE_INTERVAL_MS, so the daemon only sleeps a little between rounds
+    private static final long DAEMON_INTERVAL_MS = 10;
 
     public static final int BALANCE_SLOT_NUM_FOR_PATH = 2;
 
@@ -110,12 +112,18 @@ public class TabletScheduler extends MasterDaemon {
      *
      * pendingTablets + runningTablets = allTabletIds
      *
-     * pendingTablets, allTabletIds, runningTablets and schedHistory are protected by 'synchronized'
+     * pendingTablets and schedHistory are protected by 'synchronized', and the changes of allTabletIds are also
+     * made under 'synchronized'. allTabletIds and runningTablets are concurrent containers, so that
+     * TabletChecker and the report of clone tasks can read them without blocking the scheduling.
+     *
+     * pendingTablets is a single priority queue, not a queue per destination backend or path, because the
+     * destination of a tablet is only chosen when it is scheduled. The concurrency of each path is bounded by
+     * its PathSlot, and only the dispatch of the clone tasks is split by backend, see splitByBackend().
      */
     private PriorityQueue<TabletSchedCtx> pendingTablets = new PriorityQueue<>();
-    private Set<Long> allTabletIds = Sets.newHashSet();
+    private Set<Long> allTabletIds = Sets.newConcurrentHashSet();
     // contains all tabletCtxs which state are RUNNING
-    private Map<Long, TabletSchedCtx> runningTablets = Maps.newHashMap();
+    private Map<Long, TabletSchedCtx> runningTablets = Maps.newConcurrentMap();
     // save the latest 1000 scheduled tablet info
     private Queue<TabletSchedCtx> schedHistory = EvictingQueue.create(1000);
 
@@ -127,6 +135,10 @@ public class TabletScheduler extends MasterDaemon {
 
     private long lastSlotAdjustTime = 0;
 
+    // set when slots are freed or new tablets are added, to schedule pending tablets before the next round
+    private final Object scheduleSignal = new Object();
+    private boolean scheduleSignaled = false;
+
     private GlobalStateMgr globalStateMgr;
     private SystemInfoService infoService;
     private TabletInvertedIndex invertedIndex;
@@ -157,7 +169,7 @@ public class TabletScheduler extends MasterDaemon {
     public TabletScheduler(GlobalStateMgr globalStateMgr, SystemInfoService infoService,
                            TabletInvertedIndex invertedIndex,
                            TabletSchedulerStat stat) {
-        super("tablet scheduler", SCHEDULE_INTERVAL_MS);
+        super("tablet scheduler", DAEMON_INTERVAL_MS);
         this.globalStateMgr = globalStateMgr;
         this.infoService = infoService;
         this.invertedIndex = invertedIndex;
@@ -258,10 +270,11 @@ public class TabletScheduler extends MasterDaemon {
 
         allTabletIds.add(tablet.getTabletId());
         pendingTablets.offer(tablet);
+        signalSchedule();
         return AddResult.ADDED;
     }
 
-    public synchronized boolean containsTablet(long tabletId) {
+    public boolean containsTablet(long tabletId) {
         return allTabletIds.contains(tabletId);
     }
 
@@ -297,7 +310,11 @@ public class TabletScheduler extends MasterDaemon {
      */
     @Override
     protected void runAfterCatalogReady() {
+        long nextRoundTime = System.currentTimeMillis() + SCHEDULE_INTERVAL_MS;
         if (!updateWorkingSlots()) {
+            while (System.currentTimeMillis() < nextRoundTime) {
+                waitScheduleSignal(nextRoundTime);
+            }
             return;
         }
 
@@ -334,6 +351,40 @@ public class TabletScheduler extends MasterDaemon {
         }
 
         stat.counterTabletScheduleRound.incrementAndGet();
+
+        // Clone tasks are dispatched as soon as slots are freed by finished tasks or new tablets are added,
+        // instead of waiting for the next round.
+        while (System.currentTimeMillis() < nextRoundTime && waitScheduleSignal(nextRoundTime)) {
+            if (getCurrentAvailableSlotNum() > 0) {
+                schedulePendingTablets();
+            }
+        }
+    }
+
+    private void signalSchedule() {
+        synchronized (scheduleSignal) {
+            scheduleSignaled = true;
+            scheduleSignal.notifyAll();
+        }
+    }
+
+    // wait until signaled or the deadline, return true if signaled
+    private boolean waitScheduleSignal(long deadline) {
+        synchronized (scheduleSignal) {
+            long now = System.currentTimeMillis();
+            while (!scheduleSignaled && now < deadline) {
+                try {
+                    scheduleSignal.wait(deadline - now);
+                } catch (InterruptedException e) {
+                    LOG.warn("interrupted when waiting for schedule signal", e);
+                    return false;
+                }
+                now = System.currentTimeMillis();
+            }
+            boolean signaled = scheduleSignaled;
+            scheduleSignaled = false;
+            return signaled;
+        }
     }
 
     private void updateClusterLoadStatisticsAndPriority() {
@@ -474,6 +525,7 @@ public class TabletScheduler extends MasterDaemon {
 
             Preconditions.checkState(tabletCtx.getState() == TabletSchedCtx.State.RUNNING);
             stat.counterTabletScheduledSucceeded.incrementAndGet();
+            stat.counterTabletScheduledWaitMs.addAndGet(System.currentTimeMillis() - tabletCtx.getCreateTime());
             addToRunningTablets(tabletCtx);
         }
 
@@ -486,13 +538,25 @@ public class TabletScheduler extends MasterDaemon {
         }
 
         // send task immediately
-        AgentTaskExecutor.submit(batchTask);
+        for (AgentBatchTask backendBatchTask : splitByBackend(batchTask.getAllTasks())) {
+            AgentTaskExecutor.submit(backendBatchTask);
+        }
 
         long cost = System.currentTimeMillis() - start;
         stat.counterTabletScheduleCostMs.addAndGet(cost);
     }
 
-    private synchronized void addToRunningTablets(TabletSchedCtx tabletCtx) {
+    // Tasks of each backend are sent in a separate batch by a separate thread of AgentTaskExecutor, so that a slow
+    // backend does not delay the tasks of the others. The order of the tasks of each backend is kept.
+    static List<AgentBatchTask> splitByBackend(List<AgentTask> tasks) {
+        Map<Long, AgentBatchTask> backendBatchTasks = Maps.newLinkedHashMap();
+        for (AgentTask task : tasks) {
+            backendBatchTasks.computeIfAbsent(task.getBackendId(), k -> new AgentBatchTask()).addTask(task);
+        }
+        return Lists.newArrayList(backendBatchTasks.values());
+    }
+
+    private void addToRunningTablets(TabletSchedCtx tabletCtx) {
         runningTablets.put(tabletCtx.getTabletId(), tabletCtx);
     }
 
@@ -501,7 +565,7 @@ public class TabletScheduler extends MasterDaemon {
      * avoid other threads see it.
      * Whoever takes this tablet, make sure to put it to the schedHistory or back to runningTablets.
      */
-    private synchronized TabletSchedCtx takeRunningTablets(long tabletId) {
+    private TabletSchedCtx takeRunningTablets(long tabletId) {
         return runningTablets.remove(tabletId);
     }
 
@@ -1244,6 +1308,10 @@ public class TabletScheduler extends MasterDaemon {
         removeTabletCtx(tabletCtx, reason);
         // release resources taken by tablet ctx
         releaseTabletCtx(tabletCtx, state);
+        // the tablet may still be unhealthy, check it again in next round of TabletChecker
+        globalStateMgr.getTabletChecker().markTabletDirty(tabletCtx.getTabletId());
+        // slots are freed, schedule the pending tablets
+        signalSchedule();
     }
 
     private void releaseTabletCtx(TabletSchedCtx tabletCtx, TabletSchedCtx.State state) {
@@ -1338,6 +1406,8 @@ public class TabletScheduler extends MasterDaemon {
      */
     private void gatherStatistics(TabletSchedCtx tabletCtx) {
         if (tabletCtx.getCopySize() > 0 && tabletCtx.getCopyTimeMs() > 0) {
+            stat.counterCloneTaskCopyBytes.addAndGet(tabletCtx.getCopySize());
+            stat.counterCloneTaskCopyTimeMs.addAndGet(tabletCtx.getCopyTimeMs());
             if (tabletCtx.getSrcBackendId() != -1 && tabletCtx.getSrcPathHash() != -1) {
                 PathSlot pathSlot = backendsWorkingSlots.get(tabletCtx.getSrcBackendId());
                 if (pathSlot != null) {
@@ -1382,7 +1452,9 @@ public class TabletScheduler extends MasterDaemon {
         // 1. remove the tablet ctx if timeout
         List<TabletSchedCtx> timeoutTablets = Lists.newArrayList();
         synchronized (this) {
-            runningTablets.values().stream().filter(TabletSchedCtx::isTimeout).forEach(timeoutTablets::add);
+            // take the tablet out of runningTablets first, it may be taken by finishCloneTask() at the same time
+            runningTablets.values().stream().filter(TabletSchedCtx::isTimeout)
+                    .filter(t -> runningTablets.remove(t.getTabletId(), t)).forEach(timeoutTablets::add);
 
             for (TabletSchedCtx tabletSchedCtx : timeoutTablets) {
                 removeTabletCtx(tabletSchedCtx, "timeout");
@@ -1431,7 +1503,7 @@ public class TabletScheduler extends MasterDaemon {
         return pendingTablets.size();
     }
 
-    public synchronized int getRunningNum() {
+    public int getRunningNum() {
         return runningTablets.size();
     }
 
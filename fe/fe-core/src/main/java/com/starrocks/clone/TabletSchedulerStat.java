@@ -74,6 +74,8 @@ public class TabletSchedulerStat {
     public AtomicLong counterTabletScheduledFailed = new AtomicLong(0L);
     @StatField("num of tablet being scheduled discard")
     public AtomicLong counterTabletScheduledDiscard = new AtomicLong(0L);
+    @StatField("total wait time of tablets in pending queue before being scheduled(ms)")
+    public AtomicLong counterTabletScheduledWaitMs = new AtomicLong(0L);
 
     /*
      * Tablet priority related
@@ -94,6 +96,10 @@ public class TabletSchedulerStat {
     public AtomicLong counterCloneTaskFailed = new AtomicLong(0L);
     @StatField("num of clone task timeout")
     public AtomicLong counterCloneTaskTimeout = new AtomicLong(0L);
+    @StatField("total bytes copied by succeeded clone task")
+    public AtomicLong counterCloneTaskCopyBytes = new AtomicLong(0L);
+    @StatField("total copy time of succeeded clone task(ms)")
+    public AtomicLong counterCloneTaskCopyTimeMs = new AtomicLong(0L);
 
     /*
      * replica unhealthy type
@@ -255,6 +255,31 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static int edit_log_roll_num = 50000;
 
+    /**
+     * If true, master FE asks a follower or observer to save an image of its serving metadata while its journal
+     * replay is paused, and downloads the image, instead of replaying the journal into a second copy of the
+     * metadata in the memory of master. Falls back to the replaying checkpoint if no other FE succeeds.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_checkpoint_by_snapshot = false;
+
+    /**
+     * Image is downloaded from other FEs in chunks of image_transfer_chunk_size bytes. Each chunk is verified by
+     * its checksum and retried for image_transfer_chunk_retry_times times on failure, and a failed download is
+     * resumed from the last downloaded chunk.
+     */
+    @ConfField(mutable = true)
+    public static int image_transfer_chunk_size = 16 * 1024 * 1024;
+
+    @ConfField(mutable = true)
+    public static int image_transfer_chunk_retry_times = 3;
+
+    /**
+     * If true, the chunks of image are compressed by snappy before being transferred to other FEs.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_image_transfer_compression = true;
+
     /**
      * whether ignore unknown log id
      * when fe rolls back to low version, there may be log id that low version fe can not recognise
@@ -535,6 +560,13 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static int tablet_create_timeout_second = 1;
 
+    /**
+     * Max number of CreateReplicaTasks sent to a backend but not finished when creating partitions.
+     * New tasks are sent to a backend as soon as its tasks are finished.
+     */
+    @ConfField(mutable = true)
+    public static int create_replica_max_in_flight_per_backend = 200;
+
     /**
      * minimal intervals between two publish version action
      */
@@ -611,6 +643,28 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static int max_stream_load_timeout_second = 259200; // 3days
 
+    /**
+     * If true, the FE http server redirects a stream load to the backend with the lowest cost, computed by
+     * the stream loads running on the backend, the recent stream load latency of the backend and the replicas of
+     * the target table on the backend. Otherwise, the backend is chosen by round-robin.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_stream_load_adaptive_routing = true;
+
+    /**
+     * Weight of the replica locality of the target table when choosing the backend of a stream load.
+     * The load and latency costs of a backend are both about 1 in a balanced cluster.
+     */
+    @ConfField(mutable = true)
+    public static double stream_load_routing_locality_weight = 0.5;
+
+    /**
+     * Weight of the max compaction score of the tablets on a backend when choosing the backend of a stream load.
+     * A backend with a high compaction score is busy merging versions, new loads make it fall further behind.
+     */
+    @ConfField(mutable = true)
+    public static double stream_load_routing_compaction_weight = 0.5;
+
     /**
      * Max load timeout applicable to all type of load except for stream load
      */
@@ -739,6 +793,13 @@ public class Config extends ConfigBase {
      */
     @ConfField(mutable = true)
     public static long catalog_trash_expire_second = 86400L; // 1day
+    /**
+     * If set to true, the partitions dropped into recycle bin are kept in serialized and compressed form,
+     * and their replicas are removed from tablet inverted index, until they are recovered or erased.
+     * The tablets of these partitions are not repaired or balanced while they are in recycle bin.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_recycle_bin_partition_compaction = false;
     /**
      * Parallel load fragment instance num in single host
      */
@@ -899,6 +960,40 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static int backup_job_default_timeout_ms = 86400 * 1000; // 1 day
 
+    /**
+     * The files larger than backup_download_part_size bytes are downloaded from the repository by parts,
+     * at most backup_download_concurrency parts of a file are downloaded concurrently through broker.
+     * Set backup_download_concurrency to 1 to download files sequentially.
+     */
+    @ConfField(mutable = true)
+    public static long backup_download_part_size = 64 * 1024 * 1024L;
+
+    @ConfField(mutable = true)
+    public static int backup_download_concurrency = 4;
+
+    /**
+     * If true, the restore jobs restore the partitions in pipeline after the snapshots are made.
+     * The download and dir move of a partition start as soon as the partition is ready, and a table
+     * becomes visible once all of its partitions are restored, rather than after the whole job is finished.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_restore_pipeline = false;
+
+    /**
+     * The max number of unfinished download tasks of a pipelined restore job on each backend.
+     */
+    @ConfField(mutable = true)
+    public static int restore_pipeline_max_download_tasks_per_be = 3;
+
+    /**
+     * If true, the collections of replicas and lake tablets in the gson serialized metadata are written in
+     * compact columns instead of json arrays, see ColumnarListTypeAdapterFactory.
+     * Both formats can be read. Enable it only after all FEs are upgraded, since the earlier versions can not
+     * read the columns.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_columnar_gson_serialization = false;
+
     // If use k8s deploy manager locally, set this to true and prepare the certs files
     @ConfField
     public static boolean with_k8s_certs = false;
@@ -1010,11 +1105,39 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static boolean disable_balance = false;
 
+    /**
+     * If set to true, BeLoadRebalancer plans the destinations of the selected tablets as a batch by BalancePlanner,
+     * which avoids putting replicas of a tablet on the same host and limits the bytes each backend sends
+     * and receives by tablet_balance_bandwidth_mb_per_backend.
+     * It is off by default, the tablets are then balanced one by one as before.
+     */
+    @ConfField(mutable = true)
+    public static boolean tablet_balance_enable_batch_plan = false;
+
+    // the bandwidth (MB/s) of a backend used by balance clone tasks when planning, 0 means no limitation
+    @ConfField(mutable = true)
+    public static long tablet_balance_bandwidth_mb_per_backend = 100;
+
     // if the number of scheduled tablets in TabletScheduler exceed max_scheduling_tablets
     // skip checking.
     @ConfField(mutable = true)
     public static int max_scheduling_tablets = 2000;
 
+    /**
+     * If set to true, TabletChecker only checks the tablets marked by tablet reports, backend state changes and
+     * tablet scheduling in each round, and checks all tablets every tablet_checker_full_check_interval_second.
+     * If set to false, TabletChecker checks all tablets in each round.
+     */
+    @ConfField(mutable = true)
+    public static boolean tablet_checker_enable_incremental_check = true;
+
+    @ConfField(mutable = true)
+    public static long tablet_checker_full_check_interval_second = 300;
+
+    // if the number of tablets waiting to be checked exceed this, a full check will be done instead
+    @ConfField(mutable = true)
+    public static int tablet_checker_max_dirty_tablets = 1000000;
+
     // if the number of balancing tablets in TabletScheduler exceed max_balancing_tablets,
     // no more balance check
     @ConfField(mutable = true)
@@ -1071,6 +1194,21 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static long routine_load_task_timeout_second = 60;
 
+    /**
+     * If set to true, the partitions of a kafka routine load job are assigned to tasks by the lags of partitions
+     * when the job is scheduled, instead of round robin.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_routine_load_lag_aware_assignment = true;
+
+    /**
+     * If set to true, the consume time of a routine load task is adjusted by whether the previous task of
+     * the same partitions keeps up with the data source and its commit latency,
+     * between routine_load_task_consume_second and routine_load_task_timeout_second / 2.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_routine_load_adaptive_consume_time = true;
+
     /**
      * kafka util request timeout
      */
@@ -1469,6 +1607,50 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static boolean enable_collect_query_detail_info = false;
 
+    /**
+     * The max number of sql digests whose phase time is aggregated for /api/query_phase_stats,
+     * the least recently updated digest is evicted when exceeded. Set to 0 to disable the aggregation.
+     * Only queries with a digest are aggregated, that is slow queries or queries with enable_sql_digest.
+     */
+    @ConfField(mutable = true)
+    public static int query_digest_stats_max_num = 1000;
+
+    /**
+     * Whether queries wait in the query queue of their resource group before being delivered to backends,
+     * when the concurrency or the memory usage of backends exceeds the limits below.
+     * Load tasks never wait in the queue.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_query_queue = false;
+
+    /**
+     * The max number of running queries of the cluster, 0 or negative means no limit.
+     * The concurrency_limit of the resource group is also applied to the queries of the group.
+     * Each alive FE admits its share of the limits, rounded up.
+     */
+    @ConfField(mutable = true)
+    public static int query_queue_concurrency_limit = 0;
+
+    /**
+     * Queries wait when the memory usage of any backend exceeds this percentage of its memory limit,
+     * 0 or negative means no limit. The memory usage is reported to the master FE by heartbeats,
+     * and synchronized to the other FEs when it crosses this limit or changes by 5 percent.
+     */
+    @ConfField(mutable = true)
+    public static double query_queue_mem_used_pct_limit = 0;
+
+    /**
+     * The max number of queries waiting in the queue, new queries fail if exceeded.
+     */
+    @ConfField(mutable = true)
+    public static int query_queue_max_queued_queries = 1024;
+
+    /**
+     * The max time in seconds a query waits in the queue, it is also limited by the query timeout.
+     */
+    @ConfField(mutable = true)
+    public static int query_queue_pending_timeout_second = 300;
+
     /**
      * Min lag of routine load job to show in metrics
      * Only show the routine load job whose lag is larger than min_routine_load_lag_for_metrics
@@ -1510,6 +1692,42 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static boolean enable_experimental_mv = false;
 
+    /**
+     * If set to true, the refresh of an async materialized view over one insert-only (duplicate key) table
+     * only reads the base partitions appended since the last refresh and inserts their result into the mv,
+     * when the defining query can be merged that way.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_mv_incremental_refresh = false;
+
+    /**
+     * The max number of materialized view partitions refreshed by one insert statement
+     * when only part of the partitions of the materialized view are stale.
+     * The default 1 refreshes the partitions one by one, a larger value merges the partitions into fewer inserts.
+     */
+    @ConfField(mutable = true)
+    public static int mv_refresh_partition_batch_size = 1;
+
+    /**
+     * The max number of partition batches of one materialized view refreshed concurrently.
+     */
+    @ConfField(mutable = true)
+    public static int mv_refresh_partition_parallelism = 2;
+
+    /**
+     * The number of threads shared by all materialized views to refresh partition batches concurrently,
+     * the batches wait in queue when all threads are busy.
+     */
+    @ConfField
+    public static int mv_refresh_batch_thread_pool_size = 8;
+
+    /**
+     * The resource group used by the refresh of materialized views, empty means the refresh
+     * is classified like a normal query.
+     */
+    @ConfField(mutable = true)
+    public static String mv_refresh_resource_group = "";
+
     @ConfField
     public static boolean enable_dict_optimize_routine_load = false;
 
@@ -1566,6 +1784,25 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static int metadata_journal_max_batch_cnt = 100;
 
+    /**
+     * If true, when replaying at least metadata_journal_prefetch_batch_cnt journals, FE reads the journals
+     * batch by batch on a background thread ahead of the deserializing and the replay.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_metadata_journal_prefetch = true;
+
+    /**
+     * The number of journals read as a batch when prefetching journals
+     */
+    @ConfField(mutable = true)
+    public static int metadata_journal_prefetch_batch_cnt = 1000;
+
+    /**
+     * The max number of batches prefetched but not replayed yet
+     */
+    @ConfField(mutable = true)
+    public static int metadata_journal_prefetch_max_batches = 8;
+
     /**
      * Fqdn function switch, 
      * this switch will be deleted after release the fqdn func
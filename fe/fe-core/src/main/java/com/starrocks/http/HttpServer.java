@@ -43,6 +43,7 @@ import com.starrocks.http.meta.MetaService.InfoAction;
 import com.starrocks.http.meta.MetaService.JournalIdAction;
 import com.starrocks.http.meta.MetaService.PutAction;
 import com.starrocks.http.meta.MetaService.RoleAction;
+import com.starrocks.http.meta.MetaService.SnapshotAction;
 import com.starrocks.http.meta.MetaService.VersionAction;
 import com.starrocks.http.rest.BootstrapFinishAction;
 import com.starrocks.http.rest.CancelStreamLoad;
@@ -61,6 +62,7 @@ import com.starrocks.http.rest.MigrationAction;
 import com.starrocks.http.rest.ProfileAction;
 import com.starrocks.http.rest.QueryDetailAction;
 import com.starrocks.http.rest.QueryDumpAction;
+import com.starrocks.http.rest.QueryPhaseStatsAction;
 import com.starrocks.http.rest.RowCountAction;
 import com.starrocks.http.rest.SetConfigAction;
 import com.starrocks.http.rest.ShowDataAction;
@@ -160,6 +162,7 @@ public class HttpServer {
         ConnectionAction.registerAction(controller);
         ShowDataAction.registerAction(controller);
         QueryDumpAction.registerAction(controller);
+        QueryPhaseStatsAction.registerAction(controller);
 
         // meta service action
         File imageDir = MetaHelper.getMasterImageDir();
@@ -170,6 +173,7 @@ public class HttpServer {
         JournalIdAction.registerAction(controller, imageDir);
         CheckAction.registerAction(controller, imageDir);
         DumpAction.registerAction(controller, imageDir);
+        SnapshotAction.registerAction(controller, imageDir);
         RoleAction.registerAction(controller, imageDir);
 
         // external usage
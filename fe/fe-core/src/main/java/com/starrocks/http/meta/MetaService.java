@@ -43,13 +43,16 @@ import org.apache.logging.log4j.Logger;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.OutputStream;
 
 public class MetaService {
     private static final int TIMEOUT_SECOND = 10;
 
     public static class ImageAction extends MetaBaseAction {
+        private static final Logger LOG = LogManager.getLogger(ImageAction.class);
         private static final String VERSION = "version";
+        private static final String OFFSET = "offset";
+        private static final String LENGTH = "length";
+        private static final String COMPRESSION = "compression";
 
         public ImageAction(ActionController controller, File imageDir) {
             super(controller, imageDir);
@@ -81,7 +84,47 @@ public class MetaService {
                 return;
             }
 
-            writeFileResponse(request, response, imageFile);
+            String offsetStr = request.getSingleParameter(OFFSET);
+            if (Strings.isNullOrEmpty(offsetStr)) {
+                writeFileResponse(request, response, imageFile);
+                return;
+            }
+            writeChunkResponse(request, response, imageFile, offsetStr);
+        }
+
+        // send a chunk of the image file, see MetaHelper.getRemoteImage()
+        private void writeChunkResponse(BaseRequest request, BaseResponse response, File imageFile,
+                                        String offsetStr) {
+            long offset = checkLongParam(offsetStr);
+            String lengthStr = request.getSingleParameter(LENGTH);
+            int length = Strings.isNullOrEmpty(lengthStr) ? Config.image_transfer_chunk_size
+                    : checkIntParam(lengthStr);
+            if (offset < 0 || length <= 0) {
+                writeResponse(request, response, HttpResponseStatus.BAD_REQUEST);
+                return;
+            }
+
+            MetaHelper.ImageChunk chunk;
+            try {
+                chunk = MetaHelper.readChunk(imageFile, offset, length, request.getSingleParameter(COMPRESSION));
+            } catch (FileNotFoundException e) {
+                writeResponse(request, response, HttpResponseStatus.NOT_FOUND);
+                return;
+            } catch (IOException e) {
+                LOG.warn("failed to read chunk of {} at offset {}", imageFile, offset, e);
+                writeResponse(request, response, HttpResponseStatus.INTERNAL_SERVER_ERROR);
+                return;
+            }
+            response.updateHeader(MetaHelper.X_IMAGE_SIZE, String.valueOf(chunk.getImageSize()));
+            // the checksum is saved with the image, the image without it can be downloaded but not be resumed
+            long imageChecksum = MetaHelper.readImageChecksum(imageFile);
+            if (imageChecksum >= 0) {
+                response.updateHeader(MetaHelper.X_IMAGE_CHECKSUM, String.valueOf(imageChecksum));
+            }
+            response.updateHeader(MetaHelper.X_CHUNK_SIZE, String.valueOf(chunk.getSize()));
+            response.updateHeader(MetaHelper.X_CHUNK_CHECKSUM, String.valueOf(chunk.getChecksum()));
+            response.updateHeader(MetaHelper.X_CHUNK_COMPRESSION, chunk.getCompression());
+            writeObjectResponse(request, response, HttpResponseStatus.OK, chunk.getData(), imageFile.getName(), true);
         }
     }
 
@@ -201,9 +244,13 @@ public class MetaService {
 
             File dir = new File(GlobalStateMgr.getCurrentState().getImageDir());
             try {
-                OutputStream out = MetaHelper.getOutputStream(filename, dir);
-                MetaHelper.getRemoteFile(url, TIMEOUT_SECOND * 1000, out);
-                MetaHelper.complete(filename, dir);
+                if (Storage.getImageFile(dir, version).exists()) {
+                    // the image is saved by this node itself, e.g. by the snapshot checkpoint, and the journals
+                    // after it are replayed already
+                    LOG.info("{} already exists, skip downloading it from {}", filename, machine);
+                } else {
+                    MetaHelper.getRemoteImage(url, TIMEOUT_SECOND * 1000, filename, dir);
+                }
                 writeResponse(request, response);
             } catch (FileNotFoundException e) {
                 LOG.warn("file not found. file: {}", filename, e);
@@ -245,6 +292,37 @@ public class MetaService {
         }
     }
 
+    // save an image of the serving metadata of this non-master node, called by the snapshot checkpoint of master
+    public static class SnapshotAction extends MetaBaseAction {
+        private static final Logger LOG = LogManager.getLogger(SnapshotAction.class);
+
+        public SnapshotAction(ActionController controller, File imageDir) {
+            super(controller, imageDir);
+        }
+
+        public static void registerAction(ActionController controller, File imageDir)
+                throws IllegalArgException {
+            controller.registerHandler(HttpMethod.GET, "/snapshot", new SnapshotAction(controller, imageDir));
+        }
+
+        @Override
+        public void executeGet(BaseRequest request, BaseResponse response) {
+            if (GlobalStateMgr.getCurrentState().isMaster()) {
+                response.appendContent("this node is master, reject snapshot");
+                writeResponse(request, response, HttpResponseStatus.BAD_REQUEST);
+                return;
+            }
+            try {
+                long version = GlobalStateMgr.getCurrentState().saveSnapshotImage();
+                response.updateHeader("version", Long.toString(version));
+                writeResponse(request, response);
+            } catch (IOException e) {
+                LOG.warn("failed to save snapshot image", e);
+                writeResponse(request, response, HttpResponseStatus.INTERNAL_SERVER_ERROR);
+            }
+        }
+    }
+
     public static class RoleAction extends MetaBaseAction {
         private static final String HOST = "host";
         private static final String PORT = "port";
@@ -0,0 +1,61 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.http.rest;
+
+import com.google.common.base.Strings;
+import com.google.gson.Gson;
+import com.starrocks.common.DdlException;
+import com.starrocks.http.ActionController;
+import com.starrocks.http.BaseRequest;
+import com.starrocks.http.BaseResponse;
+import com.starrocks.http.IllegalArgException;
+import com.starrocks.mysql.privilege.PrivPredicate;
+import com.starrocks.qe.ConnectContext;
+import com.starrocks.qe.QueryPhaseStats;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+
+/* Usage:
+   eg:
+        GET  /api/query_phase_stats?top_n=20
+ return:
+        the sql digests with the most planner time, and the total time of each phase of them
+        [{"digest": "...", "stmt": "...", "count": 10, "parseTimeMs": 5, "analyzeTimeMs": 20,
+          "optimizeTimeMs": 300, "planBuildTimeMs": 10, "deployTimeMs": 40, "maxPlannerTimeMs": 80}]
+ */
+public class QueryPhaseStatsAction extends RestBaseAction {
+    private static final String TOP_N = "top_n";
+    private static final int DEFAULT_TOP_N = 20;
+
+    public QueryPhaseStatsAction(ActionController controller) {
+        super(controller);
+    }
+
+    public static void registerAction(ActionController controller) throws IllegalArgException {
+        controller.registerHandler(HttpMethod.GET, "/api/query_phase_stats", new QueryPhaseStatsAction(controller));
+    }
+
+    @Override
+    protected void executeWithoutPassword(BaseRequest request, BaseResponse response) throws DdlException {
+        checkGlobalAuth(ConnectContext.get().getCurrentUserIdentity(), PrivPredicate.ADMIN);
+
+        int topN = DEFAULT_TOP_N;
+        String topNStr = request.getSingleParameter(TOP_N);
+        if (!Strings.isNullOrEmpty(topNStr)) {
+            try {
+                topN = Integer.parseInt(topNStr.trim());
+            } catch (NumberFormatException e) {
+                topN = -1;
+            }
+            if (topN <= 0) {
+                response.getContent().append("not valid parameter: " + TOP_N);
+                sendResult(request, response, HttpResponseStatus.BAD_REQUEST);
+                return;
+            }
+        }
+
+        Gson gson = new Gson();
+        response.getContent().append(gson.toJson(QueryPhaseStats.getTopNByPlannerTime(topN)));
+        sendResult(request, response);
+    }
+}
@@ -22,11 +22,13 @@
 package com.starrocks.http.rest;
 
 import com.google.common.base.Strings;
+import com.starrocks.cluster.ClusterNamespace;
 import com.starrocks.common.DdlException;
 import com.starrocks.http.ActionController;
 import com.starrocks.http.BaseRequest;
 import com.starrocks.http.BaseResponse;
 import com.starrocks.http.IllegalArgException;
+import com.starrocks.load.StreamLoadRouter;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.system.Backend;
 import com.starrocks.thrift.TNetworkAddress;
@@ -35,7 +37,6 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Map;
 
 public class TransactionLoadAction extends RestBaseAction {
@@ -73,12 +74,10 @@ public class TransactionLoadAction extends RestBaseAction {
 
         synchronized (this) {
             if (op.equalsIgnoreCase(TXN_BEGIN)) {
-                // Choose a backend sequentially.
-                List<Long> backendIds = GlobalStateMgr.getCurrentSystemInfo().seqChooseBackendIds(1, true, false);
-                if (backendIds == null) {
-                    throw new DdlException("No backend alive.");
-                }
-                backendID = backendIds.get(0);
+                // Choose a backend by the load, latency and locality of backends.
+                // The table is unknown if it is not in the url.
+                backendID = StreamLoadRouter.getInstance().chooseBackend(
+                        ClusterNamespace.getFullName(dbName), request.getSingleParameter(TABLE_KEY)).getId();
                 txnBackendMap.put(label, backendID);
             } else {
                 backendID = txnBackendMap.get(label);
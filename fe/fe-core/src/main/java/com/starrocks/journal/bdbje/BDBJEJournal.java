@@ -28,6 +28,7 @@ import com.sleepycat.je.DatabaseEntry;
 import com.sleepycat.je.DatabaseException;
 import com.sleepycat.je.OperationStatus;
 import com.sleepycat.je.Transaction;
+import com.starrocks.common.Config;
 import com.starrocks.common.Pair;
 import com.starrocks.common.io.DataOutputBuffer;
 import com.starrocks.journal.Journal;
@@ -100,6 +101,12 @@ public class BDBJEJournal implements Journal {
 
     @Override
     public JournalCursor read(long fromKey, long toKey) throws JournalException {
+        // prefetch only when catching up a lot of journals, e.g. on startup
+        if (Config.enable_metadata_journal_prefetch
+                && toKey - fromKey + 1 >= Config.metadata_journal_prefetch_batch_cnt) {
+            return BDBPrefetchJournalCursor.getJournalCursor(bdbEnvironment, fromKey, toKey,
+                    Config.metadata_journal_prefetch_batch_cnt, Config.metadata_journal_prefetch_max_batches);
+        }
         return BDBJournalCursor.getJournalCursor(bdbEnvironment, fromKey, toKey);
     }
 
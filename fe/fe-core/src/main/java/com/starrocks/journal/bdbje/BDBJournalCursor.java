@@ -136,7 +136,7 @@ public class BDBJournalCursor implements JournalCursor {
         throw exception;
     }
 
-    protected JournalEntity deserializeData(DatabaseEntry data) throws JournalException {
+    protected static JournalEntity deserializeData(long key, DatabaseEntry data) throws JournalException {
         DataInputStream in = new DataInputStream(new ByteArrayInputStream(data.getData()));
         JournalEntity ret = new JournalEntity();
         try {
@@ -144,7 +144,7 @@ public class BDBJournalCursor implements JournalCursor {
         } catch (IOException e) {
             // bad data, will not retry
             String errMsg = String.format("fail to read journal entity key=%s, data=%s",
-                    currentKey, data);
+                    key, data);
             LOG.error(errMsg, e);
             JournalException exception = new JournalException(errMsg);
             exception.initCause(e);
@@ -155,6 +155,16 @@ public class BDBJournalCursor implements JournalCursor {
 
     @Override
     public JournalEntity next() throws InterruptedException, JournalException, JournalInconsistentException {
+        long key = currentKey;
+        DatabaseEntry data = nextData();
+        if (data == null) {
+            return null;
+        }
+        return deserializeData(key, data);
+    }
+
+    // Return the serialized data of the next journal, or null like next().
+    protected DatabaseEntry nextData() throws InterruptedException, JournalException, JournalInconsistentException {
         // EOF
         if (currentKey > toKey) {
             return null;
@@ -182,10 +192,8 @@ public class BDBJournalCursor implements JournalCursor {
                 OperationStatus operationStatus = database.get(null, theKey, theData, LockMode.READ_COMMITTED);
 
                 if (operationStatus == OperationStatus.SUCCESS) {
-                    // 3. serialized
-                    JournalEntity entity = deserializeData(theData);
                     currentKey++;
-                    return entity;
+                    return theData;
                 } else if (operationStatus == OperationStatus.NOTFOUND) {
                     // In the case:
                     // On non-master FE, the replayer will first get the max journal id,
@@ -0,0 +1,187 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.journal.bdbje;
+
+import com.google.common.collect.Lists;
+import com.sleepycat.je.DatabaseEntry;
+import com.starrocks.journal.JournalCursor;
+import com.starrocks.journal.JournalEntity;
+import com.starrocks.journal.JournalException;
+import com.starrocks.journal.JournalInconsistentException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BDBPrefetchJournalCursor reads the journals by a BDBJournalCursor on a background thread batch by batch, so
+ * reading bdb is overlapped with the deserializing and the replay of the journals returned by next().
+ * The journals are deserialized by next() on the caller thread, because deserializing depends on the MetaContext
+ * of the caller, and on whether the caller is the checkpoint thread.
+ * The batches are queued in the order of journal id, and at most maxBatches batches are prefetched. An exception
+ * of reading is thrown by next() after all journals before it are returned.
+ * Each cursor starts its own reading thread. It is only used when replaying at least
+ * Config.metadata_journal_prefetch_batch_cnt journals, so the cost of the thread is small compared to the replay.
+ * close() waits for the reading thread to exit before closing the bdb cursor. Since interrupting bdb operations
+ * invalidates the bdb environment, the reading thread is interrupted only if it does not exit by itself in time.
+ */
+public class BDBPrefetchJournalCursor implements JournalCursor {
+    private static final Logger LOG = LogManager.getLogger(BDBPrefetchJournalCursor.class);
+
+    private static final long OFFER_TIMEOUT_MS = 100;
+    private static final long CLOSE_TIMEOUT_MS = 5000;
+
+    // the serialized journals of a batch from startKey, followed by an exception or the end of journals if any
+    private static class Batch {
+        private final long startKey;
+        private final List<DatabaseEntry> datas;
+        private final Exception exception;
+        private final boolean end;
+
+        private Batch(long startKey, List<DatabaseEntry> datas, Exception exception, boolean end) {
+            this.startKey = startKey;
+            this.datas = datas;
+            this.exception = exception;
+            this.end = end;
+        }
+    }
+
+    private final BDBJournalCursor cursor;
+    private final long fromKey;
+    private final int batchSize;
+    private final BlockingQueue<Batch> batches;
+    private volatile boolean closed = false;
+    private Thread readThread;
+
+    private Batch currentBatch;
+    private int currentIndex;
+
+    public static BDBPrefetchJournalCursor getJournalCursor(BDBEnvironment env, long fromKey, long toKey,
+                                                            int batchSize, int maxBatches) throws JournalException {
+        return new BDBPrefetchJournalCursor(BDBJournalCursor.getJournalCursor(env, fromKey, toKey), fromKey,
+                batchSize, maxBatches);
+    }
+
+    protected BDBPrefetchJournalCursor(BDBJournalCursor cursor, long fromKey, int batchSize, int maxBatches) {
+        this.cursor = cursor;
+        this.fromKey = fromKey;
+        this.batchSize = Math.max(1, batchSize);
+        this.batches = new ArrayBlockingQueue<>(Math.max(1, maxBatches));
+    }
+
+    private void readJournals() {
+        long key = fromKey;
+        boolean end = false;
+        while (!end && !closed) {
+            List<DatabaseEntry> datas = Lists.newArrayListWithCapacity(batchSize);
+            Exception exception = null;
+            try {
+                while (datas.size() < batchSize) {
+                    DatabaseEntry data = cursor.nextData();
+                    if (data == null) {
+                        end = true;
+                        break;
+                    }
+                    datas.add(data);
+                }
+            } catch (InterruptedException | JournalException | JournalInconsistentException | RuntimeException e) {
+                exception = e;
+                end = true;
+            }
+
+            if (!putBatch(new Batch(key, datas, exception, end))) {
+                return;
+            }
+            key += datas.size();
+        }
+    }
+
+    // return false if the cursor is closed
+    private boolean putBatch(Batch batch) {
+        try {
+            while (!closed) {
+                if (batches.offer(batch, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+        } catch (InterruptedException e) {
+            LOG.warn("interrupted when prefetching journals from {}", fromKey, e);
+            batches.clear();
+            batches.offer(new Batch(batch.startKey, Lists.newArrayList(), e, true));
+        }
+        return false;
+    }
+
+    @Override
+    public JournalEntity next() throws InterruptedException, JournalException, JournalInconsistentException {
+        if (readThread == null) {
+            readThread = new Thread(this::readJournals, "journal-prefetch-" + fromKey);
+            readThread.setDaemon(true);
+            readThread.start();
+        }
+
+        while (true) {
+            if (currentBatch != null) {
+                if (currentIndex < currentBatch.datas.size()) {
+                    long key = currentBatch.startKey + currentIndex;
+                    DatabaseEntry data = currentBatch.datas.get(currentIndex);
+                    // release the serialized journal once it is deserialized
+                    currentBatch.datas.set(currentIndex++, null);
+                    return BDBJournalCursor.deserializeData(key, data);
+                }
+                if (currentBatch.end) {
+                    Exception exception = currentBatch.exception;
+                    // the exception is thrown only once, then EOF
+                    currentBatch = new Batch(currentBatch.startKey, Lists.newArrayList(), null, true);
+                    throwException(exception);
+                    return null;
+                }
+            }
+
+            currentBatch = batches.take();
+            currentIndex = 0;
+        }
+    }
+
+    private void throwException(Exception exception)
+            throws InterruptedException, JournalException, JournalInconsistentException {
+        if (exception == null) {
+            return;
+        }
+        if (exception instanceof InterruptedException) {
+            throw (InterruptedException) exception;
+        } else if (exception instanceof JournalException) {
+            throw (JournalException) exception;
+        } else if (exception instanceof JournalInconsistentException) {
+            throw (JournalInconsistentException) exception;
+        }
+        JournalException journalException = new JournalException("failed to prefetch journals from " + fromKey);
+        journalException.initCause(exception);
+        throw journalException;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        batches.clear();
+        if (readThread != null) {
+            try {
+                // the reading thread checks closed every OFFER_TIMEOUT_MS when it is not reading bdb
+                readThread.join(OFFER_TIMEOUT_MS * 2);
+                if (readThread.isAlive()) {
+                    readThread.interrupt();
+                    readThread.join(CLOSE_TIMEOUT_MS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (readThread.isAlive()) {
+                LOG.warn("thread of prefetching journals from {} does not exit in {} ms", fromKey, CLOSE_TIMEOUT_MS);
+            }
+        }
+        cursor.close();
+    }
+}
@@ -0,0 +1,333 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.load;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.starrocks.catalog.Database;
+import com.starrocks.catalog.MaterializedIndex;
+import com.starrocks.catalog.OlapTable;
+import com.starrocks.catalog.Partition;
+import com.starrocks.catalog.Table;
+import com.starrocks.catalog.Tablet;
+import com.starrocks.common.Config;
+import com.starrocks.common.DdlException;
+import com.starrocks.common.ThreadPoolManager;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.system.Backend;
+import com.starrocks.system.BackendCoreStat;
+import com.starrocks.system.SystemInfoService;
+import com.starrocks.transaction.TransactionState;
+import com.starrocks.transaction.TransactionState.LoadJobSourceType;
+import com.starrocks.transaction.TransactionState.TxnSourceType;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * StreamLoadRouter chooses the backend which a stream load is redirected to by the FE http server.
+ * The cost of each available backend is
+ *   load + latency + Config.stream_load_routing_compaction_weight * compaction
+ *   - Config.stream_load_routing_locality_weight * locality
+ * 1. load: the stream loads running on the backend reported by heartbeat, plus the stream loads routed to it
+ *    recently which may not be reported yet, per cpu core, relative to the average of all backends.
+ * 2. latency: the recent latency of the stream loads coordinated by the backend, relative to the average.
+ * 3. compaction: the max compaction score of the tablets on the backend reported by the tablet report,
+ *    relative to the average. New versions on a backend which is behind in compaction are merged late.
+ * 4. locality: the replicas of the target table on the backend, relative to the backend with the most replicas.
+ *    The coordinator backend writes the local replicas without transferring the data by network.
+ *    The replicas are counted in background and cached, the loads are routed without locality until
+ *    the replicas of the table are counted.
+ * The backend with the lowest cost is chosen. If Config.enable_stream_load_adaptive_routing is false,
+ * the backend is chosen by round-robin.
+ *
+ * Heartbeat and commit of transactions are only handled by master, so a non-master FE routes stream loads
+ * by the loads routed by itself and the locality.
+ */
+public class StreamLoadRouter {
+    private static final Logger LOG = LogManager.getLogger(StreamLoadRouter.class);
+
+    private static final StreamLoadRouter INSTANCE = new StreamLoadRouter();
+
+    // the recently routed loads are halved every ROUTED_LOAD_HALF_LIFE_MS, which is about a heartbeat interval
+    private static final long ROUTED_LOAD_HALF_LIFE_MS = 5000L;
+    private static final double LATENCY_EWMA_ALPHA = 0.2;
+    private static final long LOCALITY_EXPIRE_MS = 60 * 1000L;
+    private static final int MAX_CACHED_TABLES = 1024;
+
+    // routing statistic of a backend
+    private static class RouteStat {
+        private long routeNum = 0;
+        private double routedLoads = 0;
+        private long lastRouteTimeMs = 0;
+        // -1 means there is no finished stream load yet
+        private double latencyMs = -1;
+
+        private double getRoutedLoads(long nowMs) {
+            if (routedLoads == 0) {
+                return 0;
+            }
+            return routedLoads * Math.pow(0.5, (double) (nowMs - lastRouteTimeMs) / ROUTED_LOAD_HALF_LIFE_MS);
+        }
+
+        private void addRoute(long nowMs) {
+            routedLoads = getRoutedLoads(nowMs) + 1;
+            lastRouteTimeMs = nowMs;
+            routeNum++;
+        }
+
+        private void updateLatency(long loadLatencyMs) {
+            if (latencyMs < 0) {
+                latencyMs = loadLatencyMs;
+            } else {
+                latencyMs = LATENCY_EWMA_ALPHA * loadLatencyMs + (1 - LATENCY_EWMA_ALPHA) * latencyMs;
+            }
+        }
+    }
+
+    // replicas of a table on each backend
+    private static class TableLocality {
+        private final long createTimeMs;
+        private final Map<Long, Long> replicaNums;
+
+        private TableLocality(long createTimeMs, Map<Long, Long> replicaNums) {
+            this.createTimeMs = createTimeMs;
+            this.replicaNums = replicaNums;
+        }
+    }
+
+    // the input of the cost of a backend
+    static class BackendLoad {
+        private final long beId;
+        // loads per cpu core
+        private final double load;
+        // -1 means unknown
+        private final double latencyMs;
+        private final long compactionScore;
+        private final long replicaNum;
+
+        BackendLoad(long beId, double load, double latencyMs, long compactionScore, long replicaNum) {
+            this.beId = beId;
+            this.load = load;
+            this.latencyMs = latencyMs;
+            this.compactionScore = compactionScore;
+            this.replicaNum = replicaNum;
+        }
+    }
+
+    // backend id -> route stat
+    private final Map<Long, RouteStat> routeStats = Maps.newHashMap();
+    // table id -> locality
+    private final Map<Long, TableLocality> tableLocalities = Maps.newConcurrentMap();
+    // the tables whose locality is being counted
+    private final Set<Long> refreshingTables = Sets.newConcurrentHashSet();
+    private final ThreadPoolExecutor localityRefresher =
+            ThreadPoolManager.newDaemonFixedThreadPool(1, MAX_CACHED_TABLES, "stream-load-locality", false);
+    // the start index of the candidates, rotated to break ties by round-robin
+    private int nextIndex = 0;
+
+    public static StreamLoadRouter getInstance() {
+        return INSTANCE;
+    }
+
+    public Backend chooseBackend(String fullDbName, String tableName) throws DdlException {
+        SystemInfoService infoService = GlobalStateMgr.getCurrentSystemInfo();
+        if (!Config.enable_stream_load_adaptive_routing) {
+            return chooseBackendByRoundRobin(infoService);
+        }
+
+        List<Backend> backends = Lists.newArrayList();
+        for (Backend backend : infoService.getBackends()) {
+            if (backend.isAvailable() && !backend.diskExceedLimit()) {
+                backends.add(backend);
+            }
+        }
+        if (backends.isEmpty()) {
+            throw new DdlException("No backend alive.");
+        }
+
+        Map<Long, Long> replicaNums = getReplicaNums(fullDbName, tableName);
+        Backend chosen;
+        synchronized (this) {
+            pruneRouteStats(infoService);
+            long nowMs = System.currentTimeMillis();
+            List<BackendLoad> loads = Lists.newArrayListWithCapacity(backends.size());
+            for (Backend backend : backends) {
+                RouteStat stat = routeStats.computeIfAbsent(backend.getId(), k -> new RouteStat());
+                int cores = Math.max(1, BackendCoreStat.getCoresOfBe(backend.getId()));
+                double load = (backend.getNumRunningLoads() + stat.getRoutedLoads(nowMs)) / cores;
+                loads.add(new BackendLoad(backend.getId(), load, stat.latencyMs,
+                        backend.getTabletMaxCompactionScore(), replicaNums.getOrDefault(backend.getId(), 0L)));
+            }
+            int index = chooseBackend(loads, Config.stream_load_routing_locality_weight,
+                    Config.stream_load_routing_compaction_weight, nextIndex);
+            nextIndex = (nextIndex + 1) % backends.size();
+            chosen = backends.get(index);
+            routeStats.get(chosen.getId()).addRoute(nowMs);
+        }
+        LOG.debug("choose backend {} for stream load of db: {}, tbl: {}", chosen.getId(), fullDbName, tableName);
+        return chosen;
+    }
+
+    private Backend chooseBackendByRoundRobin(SystemInfoService infoService) throws DdlException {
+        List<Long> backendIds = infoService.seqChooseBackendIds(1, true, false);
+        if (backendIds == null) {
+            throw new DdlException("No backend alive.");
+        }
+        Backend backend = infoService.getBackend(backendIds.get(0));
+        if (backend == null) {
+            throw new DdlException("No backend alive.");
+        }
+        synchronized (this) {
+            pruneRouteStats(infoService);
+            routeStats.computeIfAbsent(backend.getId(), k -> new RouteStat()).addRoute(System.currentTimeMillis());
+        }
+        return backend;
+    }
+
+    // remove the stats of the dropped backends, must be called with the lock held
+    private void pruneRouteStats(SystemInfoService infoService) {
+        routeStats.keySet().removeIf(beId -> infoService.getBackend(beId) == null);
+    }
+
+    // return the index of the backend with the lowest cost, the candidates are checked from startIndex,
+    // so the backends with the same cost are chosen by round-robin
+    static int chooseBackend(List<BackendLoad> loads, double localityWeight, double compactionWeight,
+                             int startIndex) {
+        double totalLoad = 0;
+        double totalLatency = 0;
+        int latencyNum = 0;
+        double totalCompactionScore = 0;
+        long maxReplicaNum = 0;
+        for (BackendLoad load : loads) {
+            totalLoad += load.load;
+            if (load.latencyMs >= 0) {
+                totalLatency += load.latencyMs;
+                latencyNum++;
+            }
+            totalCompactionScore += load.compactionScore;
+            maxReplicaNum = Math.max(maxReplicaNum, load.replicaNum);
+        }
+        double avgLoad = totalLoad / loads.size();
+        double avgLatency = latencyNum == 0 ? 0 : totalLatency / latencyNum;
+        double avgCompactionScore = totalCompactionScore / loads.size();
+
+        int chosenIndex = -1;
+        double minCost = Double.MAX_VALUE;
+        for (int i = 0; i < loads.size(); i++) {
+            int index = (startIndex + i) % loads.size();
+            BackendLoad load = loads.get(index);
+            double cost = avgLoad > 0 ? load.load / avgLoad : 1;
+            // a backend without finished load is regarded as an average one
+            cost += avgLatency > 0 && load.latencyMs >= 0 ? load.latencyMs / avgLatency : 1;
+            if (avgCompactionScore > 0) {
+                cost += compactionWeight * load.compactionScore / avgCompactionScore;
+            }
+            if (maxReplicaNum > 0) {
+                cost -= localityWeight * load.replicaNum / maxReplicaNum;
+            }
+            if (cost < minCost) {
+                minCost = cost;
+                chosenIndex = index;
+            }
+        }
+        return chosenIndex;
+    }
+
+    // return the cached replica nums of the table, and refresh them in background if they are missing or expired
+    private Map<Long, Long> getReplicaNums(String fullDbName, String tableName) {
+        if (tableName == null || Config.stream_load_routing_locality_weight <= 0) {
+            return Maps.newHashMap();
+        }
+        Database db = GlobalStateMgr.getCurrentState().getDb(fullDbName);
+        if (db == null) {
+            return Maps.newHashMap();
+        }
+        Table table = db.getTable(tableName);
+        if (!(table instanceof OlapTable)) {
+            return Maps.newHashMap();
+        }
+
+        TableLocality locality = tableLocalities.get(table.getId());
+        if (locality == null || System.currentTimeMillis() - locality.createTimeMs >= LOCALITY_EXPIRE_MS) {
+            // the queue of the refresher never exceeds, so the http thread is not blocked
+            if (refreshingTables.size() < MAX_CACHED_TABLES && refreshingTables.add(table.getId())) {
+                localityRefresher.execute(() -> refreshLocality(db, (OlapTable) table));
+            }
+        }
+        return locality == null ? Maps.newHashMap() : locality.replicaNums;
+    }
+
+    private void refreshLocality(Database db, OlapTable table) {
+        try {
+            Map<Long, Long> replicaNums = Maps.newHashMap();
+            db.readLock();
+            try {
+                for (Partition partition : table.getPartitions()) {
+                    for (MaterializedIndex index : partition.getMaterializedIndices(
+                            MaterializedIndex.IndexExtState.VISIBLE)) {
+                        for (Tablet tablet : index.getTablets()) {
+                            for (long beId : tablet.getBackendIds()) {
+                                replicaNums.merge(beId, 1L, Long::sum);
+                            }
+                        }
+                    }
+                }
+            } finally {
+                db.readUnlock();
+            }
+
+            long nowMs = System.currentTimeMillis();
+            if (tableLocalities.size() >= MAX_CACHED_TABLES) {
+                tableLocalities.values().removeIf(l -> nowMs - l.createTimeMs >= LOCALITY_EXPIRE_MS);
+            }
+            tableLocalities.put(table.getId(), new TableLocality(nowMs, replicaNums));
+        } catch (Exception e) {
+            LOG.warn("failed to count the replicas of table {}", table.getName(), e);
+        } finally {
+            refreshingTables.remove(table.getId());
+        }
+    }
+
+    // update the latency of the backend which coordinated the stream load, called after the txn is committed.
+    // backendId is -1 if the backend does not report its id, then the backend is resolved by the host of
+    // the coordinator, which is ambiguous if several backends are deployed on the host.
+    public void updateLoadLatency(TransactionState txnState, long backendId) {
+        if (txnState == null || txnState.getSourceType() != LoadJobSourceType.BACKEND_STREAMING
+                || txnState.getCoordinator() == null || txnState.getCoordinator().sourceType != TxnSourceType.BE
+                || txnState.getPrepareTime() <= 0) {
+            return;
+        }
+        SystemInfoService infoService = GlobalStateMgr.getCurrentSystemInfo();
+        long beId = backendId;
+        if (beId < 0) {
+            List<Backend> backends = infoService.getBackendOnlyWithHost(txnState.getCoordinator().ip);
+            if (backends.size() != 1) {
+                return;
+            }
+            beId = backends.get(0).getId();
+        } else if (infoService.getBackend(beId) == null) {
+            // the backend is dropped, do not add the stat back
+            return;
+        }
+        long latencyMs = Math.max(0, System.currentTimeMillis() - txnState.getPrepareTime());
+        synchronized (this) {
+            routeStats.computeIfAbsent(beId, k -> new RouteStat()).updateLatency(latencyMs);
+        }
+    }
+
+    public synchronized long getRouteNum(long beId) {
+        RouteStat stat = routeStats.get(beId);
+        return stat == null ? 0 : stat.routeNum;
+    }
+
+    public synchronized double getLoadLatencyMs(long beId) {
+        RouteStat stat = routeStats.get(beId);
+        return stat == null ? -1 : stat.latencyMs;
+    }
+}
@@ -86,6 +86,9 @@ public class KafkaRoutineLoadJob extends RoutineLoadJob {
     // kafka properties, property prefix will be mapped to kafka custom parameters, which can be extended in the future
     private Map<String, String> customProperties = Maps.newHashMap();
     private Map<String, String> convertedCustomProperties = Maps.newHashMap();
+    // the lag (latest offset - offset to be consumed) of each partition observed recently, only in memory.
+    // it is updated when tasks check the latest offsets, and used to assign partitions to tasks.
+    private Map<Integer, Long> partitionLags = Maps.newConcurrentMap();
 
     public KafkaRoutineLoadJob() {
         // for serialization, id is dummy
@@ -112,6 +115,74 @@ public class KafkaRoutineLoadJob extends RoutineLoadJob {
         return convertedCustomProperties;
     }
 
+    public Map<Integer, Long> getPartitionLags() {
+        return partitionLags;
+    }
+
+    public long getTotalLag() {
+        return partitionLags.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    // update the lags of partitions by the offsets to be consumed and the latest offsets
+    public void updatePartitionLags(Map<Integer, Long> partitionIdToOffset, Map<Integer, Long> latestOffsets) {
+        for (Map.Entry<Integer, Long> entry : partitionIdToOffset.entrySet()) {
+            Long latestOffset = latestOffsets.get(entry.getKey());
+            // OFFSET_BEGINNING and OFFSET_END can not be used to compute the lag
+            if (latestOffset != null && entry.getValue() >= 0) {
+                partitionLags.put(entry.getKey(), Math.max(latestOffset - entry.getValue(), 0L));
+            }
+        }
+    }
+
+    // get the latest offsets of the partitions from kafka, and update the lags
+    private void refreshPartitionLags(List<Integer> partitions) {
+        Map<Integer, Long> partitionIdToOffset = ((KafkaProgress) progress).getPartitionIdToOffset(partitions);
+        partitionIdToOffset.values().removeIf(offset -> offset < 0);
+        if (partitionIdToOffset.isEmpty()) {
+            return;
+        }
+        try {
+            Map<Integer, Long> latestOffsets = KafkaUtil.getLatestOffsets(brokerList, topic,
+                    ImmutableMap.copyOf(convertedCustomProperties), new ArrayList<>(partitionIdToOffset.keySet()));
+            updatePartitionLags(partitionIdToOffset, latestOffsets);
+        } catch (Exception e) {
+            // the partitions will be assigned by the lags observed before
+            LOG.warn(new LogBuilder(LogKey.ROUTINE_LOAD_JOB, id)
+                    .add("error_msg", "failed to get latest offsets of partitions: " + e.getMessage())
+                    .build());
+        }
+    }
+
+    /*
+     * Assign partitions to taskNum tasks by the lags of partitions.
+     * The partition with the largest lag is assigned first, to the task with the least total lag,
+     * and then the least number of partitions. So a few partitions with large lags are not put in one task.
+     * If no lag is known, it is the same as assigning the partitions in a round robin way.
+     */
+    static List<List<Integer>> assignPartitionsByLag(List<Integer> partitions, Map<Integer, Long> lags,
+                                                     int taskNum) {
+        List<List<Integer>> taskPartitions = new ArrayList<>();
+        long[] taskLags = new long[taskNum];
+        for (int i = 0; i < taskNum; i++) {
+            taskPartitions.add(new ArrayList<>());
+        }
+        List<Integer> sortedPartitions = new ArrayList<>(partitions);
+        // stable sort, partitions with the same lag keep the original order
+        sortedPartitions.sort((p1, p2) -> Long.compare(lags.getOrDefault(p2, 0L), lags.getOrDefault(p1, 0L)));
+        for (Integer partition : sortedPartitions) {
+            int target = 0;
+            for (int i = 1; i < taskNum; i++) {
+                if (taskLags[i] < taskLags[target] || (taskLags[i] == taskLags[target]
+                        && taskPartitions.get(i).size() < taskPartitions.get(target).size())) {
+                    target = i;
+                }
+            }
+            taskPartitions.get(target).add(partition);
+            taskLags[target] += lags.getOrDefault(partition, 0L);
+        }
+        return taskPartitions;
+    }
+
     @Override
     public void prepare() throws UserException {
         super.prepare();
@@ -158,19 +229,25 @@ public class KafkaRoutineLoadJob extends RoutineLoadJob {
 
     @Override
     public void divideRoutineLoadJob(int currentConcurrentTaskNum) throws UserException {
+        // get the lags before locking the job, because it needs to request kafka
+        if (Config.enable_routine_load_lag_aware_assignment && state == JobState.NEED_SCHEDULE) {
+            refreshPartitionLags(new ArrayList<>(currentKafkaPartitions));
+        }
+
         List<RoutineLoadTaskInfo> result = new ArrayList<>();
         writeLock();
         try {
             if (state == JobState.NEED_SCHEDULE) {
                 // divide kafkaPartitions into tasks
+                partitionLags.keySet().retainAll(currentKafkaPartitions);
+                List<List<Integer>> taskPartitions = assignPartitionsByLag(currentKafkaPartitions,
+                        Config.enable_routine_load_lag_aware_assignment ? partitionLags : Collections.emptyMap(),
+                        currentConcurrentTaskNum);
                 for (int i = 0; i < currentConcurrentTaskNum; i++) {
                     Map<Integer, Long> taskKafkaProgress = Maps.newHashMap();
-                    for (int j = 0; j < currentKafkaPartitions.size(); j++) {
-                        if (j % currentConcurrentTaskNum == i) {
-                            int kafkaPartition = currentKafkaPartitions.get(j);
-                            taskKafkaProgress.put(kafkaPartition,
-                                    ((KafkaProgress) progress).getOffsetByPartition(kafkaPartition));
-                        }
+                    for (int kafkaPartition : taskPartitions.get(i)) {
+                        taskKafkaProgress.put(kafkaPartition,
+                                ((KafkaProgress) progress).getOffsetByPartition(kafkaPartition));
                     }
                     long timeToExecuteMs = System.currentTimeMillis() + taskSchedIntervalS * 1000;
                     KafkaTaskInfo kafkaTaskInfo = new KafkaTaskInfo(UUID.randomUUID(), id,
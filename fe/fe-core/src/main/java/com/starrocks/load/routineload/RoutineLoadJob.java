@@ -491,6 +491,14 @@ public abstract class RoutineLoadJob extends AbstractTxnStateChangeCallback impl
         return maxBatchRows;
     }
 
+    public long getTotalRows() {
+        return totalRows;
+    }
+
+    public long getReceivedBytes() {
+        return receivedBytes;
+    }
+
     public long getTaskSchedIntervalS() {
         return taskSchedIntervalS;
     }
@@ -878,12 +886,16 @@ public abstract class RoutineLoadJob extends AbstractTxnStateChangeCallback impl
                     (RLTaskTxnCommitAttachment) txnState.getTxnCommitAttachment();
             // isProgressKeepUp returns false means there is too much data in kafka stream,
             // we set timeToExecuteMs to now, so that data not accumulated in kafka
-            if (!routineLoadTaskInfo.isProgressKeepUp(rlTaskTxnCommitAttachment.getProgress())) {
+            boolean isProgressKeepUp = routineLoadTaskInfo.isProgressKeepUp(rlTaskTxnCommitAttachment.getProgress());
+            if (!isProgressKeepUp) {
                 timeToExecuteMs = System.currentTimeMillis();
             } else {
                 timeToExecuteMs = System.currentTimeMillis() + taskSchedIntervalS * 1000;
             }
             RoutineLoadTaskInfo newRoutineLoadTaskInfo = unprotectRenewTask(timeToExecuteMs, routineLoadTaskInfo);
+            long commitLatencyMs = Math.max(txnState.getFinishTime() - txnState.getCommitTime(), 0L);
+            newRoutineLoadTaskInfo.adjustConsumeSecond(routineLoadTaskInfo.getConsumeSecond(), isProgressKeepUp,
+                    commitLatencyMs);
             GlobalStateMgr.getCurrentState().getRoutineLoadManager().releaseBeTaskSlot(routineLoadTaskInfo.getBeId());
             GlobalStateMgr.getCurrentState().getRoutineLoadTaskScheduler().addTaskInQueue(newRoutineLoadTaskInfo);
         } finally {
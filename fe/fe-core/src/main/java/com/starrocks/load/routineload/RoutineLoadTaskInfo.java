@@ -51,6 +51,8 @@ public abstract class RoutineLoadTaskInfo {
 
     public static final long INVALID_BE_ID = -1L;
 
+    private static final long COMMIT_LATENCY_FACTOR = 4;
+
     private RoutineLoadManager routineLoadManager = GlobalStateMgr.getCurrentState().getRoutineLoadManager();
 
     protected UUID id;
@@ -75,6 +77,8 @@ public abstract class RoutineLoadTaskInfo {
 
     protected long taskScheduleIntervalMs;
     protected long timeoutMs;
+    // the max time to consume data in this task, it is adjusted by the previous task, see adjustConsumeSecond()
+    protected long consumeSecond;
 
     // this status will be set when corresponding transaction's status is changed.
     // so that user or other logic can know the status of the corresponding txn.
@@ -91,6 +95,7 @@ public abstract class RoutineLoadTaskInfo {
         this.taskScheduleIntervalMs = taskScheduleIntervalMs;
         this.timeoutMs = 1000 * Config.routine_load_task_timeout_second;
         this.timeToExecuteMs = timeToExecuteMs;
+        this.consumeSecond = Config.routine_load_task_consume_second;
     }
 
     public RoutineLoadTaskInfo(UUID id, long jobId, long taskSchedulerIntervalMs,
@@ -147,6 +152,31 @@ public abstract class RoutineLoadTaskInfo {
         return timeoutMs;
     }
 
+    public long getConsumeSecond() {
+        return consumeSecond;
+    }
+
+    /*
+     * Adjust the consume time of this task by the previous task of the same partitions.
+     * 1. If the previous task can not keep up with the data source, double the consume time,
+     *    so that more data is loaded in one transaction.
+     *    Otherwise, halve the consume time, but not less than routine_load_task_consume_second.
+     * 2. The consume time should be at least COMMIT_LATENCY_FACTOR times of the latency of committing
+     *    the previous transaction, so that the tasks do not spend most of the time on committing.
+     * 3. The consume time is at most half of the task timeout.
+     */
+    public void adjustConsumeSecond(long prevConsumeSecond, boolean isProgressKeepUp, long commitLatencyMs) {
+        long minConsumeSecond = Config.routine_load_task_consume_second;
+        if (!Config.enable_routine_load_adaptive_consume_time) {
+            consumeSecond = minConsumeSecond;
+            return;
+        }
+        long maxConsumeSecond = Math.max(minConsumeSecond, Config.routine_load_task_timeout_second / 2);
+        long target = isProgressKeepUp ? prevConsumeSecond / 2 : prevConsumeSecond * 2;
+        target = Math.max(target, commitLatencyMs * COMMIT_LATENCY_FACTOR / 1000);
+        consumeSecond = Math.min(Math.max(target, minConsumeSecond), maxConsumeSecond);
+    }
+
     public void setTxnStatus(TransactionStatus txnStatus) {
         this.txnStatus = txnStatus;
     }
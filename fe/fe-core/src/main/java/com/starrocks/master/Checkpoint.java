@@ -34,6 +34,7 @@ import org.apache.commons.io.output.NullOutputStream;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.net.URL;
@@ -47,6 +48,7 @@ public class Checkpoint extends MasterDaemon {
     private static final int PUT_TIMEOUT_SECOND = 3600;
     private static final int CONNECT_TIMEOUT_SECOND = 1;
     private static final int READ_TIMEOUT_SECOND = 1;
+    private static final int SNAPSHOT_TIMEOUT_SECOND = 3600;
 
     private GlobalStateMgr globalStateMgr;
     private String imageDir;
@@ -79,36 +81,48 @@ public class Checkpoint extends MasterDaemon {
         }
 
         long replayedJournalId = -1;
-        // generate new image file
-        LOG.info("begin to generate new image: image.{}", checkPointVersion);
-        globalStateMgr = GlobalStateMgr.getCurrentState();
-        globalStateMgr.setJournal(journal);
-        try {
-            globalStateMgr.loadImage(imageDir);
-            globalStateMgr.replayJournal(checkPointVersion);
-            if (globalStateMgr.getReplayedJournalId() != checkPointVersion) {
-                LOG.error("checkpoint version should be {}, actual replayed journal id is {}",
-                        checkPointVersion, globalStateMgr.getReplayedJournalId());
-                return;
+        if (Config.enable_checkpoint_by_snapshot) {
+            replayedJournalId = createImageBySnapshot(imageVersion);
+            if (replayedJournalId > 0) {
+                checkPointVersion = replayedJournalId;
+                GlobalStateMgr.getServingState().setImageJournalId(checkPointVersion);
+                if (MetricRepo.isInit) {
+                    MetricRepo.COUNTER_IMAGE_WRITE.increase(1L);
+                }
             }
+        }
+        if (replayedJournalId <= 0) {
+            // generate new image file
+            LOG.info("begin to generate new image: image.{}", checkPointVersion);
+            globalStateMgr = GlobalStateMgr.getCurrentState();
+            globalStateMgr.setJournal(journal);
+            try {
+                globalStateMgr.loadImage(imageDir);
+                globalStateMgr.replayJournal(checkPointVersion);
+                if (globalStateMgr.getReplayedJournalId() != checkPointVersion) {
+                    LOG.error("checkpoint version should be {}, actual replayed journal id is {}",
+                            checkPointVersion, globalStateMgr.getReplayedJournalId());
+                    return;
+                }
 
-            globalStateMgr.clearExpiredJobs();
+                globalStateMgr.clearExpiredJobs();
 
-            globalStateMgr.saveImage();
-            replayedJournalId = globalStateMgr.getReplayedJournalId();
-            if (MetricRepo.isInit) {
-                MetricRepo.COUNTER_IMAGE_WRITE.increase(1L);
+                globalStateMgr.saveImage();
+                replayedJournalId = globalStateMgr.getReplayedJournalId();
+                if (MetricRepo.isInit) {
+                    MetricRepo.COUNTER_IMAGE_WRITE.increase(1L);
+                }
+                GlobalStateMgr.getServingState().setImageJournalId(checkPointVersion);
+                LOG.info("checkpoint finished save image.{}", replayedJournalId);
+            } catch (Exception e) {
+                e.printStackTrace();
+                LOG.error("Exception when generate new image file", e);
+                return;
+            } finally {
+                // destroy checkpoint globalStateMgr, reclaim memory
+                globalStateMgr = null;
+                GlobalStateMgr.destroyCheckpoint();
             }
-            GlobalStateMgr.getServingState().setImageJournalId(checkPointVersion);
-            LOG.info("checkpoint finished save image.{}", replayedJournalId);
-        } catch (Exception e) {
-            e.printStackTrace();
-            LOG.error("Exception when generate new image file", e);
-            return;
-        } finally {
-            // destroy checkpoint globalStateMgr, reclaim memory
-            globalStateMgr = null;
-            GlobalStateMgr.destroyCheckpoint();
         }
 
         // push image file to all the other non master nodes
@@ -202,4 +216,58 @@ public class Checkpoint extends MasterDaemon {
         }
 
     }
+
+    /**
+     * Ask a follower or observer to save an image of its serving metadata, and download the image to the image dir
+     * of master. So master does not need to load another copy of the metadata to generate the image.
+     * Return the journal id of the image, or -1 if no node succeeds.
+     */
+    private long createImageBySnapshot(long imageVersion) {
+        String masterIp = GlobalStateMgr.getServingState().getMasterIp();
+        for (Frontend fe : GlobalStateMgr.getServingState().getFrontends(null)) {
+            String host = fe.getHost();
+            if (host.equals(masterIp) || !fe.isAlive()) {
+                continue;
+            }
+            int port = Config.http_port;
+
+            long version;
+            HttpURLConnection conn = null;
+            try {
+                URL url = new URL("http://" + host + ":" + port + "/snapshot");
+                conn = (HttpURLConnection) url.openConnection();
+                conn.setConnectTimeout(CONNECT_TIMEOUT_SECOND * 1000);
+                conn.setReadTimeout(SNAPSHOT_TIMEOUT_SECOND * 1000);
+                if (conn.getResponseCode() != HttpURLConnection.HTTP_OK) {
+                    LOG.warn("failed to save snapshot image on {}, response code: {}", host, conn.getResponseCode());
+                    continue;
+                }
+                version = Long.parseLong(conn.getHeaderField("version"));
+            } catch (IOException | NumberFormatException e) {
+                LOG.warn("failed to save snapshot image on {}", host, e);
+                continue;
+            } finally {
+                if (conn != null) {
+                    conn.disconnect();
+                }
+            }
+            if (version <= imageVersion) {
+                LOG.info("snapshot image.{} of {} is not newer than image.{}", version, host, imageVersion);
+                continue;
+            }
+
+            String filename = Storage.IMAGE + "." + version;
+            File dir = new File(imageDir);
+            String url = "http://" + host + ":" + port + "/image?version=" + version;
+            try {
+                MetaHelper.getRemoteImage(url, PUT_TIMEOUT_SECOND * 1000, filename, dir);
+            } catch (IOException e) {
+                LOG.warn("failed to download snapshot image. url: {}", url, e);
+                continue;
+            }
+            LOG.info("checkpoint finished download snapshot image.{} from {}", version, host);
+            return version;
+        }
+        return -1;
+    }
 }
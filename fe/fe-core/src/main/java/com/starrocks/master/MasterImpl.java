@@ -331,6 +331,7 @@ public class MasterImpl {
                              * So we set replica back to good.
                              */
                             replica.setBad(false);
+                            GlobalStateMgr.getCurrentState().getTabletChecker().markTabletDirty(tabletId);
                             LOG.info(
                                     "finish recover create replica task. set replica to good. tablet {}, replica {}, backend {}",
                                     tabletId, task.getBackendId(), replica.getId());
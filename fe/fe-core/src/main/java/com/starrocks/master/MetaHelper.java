@@ -21,23 +21,46 @@
 
 package com.starrocks.master;
 
+import com.google.common.io.ByteStreams;
+import com.starrocks.common.Config;
 import com.starrocks.common.io.IOUtils;
+import com.starrocks.metric.MetricRepo;
+import com.starrocks.persist.Storage;
 import com.starrocks.server.GlobalStateMgr;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.xerial.snappy.Snappy;
 
 import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.RandomAccessFile;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.CRC32;
 
 public class MetaHelper {
+    private static final Logger LOG = LogManager.getLogger(MetaHelper.class);
+
     private static final String PART_SUFFIX = ".part";
     public static final String X_IMAGE_SIZE = "X-Image-Size";
+    public static final String X_IMAGE_CHECKSUM = "X-Image-Checksum";
+    // headers of a chunk of image
+    public static final String X_CHUNK_SIZE = "X-Chunk-Size";
+    public static final String X_CHUNK_CHECKSUM = "X-Chunk-Checksum";
+    public static final String X_CHUNK_COMPRESSION = "X-Chunk-Compression";
+    public static final String COMPRESSION_NONE = "none";
+    public static final String COMPRESSION_SNAPPY = "snappy";
+    public static final int MAX_CHUNK_BYTES = 256 * 1024 * 1024;
     private static final int BUFFER_BYTES = 8 * 1024;
     private static final int CHECKPOINT_LIMIT_BYTES = 30 * 1024 * 1024;
+    private static final int CHECKSUM_BUFFER_BYTES = 1024 * 1024;
 
     public static File getMasterImageDir() {
         String metaDir = GlobalStateMgr.getCurrentState().getImageDir();
@@ -100,4 +123,294 @@ public class MetaHelper {
         }
     }
 
+    // a chunk of image file, data is compressed by compression
+    public static class ImageChunk {
+        private final long imageSize;
+        private final int size;
+        private final long checksum;
+        private final String compression;
+        private final byte[] data;
+
+        public ImageChunk(long imageSize, int size, long checksum, String compression, byte[] data) {
+            this.imageSize = imageSize;
+            this.size = size;
+            this.checksum = checksum;
+            this.compression = compression;
+            this.data = data;
+        }
+
+        public long getImageSize() {
+            return imageSize;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public long getChecksum() {
+            return checksum;
+        }
+
+        public String getCompression() {
+            return compression;
+        }
+
+        public byte[] getData() {
+            return data;
+        }
+    }
+
+    private static long checksum(byte[] data) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(data, 0, data.length);
+        return crc32.getValue();
+    }
+
+    private static long checksum(File file) throws IOException {
+        CRC32 crc32 = new CRC32();
+        byte[] buffer = new byte[CHECKSUM_BUFFER_BYTES];
+        try (FileInputStream in = new FileInputStream(file)) {
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                crc32.update(buffer, 0, n);
+            }
+        }
+        return crc32.getValue();
+    }
+
+    // checksum.N for image.N, and checksum.N.part for image.N.part, which must not start with Storage.IMAGE,
+    // otherwise it is taken as an image by Storage and MetaCleaner
+    public static File getImageChecksumFile(File imageFile) {
+        String name = imageFile.getName();
+        if (name.startsWith(Storage.IMAGE)) {
+            name = Storage.IMAGE_CHECKSUM + name.substring(Storage.IMAGE.length());
+        } else {
+            name = Storage.IMAGE_CHECKSUM + "." + name;
+        }
+        return new File(imageFile.getParentFile(), name);
+    }
+
+    // return the checksum of the whole image file saved by writeImageChecksum(), -1 if it is unknown
+    public static long readImageChecksum(File imageFile) {
+        File checksumFile = getImageChecksumFile(imageFile);
+        if (!checksumFile.exists()) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(new String(Files.readAllBytes(checksumFile.toPath()), StandardCharsets.UTF_8)
+                    .trim());
+        } catch (IOException | NumberFormatException e) {
+            LOG.warn("failed to read {}", checksumFile, e);
+            return -1;
+        }
+    }
+
+    // save the checksum of the whole image file, it is computed when the image is saved or downloaded,
+    // so that ImageAction does not need to read the whole image to send it with each chunk
+    public static void writeImageChecksum(File imageFile, long checksum) throws IOException {
+        Files.write(getImageChecksumFile(imageFile).toPath(),
+                String.valueOf(checksum).getBytes(StandardCharsets.UTF_8));
+    }
+
+    // truncate partFile, and record the checksum of the image which it will be downloaded from
+    private static void resetPartFile(File partFile, long imageChecksum) throws IOException {
+        new FileOutputStream(partFile).close();
+        if (imageChecksum < 0) {
+            Files.deleteIfExists(getImageChecksumFile(partFile).toPath());
+        } else {
+            writeImageChecksum(partFile, imageChecksum);
+        }
+    }
+
+    private static void deletePartFile(File partFile) throws IOException {
+        Files.deleteIfExists(partFile.toPath());
+        Files.deleteIfExists(getImageChecksumFile(partFile).toPath());
+    }
+
+    // the size and checksum of the remote image, checksum is -1 if the remote node does not send it
+    private static class RemoteImage {
+        private final long size;
+        private final long checksum;
+
+        private RemoteImage(long size, long checksum) {
+            this.size = size;
+            this.checksum = checksum;
+        }
+    }
+
+    // read at most length bytes of file from offset, the chunk is empty if offset is not less than the file size
+    public static ImageChunk readChunk(File file, long offset, int length, String compression) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            long fileSize = raf.length();
+            int size = (int) Math.max(0, Math.min(Math.min(length, MAX_CHUNK_BYTES), fileSize - offset));
+            byte[] raw = new byte[size];
+            if (size > 0) {
+                raf.seek(offset);
+                raf.readFully(raw);
+            }
+            if (COMPRESSION_SNAPPY.equals(compression)) {
+                return new ImageChunk(fileSize, size, checksum(raw), COMPRESSION_SNAPPY, Snappy.compress(raw));
+            }
+            return new ImageChunk(fileSize, size, checksum(raw), COMPRESSION_NONE, raw);
+        }
+    }
+
+    // decompress the data of chunk and verify it by the size and checksum
+    public static byte[] decodeChunk(ImageChunk chunk) throws IOException {
+        byte[] raw;
+        if (COMPRESSION_SNAPPY.equals(chunk.getCompression())) {
+            raw = Snappy.uncompress(chunk.getData());
+        } else if (COMPRESSION_NONE.equals(chunk.getCompression())) {
+            raw = chunk.getData();
+        } else {
+            throw new IOException("Unknown image chunk compression: " + chunk.getCompression());
+        }
+        if (raw.length != chunk.getSize()) {
+            throw new IOException("Unexpected image chunk size, expected: " + chunk.getSize()
+                    + ", actual: " + raw.length);
+        }
+        long checksum = checksum(raw);
+        if (checksum != chunk.getChecksum()) {
+            throw new IOException("Unexpected image chunk checksum, expected: " + chunk.getChecksum()
+                    + ", actual: " + checksum);
+        }
+        return raw;
+    }
+
+    /**
+     * Download the image file from remote node chunk by chunk, each chunk is compressed by the remote node if
+     * Config.enable_image_transfer_compression is true, and is verified by its size and checksum.
+     * The downloaded chunks are appended to the .PART_SUFFIX file, a failed chunk is retried for
+     * Config.image_transfer_chunk_retry_times times, and a failed download is resumed from the end of the
+     * .PART_SUFFIX file by the next call with the same filename, if the checksum of the remote image is the same
+     * as the one recorded in the checksum file of the .PART_SUFFIX file. The whole file is verified by the checksum of
+     * the remote image, and its checksum is saved by writeImageChecksum() before the .PART_SUFFIX file is renamed
+     * to filename, so that this node can serve the image to others.
+     * urlStr is the url of ImageAction with the version parameter.
+     */
+    public static File getRemoteImage(String urlStr, int timeout, String filename, File dir) throws IOException {
+        File partFile = new File(dir, filename + PART_SUFFIX);
+        long startMs = System.currentTimeMillis();
+        long startOffset = -1;
+        RemoteImage remoteImage = null;
+        int failedTimes = 0;
+        while (true) {
+            long offset = partFile.length();
+            if (remoteImage != null && offset == remoteImage.size) {
+                break;
+            }
+            if (remoteImage != null && offset > remoteImage.size) {
+                // the .PART_SUFFIX file is not downloaded from this image, download from the beginning
+                LOG.warn("size of {} is {}, larger than image size {}, download it again", partFile, offset,
+                        remoteImage.size);
+                resetPartFile(partFile, remoteImage.checksum);
+                continue;
+            }
+            try {
+                remoteImage = getRemoteImageChunk(urlStr, timeout, partFile, offset);
+                failedTimes = 0;
+                if (startOffset < 0 && partFile.length() > offset) {
+                    // the first chunk appended to the .PART_SUFFIX file
+                    startOffset = offset;
+                }
+            } catch (FileNotFoundException e) {
+                throw e;
+            } catch (IOException e) {
+                if (++failedTimes > Config.image_transfer_chunk_retry_times) {
+                    throw e;
+                }
+                LOG.warn("failed to download image chunk at offset {} from {}, retry times: {}",
+                        offset, urlStr, failedTimes, e);
+            }
+        }
+
+        long checksum = checksum(partFile);
+        if (remoteImage.checksum >= 0 && checksum != remoteImage.checksum) {
+            deletePartFile(partFile);
+            throw new IOException("Unexpected image checksum of " + filename + ", expected: "
+                    + remoteImage.checksum + ", actual: " + checksum);
+        }
+
+        long costMs = Math.max(1, System.currentTimeMillis() - startMs);
+        long downloadedBytes = remoteImage.size - Math.max(0, startOffset);
+        if (MetricRepo.isInit) {
+            MetricRepo.GAUGE_IMAGE_DOWNLOAD_THROUGHPUT.setValue(downloadedBytes * 1000 / costMs);
+        }
+        LOG.info("downloaded {} from {}, size: {}, resumed from: {}, cost: {}ms", filename, urlStr,
+                remoteImage.size, Math.max(0, startOffset), costMs);
+        Files.deleteIfExists(getImageChecksumFile(partFile).toPath());
+        writeImageChecksum(new File(dir, filename), checksum);
+        return complete(filename, dir);
+    }
+
+    // download a chunk from offset and append it to partFile, return the size and checksum of the image.
+    // If partFile is not downloaded from this image, it is truncated and the chunk is not appended.
+    private static RemoteImage getRemoteImageChunk(String urlStr, int timeout, File partFile, long offset)
+            throws IOException {
+        String compression = Config.enable_image_transfer_compression ? COMPRESSION_SNAPPY : COMPRESSION_NONE;
+        URL url = new URL(urlStr + "&offset=" + offset + "&length=" + Config.image_transfer_chunk_size
+                + "&compression=" + compression);
+        HttpURLConnection conn = null;
+        try {
+            conn = (HttpURLConnection) url.openConnection();
+            conn.setConnectTimeout(timeout);
+            conn.setReadTimeout(timeout);
+
+            if (conn.getResponseCode() == HttpURLConnection.HTTP_NOT_FOUND) {
+                throw new FileNotFoundException("Image not found: " + urlStr);
+            }
+            String imageSizeStr = conn.getHeaderField(X_IMAGE_SIZE);
+            if (imageSizeStr == null) {
+                throw new IOException("Miss header " + X_IMAGE_SIZE);
+            }
+            long imageSize = Long.parseLong(imageSizeStr);
+            String imageChecksumStr = conn.getHeaderField(X_IMAGE_CHECKSUM);
+            long imageChecksum = imageChecksumStr == null ? -1 : Long.parseLong(imageChecksumStr);
+            String chunkSizeStr = conn.getHeaderField(X_CHUNK_SIZE);
+            if (chunkSizeStr == null) {
+                // the remote node does not support chunks and sends the whole image
+                resetPartFile(partFile, -1);
+                BufferedInputStream bin = new BufferedInputStream(conn.getInputStream());
+                long bytes = IOUtils.copyBytes(bin, new FileOutputStream(partFile), BUFFER_BYTES,
+                        CHECKPOINT_LIMIT_BYTES, true);
+                if (bytes != imageSize) {
+                    throw new IOException("Unexpected image size, expected: " + imageSize + ", actual: " + bytes);
+                }
+                if (MetricRepo.isInit) {
+                    MetricRepo.COUNTER_IMAGE_DOWNLOAD_BYTES.increase(bytes);
+                    MetricRepo.COUNTER_IMAGE_DOWNLOAD_TRANSFERRED_BYTES.increase(bytes);
+                }
+                return new RemoteImage(imageSize, -1);
+            }
+
+            if (offset == 0) {
+                resetPartFile(partFile, imageChecksum);
+            } else if (imageChecksum < 0 || imageChecksum != readImageChecksum(partFile)) {
+                LOG.warn("{} is not downloaded from the image of {}, download it again", partFile, urlStr);
+                resetPartFile(partFile, imageChecksum);
+                return new RemoteImage(imageSize, imageChecksum);
+            }
+
+            byte[] data = ByteStreams.toByteArray(conn.getInputStream());
+            ImageChunk chunk = new ImageChunk(imageSize, Integer.parseInt(chunkSizeStr),
+                    Long.parseLong(conn.getHeaderField(X_CHUNK_CHECKSUM)), conn.getHeaderField(X_CHUNK_COMPRESSION),
+                    data);
+            byte[] raw = decodeChunk(chunk);
+            if (raw.length == 0 && offset < imageSize) {
+                throw new IOException("Empty image chunk at offset " + offset + ", image size: " + imageSize);
+            }
+            try (FileOutputStream out = new FileOutputStream(partFile, true)) {
+                out.write(raw);
+            }
+            if (MetricRepo.isInit) {
+                MetricRepo.COUNTER_IMAGE_DOWNLOAD_BYTES.increase((long) raw.length);
+                MetricRepo.COUNTER_IMAGE_DOWNLOAD_TRANSFERRED_BYTES.increase((long) data.length);
+            }
+            return new RemoteImage(imageSize, imageChecksum);
+        } finally {
+            if (conn != null) {
+                conn.disconnect();
+            }
+        }
+    }
 }
@@ -41,6 +41,7 @@ import com.starrocks.catalog.Replica;
 import com.starrocks.catalog.Replica.ReplicaState;
 import com.starrocks.catalog.TabletInvertedIndex;
 import com.starrocks.catalog.TabletMeta;
+import com.starrocks.clone.TabletChecker;
 import com.starrocks.clone.TabletSchedCtx;
 import com.starrocks.common.Config;
 import com.starrocks.common.FeConstants;
@@ -367,6 +368,13 @@ public class ReportHandler extends Daemon {
         // 8. send recover request to be
         handleRecoverTablet(tabletRecoveryMap, backendTablets, backendId);
 
+        // replicas of these tablets may be changed by this report, check them in next round of TabletChecker
+        TabletChecker tabletChecker = GlobalStateMgr.getCurrentState().getTabletChecker();
+        tabletChecker.markTabletsDirty(tabletSyncMap.values());
+        tabletChecker.markTabletsDirty(tabletDeleteFromMeta.values());
+        tabletChecker.markTabletsDirty(tabletMigrationMap.values());
+        tabletChecker.markTabletsDirty(tabletRecoveryMap.values());
+
         // 9. send set tablet partition info to be
         handleSetTabletPartitionId(backendId, tabletWithoutPartitionId);
 
@@ -721,6 +729,8 @@ public class ReportHandler extends Daemon {
                                         tabletsInfo.addReplicaInfo(replicaPersistInfo);
                                         GlobalStateMgr.getCurrentState().getEditLog()
                                                 .logBackendTabletsInfo(tabletsInfo);
+                                        GlobalStateMgr.getCurrentState().getTabletChecker()
+                                                .markTabletDirty(tabletId);
                                     }
                                 }
                             }
@@ -807,6 +817,12 @@ public class ReportHandler extends Daemon {
                 continue;
             }
 
+            if (GlobalStateMgr.getCurrentRecycleBin().isPartitionCompacted(tabletMeta.getPartitionId())) {
+                // the replicas of the compacted partitions in recycle bin are not in meta until recovered,
+                // keep them on backend
+                continue;
+            }
+
             TTablet backendTablet = backendTablets.get(tabletId);
             for (TTabletInfo backendTabletInfo : backendTablet.getTablet_infos()) {
                 boolean needDelete = false;
@@ -980,6 +996,8 @@ public class ReportHandler extends Daemon {
                                     ReplicaPersistInfo replicaPersistInfo = ReplicaPersistInfo.createForReport(
                                             dbId, tableId, partitionId, indexId, tabletId, backendId, replica.getId());
                                     backendTabletsInfo.addReplicaInfo(replicaPersistInfo);
+                                    // the disk of the replica is not used any more
+                                    GlobalStateMgr.getCurrentState().getTabletChecker().markTabletDirty(tabletId);
                                 }
                                 break;
                             }
@@ -1266,6 +1284,7 @@ public class ReportHandler extends Daemon {
                         lastFailedVersion, version);
 
                 GlobalStateMgr.getCurrentState().getEditLog().logAddReplica(info);
+                GlobalStateMgr.getCurrentState().getTabletChecker().markTabletDirty(tabletId);
 
                 LOG.info("add replica[{}-{}] to globalStateMgr. backend:[{}] replicas:", tabletId, replicaId, backendId,
                         tablet.getReplicaInfos());
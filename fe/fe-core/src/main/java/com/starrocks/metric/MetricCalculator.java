@@ -39,6 +39,7 @@ public class MetricCalculator extends TimerTask {
     private long lastRequestCounter = -1;
     private long lastQueryErrCounter = -1;
     private long lastQueryEventTime = -1;
+    private long lastEditLogReadCounter = -1;
 
     @Override
     public void run() {
@@ -53,6 +54,7 @@ public class MetricCalculator extends TimerTask {
             lastRequestCounter = MetricRepo.COUNTER_REQUEST_ALL.getValue();
             lastQueryErrCounter = MetricRepo.COUNTER_QUERY_ERR.getValue();
             lastQueryEventTime = System.currentTimeMillis() * 1000000;
+            lastEditLogReadCounter = MetricRepo.COUNTER_EDIT_LOG_READ.getValue();
             return;
         }
 
@@ -76,6 +78,12 @@ public class MetricCalculator extends TimerTask {
         MetricRepo.GAUGE_QUERY_ERR_RATE.setValue(errRate < 0 ? 0.0 : errRate);
         lastQueryErrCounter = currentErrCounter;
 
+        // edit log replayed per second
+        long currentEditLogReadCounter = MetricRepo.COUNTER_EDIT_LOG_READ.getValue();
+        double replayRate = (double) (currentEditLogReadCounter - lastEditLogReadCounter) / interval;
+        MetricRepo.GAUGE_EDIT_LOG_REPLAY_PER_SECOND.setValue(replayRate < 0 ? 0.0 : replayRate);
+        lastEditLogReadCounter = currentEditLogReadCounter;
+
         lastTs = currentTs;
 
         // max tablet compaction score of all backends
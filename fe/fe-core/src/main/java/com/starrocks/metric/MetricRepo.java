@@ -36,6 +36,7 @@ import com.starrocks.common.ThreadPoolManager;
 import com.starrocks.common.UserException;
 import com.starrocks.common.util.KafkaUtil;
 import com.starrocks.load.EtlJobType;
+import com.starrocks.load.StreamLoadRouter;
 import com.starrocks.load.loadv2.JobState;
 import com.starrocks.load.loadv2.LoadManager;
 import com.starrocks.load.routineload.KafkaProgress;
@@ -88,6 +89,8 @@ public final class MetricRepo {
     public static LongCounterMetric COUNTER_EDIT_LOG_SIZE_BYTES;
     public static LongCounterMetric COUNTER_IMAGE_WRITE;
     public static LongCounterMetric COUNTER_IMAGE_PUSH;
+    public static LongCounterMetric COUNTER_IMAGE_DOWNLOAD_BYTES;
+    public static LongCounterMetric COUNTER_IMAGE_DOWNLOAD_TRANSFERRED_BYTES;
     public static LongCounterMetric COUNTER_TXN_REJECT;
     public static LongCounterMetric COUNTER_TXN_BEGIN;
     public static LongCounterMetric COUNTER_TXN_FAILED;
@@ -98,6 +101,12 @@ public final class MetricRepo {
     public static LongCounterMetric COUNTER_ROUTINE_LOAD_PAUSED;
 
     public static Histogram HISTO_QUERY_LATENCY;
+    // latency of each phase of queries, see QueryPhaseStats
+    public static Histogram HISTO_QUERY_PARSE_LATENCY;
+    public static Histogram HISTO_QUERY_ANALYZE_LATENCY;
+    public static Histogram HISTO_QUERY_OPTIMIZE_LATENCY;
+    public static Histogram HISTO_QUERY_PLAN_BUILD_LATENCY;
+    public static Histogram HISTO_QUERY_DEPLOY_LATENCY;
     public static Histogram HISTO_EDIT_LOG_WRITE_LATENCY;
     public static Histogram HISTO_JOURNAL_WRITE_LATENCY;
     public static Histogram HISTO_JOURNAL_WRITE_BATCH;
@@ -105,8 +114,10 @@ public final class MetricRepo {
 
     // following metrics will be updated by metric calculator
     public static GaugeMetricImpl<Double> GAUGE_QUERY_PER_SECOND;
+    public static GaugeMetricImpl<Long> GAUGE_IMAGE_DOWNLOAD_THROUGHPUT;
     public static GaugeMetricImpl<Double> GAUGE_REQUEST_PER_SECOND;
     public static GaugeMetricImpl<Double> GAUGE_QUERY_ERR_RATE;
+    public static GaugeMetricImpl<Double> GAUGE_EDIT_LOG_REPLAY_PER_SECOND;
     // these query latency is different from HISTO_QUERY_LATENCY, for these only summarize the latest queries, but HISTO_QUERY_LATENCY summarizes all queries.
     public static GaugeMetricImpl<Double> GAUGE_QUERY_LATENCY_MEAN;
     public static GaugeMetricImpl<Double> GAUGE_QUERY_LATENCY_MEDIAN;
@@ -117,6 +128,8 @@ public final class MetricRepo {
     public static GaugeMetricImpl<Double> GAUGE_QUERY_LATENCY_P999;
     public static GaugeMetricImpl<Long> GAUGE_MAX_TABLET_COMPACTION_SCORE;
     public static GaugeMetricImpl<Long> GAUGE_STACKED_JOURNAL_NUM;
+    public static GaugeMetricImpl<Long> GAUGE_TABLET_CHECK_COST_MS;
+    public static GaugeMetricImpl<Long> GAUGE_TABLET_CHECK_NUM;
 
     private static ScheduledThreadPoolExecutor metricTimer =
             ThreadPoolManager.newDaemonScheduledThreadPool(1, "Metric-Timer-Pool", true);
@@ -216,6 +229,20 @@ public final class MetricRepo {
         };
         STARROCKS_METRIC_REGISTER.addMetric(metaLogCount);
 
+        // journals not replayed by non-master frontend
+        GaugeMetric<Long> replayLag = new GaugeMetric<Long>(
+                "meta_replay_lag", MetricUnit.NOUNIT, "number of journals not replayed yet by this frontend") {
+            @Override
+            public Long getValue() {
+                GlobalStateMgr globalStateMgr = GlobalStateMgr.getCurrentState();
+                if (globalStateMgr.isMaster()) {
+                    return 0L;
+                }
+                return Math.max(0L, globalStateMgr.getMaxJournalId() - globalStateMgr.getReplayedJournalId());
+            }
+        };
+        STARROCKS_METRIC_REGISTER.addMetric(replayLag);
+
         // scheduled tablet num
         GaugeMetric<Long> scheduledTabletNum = (GaugeMetric<Long>) new GaugeMetric<Long>(
                 "scheduled_tablet_num", MetricUnit.NOUNIT, "number of tablets being scheduled") {
@@ -260,6 +287,11 @@ public final class MetricRepo {
         GAUGE_QUERY_ERR_RATE.setValue(0.0);
         STARROCKS_METRIC_REGISTER.addMetric(GAUGE_QUERY_ERR_RATE);
 
+        GAUGE_EDIT_LOG_REPLAY_PER_SECOND = new GaugeMetricImpl<>("edit_log_replay_per_second",
+                MetricUnit.OPERATIONS, "edit log replayed per second");
+        GAUGE_EDIT_LOG_REPLAY_PER_SECOND.setValue(0.0);
+        STARROCKS_METRIC_REGISTER.addMetric(GAUGE_EDIT_LOG_REPLAY_PER_SECOND);
+
         GAUGE_MAX_TABLET_COMPACTION_SCORE = new GaugeMetricImpl<>("max_tablet_compaction_score",
                 MetricUnit.NOUNIT, "max tablet compaction score of all backends");
         GAUGE_MAX_TABLET_COMPACTION_SCORE.setValue(0L);
@@ -270,6 +302,17 @@ public final class MetricRepo {
         GAUGE_STACKED_JOURNAL_NUM.setValue(0L);
         STARROCKS_METRIC_REGISTER.addMetric(GAUGE_STACKED_JOURNAL_NUM);
 
+        // cost and number of tablets checked of the last tablet checker round
+        GAUGE_TABLET_CHECK_COST_MS = new GaugeMetricImpl<>("tablet_check_cost_ms", MetricUnit.MILLISECONDS,
+                "cost of the last tablet check round");
+        GAUGE_TABLET_CHECK_COST_MS.setValue(0L);
+        STARROCKS_METRIC_REGISTER.addMetric(GAUGE_TABLET_CHECK_COST_MS);
+
+        GAUGE_TABLET_CHECK_NUM = new GaugeMetricImpl<>("tablet_check_num", MetricUnit.NOUNIT,
+                "number of tablets checked in the last tablet check round");
+        GAUGE_TABLET_CHECK_NUM.setValue(0L);
+        STARROCKS_METRIC_REGISTER.addMetric(GAUGE_TABLET_CHECK_NUM);
+
         GAUGE_QUERY_LATENCY_MEAN =
                 new GaugeMetricImpl<>("query_latency", MetricUnit.MILLISECONDS, "mean of query latency");
         GAUGE_QUERY_LATENCY_MEAN.addLabel(new MetricLabel("type", "mean"));
@@ -346,6 +389,16 @@ public final class MetricRepo {
         COUNTER_IMAGE_PUSH = new LongCounterMetric("image_push", MetricUnit.OPERATIONS,
                 "counter of image succeeded in pushing to other frontends");
         STARROCKS_METRIC_REGISTER.addMetric(COUNTER_IMAGE_PUSH);
+        COUNTER_IMAGE_DOWNLOAD_BYTES = new LongCounterMetric("image_download_bytes", MetricUnit.BYTES,
+                "bytes of image downloaded from other frontends");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_IMAGE_DOWNLOAD_BYTES);
+        COUNTER_IMAGE_DOWNLOAD_TRANSFERRED_BYTES = new LongCounterMetric("image_download_transferred_bytes",
+                MetricUnit.BYTES, "bytes transferred by network when downloading image, after compression");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_IMAGE_DOWNLOAD_TRANSFERRED_BYTES);
+        GAUGE_IMAGE_DOWNLOAD_THROUGHPUT = new GaugeMetricImpl<>("image_download_throughput", MetricUnit.BYTES,
+                "bytes per second of the last image download");
+        GAUGE_IMAGE_DOWNLOAD_THROUGHPUT.setValue(0L);
+        STARROCKS_METRIC_REGISTER.addMetric(GAUGE_IMAGE_DOWNLOAD_THROUGHPUT);
 
         COUNTER_TXN_REJECT =
                 new LongCounterMetric("txn_reject", MetricUnit.REQUESTS, "counter of rejected transactions");
@@ -370,6 +423,16 @@ public final class MetricRepo {
 
         // 3. histogram
         HISTO_QUERY_LATENCY = METRIC_REGISTER.histogram(MetricRegistry.name("query", "latency", "ms"));
+        HISTO_QUERY_PARSE_LATENCY =
+                METRIC_REGISTER.histogram(MetricRegistry.name("query", "parse", "latency", "ms"));
+        HISTO_QUERY_ANALYZE_LATENCY =
+                METRIC_REGISTER.histogram(MetricRegistry.name("query", "analyze", "latency", "ms"));
+        HISTO_QUERY_OPTIMIZE_LATENCY =
+                METRIC_REGISTER.histogram(MetricRegistry.name("query", "optimize", "latency", "ms"));
+        HISTO_QUERY_PLAN_BUILD_LATENCY =
+                METRIC_REGISTER.histogram(MetricRegistry.name("query", "plan_build", "latency", "ms"));
+        HISTO_QUERY_DEPLOY_LATENCY =
+                METRIC_REGISTER.histogram(MetricRegistry.name("query", "deploy", "latency", "ms"));
         HISTO_EDIT_LOG_WRITE_LATENCY =
                 METRIC_REGISTER.histogram(MetricRegistry.name("editlog", "write", "latency", "ms"));
         HISTO_JOURNAL_WRITE_LATENCY =
@@ -520,6 +583,9 @@ public final class MetricRepo {
         if (Config.enable_routine_load_lag_metrics) {
             collectRoutineLoadProcessMetrics(visitor);
         }
+        collectRoutineLoadJobMetrics(visitor);
+
+        collectStreamLoadRouteMetrics(visitor);
 
         // node info
         visitor.getNodeInfo();
@@ -562,6 +628,56 @@ public final class MetricRepo {
         }
     }
 
+    // lag and throughput of each running routine load job.
+    // the lag is observed by the tasks of the job, so it does not need to call kafka api here.
+    // the throughput can be computed by the rate of the received bytes and rows.
+    private static void collectRoutineLoadJobMetrics(MetricVisitor visitor) {
+        List<RoutineLoadJob> jobs = GlobalStateMgr.getCurrentState().getRoutineLoadManager().getRoutineLoadJobByState(
+                Sets.newHashSet(RoutineLoadJob.JobState.RUNNING));
+        for (RoutineLoadJob job : jobs) {
+            MetricLabel jobLabel = new MetricLabel("job_name", job.getName());
+            if (job instanceof KafkaRoutineLoadJob) {
+                GaugeMetricImpl<Long> lag = new GaugeMetricImpl<>("routine_load_job_lag", MetricUnit.NOUNIT,
+                        "total lag of the partitions of routine load job");
+                lag.addLabel(jobLabel);
+                lag.setValue(((KafkaRoutineLoadJob) job).getTotalLag());
+                visitor.visit(lag);
+            }
+
+            GaugeMetricImpl<Long> receivedBytes = new GaugeMetricImpl<>("routine_load_job_received_bytes",
+                    MetricUnit.BYTES, "total received bytes of routine load job");
+            receivedBytes.addLabel(jobLabel);
+            receivedBytes.setValue(job.getReceivedBytes());
+            visitor.visit(receivedBytes);
+
+            GaugeMetricImpl<Long> rows = new GaugeMetricImpl<>("routine_load_job_rows", MetricUnit.ROWS,
+                    "total rows of routine load job");
+            rows.addLabel(jobLabel);
+            rows.setValue(job.getTotalRows());
+            visitor.visit(rows);
+        }
+    }
+
+    // stream loads redirected to each backend by this FE, and the recent stream load latency of each backend
+    private static void collectStreamLoadRouteMetrics(MetricVisitor visitor) {
+        SystemInfoService infoService = GlobalStateMgr.getCurrentSystemInfo();
+        StreamLoadRouter router = StreamLoadRouter.getInstance();
+        for (Backend be : infoService.getBackends()) {
+            MetricLabel backendLabel = new MetricLabel("backend", be.getHost() + ":" + be.getHeartbeatPort());
+            GaugeMetricImpl<Long> routeNum = new GaugeMetricImpl<>("stream_load_route_num", MetricUnit.REQUESTS,
+                    "number of stream loads redirected to the backend");
+            routeNum.addLabel(backendLabel);
+            routeNum.setValue(router.getRouteNum(be.getId()));
+            visitor.visit(routeNum);
+
+            GaugeMetricImpl<Long> latency = new GaugeMetricImpl<>("stream_load_route_latency_ms",
+                    MetricUnit.MILLISECONDS, "recent latency of the stream loads coordinated by the backend");
+            latency.addLabel(backendLabel);
+            latency.setValue((long) Math.max(0, router.getLoadLatencyMs(be.getId())));
+            visitor.visit(latency);
+        }
+    }
+
     private static void collectRoutineLoadProcessMetrics(MetricVisitor visitor) {
         List<RoutineLoadJob> jobs = GlobalStateMgr.getCurrentState().getRoutineLoadManager().getRoutineLoadJobByState(
                 Sets.newHashSet(RoutineLoadJob.JobState.NEED_SCHEDULE, RoutineLoadJob.JobState.RUNNING));
@@ -23,12 +23,21 @@ public class ResourceGroupMetricMgr {
     private static final String QUERY_RESOURCE_GROUP = "query_resource_group";
     private static final String QUERY_RESOURCE_GROUP_LATENCY = "query_resource_group_latency";
     private static final String QUERY_RESOURCE_GROUP_ERR = "query_resource_group_err";
+    private static final String QUERY_RESOURCE_GROUP_QUEUED = "query_resource_group_queued";
+    private static final String QUERY_RESOURCE_GROUP_QUEUE_WAIT_TIME = "query_resource_group_queue_wait_time";
+    private static final String QUERY_RESOURCE_GROUP_QUEUE_PENDING = "query_resource_group_queue_pending";
     private static final ConcurrentHashMap<String, LongCounterMetric> RESOURCE_GROUP_QUERY_COUNTER_MAP
             = new ConcurrentHashMap<>();
     private static final ConcurrentHashMap<String, QueryResourceGroupLatencyMetrics> RESOURCE_GROUP_QUERY_LATENCY_MAP
             = new ConcurrentHashMap<>();
     private static final ConcurrentHashMap<String, LongCounterMetric> RESOURCE_GROUP_QUERY_ERR_COUNTER_MAP
             = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, LongCounterMetric> RESOURCE_GROUP_QUERY_QUEUED_COUNTER_MAP
+            = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, LongCounterMetric> RESOURCE_GROUP_QUERY_QUEUE_WAIT_TIME_MAP
+            = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, GaugeMetricImpl<Long>> RESOURCE_GROUP_QUERY_QUEUE_PENDING_MAP
+            = new ConcurrentHashMap<>();
 
     //starrocks_fe_query_resource_group
     public static void increaseQuery(ConnectContext ctx, Long num) {
@@ -50,6 +59,45 @@ public class ResourceGroupMetricMgr {
         }
     }
 
+    //starrocks_fe_query_resource_group_queued
+    public static void increaseQueuedQuery(ConnectContext ctx, Long num) {
+        LongCounterMetric metrics =
+                createQeuryResourceGroupMetrics(RESOURCE_GROUP_QUERY_QUEUED_COUNTER_MAP, QUERY_RESOURCE_GROUP_QUEUED,
+                        "query queued resource group", ctx);
+        if (metrics != null) {
+            metrics.increase(num);
+        }
+    }
+
+    //starrocks_fe_query_resource_group_queue_wait_time
+    public static void increaseQueryQueueWaitTime(ConnectContext ctx, Long elapseMs) {
+        LongCounterMetric metrics =
+                createQeuryResourceGroupMetrics(RESOURCE_GROUP_QUERY_QUEUE_WAIT_TIME_MAP,
+                        QUERY_RESOURCE_GROUP_QUEUE_WAIT_TIME, "total time of queries pending in the queue", ctx);
+        if (metrics != null) {
+            metrics.increase(elapseMs);
+        }
+    }
+
+    //starrocks_fe_query_resource_group_queue_pending
+    public static void updateQueryQueuePending(ConnectContext ctx, Long num) {
+        String resourceGroupName = checkAndGetWorkGroupName(ctx);
+        if (resourceGroupName == null || resourceGroupName.isEmpty()) {
+            return;
+        }
+        GaugeMetricImpl<Long> metrics =
+                RESOURCE_GROUP_QUERY_QUEUE_PENDING_MAP.computeIfAbsent(resourceGroupName, name -> {
+                    GaugeMetricImpl<Long> metric = new GaugeMetricImpl<>(QUERY_RESOURCE_GROUP_QUEUE_PENDING,
+                            Metric.MetricUnit.REQUESTS, "number of queries pending in the queue");
+                    metric.addLabel(new MetricLabel("name", name));
+                    metric.setValue(0L);
+                    MetricRepo.addMetric(metric);
+                    LOG.info("Add {} metric, resource group name is {}", QUERY_RESOURCE_GROUP_QUEUE_PENDING, name);
+                    return metric;
+                });
+        metrics.setValue(num);
+    }
+
     public static void visitQueryLatency() {
         for (String resourceGroupName : RESOURCE_GROUP_QUERY_LATENCY_MAP.keySet()) {
             QueryResourceGroupLatencyMetrics metrics = RESOURCE_GROUP_QUERY_LATENCY_MAP.get(resourceGroupName);
@@ -53,8 +53,8 @@ public class MetaCleaner {
                     continue;
                 }
                 String filename = file.getName();
-                // Delete all image whose version is less than imageVersionDelete
-                if (type.equalsIgnoreCase(Storage.IMAGE)) {
+                // Delete all image and its checksum whose version is less than imageVersionDelete
+                if (type.equalsIgnoreCase(Storage.IMAGE) || type.equalsIgnoreCase(Storage.IMAGE_CHECKSUM)) {
                     if (filename.endsWith(".part")) {
                         filename = filename.substring(0, filename.length() - ".part".length());
                     }
@@ -86,6 +86,8 @@ public class MetaCleaner {
             if (filename.contains(".")) {
                 if (filename.startsWith(Storage.IMAGE)) {
                     type = Storage.IMAGE;
+                } else if (filename.startsWith(Storage.IMAGE_CHECKSUM + ".")) {
+                    type = Storage.IMAGE_CHECKSUM;
                 }
             }
         }
@@ -48,6 +48,8 @@ public class Storage {
 
     public static final String IMAGE_NEW = "image.ckpt";
     public static final String IMAGE = "image";
+    // the crc32 of the whole file of image.N is saved in checksum.N, see MetaHelper.getImageChecksumFile()
+    public static final String IMAGE_CHECKSUM = "checksum";
     public static final String VERSION_FILE = "VERSION";
     public static final String ROLE_FILE = "ROLE";
 
@@ -0,0 +1,496 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.persist.gson;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.annotations.SerializedName;
+import com.google.gson.internal.$Gson$Types;
+import com.google.gson.internal.UnsafeAllocator;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.starrocks.common.Config;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * ColumnarListTypeAdapterFactory serializes a collection of the registered element class column by column,
+ * instead of a json array of objects which repeats the field names in every element. eg:
+ *
+ * [{"id": 10001, "backendId": 10002, "state": "NORMAL"}, {"id": 10003, "backendId": 10004, "state": "NORMAL"}]
+ *
+ * is serialized as:
+ *
+ * {
+ *   "clazz": "Replica",
+ *   "size": 2,
+ *   "columns": {
+ *     "id": "base64 of the varints",
+ *     "backendId": "base64 of the varints",
+ *     "state": {"dict": ["NORMAL"], "codes": "base64 of the varints"}
+ *   }
+ * }
+ *
+ * The integer columns are delta and zigzag varint encoded, so the ids allocated in order take 1 or 2 bytes each.
+ * The string and enum columns are dictionary encoded. The floating point columns are xor-ed with the previous value.
+ *
+ * Only the collections whose elements are all of the same registered class are written in columns, and only if
+ * Config.enable_columnar_gson_serialization is true. The collections in json array, which are written by the
+ * earlier versions or for other elements, are still read by the delegate adapter.
+ * The missing columns are left as the default values of the element, and the unknown columns are ignored.
+ *
+ * A registered class can only have the fields of primitive types, String and enum with @SerializedName.
+ */
+public class ColumnarListTypeAdapterFactory implements TypeAdapterFactory {
+    private static final String JSON_KEY_CLAZZ = "clazz";
+    private static final String JSON_KEY_SIZE = "size";
+    private static final String JSON_KEY_COLUMNS = "columns";
+    private static final String JSON_KEY_DICT = "dict";
+    private static final String JSON_KEY_CODES = "codes";
+
+    // element class name -> columns of the class
+    private final Map<String, ElementClass<?>> elementClasses = Maps.newHashMap();
+
+    /**
+     * Register an element class whose collections are serialized in columns.
+     * The simple name of the class is written to the json, so it should be unique among the registered classes.
+     */
+    public ColumnarListTypeAdapterFactory registerElementClass(Class<?> clazz) {
+        Preconditions.checkArgument(!elementClasses.containsKey(clazz.getSimpleName()),
+                "duplicated element class name: " + clazz.getSimpleName());
+        elementClasses.put(clazz.getSimpleName(), new ElementClass<>(clazz));
+        return this;
+    }
+
+    @Override
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        Class<? super T> rawType = type.getRawType();
+        if (!Collection.class.isAssignableFrom(rawType)) {
+            return null;
+        }
+        Type elementType = $Gson$Types.getCollectionElementType(type.getType(), rawType);
+        Class<?> elementRawType = $Gson$Types.getRawType(elementType);
+        if (elementRawType == Object.class
+                || elementClasses.values().stream().noneMatch(e -> elementRawType.isAssignableFrom(e.clazz))) {
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        TypeAdapter<Collection<Object>> delegate =
+                (TypeAdapter<Collection<Object>>) gson.getDelegateAdapter(this, type);
+        @SuppressWarnings("unchecked")
+        TypeAdapter<T> adapter = (TypeAdapter<T>) new ColumnarAdapter(delegate, elementRawType);
+        return adapter;
+    }
+
+    private class ColumnarAdapter extends TypeAdapter<Collection<Object>> {
+        private final TypeAdapter<Collection<Object>> delegate;
+        private final Class<?> elementRawType;
+
+        private ColumnarAdapter(TypeAdapter<Collection<Object>> delegate, Class<?> elementRawType) {
+            this.delegate = delegate;
+            this.elementRawType = elementRawType;
+        }
+
+        @Override
+        public void write(JsonWriter out, Collection<Object> collection) throws IOException {
+            ElementClass<?> elementClass = getElementClass(collection);
+            if (elementClass == null) {
+                delegate.write(out, collection);
+                return;
+            }
+
+            List<Object> elements = Lists.newArrayListWithCapacity(collection.size());
+            for (Object element : collection) {
+                if (element instanceof GsonPreProcessable) {
+                    ((GsonPreProcessable) element).gsonPreProcess();
+                }
+                elements.add(element);
+            }
+
+            out.beginObject();
+            out.name(JSON_KEY_CLAZZ).value(elementClass.clazz.getSimpleName());
+            out.name(JSON_KEY_SIZE).value(elements.size());
+            out.name(JSON_KEY_COLUMNS);
+            out.beginObject();
+            for (Column column : elementClass.columns) {
+                out.name(column.name);
+                column.write(out, elements);
+            }
+            out.endObject();
+            out.endObject();
+        }
+
+        // return null if the collection should be written by the delegate adapter
+        private ElementClass<?> getElementClass(Collection<Object> collection) {
+            if (!Config.enable_columnar_gson_serialization || collection == null || collection.isEmpty()) {
+                return null;
+            }
+            Class<?> clazz = null;
+            for (Object element : collection) {
+                if (element == null || (clazz != null && element.getClass() != clazz)) {
+                    return null;
+                }
+                clazz = element.getClass();
+            }
+            ElementClass<?> elementClass = elementClasses.get(clazz.getSimpleName());
+            if (elementClass == null || elementClass.clazz != clazz) {
+                return null;
+            }
+            return elementClass;
+        }
+
+        @Override
+        public Collection<Object> read(JsonReader in) throws IOException {
+            if (in.peek() != JsonToken.BEGIN_OBJECT) {
+                return delegate.read(in);
+            }
+
+            JsonObject json = JsonParser.parseReader(in).getAsJsonObject();
+            String className = json.get(JSON_KEY_CLAZZ).getAsString();
+            ElementClass<?> elementClass = elementClasses.get(className);
+            if (elementClass == null || !elementRawType.isAssignableFrom(elementClass.clazz)) {
+                throw new JsonParseException("unknown element class of columnar list: " + className);
+            }
+            int size = json.get(JSON_KEY_SIZE).getAsInt();
+
+            List<Object> elements = Lists.newArrayListWithCapacity(size);
+            for (int i = 0; i < size; i++) {
+                elements.add(elementClass.newInstance());
+            }
+            JsonObject columns = json.getAsJsonObject(JSON_KEY_COLUMNS);
+            for (Map.Entry<String, JsonElement> entry : columns.entrySet()) {
+                Column column = elementClass.nameToColumn.get(entry.getKey());
+                if (column != null) {
+                    column.read(entry.getValue(), elements);
+                }
+            }
+
+            // create the collection of the declared type by the delegate adapter
+            Collection<Object> collection = delegate.fromJsonTree(new JsonArray());
+            for (Object element : elements) {
+                if (element instanceof GsonPostProcessable) {
+                    ((GsonPostProcessable) element).gsonPostProcess();
+                }
+                collection.add(element);
+            }
+            return collection;
+        }
+    }
+
+    private static class ElementClass<E> {
+        private final Class<E> clazz;
+        private final Constructor<E> constructor;
+        private final List<Column> columns = Lists.newArrayList();
+        // serialized name and alternate names -> column
+        private final Map<String, Column> nameToColumn = Maps.newHashMap();
+
+        private ElementClass(Class<E> clazz) {
+            this.clazz = clazz;
+            Constructor<E> noArgsConstructor = null;
+            try {
+                noArgsConstructor = clazz.getDeclaredConstructor();
+                noArgsConstructor.setAccessible(true);
+            } catch (NoSuchMethodException e) {
+                // allocated without constructor, the same as gson
+            }
+            this.constructor = noArgsConstructor;
+
+            for (Class<?> c = clazz; c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    SerializedName serializedName = field.getAnnotation(SerializedName.class);
+                    if (serializedName == null || Modifier.isStatic(field.getModifiers())
+                            || Modifier.isTransient(field.getModifiers())) {
+                        continue;
+                    }
+                    field.setAccessible(true);
+                    Column column = new Column(serializedName.value(), field);
+                    Preconditions.checkArgument(!nameToColumn.containsKey(column.name),
+                            "duplicated field name " + column.name + " in " + clazz.getName());
+                    columns.add(column);
+                    nameToColumn.put(column.name, column);
+                    for (String alternate : serializedName.alternate()) {
+                        nameToColumn.putIfAbsent(alternate, column);
+                    }
+                }
+            }
+        }
+
+        private E newInstance() throws IOException {
+            try {
+                if (constructor != null) {
+                    return constructor.newInstance();
+                }
+                return UnsafeAllocator.create().newInstance(clazz);
+            } catch (Exception e) {
+                throw new IOException("failed to create instance of " + clazz.getName(), e);
+            }
+        }
+    }
+
+    private enum ColumnType {
+        INTEGER,
+        BOOLEAN,
+        FLOATING,
+        STRING,
+        ENUM
+    }
+
+    private static class Column {
+        private final String name;
+        private final Field field;
+        private final ColumnType type;
+        // enum constant <-> serialized name of the constant, only for enum columns
+        private final Map<Object, String> enumToName = Maps.newHashMap();
+        private final Map<String, Object> nameToEnum = Maps.newHashMap();
+
+        private Column(String name, Field field) {
+            this.name = name;
+            this.field = field;
+            Class<?> fieldType = field.getType();
+            if (fieldType == long.class || fieldType == int.class || fieldType == short.class
+                    || fieldType == byte.class || fieldType == char.class) {
+                type = ColumnType.INTEGER;
+            } else if (fieldType == boolean.class) {
+                type = ColumnType.BOOLEAN;
+            } else if (fieldType == double.class || fieldType == float.class) {
+                type = ColumnType.FLOATING;
+            } else if (fieldType == String.class) {
+                type = ColumnType.STRING;
+            } else if (fieldType.isEnum()) {
+                type = ColumnType.ENUM;
+                for (Object constant : fieldType.getEnumConstants()) {
+                    String constantName = ((Enum<?>) constant).name();
+                    try {
+                        SerializedName serializedName =
+                                fieldType.getField(constantName).getAnnotation(SerializedName.class);
+                        if (serializedName != null) {
+                            constantName = serializedName.value();
+                            for (String alternate : serializedName.alternate()) {
+                                nameToEnum.put(alternate, constant);
+                            }
+                        }
+                    } catch (NoSuchFieldException e) {
+                        throw new IllegalArgumentException(e);
+                    }
+                    enumToName.put(constant, constantName);
+                    nameToEnum.put(constantName, constant);
+                }
+            } else {
+                throw new IllegalArgumentException("unsupported type " + fieldType.getName() + " of field "
+                        + field.getName() + " in columnar list");
+            }
+        }
+
+        private void write(JsonWriter out, List<Object> elements) throws IOException {
+            try {
+                if (type == ColumnType.STRING || type == ColumnType.ENUM) {
+                    writeDictionary(out, elements);
+                    return;
+                }
+
+                VarintWriter writer = new VarintWriter(elements.size());
+                long prev = 0;
+                for (Object element : elements) {
+                    switch (type) {
+                        case INTEGER: {
+                            long value = field.getLong(element);
+                            writer.writeSigned(value - prev);
+                            prev = value;
+                            break;
+                        }
+                        case BOOLEAN:
+                            writer.writeUnsigned(field.getBoolean(element) ? 1 : 0);
+                            break;
+                        default: {
+                            long bits = Double.doubleToRawLongBits(field.getDouble(element));
+                            writer.writeUnsigned(bits ^ prev);
+                            prev = bits;
+                            break;
+                        }
+                    }
+                }
+                out.value(writer.toBase64());
+            } catch (IllegalAccessException e) {
+                throw new IOException(e);
+            }
+        }
+
+        private void writeDictionary(JsonWriter out, List<Object> elements) throws IOException,
+                IllegalAccessException {
+            // value -> code, code 0 is null
+            Map<String, Integer> dict = Maps.newLinkedHashMap();
+            VarintWriter writer = new VarintWriter(elements.size());
+            for (Object element : elements) {
+                Object value = field.get(element);
+                if (value == null) {
+                    writer.writeUnsigned(0);
+                    continue;
+                }
+                String str = type == ColumnType.ENUM ? enumToName.get(value) : (String) value;
+                Integer code = dict.get(str);
+                if (code == null) {
+                    code = dict.size() + 1;
+                    dict.put(str, code);
+                }
+                writer.writeUnsigned(code);
+            }
+
+            out.beginObject();
+            out.name(JSON_KEY_DICT);
+            out.beginArray();
+            for (String str : dict.keySet()) {
+                out.value(str);
+            }
+            out.endArray();
+            out.name(JSON_KEY_CODES).value(writer.toBase64());
+            out.endObject();
+        }
+
+        private void read(JsonElement json, List<Object> elements) throws IOException {
+            try {
+                if (type == ColumnType.STRING || type == ColumnType.ENUM) {
+                    readDictionary(json.getAsJsonObject(), elements);
+                    return;
+                }
+
+                VarintReader reader = new VarintReader(json.getAsString());
+                long prev = 0;
+                for (Object element : elements) {
+                    switch (type) {
+                        case INTEGER:
+                            prev += reader.readSigned();
+                            setInteger(element, prev);
+                            break;
+                        case BOOLEAN:
+                            field.setBoolean(element, reader.readUnsigned() != 0);
+                            break;
+                        default:
+                            prev ^= reader.readUnsigned();
+                            double value = Double.longBitsToDouble(prev);
+                            if (field.getType() == float.class) {
+                                field.setFloat(element, (float) value);
+                            } else {
+                                field.setDouble(element, value);
+                            }
+                            break;
+                    }
+                }
+            } catch (IllegalAccessException e) {
+                throw new IOException(e);
+            }
+        }
+
+        private void readDictionary(JsonObject json, List<Object> elements) throws IOException,
+                IllegalAccessException {
+            JsonArray dictJson = json.getAsJsonArray(JSON_KEY_DICT);
+            Object[] dict = new Object[dictJson.size() + 1];
+            for (int i = 0; i < dictJson.size(); i++) {
+                String str = dictJson.get(i).getAsString();
+                // unknown enum constant is read as null, the same as gson
+                dict[i + 1] = type == ColumnType.ENUM ? nameToEnum.get(str) : str;
+            }
+            VarintReader reader = new VarintReader(json.get(JSON_KEY_CODES).getAsString());
+            for (Object element : elements) {
+                long code = reader.readUnsigned();
+                if (code < 0 || code >= dict.length) {
+                    throw new JsonParseException("invalid dictionary code " + code + " of column " + name);
+                }
+                field.set(element, dict[(int) code]);
+            }
+        }
+
+        private void setInteger(Object element, long value) throws IllegalAccessException {
+            Class<?> fieldType = field.getType();
+            if (fieldType == long.class) {
+                field.setLong(element, value);
+            } else if (fieldType == int.class) {
+                field.setInt(element, (int) value);
+            } else if (fieldType == short.class) {
+                field.setShort(element, (short) value);
+            } else if (fieldType == byte.class) {
+                field.setByte(element, (byte) value);
+            } else {
+                field.setChar(element, (char) value);
+            }
+        }
+    }
+
+    static class VarintWriter {
+        private byte[] buffer;
+        private int size = 0;
+
+        VarintWriter(int expectedNum) {
+            buffer = new byte[Math.max(16, expectedNum * 2)];
+        }
+
+        void writeSigned(long value) {
+            // zigzag
+            writeUnsigned((value << 1) ^ (value >> 63));
+        }
+
+        void writeUnsigned(long value) {
+            if (buffer.length - size < 10) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        String toBase64() {
+            return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer, size));
+        }
+    }
+
+    static class VarintReader {
+        private final byte[] buffer;
+        private int pos = 0;
+
+        VarintReader(String base64) {
+            buffer = Base64.getDecoder().decode(base64);
+        }
+
+        long readSigned() {
+            long value = readUnsigned();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        long readUnsigned() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (pos >= buffer.length) {
+                    throw new JsonParseException("unexpected end of varints");
+                }
+                byte b = buffer[pos++];
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new JsonParseException("malformed varint");
+        }
+    }
+}
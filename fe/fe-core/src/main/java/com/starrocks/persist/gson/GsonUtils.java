@@ -70,6 +70,7 @@ import com.starrocks.catalog.PrimitiveType;
 import com.starrocks.catalog.PseudoType;
 import com.starrocks.catalog.RandomDistributionInfo;
 import com.starrocks.catalog.RangePartitionInfo;
+import com.starrocks.catalog.Replica;
 import com.starrocks.catalog.Resource;
 import com.starrocks.catalog.ScalarType;
 import com.starrocks.catalog.SinglePartitionInfo;
@@ -177,6 +178,12 @@ public class GsonUtils {
             .registerSubtype(FrontendHbResponse.class, FrontendHbResponse.class.getSimpleName())
             .registerSubtype(BrokerHbResponse.class, BrokerHbResponse.class.getSimpleName());
 
+    // the collections of these classes are serialized in columns, see ColumnarListTypeAdapterFactory
+    private static final ColumnarListTypeAdapterFactory columnarListTypeAdapterFactory =
+            new ColumnarListTypeAdapterFactory()
+                    .registerElementClass(Replica.class)
+                    .registerElementClass(LakeTablet.class);
+
     private static final JsonSerializer<LocalDateTime> localDateTimeTypeSerializer =
             (dateTime, type, jsonSerializationContext) -> new JsonPrimitive(dateTime.toEpochSecond(ZoneOffset.UTC));
 
@@ -216,7 +223,9 @@ public class GsonUtils {
             .registerTypeAdapter(QueryDumpInfo.class, dumpInfoDeserializer)
             .registerTypeAdapter(PrimitiveType.class, primitiveTypeDeserializer)
             .registerTypeHierarchyAdapter(Expr.class, expressionSerializer)
-            .registerTypeHierarchyAdapter(Expr.class, expressionDeserializer);
+            .registerTypeHierarchyAdapter(Expr.class, expressionDeserializer)
+            // registered at last to take precedence over the adapters of the elements
+            .registerTypeAdapterFactory(columnarListTypeAdapterFactory);
 
     // this instance is thread-safe.
     public static final Gson GSON = GSON_BUILDER.create();
@@ -16,17 +16,25 @@ import com.starrocks.catalog.JDBCResource;
 import com.starrocks.catalog.JDBCTable;
 import com.starrocks.common.UserException;
 import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.system.Backend;
 import com.starrocks.thrift.TExplainLevel;
 import com.starrocks.thrift.TJDBCScanNode;
+import com.starrocks.thrift.TJDBCScanRange;
+import com.starrocks.thrift.TNetworkAddress;
 import com.starrocks.thrift.TPlanNode;
 import com.starrocks.thrift.TPlanNodeType;
+import com.starrocks.thrift.TScanRange;
+import com.starrocks.thrift.TScanRangeLocation;
 import com.starrocks.thrift.TScanRangeLocations;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * full scan on JDBC table.
+ * A partitioned table is read by one scan range for each range of the partition column,
+ * the scan ranges are spread over the alive backends.
  */
 public class JDBCScanNode extends ScanNode {
 
@@ -34,6 +42,7 @@ public class JDBCScanNode extends ScanNode {
     private final List<String> filters = new ArrayList<>();
     private String tableName;
     private JDBCTable table;
+    private List<TScanRangeLocations> scanRangeLocations = null;
 
     public JDBCScanNode(PlanNodeId id, TupleDescriptor desc, JDBCTable tbl) {
         super(id, desc, "SCAN JDBC");
@@ -64,6 +73,10 @@ public class JDBCScanNode extends ScanNode {
         StringBuilder output = new StringBuilder();
         output.append(prefix).append("TABLE: ").append(tableName).append("\n");
         output.append(prefix).append("QUERY: ").append(getJDBCQueryStr()).append("\n");
+        if (scanRangeLocations != null) {
+            output.append(prefix).append("PARTITION COLUMN: ").append(table.getPartitionColumn()).append("\n");
+            output.append(prefix).append("PARTITIONS: ").append(scanRangeLocations.size()).append("\n");
+        }
         return output.toString();
     }
 
@@ -94,6 +107,52 @@ public class JDBCScanNode extends ScanNode {
         }
     }
 
+    private boolean isMySQL() {
+        JDBCResource resource = (JDBCResource) GlobalStateMgr.getCurrentState().getResourceMgr()
+                .getResource(table.getResourceName());
+        String jdbcURI = resource.getProperty(JDBCResource.URI);
+        return jdbcURI.startsWith("jdbc:mysql");
+    }
+
+    public boolean isPartitioned() {
+        return table.isPartitioned();
+    }
+
+    public void computeScanRangeLocations() throws UserException {
+        if (!table.isPartitioned()) {
+            return;
+        }
+        List<Backend> backends = new ArrayList<>();
+        for (Backend be : GlobalStateMgr.getCurrentSystemInfo().getIdToBackend().values()) {
+            if (be.isAlive()) {
+                backends.add(be);
+            }
+        }
+        if (backends.isEmpty()) {
+            throw new UserException("No Alive backends");
+        }
+        Collections.shuffle(backends);
+
+        scanRangeLocations = new ArrayList<>();
+        List<String> predicates = table.getPartitionPredicates(isMySQL());
+        for (int i = 0; i < predicates.size(); i++) {
+            TJDBCScanRange jdbcScanRange = new TJDBCScanRange();
+            jdbcScanRange.setPartition_predicate(predicates.get(i));
+            TScanRange scanRange = new TScanRange();
+            scanRange.setJdbc_scan_range(jdbcScanRange);
+
+            Backend be = backends.get(i % backends.size());
+            TScanRangeLocation location = new TScanRangeLocation();
+            location.setBackend_id(be.getId());
+            location.setServer(new TNetworkAddress(be.getHost(), be.getBePort()));
+
+            TScanRangeLocations locations = new TScanRangeLocations();
+            locations.setScan_range(scanRange);
+            locations.addToLocations(location);
+            scanRangeLocations.add(locations);
+        }
+    }
+
     private void createJDBCTableFilters() {
         if (conjuncts.isEmpty()) {
             return;
@@ -107,10 +166,7 @@ public class JDBCScanNode extends ScanNode {
 
             sMap.put(slotRef, tmpRef);
         }
-        JDBCResource resource = (JDBCResource) GlobalStateMgr.getCurrentState().getResourceMgr()
-                .getResource(table.getResourceName());
-        String jdbcURI = resource.getProperty(JDBCResource.URI);
-        boolean isMySQL = jdbcURI.startsWith("jdbc:mysql");
+        boolean isMySQL = isMySQL();
         ArrayList<Expr> mysqlConjuncts = Expr.cloneList(conjuncts, sMap);
         for (Expr p : mysqlConjuncts) {
             filters.add(p.toJDBCSQL(isMySQL));
@@ -135,12 +191,12 @@ public class JDBCScanNode extends ScanNode {
 
     @Override
     public List<TScanRangeLocations> getScanRangeLocations(long maxScanRangeLength) {
-        return null;
+        return scanRangeLocations;
     }
 
     @Override
     public int getNumInstances() {
-        return 1;
+        return scanRangeLocations == null ? 1 : scanRangeLocations.size();
     }
 
     @Override
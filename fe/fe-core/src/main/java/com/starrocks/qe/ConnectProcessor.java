@@ -49,6 +49,7 @@ import com.starrocks.plugin.AuditEvent.EventType;
 import com.starrocks.proto.PQueryStatistics;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.service.FrontendOptions;
+import com.starrocks.sql.PlannerProfile;
 import com.starrocks.sql.common.SqlDigestBuilder;
 import com.starrocks.sql.parser.ParsingException;
 import com.starrocks.thrift.TMasterOpRequest;
@@ -66,6 +67,7 @@ import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Process one mysql connection, receive one pakcet, process, send one packet.
@@ -160,9 +162,15 @@ public class ConnectProcessor {
                 MetricRepo.COUNTER_QUERY_SUCCESS.increase(1L);
                 MetricRepo.HISTO_QUERY_LATENCY.update(elapseMs);
                 ResourceGroupMetricMgr.updateQueryLatency(ctx, elapseMs);
+                Map<String, Long> phaseTimes = QueryPhaseStats.getPhaseTimes(ctx.getPlannerProfile());
+                QueryPhaseStats.updateLatencyHistograms(phaseTimes);
                 if (elapseMs > Config.qe_slow_log_ms || ctx.getSessionVariable().isEnableSQLDigest()) {
                     MetricRepo.COUNTER_SLOW_QUERY.increase(1L);
-                    ctx.getAuditEventBuilder().setDigest(computeStatementDigest(parsedStmt));
+                    String digest = computeStatementDigest(parsedStmt);
+                    ctx.getAuditEventBuilder().setDigest(digest);
+                    if (!digest.isEmpty()) {
+                        QueryPhaseStats.addDigestStats(digest, origStmt, phaseTimes);
+                    }
                 }
             }
             ctx.getAuditEventBuilder().setIsQuery(true);
@@ -254,7 +262,7 @@ public class ConnectProcessor {
         try {
             ctx.setQueryId(UUIDUtil.genUUID());
             List<StatementBase> stmts;
-            try {
+            try (PlannerProfile.ScopedTimer _ = PlannerProfile.getScopedTimer(QueryPhaseStats.PARSER)) {
                 stmts = com.starrocks.sql.parser.SqlParser.parse(originStmt, ctx.getSessionVariable().getSqlMode());
             } catch (ParsingException parsingException) {
                 throw new AnalysisException(parsingException.getMessage());
@@ -265,6 +273,8 @@ public class ConnectProcessor {
                 if (i > 0) {
                     ctx.resetRetureRows();
                     ctx.setQueryId(UUIDUtil.genUUID());
+                    // the phase times of a statement do not include the ones of the previous statements
+                    ctx.getPlannerProfile().reset();
                 }
                 parsedStmt = stmts.get(i);
                 parsedStmt.setOrigStmt(new OriginStatement(originStmt, i));
@@ -67,6 +67,7 @@ import com.starrocks.planner.ResultSink;
 import com.starrocks.planner.RuntimeFilterDescription;
 import com.starrocks.planner.ScanNode;
 import com.starrocks.planner.UnionNode;
+import com.starrocks.proto.PExecBatchPlanFragmentsResult;
 import com.starrocks.proto.PExecPlanFragmentResult;
 import com.starrocks.proto.PPlanFragmentCancelReason;
 import com.starrocks.proto.StatusPB;
@@ -75,6 +76,7 @@ import com.starrocks.rpc.BackendServiceClient;
 import com.starrocks.rpc.RpcException;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.service.FrontendOptions;
+import com.starrocks.sql.PlannerProfile;
 import com.starrocks.sql.common.ErrorType;
 import com.starrocks.sql.common.StarRocksPlannerException;
 import com.starrocks.system.Backend;
@@ -83,6 +85,7 @@ import com.starrocks.task.LoadEtlTask;
 import com.starrocks.thrift.InternalServiceVersion;
 import com.starrocks.thrift.TDescriptorTable;
 import com.starrocks.thrift.TEsScanRange;
+import com.starrocks.thrift.TExecBatchPlanFragmentsParams;
 import com.starrocks.thrift.TExecPlanFragmentParams;
 import com.starrocks.thrift.TInternalScanRange;
 import com.starrocks.thrift.TNetworkAddress;
@@ -125,14 +128,17 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentNavigableMap;
 import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public class Coordinator {
@@ -186,6 +192,9 @@ public class Coordinator {
     // backend which state need to be checked when joining this coordinator.
     // It is supposed to be the subset of backendExecStates.
     private final List<BackendExecState> needCheckBackendExecStates = Lists.newArrayList();
+    // whether the query takes a slot of the query queue, and the resource group of the slot
+    private final AtomicBoolean holdQueryQueueSlot = new AtomicBoolean(false);
+    private WorkGroup queryQueueWorkGroup = null;
     private ResultReceiver receiver;
     private final List<ScanNode> scanNodes;
     // number of instances of this query, equals to
@@ -519,6 +528,21 @@ public class Coordinator {
             profileDoneSignal.addMark(instanceId, -1L /* value is meaningless */);
         }
         long queryDeliveryTimeoutMs = Math.min(queryOptions.query_timeout, queryOptions.query_delivery_timeout) * 1000L;
+
+        // wait out of the lock, so that the query could be cancelled while pending
+        if (connectContext != null && queryOptions.getQuery_type() != TQueryType.LOAD &&
+                QueryQueueManager.getInstance().isEnableQueue()) {
+            WorkGroup workgroup = prepareWorkGroup(connectContext.getCurrentSqlDbIds());
+            long pendingTimeoutMs = Math.min(queryOptions.query_timeout, Config.query_queue_pending_timeout_second) *
+                    1000L;
+            try (PlannerProfile.ScopedTimer _ = PlannerProfile.getScopedTimer(QueryPhaseStats.QUERY_QUEUE)) {
+                QueryQueueManager.getInstance().acquireSlot(connectContext, workgroup, pendingTimeoutMs,
+                        () -> connectContext.isKilled() || !queryStatus.ok());
+            }
+            queryQueueWorkGroup = workgroup;
+            holdQueryQueueSlot.set(true);
+        }
+
         lock();
         try {
             // execute all instances from up to bottom
@@ -532,6 +556,12 @@ public class Coordinator {
                     fragments.stream().allMatch(PlanFragment::canUsePipeline);
             Set<Long> dbIds = connectContext != null ? connectContext.getCurrentSqlDbIds() : null;
 
+            if (canDeliverBatchFragments()) {
+                deliverExecBatchFragments(isEnablePipelineEngine, dbIds, queryDeliveryTimeoutMs);
+                attachInstanceProfileToFragmentProfile();
+                return;
+            }
+
             Set<TNetworkAddress> firstDeliveryAddresses = new HashSet<>();
             for (PlanFragment fragment : fragments) {
                 FragmentExecParams params = fragmentExecParamsMap.get(fragment.getFragmentId());
@@ -614,47 +644,7 @@ public class Coordinator {
                         }
                         futures.add(Pair.create(execState, execState.execRemoteFragmentAsync()));
                     }
-                    for (Pair<BackendExecState, Future<PExecPlanFragmentResult>> pair : futures) {
-                        TStatusCode code;
-                        String errMsg = null;
-                        try {
-                            PExecPlanFragmentResult result =
-                                    pair.second.get(queryDeliveryTimeoutMs, TimeUnit.MILLISECONDS);
-                            code = TStatusCode.findByValue(result.status.statusCode);
-                            if (result.status.errorMsgs != null && !result.status.errorMsgs.isEmpty()) {
-                                errMsg = result.status.errorMsgs.get(0);
-                            }
-                        } catch (ExecutionException e) {
-                            LOG.warn("catch a execute exception", e);
-                            code = TStatusCode.THRIFT_RPC_ERROR;
-                        } catch (InterruptedException e) {
-                            LOG.warn("catch a interrupt exception", e);
-                            code = TStatusCode.INTERNAL_ERROR;
-                        } catch (TimeoutException e) {
-                            LOG.warn("catch a timeout exception", e);
-                            code = TStatusCode.TIMEOUT;
-                        }
-
-                        if (code != TStatusCode.OK) {
-                            if (errMsg == null) {
-                                errMsg = "exec rpc error. backend id: " + pair.first.backend.getId();
-                            }
-                            queryStatus.setStatus(errMsg);
-                            LOG.warn("exec plan fragment failed, errmsg={}, code: {}, fragmentId={}, backend={}:{}",
-                                    errMsg, code, fragment.getFragmentId(),
-                                    pair.first.address.hostname, pair.first.address.port);
-                            cancelInternal(PPlanFragmentCancelReason.INTERNAL_ERROR);
-                            switch (Objects.requireNonNull(code)) {
-                                case TIMEOUT:
-                                    throw new UserException("query timeout. backend id: " + pair.first.backend.getId());
-                                case THRIFT_RPC_ERROR:
-                                    SimpleScheduler.addToBlacklist(pair.first.backend.getId());
-                                    throw new RpcException(pair.first.backend.getHost(), "rpc failed");
-                                default:
-                                    throw new UserException(errMsg);
-                            }
-                        }
-                    }
+                    waitForDeliverResults(futures, result -> result.status, queryDeliveryTimeoutMs);
                 }
                 profileFragmentId += 1;
             }
@@ -664,6 +654,247 @@ public class Coordinator {
         }
     }
 
+    private <R> void waitForDeliverResults(List<Pair<BackendExecState, Future<R>>> futures,
+                                           Function<R, StatusPB> statusGetter,
+                                           long queryDeliveryTimeoutMs) throws Exception {
+        for (Pair<BackendExecState, Future<R>> pair : futures) {
+            TStatusCode code;
+            String errMsg = null;
+            try {
+                StatusPB status = statusGetter.apply(pair.second.get(queryDeliveryTimeoutMs, TimeUnit.MILLISECONDS));
+                code = TStatusCode.findByValue(status.statusCode);
+                if (status.errorMsgs != null && !status.errorMsgs.isEmpty()) {
+                    errMsg = status.errorMsgs.get(0);
+                }
+            } catch (ExecutionException e) {
+                LOG.warn("catch a execute exception", e);
+                code = TStatusCode.THRIFT_RPC_ERROR;
+            } catch (InterruptedException e) {
+                LOG.warn("catch a interrupt exception", e);
+                code = TStatusCode.INTERNAL_ERROR;
+            } catch (TimeoutException e) {
+                LOG.warn("catch a timeout exception", e);
+                code = TStatusCode.TIMEOUT;
+            }
+
+            if (code != TStatusCode.OK) {
+                if (errMsg == null) {
+                    errMsg = "exec rpc error. backend id: " + pair.first.backend.getId();
+                }
+                queryStatus.setStatus(errMsg);
+                LOG.warn("exec plan fragment failed, errmsg={}, code: {}, fragmentId={}, backend={}:{}",
+                        errMsg, code, pair.first.fragmentId,
+                        pair.first.address.hostname, pair.first.address.port);
+                cancelInternal(PPlanFragmentCancelReason.INTERNAL_ERROR);
+                switch (Objects.requireNonNull(code)) {
+                    case TIMEOUT:
+                        throw new UserException("query timeout. backend id: " + pair.first.backend.getId());
+                    case THRIFT_RPC_ERROR:
+                        SimpleScheduler.addToBlacklist(pair.first.backend.getId());
+                        throw new RpcException(pair.first.backend.getHost(), "rpc failed");
+                    default:
+                        throw new UserException(errMsg);
+                }
+            }
+        }
+    }
+
+    private WorkGroup prepareWorkGroup(Set<Long> dbIds) {
+        WorkGroup workgroup = null;
+        if (connectContext != null && connectContext.getSessionVariable().isEnableResourceGroup()) {
+            SessionVariable sessionVariable = connectContext.getSessionVariable();
+
+            // First try to use the resource group specified by the variable
+            if (StringUtils.isNotEmpty(sessionVariable.getResourceGroup())) {
+                String rgName = sessionVariable.getResourceGroup();
+                workgroup = GlobalStateMgr.getCurrentState().getWorkGroupMgr().chooseWorkGroupByName(rgName);
+            }
+
+            // Second if the specified resource group not exist try to use the default one
+            if (workgroup == null) {
+                workgroup = GlobalStateMgr.getCurrentState().getWorkGroupMgr().chooseWorkGroup(
+                        connectContext, WorkGroupClassifier.QueryType.SELECT, dbIds);
+            }
+
+            if (workgroup != null) {
+                connectContext.getAuditEventBuilder().setResourceGroup(workgroup.getName());
+                connectContext.setWorkGroup(workgroup);
+            }
+        }
+        return workgroup;
+    }
+
+    // The plan of the instances of multi cast fragments and export fragments is different,
+    // so they could not share the common part.
+    private boolean canDeliverBatchFragments() {
+        if (connectContext == null || !connectContext.getSessionVariable().isEnableDeliverBatchFragments()) {
+            return false;
+        }
+        return fragments.stream().noneMatch(
+                fragment -> fragment instanceof MultiCastPlanFragment || fragment.getSink() instanceof ExportSink);
+    }
+
+    /**
+     * Divide the fragments into groups by their depth in the fragment tree, the root fragment is in the first group.
+     * The destination fragment of a fragment is always in the previous group, so the groups are delivered
+     * one by one from the root like delivering the fragments one by one, and the fragments of a group
+     * are independent and delivered concurrently.
+     */
+    List<List<PlanFragment>> computeTopologicalOrderFragments() {
+        Map<PlanFragmentId, Integer> fragmentDepths = Maps.newHashMap();
+        List<List<PlanFragment>> fragmentGroups = Lists.newArrayList();
+        for (PlanFragment fragment : fragments) {
+            int depth = computeFragmentDepth(fragment, fragmentDepths);
+            while (fragmentGroups.size() <= depth) {
+                fragmentGroups.add(Lists.newArrayList());
+            }
+            fragmentGroups.get(depth).add(fragment);
+        }
+        return fragmentGroups;
+    }
+
+    private static int computeFragmentDepth(PlanFragment fragment, Map<PlanFragmentId, Integer> fragmentDepths) {
+        Integer depth = fragmentDepths.get(fragment.getFragmentId());
+        if (depth == null) {
+            PlanFragment destFragment = fragment.getDestFragment();
+            depth = destFragment == null ? 0 : computeFragmentDepth(destFragment, fragmentDepths) + 1;
+            fragmentDepths.put(fragment.getFragmentId(), depth);
+        }
+        return depth;
+    }
+
+    /**
+     * Deliver all the instances of a fragment on a backend by one exec_batch_plan_fragments rpc,
+     * the common part of them is serialized only once.
+     */
+    private void deliverExecBatchFragments(boolean isEnablePipelineEngine, Set<Long> dbIds,
+                                           long queryDeliveryTimeoutMs) throws Exception {
+        // assign backend ids in the same order as delivering the fragments one by one
+        int backendId = 0;
+        Map<PlanFragmentId, Integer> profileFragmentIds = Maps.newHashMap();
+        for (int i = 0; i < fragments.size(); i++) {
+            PlanFragment fragment = fragments.get(i);
+            profileFragmentIds.put(fragment.getFragmentId(), i);
+            FragmentExecParams params = fragmentExecParamsMap.get(fragment.getFragmentId());
+            Preconditions.checkState(!params.instanceExecParams.isEmpty());
+            for (FInstanceExecParam fInstanceExecParam : params.instanceExecParams) {
+                fInstanceExecParam.backendId = backendId++;
+            }
+        }
+
+        Set<TNetworkAddress> firstDeliveryAddresses = new HashSet<>();
+        for (List<PlanFragment> fragmentGroup : computeTopologicalOrderFragments()) {
+            // With pipeline engine, only the first request to a backend carries the descriptor table,
+            // and the following requests use the one cached by the first request,
+            // so the requests carrying the descriptor table must finish before the others.
+            List<Pair<List<BackendExecState>, TExecBatchPlanFragmentsParams>> firstRequests = Lists.newArrayList();
+            List<Pair<List<BackendExecState>, TExecBatchPlanFragmentsParams>> remainingRequests =
+                    Lists.newArrayList();
+            for (PlanFragment fragment : fragmentGroup) {
+                FragmentExecParams params = fragmentExecParamsMap.get(fragment.getFragmentId());
+                int profileFragmentId = profileFragmentIds.get(fragment.getFragmentId());
+                // this is a load process, and it is the first fragment.
+                // we should add all BackendExecState of this fragment to needCheckBackendExecStates,
+                // so that we can check these backends' state when joining this Coordinator
+                boolean needCheckBackendState =
+                        queryOptions.getQuery_type() == TQueryType.LOAD && profileFragmentId == 0;
+
+                WorkGroup workgroup = prepareWorkGroup(dbIds);
+                params.setBucketSeqToInstanceForRuntimeFilters();
+
+                Map<TNetworkAddress, List<Integer>> hostToInstanceIndexes = Maps.newLinkedHashMap();
+                for (int i = 0; i < params.instanceExecParams.size(); i++) {
+                    hostToInstanceIndexes.computeIfAbsent(params.instanceExecParams.get(i).host,
+                            key -> Lists.newArrayList()).add(i);
+                }
+
+                for (Map.Entry<TNetworkAddress, List<Integer>> entry : hostToInstanceIndexes.entrySet()) {
+                    TNetworkAddress host = entry.getKey();
+                    boolean isFirstDelivery = firstDeliveryAddresses.add(host);
+                    TDescriptorTable curDescTable;
+                    if (!isEnablePipelineEngine || isFirstDelivery) {
+                        curDescTable = this.descTable;
+                        curDescTable.setIs_cached(false);
+                    } else {
+                        curDescTable = new TDescriptorTable();
+                        curDescTable.setIs_cached(true);
+                        curDescTable.setTupleDescriptors(Collections.emptyList());
+                    }
+
+                    TExecPlanFragmentParams commonParams =
+                            params.toThriftForCommonParams(host, curDescTable, isEnablePipelineEngine, workgroup);
+                    // required by thrift, each instance uses its own id on the backend
+                    commonParams.params.setFragment_instance_id(
+                            params.instanceExecParams.get(entry.getValue().get(0)).instanceId);
+                    TExecBatchPlanFragmentsParams batchParams = new TExecBatchPlanFragmentsParams();
+                    batchParams.setCommon_param(commonParams);
+
+                    List<BackendExecState> execStates = Lists.newArrayList();
+                    for (int instanceIndex : entry.getValue()) {
+                        TExecPlanFragmentParams uniqueParams =
+                                params.toThriftForUniqueParams(instanceIndex, isEnablePipelineEngine);
+                        batchParams.addToUnique_param_per_instance(uniqueParams);
+
+                        BackendExecState execState = new BackendExecState(fragment.getFragmentId(), host,
+                                profileFragmentId, uniqueParams, this.addressToBackendID);
+                        backendExecStates.put(uniqueParams.backend_num, execState);
+                        if (needCheckBackendState) {
+                            needCheckBackendExecStates.add(execState);
+                        }
+                        execStates.add(execState);
+                    }
+
+                    if (isEnablePipelineEngine && isFirstDelivery) {
+                        firstRequests.add(Pair.create(execStates, batchParams));
+                    } else {
+                        remainingRequests.add(Pair.create(execStates, batchParams));
+                    }
+                }
+            }
+
+            deliverBatchRequests(firstRequests, queryDeliveryTimeoutMs);
+            deliverBatchRequests(remainingRequests, queryDeliveryTimeoutMs);
+        }
+    }
+
+    private void deliverBatchRequests(List<Pair<List<BackendExecState>, TExecBatchPlanFragmentsParams>> requests,
+                                      long queryDeliveryTimeoutMs) throws Exception {
+        List<Pair<BackendExecState, Future<PExecBatchPlanFragmentsResult>>> futures = Lists.newArrayList();
+        for (Pair<List<BackendExecState>, TExecBatchPlanFragmentsParams> request : requests) {
+            futures.add(Pair.create(request.first.get(0),
+                    execBatchRemoteFragmentsAsync(request.first, request.second)));
+        }
+        waitForDeliverResults(futures, result -> result.status, queryDeliveryTimeoutMs);
+    }
+
+    private Future<PExecBatchPlanFragmentsResult> execBatchRemoteFragmentsAsync(List<BackendExecState> execStates,
+                                                                               TExecBatchPlanFragmentsParams request)
+            throws TException {
+        ComputeNode backend = execStates.get(0).backend;
+        TNetworkAddress brpcAddress;
+        try {
+            brpcAddress = new TNetworkAddress(backend.getHost(), backend.getBrpcPort());
+        } catch (Exception e) {
+            throw new TException(e.getMessage());
+        }
+        for (BackendExecState execState : execStates) {
+            execState.initiated = true;
+        }
+        try {
+            return BackendServiceClient.getInstance().execBatchPlanFragmentsAsync(brpcAddress, request);
+        } catch (RpcException e) {
+            // DO NOT throw exception here, return a complete future with error code,
+            // so that the following logic will cancel the fragments.
+            PExecBatchPlanFragmentsResult result = new PExecBatchPlanFragmentsResult();
+            StatusPB pStatus = new StatusPB();
+            pStatus.errorMsgs = Lists.newArrayList(e.getMessage());
+            // use THRIFT_RPC_ERROR so that this BE will be added to the blacklist later.
+            pStatus.statusCode = TStatusCode.THRIFT_RPC_ERROR.getValue();
+            result.status = pStatus;
+            return CompletableFuture.completedFuture(result);
+        }
+    }
+
     private final Map<TNetworkAddress, Integer> hostToNumbers = Maps.newHashMap();
 
     // Compute the fragment instance numbers in every BE for one query
@@ -967,6 +1198,13 @@ public class Coordinator {
         }
     }
 
+    // return the slot of the query queue
+    public void onFinished() {
+        if (holdQueryQueueSlot.compareAndSet(true, false)) {
+            QueryQueueManager.getInstance().releaseSlot(queryQueueWorkGroup);
+        }
+    }
+
     private void cancelInternal(PPlanFragmentCancelReason cancelReason) {
         if (null != receiver) {
             receiver.cancel();
@@ -2273,27 +2511,7 @@ public class Coordinator {
                 fileNamePrefix = exportSink.getFileNamePrefix();
             }
 
-            WorkGroup workgroup = null;
-            if (connectContext != null && connectContext.getSessionVariable().isEnableResourceGroup()) {
-                SessionVariable sessionVariable = connectContext.getSessionVariable();
-
-                // First try to use the resource group specified by the variable
-                if (StringUtils.isNotEmpty(sessionVariable.getResourceGroup())) {
-                    String rgName = sessionVariable.getResourceGroup();
-                    workgroup = GlobalStateMgr.getCurrentState().getWorkGroupMgr().chooseWorkGroupByName(rgName);
-                }
-
-                // Second if the specified resource group not exist try to use the default one
-                if (workgroup == null) {
-                    workgroup = GlobalStateMgr.getCurrentState().getWorkGroupMgr().chooseWorkGroup(
-                            connectContext, WorkGroupClassifier.QueryType.SELECT, dbIds);
-                }
-
-                if (workgroup != null) {
-                    connectContext.getAuditEventBuilder().setResourceGroup(workgroup.getName());
-                    connectContext.setWorkGroup(workgroup);
-                }
-            }
+            WorkGroup workgroup = prepareWorkGroup(dbIds);
             setBucketSeqToInstanceForRuntimeFilters();
             List<TExecPlanFragmentParams> paramsList = Lists.newArrayList();
             for (int i = 0; i < instanceExecParams.size(); ++i) {
@@ -2301,14 +2519,13 @@ public class Coordinator {
                 if (!inFlightInstanceIds.contains(instanceExecParam.instanceId)) {
                     continue;
                 }
-                TExecPlanFragmentParams params = new TExecPlanFragmentParams();
 
                 if (exportSink != null && fileNamePrefix != null) {
                     exportSink.setFileNamePrefix(fileNamePrefix + i + "_");
                 }
 
-                params.setProtocol_version(InternalServiceVersion.V1);
-                params.setFragment(fragment.toThrift());
+                TExecPlanFragmentParams params =
+                        toThriftForCommonParams(instanceExecParam.host, descTable, isEnablePipelineEngine, workgroup);
 
                 /*
                  * For MultiCastDataFragment, output only send to local, and the instance is keep
@@ -2328,77 +2545,107 @@ public class Coordinator {
                     params.getFragment().getOutput_sink().getMulti_cast_stream_sink().setDestinations(newDestinations);
                 }
 
-                params.setDesc_tbl(descTable);
-                params.setParams(new TPlanFragmentExecParams());
-                params.setFunc_version(3);
-                params.params.setUse_vectorized(true);
-                params.params.setQuery_id(queryId);
-                params.params.setFragment_instance_id(instanceExecParam.instanceId);
-                Map<Integer, List<TScanRangeParams>> scanRanges = instanceExecParam.perNodeScanRanges;
-                if (scanRanges == null) {
-                    scanRanges = Maps.newHashMap();
-                }
+                fillUniqueParams(params, i, isEnablePipelineEngine);
+                paramsList.add(params);
+            }
+            return paramsList;
+        }
 
-                params.params.setPer_node_scan_ranges(scanRanges);
-                params.params.setNode_to_per_driver_seq_scan_ranges(instanceExecParam.nodeToPerDriverSeqScanRanges);
-                params.params.setPer_exch_num_senders(perExchNumSenders);
+        // The part of the params shared by all the instances of this fragment on the host
+        TExecPlanFragmentParams toThriftForCommonParams(TNetworkAddress host, TDescriptorTable descTable,
+                                                        boolean isEnablePipelineEngine, WorkGroup workgroup) {
+            TExecPlanFragmentParams params = new TExecPlanFragmentParams();
+            params.setProtocol_version(InternalServiceVersion.V1);
+            params.setFragment(fragment.toThrift());
+            params.setDesc_tbl(descTable);
+            params.setParams(new TPlanFragmentExecParams());
+            params.setFunc_version(3);
+            params.params.setUse_vectorized(true);
+            params.params.setQuery_id(queryId);
+            params.params.setPer_node_scan_ranges(Maps.newHashMap());
+            params.params.setPer_exch_num_senders(perExchNumSenders);
+
+            params.params.setDestinations(destinations);
+            params.params.setNum_senders(instanceExecParams.size());
+            if (runtimeFilterParams.isSetRuntime_filter_builder_number()) {
+                params.params.setRuntime_filter_params(runtimeFilterParams);
+            }
+            params.setCoord(coordAddress);
+            params.setQuery_globals(queryGlobals);
+            if (isEnablePipelineEngine) {
+                params.setQuery_options(new TQueryOptions(queryOptions));
+            } else {
+                params.setQuery_options(queryOptions);
+            }
+            params.params.setSend_query_statistics_with_every_batch(
+                    fragment.isTransferQueryStatisticsWithEveryBatch());
+            params.params.setInstances_number(hostToNumbers.get(host));
+            // For broker load, the ConnectContext.get() is null
+            if (connectContext != null) {
+                SessionVariable sessionVariable = connectContext.getSessionVariable();
 
-                params.params.setDestinations(destinations);
-                params.params.setSender_id(i);
-                params.params.setNum_senders(instanceExecParams.size());
-                if (runtimeFilterParams.isSetRuntime_filter_builder_number()) {
-                    params.params.setRuntime_filter_params(runtimeFilterParams);
-                }
-                params.setCoord(coordAddress);
-                params.setBackend_num(instanceExecParam.backendId);
-                params.setQuery_globals(queryGlobals);
                 if (isEnablePipelineEngine) {
-                    params.setQuery_options(new TQueryOptions(queryOptions));
-                } else {
-                    params.setQuery_options(queryOptions);
-                }
-                params.params.setSend_query_statistics_with_every_batch(
-                        fragment.isTransferQueryStatisticsWithEveryBatch());
-                params.params.setInstances_number(hostToNumbers.get(instanceExecParams.get(i).host));
-                // For broker load, the ConnectContext.get() is null
-                if (connectContext != null) {
-                    SessionVariable sessionVariable = connectContext.getSessionVariable();
-
-                    if (isEnablePipelineEngine) {
-                        params.setIs_pipeline(true);
-                        params.getQuery_options().setBatch_size(SessionVariable.PIPELINE_BATCH_SIZE);
-                        params.setEnable_shared_scan(sessionVariable.isEnableSharedScan() && fragment.isEnableSharedScan());
-
-                        if (instanceExecParam.isSetPipelineDop()) {
-                            params.setPipeline_dop(instanceExecParam.pipelineDop);
-                        } else {
-                            params.setPipeline_dop(fragment.getPipelineDop());
-                        }
-
-                        boolean enableResourceGroup = sessionVariable.isEnableResourceGroup();
-                        params.setEnable_resource_group(enableResourceGroup);
-                        if (enableResourceGroup) {
-                            // session variable workgroup_id is just for verification of resource isolation.
-                            long workgroupId = connectContext.getSessionVariable().getWorkGroupId();
-                            if (workgroupId > 0) {
-                                TWorkGroup wg = new TWorkGroup();
-                                wg.setName("");
-                                wg.setId(connectContext.getSessionVariable().getWorkGroupId());
-                                wg.setVersion(0);
-                                params.setWorkgroup(wg);
-                            } else if (workgroup != null) {
-                                params.setWorkgroup(workgroup.toThrift());
-                            }
+                    params.setIs_pipeline(true);
+                    params.getQuery_options().setBatch_size(SessionVariable.PIPELINE_BATCH_SIZE);
+                    params.setEnable_shared_scan(sessionVariable.isEnableSharedScan() && fragment.isEnableSharedScan());
+                    params.setPipeline_dop(fragment.getPipelineDop());
+
+                    boolean enableResourceGroup = sessionVariable.isEnableResourceGroup();
+                    params.setEnable_resource_group(enableResourceGroup);
+                    if (enableResourceGroup) {
+                        // session variable workgroup_id is just for verification of resource isolation.
+                        long workgroupId = connectContext.getSessionVariable().getWorkGroupId();
+                        if (workgroupId > 0) {
+                            TWorkGroup wg = new TWorkGroup();
+                            wg.setName("");
+                            wg.setId(connectContext.getSessionVariable().getWorkGroupId());
+                            wg.setVersion(0);
+                            params.setWorkgroup(wg);
+                        } else if (workgroup != null) {
+                            params.setWorkgroup(workgroup.toThrift());
                         }
                     }
+                }
 
-                    if (sessionVariable.isEnableExchangePassThrough()) {
-                        params.params.setEnable_exchange_pass_through(sessionVariable.isEnableExchangePassThrough());
-                    }
+                if (sessionVariable.isEnableExchangePassThrough()) {
+                    params.params.setEnable_exchange_pass_through(sessionVariable.isEnableExchangePassThrough());
                 }
-                paramsList.add(params);
             }
-            return paramsList;
+            return params;
+        }
+
+        // The params of one instance to be delivered with the common params,
+        // only the required fields of the common part are set besides the fields of the instance.
+        TExecPlanFragmentParams toThriftForUniqueParams(int instanceIndex, boolean isEnablePipelineEngine) {
+            TExecPlanFragmentParams params = new TExecPlanFragmentParams();
+            params.setProtocol_version(InternalServiceVersion.V1);
+            params.setParams(new TPlanFragmentExecParams());
+            params.params.setQuery_id(queryId);
+            params.params.setPer_exch_num_senders(Collections.emptyMap());
+            // used to cancel the instance
+            if (isEnablePipelineEngine) {
+                params.setIs_pipeline(true);
+            }
+            fillUniqueParams(params, instanceIndex, isEnablePipelineEngine);
+            return params;
+        }
+
+        private void fillUniqueParams(TExecPlanFragmentParams params, int instanceIndex,
+                                      boolean isEnablePipelineEngine) {
+            FInstanceExecParam instanceExecParam = instanceExecParams.get(instanceIndex);
+            params.params.setFragment_instance_id(instanceExecParam.instanceId);
+            Map<Integer, List<TScanRangeParams>> scanRanges = instanceExecParam.perNodeScanRanges;
+            if (scanRanges == null) {
+                scanRanges = Maps.newHashMap();
+            }
+
+            params.params.setPer_node_scan_ranges(scanRanges);
+            params.params.setNode_to_per_driver_seq_scan_ranges(instanceExecParam.nodeToPerDriverSeqScanRanges);
+            params.params.setSender_id(instanceIndex);
+            params.setBackend_num(instanceExecParam.backendId);
+            if (connectContext != null && isEnablePipelineEngine && instanceExecParam.isSetPipelineDop()) {
+                params.setPipeline_dop(instanceExecParam.pipelineDop);
+            }
         }
 
         // Append range information
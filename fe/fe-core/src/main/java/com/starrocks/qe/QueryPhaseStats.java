@@ -0,0 +1,178 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.qe;
+
+import com.codahale.metrics.Histogram;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.gson.annotations.SerializedName;
+import com.starrocks.common.Config;
+import com.starrocks.metric.MetricRepo;
+import com.starrocks.sql.PlannerProfile;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Time spent in each phase of queries, collected from the timers of PlannerProfile.
+// The time of every finished query is recorded in the per-phase latency histograms of MetricRepo,
+// and queries with a sql digest are also aggregated by digest, so the sql shapes which cost
+// the most planner time could be found.
+public class QueryPhaseStats {
+    public static final String PARSER = "Parser";
+    public static final String ANALYZER = "Analyzer";
+    public static final String OPTIMIZER = "Optimizer";
+    public static final String PLAN_BUILDER = "PlanBuilder";
+    public static final String DEPLOY = "Deploy";
+    // the wait in the query queue, it happens inside Deploy but is not part of the deploy time
+    public static final String QUERY_QUEUE = "QueryQueue";
+
+    private static final int MAX_STMT_LENGTH = 1024;
+
+    // digest -> stats, in the order of last update
+    private static final LinkedHashMap<String, DigestStats> DIGEST_STATS = new LinkedHashMap<>(16, 0.75f, true);
+
+    public static class DigestStats {
+        @SerializedName("digest")
+        private final String digest;
+        @SerializedName("stmt")
+        private final String stmt;
+        @SerializedName("count")
+        private long count;
+        // total time of each phase in ms
+        @SerializedName("parseTimeMs")
+        private long parseTimeMs;
+        @SerializedName("analyzeTimeMs")
+        private long analyzeTimeMs;
+        @SerializedName("optimizeTimeMs")
+        private long optimizeTimeMs;
+        @SerializedName("planBuildTimeMs")
+        private long planBuildTimeMs;
+        @SerializedName("deployTimeMs")
+        private long deployTimeMs;
+        @SerializedName("maxPlannerTimeMs")
+        private long maxPlannerTimeMs;
+
+        public DigestStats(String digest, String stmt) {
+            this.digest = digest;
+            this.stmt = stmt.length() > MAX_STMT_LENGTH ? stmt.substring(0, MAX_STMT_LENGTH) : stmt;
+        }
+
+        private void add(Map<String, Long> phaseTimes) {
+            count++;
+            parseTimeMs += phaseTimes.getOrDefault(PARSER, 0L);
+            analyzeTimeMs += phaseTimes.getOrDefault(ANALYZER, 0L);
+            optimizeTimeMs += phaseTimes.getOrDefault(OPTIMIZER, 0L);
+            planBuildTimeMs += phaseTimes.getOrDefault(PLAN_BUILDER, 0L);
+            deployTimeMs += phaseTimes.getOrDefault(DEPLOY, 0L);
+            maxPlannerTimeMs = Math.max(maxPlannerTimeMs, plannerTime(phaseTimes));
+        }
+
+        public String getDigest() {
+            return digest;
+        }
+
+        public String getStmt() {
+            return stmt;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getParseTimeMs() {
+            return parseTimeMs;
+        }
+
+        public long getAnalyzeTimeMs() {
+            return analyzeTimeMs;
+        }
+
+        public long getOptimizeTimeMs() {
+            return optimizeTimeMs;
+        }
+
+        public long getPlanBuildTimeMs() {
+            return planBuildTimeMs;
+        }
+
+        public long getDeployTimeMs() {
+            return deployTimeMs;
+        }
+
+        public long getMaxPlannerTimeMs() {
+            return maxPlannerTimeMs;
+        }
+
+        public long getPlannerTimeMs() {
+            return analyzeTimeMs + optimizeTimeMs + planBuildTimeMs;
+        }
+    }
+
+    private static long plannerTime(Map<String, Long> phaseTimes) {
+        return phaseTimes.getOrDefault(ANALYZER, 0L) + phaseTimes.getOrDefault(OPTIMIZER, 0L) +
+                phaseTimes.getOrDefault(PLAN_BUILDER, 0L);
+    }
+
+    // phases not run by the query are absent
+    public static Map<String, Long> getPhaseTimes(PlannerProfile profile) {
+        Map<String, Long> phaseTimes = Maps.newHashMap();
+        for (String phase : new String[] {PARSER, ANALYZER, OPTIMIZER, PLAN_BUILDER, DEPLOY}) {
+            long time = profile.getTotalTime(phase);
+            if (time >= 0) {
+                phaseTimes.put(phase, time);
+            }
+        }
+        long queueTime = profile.getTotalTime(QUERY_QUEUE);
+        if (queueTime > 0 && phaseTimes.containsKey(DEPLOY)) {
+            phaseTimes.put(DEPLOY, Math.max(0, phaseTimes.get(DEPLOY) - queueTime));
+        }
+        return phaseTimes;
+    }
+
+    public static void updateLatencyHistograms(Map<String, Long> phaseTimes) {
+        if (!MetricRepo.isInit) {
+            return;
+        }
+        Map<String, Histogram> histograms = ImmutableMap.of(
+                PARSER, MetricRepo.HISTO_QUERY_PARSE_LATENCY,
+                ANALYZER, MetricRepo.HISTO_QUERY_ANALYZE_LATENCY,
+                OPTIMIZER, MetricRepo.HISTO_QUERY_OPTIMIZE_LATENCY,
+                PLAN_BUILDER, MetricRepo.HISTO_QUERY_PLAN_BUILD_LATENCY,
+                DEPLOY, MetricRepo.HISTO_QUERY_DEPLOY_LATENCY);
+        for (Map.Entry<String, Long> entry : phaseTimes.entrySet()) {
+            histograms.get(entry.getKey()).update(entry.getValue());
+        }
+    }
+
+    public static synchronized void addDigestStats(String digest, String stmt, Map<String, Long> phaseTimes) {
+        if (Config.query_digest_stats_max_num <= 0) {
+            DIGEST_STATS.clear();
+            return;
+        }
+        DigestStats stats = DIGEST_STATS.get(digest);
+        if (stats == null) {
+            stats = new DigestStats(digest, stmt);
+            DIGEST_STATS.put(digest, stats);
+        }
+        stats.add(phaseTimes);
+
+        // evict the least recently updated digests
+        while (DIGEST_STATS.size() > Config.query_digest_stats_max_num) {
+            DIGEST_STATS.remove(DIGEST_STATS.keySet().iterator().next());
+        }
+    }
+
+    // the digests with the most total planner time
+    public static synchronized List<DigestStats> getTopNByPlannerTime(int n) {
+        List<DigestStats> results = Lists.newArrayList(DIGEST_STATS.values());
+        results.sort(Comparator.comparingLong(DigestStats::getPlannerTimeMs).reversed());
+        return results.size() > n ? Lists.newArrayList(results.subList(0, n)) : results;
+    }
+
+    public static synchronized void clear() {
+        DIGEST_STATS.clear();
+    }
+}
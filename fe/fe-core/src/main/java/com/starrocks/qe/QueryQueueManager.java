@@ -0,0 +1,274 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.qe;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.starrocks.catalog.WorkGroup;
+import com.starrocks.common.Config;
+import com.starrocks.common.UserException;
+import com.starrocks.metric.ResourceGroupMetricMgr;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.system.Backend;
+import com.starrocks.system.Frontend;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Admission control of the queries.
+ * <p>
+ * A query takes a slot before being delivered to backends and returns it when finished. When the number of
+ * running queries or the running queries of the resource group exceeds the concurrency limit, or the memory usage
+ * of any backend exceeds {@link Config#query_queue_mem_used_pct_limit}, the query waits in the queue of its
+ * resource group, ordered by priority and arrival time.
+ * When slots are available, the groups take turns to admit their first query, so the queries of a busy group
+ * do not starve the other groups.
+ * <p>
+ * The concurrency limits are of the whole cluster. Each FE admits queries by itself without asking the others,
+ * so each alive FE takes an equal share of the limits, rounded up.
+ * The memory usage of backends is reported to the master by heartbeats, and logged to the other FEs when it
+ * changes noticeably, see {@link com.starrocks.system.ComputeNode#handleHbResponse}.
+ */
+public class QueryQueueManager {
+    private static final Logger LOG = LogManager.getLogger(QueryQueueManager.class);
+
+    private static final QueryQueueManager INSTANCE = new QueryQueueManager();
+
+    // the queries without resource group are in the queue of this group
+    private static final long DEFAULT_GROUP_ID = -1;
+    // the memory usage of backends is updated by heartbeats,
+    // pending queries recheck it periodically besides being notified by finished queries.
+    private static final long CHECK_INTERVAL_MS = 1000;
+
+    private static final Comparator<PendingQuery> PENDING_QUERY_COMPARATOR =
+            Comparator.comparingInt((PendingQuery query) -> -query.priority).thenComparingLong(query -> query.seq);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private int numRunningQueries = 0;
+    private final Map<Long, Integer> groupToNumRunningQueries = Maps.newHashMap();
+    // The groups with pending queries, in the order to be served.
+    // A group is moved to the end after one of its queries is admitted.
+    private final Map<Long, PriorityQueue<PendingQuery>> groupToPendingQueries = Maps.newLinkedHashMap();
+    private int numPendingQueries = 0;
+    private long nextSeq = 0;
+
+    private class PendingQuery {
+        private final ConnectContext connectContext;
+        private final WorkGroup group;
+        private final long groupId;
+        private final int priority;
+        private final long seq;
+        private final Condition admittedCond = lock.newCondition();
+        private boolean admitted = false;
+
+        private PendingQuery(ConnectContext connectContext, WorkGroup group, int priority) {
+            this.connectContext = connectContext;
+            this.group = group;
+            this.groupId = getGroupId(group);
+            this.priority = priority;
+            this.seq = nextSeq++;
+        }
+    }
+
+    public static QueryQueueManager getInstance() {
+        return INSTANCE;
+    }
+
+    public boolean isEnableQueue() {
+        return Config.enable_query_queue;
+    }
+
+    /**
+     * Wait until the query is admitted.
+     *
+     * @param isCancelled whether the query is cancelled or killed while waiting
+     * @throws UserException if the queue is full, or the query times out or is cancelled while waiting
+     */
+    public void acquireSlot(ConnectContext connectContext, WorkGroup group, long timeoutMs,
+                            BooleanSupplier isCancelled) throws UserException {
+        lock.lock();
+        try {
+            if (numPendingQueries >= Config.query_queue_max_queued_queries
+                    && !canAdmit(group, getNumAliveFrontends())) {
+                throw new UserException("Need pend query, but the query queue is full");
+            }
+
+            int priority = connectContext.getSessionVariable().getQueryQueuePriority();
+            PendingQuery query = new PendingQuery(connectContext, group, priority);
+            addPendingQuery(query);
+            admitPendingQueries();
+            if (query.admitted) {
+                return;
+            }
+
+            LOG.debug("query {} pends in the query queue of group {}",
+                    connectContext.getQueryId(), group == null ? "default" : group.getName());
+            ResourceGroupMetricMgr.increaseQueuedQuery(connectContext, 1L);
+            long startTime = System.currentTimeMillis();
+            long deadline = startTime + timeoutMs;
+            try {
+                while (!query.admitted) {
+                    if (isCancelled.getAsBoolean()) {
+                        throw new UserException("Cancelled while pending in the query queue");
+                    }
+                    long leftMs = deadline - System.currentTimeMillis();
+                    if (leftMs <= 0) {
+                        throw new UserException("Pending timeout in the query queue, timeout: " + timeoutMs + "ms");
+                    }
+                    query.admittedCond.await(Math.min(leftMs, CHECK_INTERVAL_MS), TimeUnit.MILLISECONDS);
+                    if (!query.admitted) {
+                        admitPendingQueries();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new UserException("Interrupted while pending in the query queue");
+            } finally {
+                if (!query.admitted) {
+                    removePendingQuery(query);
+                }
+                ResourceGroupMetricMgr.increaseQueryQueueWaitTime(connectContext,
+                        System.currentTimeMillis() - startTime);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void releaseSlot(WorkGroup group) {
+        lock.lock();
+        try {
+            numRunningQueries--;
+            groupToNumRunningQueries.computeIfPresent(getGroupId(group), (key, num) -> num > 1 ? num - 1 : null);
+            admitPendingQueries();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getNumRunningQueries() {
+        lock.lock();
+        try {
+            return numRunningQueries;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getNumPendingQueries() {
+        lock.lock();
+        try {
+            return numPendingQueries;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static long getGroupId(WorkGroup group) {
+        return group == null ? DEFAULT_GROUP_ID : group.getId();
+    }
+
+    private void addPendingQuery(PendingQuery query) {
+        groupToPendingQueries.computeIfAbsent(query.groupId, key -> new PriorityQueue<>(PENDING_QUERY_COMPARATOR))
+                .add(query);
+        numPendingQueries++;
+        ResourceGroupMetricMgr.updateQueryQueuePending(query.connectContext,
+                (long) groupToPendingQueries.get(query.groupId).size());
+    }
+
+    private void removePendingQuery(PendingQuery query) {
+        PriorityQueue<PendingQuery> queries = groupToPendingQueries.get(query.groupId);
+        if (queries == null || !queries.remove(query)) {
+            return;
+        }
+        numPendingQueries--;
+        ResourceGroupMetricMgr.updateQueryQueuePending(query.connectContext, (long) queries.size());
+        if (queries.isEmpty()) {
+            groupToPendingQueries.remove(query.groupId);
+        }
+    }
+
+    // Admit the first query of each group in turn until no more query could be admitted.
+    private void admitPendingQueries() {
+        if (groupToPendingQueries.isEmpty() || !isBackendMemoryAvailable()) {
+            return;
+        }
+        int numFrontends = getNumAliveFrontends();
+        boolean admittedAny = true;
+        while (admittedAny && !groupToPendingQueries.isEmpty()) {
+            admittedAny = false;
+            List<Long> groupIds = Lists.newArrayList(groupToPendingQueries.keySet());
+            for (long groupId : groupIds) {
+                PendingQuery query = groupToPendingQueries.get(groupId).peek();
+                if (!canAdmit(query.group, numFrontends)) {
+                    continue;
+                }
+                removePendingQuery(query);
+                numRunningQueries++;
+                groupToNumRunningQueries.merge(groupId, 1, Integer::sum);
+                query.admitted = true;
+                query.admittedCond.signal();
+                admittedAny = true;
+
+                // serve the other groups first in the next turn
+                PriorityQueue<PendingQuery> queries = groupToPendingQueries.remove(groupId);
+                if (queries != null) {
+                    groupToPendingQueries.put(groupId, queries);
+                }
+            }
+        }
+    }
+
+    private boolean canAdmit(WorkGroup group, int numFrontends) {
+        if (Config.query_queue_concurrency_limit > 0
+                && numRunningQueries >= getLocalLimit(Config.query_queue_concurrency_limit, numFrontends)) {
+            return false;
+        }
+        if (group != null && group.getConcurrencyLimit() != null && group.getConcurrencyLimit() > 0) {
+            int numGroupRunningQueries = groupToNumRunningQueries.getOrDefault(group.getId(), 0);
+            return numGroupRunningQueries < getLocalLimit(group.getConcurrencyLimit(), numFrontends);
+        }
+        return true;
+    }
+
+    // the share of this FE of a cluster limit
+    static int getLocalLimit(int clusterLimit, int numFrontends) {
+        return (clusterLimit + numFrontends - 1) / numFrontends;
+    }
+
+    // the alive frontends are known by every FE through the logged heartbeats
+    int getNumAliveFrontends() {
+        int numFrontends = 0;
+        for (Frontend frontend : GlobalStateMgr.getCurrentState().getFrontends(null)) {
+            if (frontend.isAlive()) {
+                numFrontends++;
+            }
+        }
+        return Math.max(1, numFrontends);
+    }
+
+    private boolean isBackendMemoryAvailable() {
+        if (Config.query_queue_mem_used_pct_limit <= 0) {
+            return true;
+        }
+        for (Backend backend : GlobalStateMgr.getCurrentSystemInfo().getIdToBackend().values()) {
+            if (!backend.isAlive() || backend.getMemLimitBytes() <= 0) {
+                continue;
+            }
+            if (backend.getMemUsedBytes() * 100.0 / backend.getMemLimitBytes() >=
+                    Config.query_queue_mem_used_pct_limit) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -153,6 +153,11 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
 
     public static final String ENABLE_TABLET_INTERNAL_PARALLEL = "enable_tablet_internal_parallel";
     public static final String ENABLE_SHARED_SCAN = "enable_shared_scan";
+    // Deliver the instances of a fragment on the same backend by one rpc, and deliver the independent
+    // fragments concurrently. Backends must support the exec_batch_plan_fragments rpc.
+    public static final String ENABLE_DELIVER_BATCH_FRAGMENTS = "enable_deliver_batch_fragments";
+    // The queries with higher priority are admitted first in the query queue of the resource group.
+    public static final String QUERY_QUEUE_PRIORITY = "query_queue_priority";
     public static final String PIPELINE_DOP = "pipeline_dop";
 
     public static final String PIPELINE_PROFILE_LEVEL = "pipeline_profile_level";
@@ -196,6 +201,9 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     public static final String CBO_ENABLE_DP_JOIN_REORDER = "cbo_enable_dp_join_reorder";
     public static final String CBO_MAX_REORDER_NODE_USE_DP = "cbo_max_reorder_node_use_dp";
     public static final String CBO_ENABLE_GREEDY_JOIN_REORDER = "cbo_enable_greedy_join_reorder";
+    public static final String CBO_ENABLE_DPCCP_JOIN_REORDER = "cbo_enable_dpccp_join_reorder";
+    public static final String CBO_MAX_REORDER_NODE_USE_DPCCP = "cbo_max_reorder_node_use_dpccp";
+    public static final String CBO_DPCCP_JOIN_REORDER_TIMEOUT_MS = "cbo_dpccp_join_reorder_timeout_ms";
     public static final String CBO_ENABLE_REPLICATED_JOIN = "cbo_enable_replicated_join";
     public static final String CBO_USE_CORRELATED_JOIN_ESTIMATE = "cbo_use_correlated_join_estimate";
     public static final String CBO_ENABLE_LOW_CARDINALITY_OPTIMIZE = "cbo_enable_low_cardinality_optimize";
@@ -276,6 +284,12 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     @VariableMgr.VarAttr(name = ENABLE_SHARED_SCAN)
     private boolean enableSharedScan = true;
 
+    @VariableMgr.VarAttr(name = ENABLE_DELIVER_BATCH_FRAGMENTS)
+    private boolean enableDeliverBatchFragments = false;
+
+    @VariableMgr.VarAttr(name = QUERY_QUEUE_PRIORITY)
+    private int queryQueuePriority = 0;
+
     // max memory used on every backend.
     public static final long DEFAULT_EXEC_MEM_LIMIT = 2147483648L;
     @VariableMgr.VarAttr(name = EXEC_MEM_LIMIT)
@@ -474,6 +488,16 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     @VariableMgr.VarAttr(name = CBO_ENABLE_GREEDY_JOIN_REORDER, flag = VariableMgr.INVISIBLE)
     private boolean cboEnableGreedyJoinReorder = true;
 
+    @VariableMgr.VarAttr(name = CBO_ENABLE_DPCCP_JOIN_REORDER, flag = VariableMgr.INVISIBLE)
+    private boolean cboEnableDPccpJoinReorder = false;
+
+    // joins wider than cbo_max_reorder_node_use_dp and not wider than this are reordered by DPccp
+    @VariableMgr.VarAttr(name = CBO_MAX_REORDER_NODE_USE_DPCCP)
+    private long cboMaxReorderNodeUseDPccp = 20;
+
+    @VariableMgr.VarAttr(name = CBO_DPCCP_JOIN_REORDER_TIMEOUT_MS)
+    private long cboDPccpJoinReorderTimeoutMs = 500;
+
     @VariableMgr.VarAttr(name = TRANSACTION_VISIBLE_WAIT_TIMEOUT)
     private long transactionVisibleWaitTimeout = 10;
 
@@ -786,6 +810,10 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
         return cboMaxReorderNodeUseDP;
     }
 
+    public void setCboMaxReorderNodeUseDP(long cboMaxReorderNodeUseDP) {
+        this.cboMaxReorderNodeUseDP = cboMaxReorderNodeUseDP;
+    }
+
     public boolean isCboEnableGreedyJoinReorder() {
         return cboEnableGreedyJoinReorder;
     }
@@ -798,6 +826,30 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
         this.cboEnableGreedyJoinReorder = true;
     }
 
+    public boolean isCboEnableDPccpJoinReorder() {
+        return cboEnableDPccpJoinReorder;
+    }
+
+    public void disableDPccpJoinReorder() {
+        this.cboEnableDPccpJoinReorder = false;
+    }
+
+    public void enableDPccpJoinReorder() {
+        this.cboEnableDPccpJoinReorder = true;
+    }
+
+    public long getCboMaxReorderNodeUseDPccp() {
+        return cboMaxReorderNodeUseDPccp;
+    }
+
+    public void setCboMaxReorderNodeUseDPccp(long cboMaxReorderNodeUseDPccp) {
+        this.cboMaxReorderNodeUseDPccp = cboMaxReorderNodeUseDPccp;
+    }
+
+    public long getCboDPccpJoinReorderTimeoutMs() {
+        return cboDPccpJoinReorderTimeoutMs;
+    }
+
     public int getCboMaxReorderNode() {
         return cboMaxReorderNode;
     }
@@ -902,6 +954,22 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
         return enableSharedScan;
     }
 
+    public boolean isEnableDeliverBatchFragments() {
+        return enableDeliverBatchFragments;
+    }
+
+    public void setEnableDeliverBatchFragments(boolean enableDeliverBatchFragments) {
+        this.enableDeliverBatchFragments = enableDeliverBatchFragments;
+    }
+
+    public int getQueryQueuePriority() {
+        return queryQueuePriority;
+    }
+
+    public void setQueryQueuePriority(int queryQueuePriority) {
+        this.queryQueuePriority = queryQueuePriority;
+    }
+
     public int getWorkGroupId() {
         return workgroupId;
     }
@@ -703,7 +703,9 @@ public class StmtExecutor {
         QeProcessorImpl.INSTANCE.registerQuery(context.getExecutionId(),
                 new QeProcessorImpl.QueryInfo(context, originStmt.originStmt, coord));
 
-        coord.exec();
+        try (PlannerProfile.ScopedTimer _ = PlannerProfile.getScopedTimer(QueryPhaseStats.DEPLOY)) {
+            coord.exec();
+        }
 
         // send result
         // 1. If this is a query with OUTFILE clause, eg: select * from tbl1 into outfile xxx,
@@ -15,8 +15,11 @@ public abstract class BaseTaskRunProcessor implements TaskRunProcessor {
     }
 
     protected void auditAfterExec(TaskRunContext context, StatementBase parsedStmt, PQueryStatistics statistics) {
-        String origStmt = context.getDefinition();
-        ConnectContext ctx = context.getCtx();
+        auditAfterExec(context.getDefinition(), context.getCtx(), parsedStmt, statistics);
+    }
+
+    protected void auditAfterExec(String origStmt, ConnectContext ctx, StatementBase parsedStmt,
+                                  PQueryStatistics statistics) {
         ConnectProcessor processor = new ConnectProcessor(ctx);
         processor.auditAfterExec(origStmt, parsedStmt, statistics);
     }
@@ -34,6 +34,16 @@ public class Constants {
         SUCCESS,
     }
 
+    // How a materialized view TaskRun absorbs the changes of its base tables
+    public enum MvRefreshMode {
+        // recompute the defining query and insert the whole result
+        FULL,
+        // recompute the defining query only for the mv partitions whose base partitions changed
+        PARTITION,
+        // insert only the result over the base partitions appended since the last refresh
+        INCREMENTAL
+    }
+
     // Used to determine the scheduling order of Pending TaskRun to Running TaskRun
     // The bigger the priority, the higher the priority, the default value is LOWEST
     public enum TaskRunPriority {
@@ -22,6 +22,7 @@ import com.starrocks.catalog.Column;
 import com.starrocks.catalog.Database;
 import com.starrocks.catalog.ExpressionRangePartitionInfo;
 import com.starrocks.catalog.HashDistributionInfo;
+import com.starrocks.catalog.KeysType;
 import com.starrocks.catalog.MaterializedView;
 import com.starrocks.catalog.OlapTable;
 import com.starrocks.catalog.Partition;
@@ -30,18 +31,28 @@ import com.starrocks.catalog.PartitionKey;
 import com.starrocks.catalog.PrimitiveType;
 import com.starrocks.catalog.RangePartitionInfo;
 import com.starrocks.catalog.SinglePartitionInfo;
+import com.starrocks.common.Config;
+import com.starrocks.common.ThreadPoolManager;
 import com.starrocks.common.util.UUIDUtil;
 import com.starrocks.qe.ConnectContext;
 import com.starrocks.qe.OriginStatement;
+import com.starrocks.qe.QueryState;
+import com.starrocks.qe.SessionVariable;
 import com.starrocks.qe.StmtExecutor;
+import com.starrocks.scheduler.persist.TaskRunStatus;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.sql.analyzer.AST2SQL;
+import com.starrocks.sql.analyzer.Analyzer;
 import com.starrocks.sql.analyzer.AnalyzerUtils;
 import com.starrocks.sql.analyzer.SemanticException;
+import com.starrocks.sql.ast.QueryRelation;
 import com.starrocks.sql.ast.QueryStatement;
+import com.starrocks.sql.ast.SelectRelation;
 import com.starrocks.sql.ast.TableRelation;
 import com.starrocks.sql.common.ExpressionPartitionUtil;
 import com.starrocks.sql.parser.SqlParser;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -49,11 +60,23 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 public class MvTaskRunProcessor extends BaseTaskRunProcessor {
 
+    private static final Logger LOG = LogManager.getLogger(MvTaskRunProcessor.class);
+
+    // shared by all the mv refresh task runs, the parallelism of one refresh is bounded by
+    // Config.mv_refresh_partition_parallelism
+    private static final ExecutorService REFRESH_BATCH_EXECUTOR = ThreadPoolManager.newDaemonFixedThreadPool(
+            Math.max(1, Config.mv_refresh_batch_thread_pool_size), Integer.MAX_VALUE, "mv-refresh-batch-pool", true);
+
     public static final String MV_ID = "mvId";
 
     @Override
@@ -63,8 +86,14 @@ public class MvTaskRunProcessor extends BaseTaskRunProcessor {
         long mvId = Long.parseLong(properties.get(MV_ID));
         // 0. prepare
         Database database = GlobalStateMgr.getCurrentState().getDb(context.ctx.getDatabase());
+        // isolate the refresh from user queries if a resource group is configured for it
+        if (!Config.mv_refresh_resource_group.isEmpty()) {
+            context.getCtx().getSessionVariable().setEnableResourceGroup(true);
+            context.getCtx().getSessionVariable().setResourceGroup(Config.mv_refresh_resource_group);
+        }
         MaterializedView materializedView = (MaterializedView) database.getTable(mvId);
         Set<Long> baseTableIds = materializedView.getBaseTableIds();
+        MvDeltaCollector deltaCollector = new MvDeltaCollector();
         PartitionInfo partitionInfo = materializedView.getPartitionInfo();
         if (partitionInfo instanceof SinglePartitionInfo) {
             // must create partition when creating mv
@@ -76,6 +105,11 @@ public class MvTaskRunProcessor extends BaseTaskRunProcessor {
                 OlapTable olapTable = (OlapTable) database.getTable(baseTableId);
                 Map<Long, Long> basePartitionVersions =
                         baseTableVisibleVersionMap.computeIfAbsent(baseTableId, k -> Maps.newHashMap());
+                if (removeDroppedPartitions(olapTable, basePartitionVersions)) {
+                    // rows of the dropped base partitions must be removed from the mv, which is not a delta
+                    needRefresh = true;
+                    deltaCollector.markNonAppendChange();
+                }
                 Collection<Partition> partitions = olapTable.getPartitions();
                 for (Partition partition : partitions) {
                     long basePartitionId = partition.getId();
@@ -83,12 +117,15 @@ public class MvTaskRunProcessor extends BaseTaskRunProcessor {
                     Long oldVersion = basePartitionVersions.get(basePartitionId);
                     if (oldVersion == null || basePartitionVersion > oldVersion) {
                         needRefresh = true;
+                        deltaCollector.addChangedPartition(olapTable, basePartitionId, oldVersion);
                         basePartitionVersions.put(basePartitionId, basePartitionVersion);
                     }
                 }
             }
             if (needRefresh) {
-                refreshMv(context, materializedView);
+                if (!tryRefreshMvIncrementally(context, database, materializedView, deltaCollector)) {
+                    refreshMv(context, materializedView);
+                }
             }
             return;
         }
@@ -119,7 +156,7 @@ public class MvTaskRunProcessor extends BaseTaskRunProcessor {
         Set<Long> needRefreshPartitionIds = Sets.newHashSet();
         processPartitionWithPartitionTable(database, materializedView, partitionTable,
                 partitionExpr, partitionColumn, partitionProperties,
-                distributionDesc, needRefreshPartitionIds);
+                distributionDesc, needRefreshPartitionIds, deltaCollector);
         // 3. collect need refresh mv partition ids
         boolean refreshAllPartitions = false;
         for (Long baseTableId : baseTableIds) {
@@ -130,6 +167,7 @@ public class MvTaskRunProcessor extends BaseTaskRunProcessor {
             OlapTable olapTable = olapTables.get(baseTableId);
             if (checkNeedRefreshPartitions(materializedView, olapTable)) {
                 refreshAllPartitions = true;
+                deltaCollector.markNonAppendChange();
             }
         }
         // if all partition need refresh
@@ -137,6 +175,12 @@ public class MvTaskRunProcessor extends BaseTaskRunProcessor {
             refreshAllPartitions = true;
         }
         // 4. refresh mv
+        if (needRefreshPartitionIds.isEmpty() && !refreshAllPartitions) {
+            return;
+        }
+        if (tryRefreshMvIncrementally(context, database, materializedView, deltaCollector)) {
+            return;
+        }
         if (refreshAllPartitions) {
             refreshMv(context, materializedView);
         } else {
@@ -148,7 +192,8 @@ public class MvTaskRunProcessor extends BaseTaskRunProcessor {
                                                     OlapTable olapTable, Expr partitionExpr,
                                                     Column partitionColumn, Map<String, String> partitionProperties,
                                                     DistributionDesc distributionDesc,
-                                                    Set<Long> needRefreshPartitionIds) {
+                                                    Set<Long> needRefreshPartitionIds,
+                                                    MvDeltaCollector deltaCollector) {
         Map<Long, Set<Long>> partitionIdRefMap = materializedView.getPartitionIdRefMap();
         Map<Long, Map<Long, Long>> baseTableVisibleVersionMap = materializedView.getRefreshScheme()
                 .getAsyncRefreshContext()
@@ -209,6 +254,9 @@ public class MvTaskRunProcessor extends BaseTaskRunProcessor {
                     dropPartition(database, materializedView, refMvPartitionId);
                 } else {
                     needRefreshPartitionIds.add(refMvPartitionId);
+                    // rows of the dropped base partition must be removed from the mv partition,
+                    // which can not be expressed as a delta
+                    deltaCollector.markNonAppendChange();
                 }
             }
             basePartitionVisionMap.remove(deletedPartitionId);
@@ -219,6 +267,7 @@ public class MvTaskRunProcessor extends BaseTaskRunProcessor {
             long visibleVersion = olapTable.getPartition(basePartitionId).getVisibleVersion();
             if (visibleVersion > oldVisibleVersion) {
                 needRefreshPartitionIds.addAll(partitionIdRefMap.get(basePartitionId));
+                deltaCollector.addChangedPartition(olapTable, basePartitionId, oldVisibleVersion);
                 basePartitionVisionMap.put(basePartitionId, visibleVersion);
             }
         }
@@ -231,6 +280,10 @@ public class MvTaskRunProcessor extends BaseTaskRunProcessor {
                 .getBaseTableVisibleVersionMap();
         Map<Long, Long> basePartitionVisionMap =
                 baseTableVisibleVersionMap.computeIfAbsent(olapTable.getId(), k -> Maps.newHashMap());
+        // the rows of the dropped partitions may be joined into any mv partition
+        if (removeDroppedPartitions(olapTable, basePartitionVisionMap)) {
+            refreshAllPartitions = true;
+        }
         Collection<Partition> basePartitions = olapTable.getPartitions();
         for (Partition basePartition : basePartitions) {
             long basePartitionId = basePartition.getId();
@@ -244,6 +297,15 @@ public class MvTaskRunProcessor extends BaseTaskRunProcessor {
         return refreshAllPartitions;
     }
 
+    /**
+     * Remove the base partitions dropped since the last refresh from the versions consumed by the mv,
+     * including the partitions replaced by truncate or insert overwrite, which get new partition ids.
+     * Return true if any partition is dropped.
+     */
+    static boolean removeDroppedPartitions(OlapTable olapTable, Map<Long, Long> basePartitionVersions) {
+        return basePartitionVersions.keySet().removeIf(partitionId -> olapTable.getPartition(partitionId) == null);
+    }
+
     private Map<String, String> getPartitionProperties(MaterializedView materializedView) {
         Map<String, String> partitionProperties = new HashMap<>(4);
         partitionProperties.put("replication_num",
@@ -326,12 +388,114 @@ public class MvTaskRunProcessor extends BaseTaskRunProcessor {
         String insertIntoSql = "insert into " +
                 materializedView.getName() + " " +
                 context.getDefinition();
+        recordRefreshMode(context, Constants.MvRefreshMode.FULL);
         execInsertStmt(insertIntoSql, context);
     }
 
+    /**
+     * Absorb the changes of the base table by inserting only the rows of its new partitions into the mv,
+     * instead of recomputing the defining query over the whole base table.
+     * Return false if the changes or the defining query can not be expressed as a delta,
+     * then the caller falls back to the normal refresh.
+     */
+    private boolean tryRefreshMvIncrementally(TaskRunContext context, Database database,
+                                              MaterializedView materializedView, MvDeltaCollector deltaCollector) {
+        if (!Config.enable_mv_incremental_refresh || !deltaCollector.isAppendOnly()) {
+            return false;
+        }
+        // delta of a join is not the join of deltas, only support mv over one base table
+        if (materializedView.getBaseTableIds().size() != 1) {
+            return false;
+        }
+        long baseTableId = materializedView.getBaseTableIds().iterator().next();
+        OlapTable baseTable = (OlapTable) database.getTable(baseTableId);
+        Set<Long> deltaPartitionIds = deltaCollector.getDeltaPartitionIds(baseTableId);
+        if (baseTable == null || deltaPartitionIds.isEmpty()) {
+            return false;
+        }
+        ConnectContext ctx = context.getCtx();
+        if (!isDeltaMergeable(materializedView, baseTable, context.getDefinition(), ctx)) {
+            return false;
+        }
+        QueryStatement queryStatement = (QueryStatement) SqlParser.parse(context.getDefinition(),
+                ctx.getSessionVariable().getSqlMode()).get(0);
+        TableRelation tableRelation = AnalyzerUtils.collectAllTableRelation(queryStatement).get(baseTable.getName());
+        if (tableRelation == null) {
+            return false;
+        }
+        List<String> deltaPartitionNames = Lists.newArrayList();
+        for (Long partitionId : deltaPartitionIds) {
+            Partition partition = baseTable.getPartition(partitionId);
+            if (partition == null) {
+                // dropped after the changes were collected
+                return false;
+            }
+            deltaPartitionNames.add(partition.getName());
+        }
+        tableRelation.setPartitionNames(new PartitionNames(false, deltaPartitionNames));
+        // e.g. insert into mv select k1, sum(v1) from table partition(p3) group by k1
+        String insertIntoSql = "insert into " +
+                materializedView.getName() + " " +
+                AST2SQL.toString(queryStatement);
+        LOG.info("incremental refresh materialized view {} with base partitions {}",
+                materializedView.getName(), deltaPartitionNames);
+        recordRefreshMode(context, Constants.MvRefreshMode.INCREMENTAL);
+        recordScanPartitions(context, deltaPartitionNames.size());
+        execInsertStmt(insertIntoSql, context);
+        return true;
+    }
+
+    /**
+     * Whether appending the result of the defining query over new rows to the mv gives the same result
+     * as recomputing it: projections and filters always do. The mv is a duplicate key table, so aggregations
+     * only do when the groups of the new partitions can not exist in the mv yet, that is, when the query
+     * groups by the partition columns of the base table.
+     */
+    private boolean isDeltaMergeable(MaterializedView materializedView, OlapTable baseTable, String definition,
+                                     ConnectContext ctx) {
+        QueryStatement queryStatement =
+                (QueryStatement) SqlParser.parse(definition, ctx.getSessionVariable().getSqlMode()).get(0);
+        try {
+            Analyzer.analyze(queryStatement, ctx);
+        } catch (Exception e) {
+            LOG.warn("failed to analyze definition of materialized view {}, skip incremental refresh",
+                    materializedView.getName(), e);
+            return false;
+        }
+        QueryRelation queryRelation = queryStatement.getQueryRelation();
+        if (!(queryRelation instanceof SelectRelation)) {
+            return false;
+        }
+        SelectRelation selectRelation = (SelectRelation) queryRelation;
+        if (!(selectRelation.getRelation() instanceof TableRelation)) {
+            return false;
+        }
+        if (selectRelation.isDistinct() || selectRelation.hasAnalyticInfo() || selectRelation.hasLimit()) {
+            return false;
+        }
+        if (selectRelation.hasAggregation()) {
+            return isGroupedByPartitionColumns(selectRelation, baseTable);
+        }
+        return true;
+    }
+
+    private boolean isGroupedByPartitionColumns(SelectRelation selectRelation, OlapTable baseTable) {
+        if (!(baseTable.getPartitionInfo() instanceof RangePartitionInfo) || selectRelation.getGroupBy() == null) {
+            return false;
+        }
+        Set<String> groupByColumns = Sets.newTreeSet(String.CASE_INSENSITIVE_ORDER);
+        for (Expr expr : selectRelation.getGroupBy()) {
+            if (expr instanceof SlotRef) {
+                groupByColumns.add(((SlotRef) expr).getColumnName());
+            }
+        }
+        List<Column> partitionColumns = ((RangePartitionInfo) baseTable.getPartitionInfo()).getPartitionColumns();
+        return !partitionColumns.isEmpty() &&
+                partitionColumns.stream().allMatch(column -> groupByColumns.contains(column.getName()));
+    }
+
     private void refreshMv(TaskRunContext context, MaterializedView materializedView, OlapTable olapTable,
                            Set<Long> mvPartitionIds) {
-        Map<Long, Set<Long>> partitionIdRefMap = materializedView.getPartitionIdRefMap();
         ConnectContext ctx = context.getCtx();
         ctx.getAuditEventBuilder().reset();
         ctx.getAuditEventBuilder()
@@ -340,45 +504,245 @@ public class MvTaskRunProcessor extends BaseTaskRunProcessor {
                 .setUser(ctx.getQualifiedUser())
                 .setDb(ctx.getDatabase());
         ctx.getPlannerProfile().reset();
+        recordRefreshMode(context, Constants.MvRefreshMode.PARTITION);
+        // refresh several mv partitions by one insert, so that a backfill of many partitions
+        // is neither one huge insert nor thousands of tiny ones
+        List<List<Long>> batches = splitRefreshBatches(mvPartitionIds, Config.mv_refresh_partition_batch_size);
+        List<String> insertIntoSqls = Lists.newArrayList();
+        for (List<Long> batch : batches) {
+            insertIntoSqls.add(buildPartitionRefreshSql(context, materializedView, olapTable, batch));
+        }
+        recordRefreshBatches(context, insertIntoSqls.size());
+        int parallelism = Math.min(Math.max(1, Config.mv_refresh_partition_parallelism), insertIntoSqls.size());
+        if (parallelism <= 1) {
+            for (String insertIntoSql : insertIntoSqls) {
+                execInsertStmt(insertIntoSql, context);
+                if (isBatchFailed(ctx)) {
+                    // the task run fails anyway, do not refresh the remaining batches
+                    return;
+                }
+                finishRefreshBatch(context);
+                ctx.setQueryId(UUIDUtil.genUUID());
+            }
+            return;
+        }
+        refreshBatchesInParallel(context, insertIntoSqls, parallelism);
+    }
+
+    /**
+     * Run the batches by at most parallelism concurrent inserts, each one with its own ConnectContext
+     * because ConnectContext is not thread safe.
+     */
+    private void refreshBatchesInParallel(TaskRunContext context, List<String> insertIntoSqls, int parallelism) {
+        ConnectContext ctx = context.getCtx();
+        Queue<String> pendingSqls = new ConcurrentLinkedQueue<>(insertIntoSqls);
+        List<ConnectContext> batchContexts = Lists.newArrayList();
+        List<Future<?>> futures = Lists.newArrayList();
+        for (int i = 0; i < parallelism; i++) {
+            ConnectContext batchCtx = buildBatchContext(ctx);
+            batchContexts.add(batchCtx);
+            futures.add(REFRESH_BATCH_EXECUTOR.submit(() -> {
+                try {
+                    String insertIntoSql;
+                    while ((insertIntoSql = pendingSqls.poll()) != null) {
+                        batchCtx.setQueryId(UUIDUtil.genUUID());
+                        execInsertStmt(insertIntoSql, context, batchCtx);
+                        if (isBatchFailed(batchCtx)) {
+                            // stop the other workers, the task run fails anyway
+                            pendingSqls.clear();
+                            return;
+                        }
+                        finishRefreshBatch(context);
+                    }
+                } finally {
+                    // the pool threads are reused, do not leave the batch context to the next task
+                    ConnectContext.remove();
+                }
+            }));
+        }
+        Exception firstException = null;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (Exception e) {
+                pendingSqls.clear();
+                if (firstException == null) {
+                    firstException = e;
+                }
+            }
+        }
+        ctx.setThreadLocalInfo();
+        if (firstException != null) {
+            Throwable cause = firstException instanceof ExecutionException ? firstException.getCause() : firstException;
+            if (cause instanceof SemanticException) {
+                throw (SemanticException) cause;
+            }
+            throw new SemanticException("Refresh materialized view failed: " + cause.getMessage(), cause);
+        }
+        for (ConnectContext batchCtx : batchContexts) {
+            if (isBatchFailed(batchCtx)) {
+                ctx.setState(batchCtx.getState());
+                return;
+            }
+        }
+    }
+
+    private static boolean isBatchFailed(ConnectContext ctx) {
+        return ctx.getState().getStateType() == QueryState.MysqlStateType.ERR;
+    }
+
+    private ConnectContext buildBatchContext(ConnectContext ctx) {
+        ConnectContext batchCtx = new ConnectContext();
+        batchCtx.setCluster(ctx.getClusterName());
+        batchCtx.setGlobalStateMgr(ctx.getGlobalStateMgr());
+        batchCtx.setDatabase(ctx.getDatabase());
+        batchCtx.setQualifiedUser(ctx.getQualifiedUser());
+        batchCtx.setCurrentUserIdentity(ctx.getCurrentUserIdentity());
+        batchCtx.setSessionVariable((SessionVariable) ctx.getSessionVariable().clone());
+        batchCtx.getState().reset();
+        batchCtx.getAuditEventBuilder()
+                .setTimestamp(System.currentTimeMillis())
+                .setUser(ctx.getQualifiedUser())
+                .setDb(ctx.getDatabase());
+        return batchCtx;
+    }
+
+    private String buildPartitionRefreshSql(TaskRunContext context, MaterializedView materializedView,
+                                            OlapTable olapTable, List<Long> mvPartitionIds) {
+        Map<Long, Set<Long>> partitionIdRefMap = materializedView.getPartitionIdRefMap();
+        Set<String> tablePartitionNames = Sets.newHashSet();
+        List<String> mvPartitionNames = Lists.newArrayList();
         for (Long mvPartitionId : mvPartitionIds) {
-            String definition = context.getDefinition();
             Set<Long> basePartitionIds = partitionIdRefMap.get(mvPartitionId);
-            Set<String> tablePartitionNames = Sets.newHashSet();
             for (Long basePartitionId : basePartitionIds) {
                 tablePartitionNames.add(olapTable.getPartition(basePartitionId).getName());
             }
-            String mvPartitionName = materializedView.getPartition(mvPartitionId).getName();
-            QueryStatement queryStatement =
-                    (QueryStatement) SqlParser.parse(definition, ctx.getSessionVariable().getSqlMode()).get(0);
-            Map<String, TableRelation> tableRelations =
-                    AnalyzerUtils.collectAllTableRelation(queryStatement);
-            TableRelation tableRelation = tableRelations.get(olapTable.getName());
-            tableRelation.setPartitionNames(
-                    new PartitionNames(false, new ArrayList<>(tablePartitionNames)));
-            // e.g. insert into mv partition(p1,p2) select * from table partition(p3)
-            String insertIntoSql = "insert into " +
-                    materializedView.getName() +
-                    " partition(" + mvPartitionName + ") " +
-                    AST2SQL.toString(queryStatement);
-            execInsertStmt(insertIntoSql, context);
-            ctx.setQueryId(UUIDUtil.genUUID());
+            mvPartitionNames.add(materializedView.getPartition(mvPartitionId).getName());
+        }
+        recordScanPartitions(context, tablePartitionNames.size());
+        QueryStatement queryStatement = (QueryStatement) SqlParser.parse(context.getDefinition(),
+                context.getCtx().getSessionVariable().getSqlMode()).get(0);
+        Map<String, TableRelation> tableRelations =
+                AnalyzerUtils.collectAllTableRelation(queryStatement);
+        TableRelation tableRelation = tableRelations.get(olapTable.getName());
+        tableRelation.setPartitionNames(
+                new PartitionNames(false, new ArrayList<>(tablePartitionNames)));
+        // e.g. insert into mv partition(p1,p2) select * from table partition(p3)
+        return "insert into " +
+                materializedView.getName() +
+                " partition(" + String.join(",", mvPartitionNames) + ") " +
+                AST2SQL.toString(queryStatement);
+    }
+
+    // sort by id so that the batches follow the creation order of the mv partitions
+    static List<List<Long>> splitRefreshBatches(Collection<Long> mvPartitionIds, int batchSize) {
+        List<Long> sortedIds = new ArrayList<>(mvPartitionIds);
+        Collections.sort(sortedIds);
+        List<List<Long>> batches = Lists.newArrayList();
+        int size = Math.max(1, batchSize);
+        for (int i = 0; i < sortedIds.size(); i += size) {
+            batches.add(new ArrayList<>(sortedIds.subList(i, Math.min(i + size, sortedIds.size()))));
         }
+        return batches;
     }
 
     private void execInsertStmt(String insertSql, TaskRunContext context) {
-        ConnectContext ctx = context.getCtx();
+        execInsertStmt(insertSql, context, context.getCtx());
+    }
+
+    private void execInsertStmt(String insertSql, TaskRunContext context, ConnectContext ctx) {
         InsertStmt insertStmt = ((InsertStmt) SqlParser.parse(insertSql, ctx.getSessionVariable().getSqlMode()).get(0));
         insertStmt.setSystem(true);
         insertStmt.setOrigStmt(new OriginStatement(insertSql, 0));
         StmtExecutor executor = new StmtExecutor(ctx, insertStmt);
         ctx.setExecutor(executor);
         ctx.setThreadLocalInfo();
+        long startMs = System.currentTimeMillis();
         try {
             executor.execute();
         } catch (Exception e) {
             throw new SemanticException("Refresh materialized view failed:" + insertSql, e);
         } finally {
-            auditAfterExec(context, executor.getParsedStmt(), executor.getQueryStatisticsForAuditLog());
+            TaskRunStatus status = context.getStatus();
+            if (status != null) {
+                synchronized (status) {
+                    status.setMvRefreshCostMs(status.getMvRefreshCostMs() + System.currentTimeMillis() - startMs);
+                }
+            }
+            auditAfterExec(context.getDefinition(), ctx, executor.getParsedStmt(),
+                    executor.getQueryStatisticsForAuditLog());
+        }
+    }
+
+    private void recordRefreshMode(TaskRunContext context, Constants.MvRefreshMode refreshMode) {
+        TaskRunStatus status = context.getStatus();
+        if (status != null) {
+            status.setMvRefreshMode(refreshMode.name());
+        }
+    }
+
+    private void recordScanPartitions(TaskRunContext context, int partitionNum) {
+        TaskRunStatus status = context.getStatus();
+        if (status != null) {
+            synchronized (status) {
+                status.setMvScanPartitionNum(status.getMvScanPartitionNum() + partitionNum);
+            }
+        }
+    }
+
+    private void recordRefreshBatches(TaskRunContext context, int batchNum) {
+        TaskRunStatus status = context.getStatus();
+        if (status != null) {
+            synchronized (status) {
+                status.setMvRefreshBatchNum(batchNum);
+                status.setMvRefreshFinishedBatchNum(0);
+            }
+        }
+    }
+
+    private void finishRefreshBatch(TaskRunContext context) {
+        TaskRunStatus status = context.getStatus();
+        if (status != null) {
+            synchronized (status) {
+                status.setMvRefreshFinishedBatchNum(status.getMvRefreshFinishedBatchNum() + 1);
+            }
+        }
+    }
+
+    /**
+     * Collects the base partitions changed since the last refresh, and whether all the changes are appends
+     * which can be absorbed by inserting the new rows into the mv instead of recomputing it.
+     * The unit of a delta is a base partition because scanning a version range of a partition
+     * is not supported, so only the partitions whose data has never been consumed by the mv are deltas.
+     */
+    static class MvDeltaCollector {
+        // base table id -> ids of changed partitions which were empty at the last refresh
+        private final Map<Long, Set<Long>> deltaPartitionIds = Maps.newHashMap();
+        private boolean nonAppendChange = false;
+
+        void addChangedPartition(OlapTable table, long partitionId, Long consumedVersion) {
+            // rows of unique/agg/primary tables may update old rows, they are never insert-only
+            if (table.getKeysType() != KeysType.DUP_KEYS) {
+                nonAppendChange = true;
+                return;
+            }
+            if (consumedVersion != null && consumedVersion > Partition.PARTITION_INIT_VERSION) {
+                nonAppendChange = true;
+                return;
+            }
+            deltaPartitionIds.computeIfAbsent(table.getId(), k -> Sets.newHashSet()).add(partitionId);
+        }
+
+        void markNonAppendChange() {
+            nonAppendChange = true;
+        }
+
+        boolean isAppendOnly() {
+            return !nonAppendChange && !deltaPartitionIds.isEmpty();
+        }
+
+        Set<Long> getDeltaPartitionIds(long tableId) {
+            return deltaPartitionIds.getOrDefault(tableId, Collections.emptySet());
         }
     }
 
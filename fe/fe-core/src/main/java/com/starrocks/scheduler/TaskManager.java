@@ -526,6 +526,9 @@ public class TaskManager {
                 }
                 status.setState(toStatus);
                 status.setFinishTime(statusChange.getFinishTime());
+                status.setMvRefreshMode(statusChange.getMvRefreshMode());
+                status.setMvScanPartitionNum(statusChange.getMvScanPartitionNum());
+                status.setMvRefreshCostMs(statusChange.getMvRefreshCostMs());
                 taskRunManager.getTaskRunHistory().addHistory(status);
             }
         } else {
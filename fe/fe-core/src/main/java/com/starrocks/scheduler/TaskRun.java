@@ -80,6 +80,7 @@ public class TaskRun implements Comparable<TaskRun> {
     public boolean executeTaskRun() throws Exception {
         TaskRunContext taskRunContext = new TaskRunContext();
         taskRunContext.setDefinition(status.getDefinition());
+        taskRunContext.setStatus(status);
         // copy a ConnectContext to avoid concurrency leading to abnormal results.
         ConnectContext newCtx = new ConnectContext();
         newCtx.setCluster(ctx.getClusterName());
@@ -150,10 +151,10 @@ public class TaskRun implements Comparable<TaskRun> {
 
     @Override
     public int compareTo(@NotNull TaskRun taskRun) {
+        // higher priority first, then the earlier created one
         if (this.getStatus().getPriority() != taskRun.getStatus().getPriority()) {
-            return taskRun.getStatus().getPriority() - this.getStatus().getPriority();
-        } else {
-            return this.getStatus().getCreateTime() > taskRun.getStatus().getCreateTime() ? 1 : -1;
+            return Integer.compare(taskRun.getStatus().getPriority(), this.getStatus().getPriority());
         }
+        return Long.compare(this.getStatus().getCreateTime(), taskRun.getStatus().getCreateTime());
     }
 }
@@ -2,6 +2,7 @@
 package com.starrocks.scheduler;
 
 import com.starrocks.qe.ConnectContext;
+import com.starrocks.scheduler.persist.TaskRunStatus;
 
 import java.util.Map;
 
@@ -10,6 +11,7 @@ public class TaskRunContext {
     String definition;
     String remoteIp;
     Map<String, String> properties;
+    TaskRunStatus status;
 
     public ConnectContext getCtx() {
         return ctx;
@@ -42,4 +44,12 @@ public class TaskRunContext {
     public void setProperties(Map<String, String> properties) {
         this.properties = properties;
     }
+
+    public TaskRunStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(TaskRunStatus status) {
+        this.status = status;
+    }
 }
@@ -2,6 +2,7 @@
 
 package com.starrocks.scheduler;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Queues;
 import com.starrocks.common.Config;
@@ -12,7 +13,9 @@ import com.starrocks.server.GlobalStateMgr;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.Future;
@@ -89,33 +92,57 @@ public class TaskRunManager {
         }
     }
 
-    // schedule the pending TaskRun that can be run into running TaskRun map
+    // schedule the pending TaskRun that can be run into running TaskRun map,
+    // the TaskRuns of different Tasks are scheduled by priority and then by create time
     public void scheduledPendingTaskRun() {
         int currentRunning = runningTaskRunMap.size();
 
+        List<TaskRun> candidates = Lists.newArrayList();
         Iterator<Long> pendingIterator = pendingTaskRunMap.keySet().iterator();
         while (pendingIterator.hasNext()) {
             Long taskId = pendingIterator.next();
             TaskRun runningTaskRun = runningTaskRunMap.get(taskId);
             if (runningTaskRun == null) {
                 Queue<TaskRun> taskRunQueue = pendingTaskRunMap.get(taskId);
-                if (taskRunQueue.size() == 0) {
+                TaskRun pendingTaskRun = taskRunQueue.peek();
+                if (pendingTaskRun == null) {
                     pendingIterator.remove();
                 } else {
-                    if (currentRunning >= Config.task_runs_concurrency) {
-                        break;
-                    }
-                    TaskRun pendingTaskRun = taskRunQueue.poll();
-                    taskRunExecutor.executeTaskRun(pendingTaskRun);
-                    runningTaskRunMap.put(taskId, pendingTaskRun);
-                    // RUNNING state persistence is for FE FOLLOWER update state
-                    TaskRunStatusChange statusChange = new TaskRunStatusChange(taskId, pendingTaskRun.getStatus(),
-                            Constants.TaskRunState.PENDING, Constants.TaskRunState.RUNNING);
-                    GlobalStateMgr.getCurrentState().getEditLog().logUpdateTaskRun(statusChange);
-                    currentRunning++;
+                    candidates.add(pendingTaskRun);
                 }
             }
         }
+        Collections.sort(candidates);
+
+        for (TaskRun candidate : candidates) {
+            if (currentRunning >= Config.task_runs_concurrency) {
+                break;
+            }
+            long taskId = candidate.getTaskId();
+            TaskRun pendingTaskRun = pendingTaskRunMap.get(taskId).poll();
+            taskRunExecutor.executeTaskRun(pendingTaskRun);
+            runningTaskRunMap.put(taskId, pendingTaskRun);
+            // RUNNING state persistence is for FE FOLLOWER update state
+            TaskRunStatusChange statusChange = new TaskRunStatusChange(taskId, pendingTaskRun.getStatus(),
+                    Constants.TaskRunState.PENDING, Constants.TaskRunState.RUNNING);
+            GlobalStateMgr.getCurrentState().getEditLog().logUpdateTaskRun(statusChange);
+            currentRunning++;
+        }
+    }
+
+    // queryId -> "finished batches/total batches" of the running TaskRuns which refresh in batches
+    public Map<String, String> getRunningTaskRunProgress() {
+        Map<String, String> progress = Maps.newHashMap();
+        for (TaskRun taskRun : runningTaskRunMap.values()) {
+            TaskRunStatus status = taskRun.getStatus();
+            synchronized (status) {
+                if (status.getMvRefreshBatchNum() > 0) {
+                    progress.put(status.getQueryId(),
+                            status.getMvRefreshFinishedBatchNum() + "/" + status.getMvRefreshBatchNum());
+                }
+            }
+        }
+        return progress;
     }
 
     public Map<Long, PriorityBlockingQueue<TaskRun>> getPendingTaskRunMap() {
@@ -48,6 +48,25 @@ public class TaskRunStatus implements Writable {
     @SerializedName("priority")
     private int priority = 0;
 
+    // refresh cost of materialized view TaskRun, see MvTaskRunProcessor
+    @SerializedName("mvRefreshMode")
+    private String mvRefreshMode;
+
+    // number of base table partitions read by the refresh
+    @SerializedName("mvScanPartitionNum")
+    private int mvScanPartitionNum;
+
+    // time spent executing the refresh statements
+    @SerializedName("mvRefreshCostMs")
+    private long mvRefreshCostMs;
+
+    // progress of a partition refresh which runs the stale mv partitions in batches
+    @SerializedName("mvRefreshBatchNum")
+    private int mvRefreshBatchNum;
+
+    @SerializedName("mvRefreshFinishedBatchNum")
+    private int mvRefreshFinishedBatchNum;
+
     public String getQueryId() {
         return queryId;
     }
@@ -136,6 +155,46 @@ public class TaskRunStatus implements Writable {
         this.priority = priority;
     }
 
+    public String getMvRefreshMode() {
+        return mvRefreshMode;
+    }
+
+    public void setMvRefreshMode(String mvRefreshMode) {
+        this.mvRefreshMode = mvRefreshMode;
+    }
+
+    public int getMvScanPartitionNum() {
+        return mvScanPartitionNum;
+    }
+
+    public void setMvScanPartitionNum(int mvScanPartitionNum) {
+        this.mvScanPartitionNum = mvScanPartitionNum;
+    }
+
+    public long getMvRefreshCostMs() {
+        return mvRefreshCostMs;
+    }
+
+    public void setMvRefreshCostMs(long mvRefreshCostMs) {
+        this.mvRefreshCostMs = mvRefreshCostMs;
+    }
+
+    public int getMvRefreshBatchNum() {
+        return mvRefreshBatchNum;
+    }
+
+    public void setMvRefreshBatchNum(int mvRefreshBatchNum) {
+        this.mvRefreshBatchNum = mvRefreshBatchNum;
+    }
+
+    public int getMvRefreshFinishedBatchNum() {
+        return mvRefreshFinishedBatchNum;
+    }
+
+    public void setMvRefreshFinishedBatchNum(int mvRefreshFinishedBatchNum) {
+        this.mvRefreshFinishedBatchNum = mvRefreshFinishedBatchNum;
+    }
+
     public static TaskRunStatus read(DataInput in) throws IOException {
         String json = Text.readString(in);
         return GsonUtils.GSON.fromJson(json, TaskRunStatus.class);
@@ -161,6 +220,11 @@ public class TaskRunStatus implements Writable {
                 ", errorMessage='" + errorMessage + '\'' +
                 ", expireTime=" + expireTime +
                 ", priority=" + priority +
+                ", mvRefreshMode='" + mvRefreshMode + '\'' +
+                ", mvScanPartitionNum=" + mvScanPartitionNum +
+                ", mvRefreshCostMs=" + mvRefreshCostMs +
+                ", mvRefreshBatchNum=" + mvRefreshBatchNum +
+                ", mvRefreshFinishedBatchNum=" + mvRefreshFinishedBatchNum +
                 '}';
     }
 }
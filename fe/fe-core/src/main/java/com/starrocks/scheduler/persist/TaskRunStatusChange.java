@@ -35,6 +35,14 @@ public class TaskRunStatusChange implements Writable {
     @SerializedName("errorMessage")
     private String errorMessage;
 
+    @SerializedName("mvRefreshMode")
+    private String mvRefreshMode;
+
+    @SerializedName("mvScanPartitionNum")
+    private int mvScanPartitionNum;
+
+    @SerializedName("mvRefreshCostMs")
+    private long mvRefreshCostMs;
 
     public TaskRunStatusChange(long taskId, TaskRunStatus status,
                                Constants.TaskRunState fromStatus,
@@ -48,6 +56,9 @@ public class TaskRunStatusChange implements Writable {
             errorCode = status.getErrorCode();
             errorMessage = status.getErrorMessage();
         }
+        this.mvRefreshMode = status.getMvRefreshMode();
+        this.mvScanPartitionNum = status.getMvScanPartitionNum();
+        this.mvRefreshCostMs = status.getMvRefreshCostMs();
     }
 
     public long getTaskId() {
@@ -106,6 +117,18 @@ public class TaskRunStatusChange implements Writable {
         this.finishTime = finishTime;
     }
 
+    public String getMvRefreshMode() {
+        return mvRefreshMode;
+    }
+
+    public int getMvScanPartitionNum() {
+        return mvScanPartitionNum;
+    }
+
+    public long getMvRefreshCostMs() {
+        return mvRefreshCostMs;
+    }
+
     public static TaskRunStatusChange read(DataInput in) throws IOException {
         String json = Text.readString(in);
         return GsonUtils.GSON.fromJson(json, TaskRunStatusChange.class);
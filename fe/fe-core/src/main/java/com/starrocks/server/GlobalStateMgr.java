@@ -174,6 +174,7 @@ import com.starrocks.load.routineload.RoutineLoadManager;
 import com.starrocks.load.routineload.RoutineLoadScheduler;
 import com.starrocks.load.routineload.RoutineLoadTaskScheduler;
 import com.starrocks.master.Checkpoint;
+import com.starrocks.master.MetaHelper;
 import com.starrocks.meta.MetaContext;
 import com.starrocks.metric.MetricRepo;
 import com.starrocks.mysql.privilege.Auth;
@@ -257,6 +258,8 @@ import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
 
 public class GlobalStateMgr {
     private static final Logger LOG = LogManager.getLogger(GlobalStateMgr.class);
@@ -1329,7 +1332,8 @@ public class GlobalStateMgr {
         Storage storage = new Storage(this.imageDir);
         File curFile = storage.getImageFile(replayedJournalId.get());
         File ckpt = new File(this.imageDir, Storage.IMAGE_NEW);
-        saveImage(ckpt, replayedJournalId.get());
+        long fileChecksum = saveImage(ckpt, replayedJournalId.get());
+        MetaHelper.writeImageChecksum(curFile, fileChecksum);
 
         // Move image.ckpt to image.dataVersion
         LOG.info("Move " + ckpt.getAbsolutePath() + " to " + curFile.getAbsolutePath());
@@ -1339,7 +1343,37 @@ public class GlobalStateMgr {
         }
     }
 
-    public void saveImage(File curFile, long replayedJournalId) throws IOException {
+    /**
+     * Save an image of the serving state, called on a follower or observer by the snapshot checkpoint of master.
+     * The metadata of a non-master node is only changed by replaying journal, and the replay is blocked by
+     * holding the lock of this object since replayJournal() is synchronized. So the state is consistent with the
+     * replayed journal id during saving, and there is no need to load another copy of the metadata like the
+     * checkpoint thread does.
+     * Return the journal id of the image.
+     */
+    public synchronized long saveSnapshotImage() throws IOException {
+        if (isMaster()) {
+            throw new IOException("snapshot image should not be saved on master");
+        }
+        Storage storage = new Storage(this.imageDir);
+        long journalId = replayedJournalId.get();
+        if (storage.getImageJournalId() >= journalId) {
+            return storage.getImageJournalId();
+        }
+
+        File curFile = storage.getImageFile(journalId);
+        File ckpt = new File(this.imageDir, Storage.IMAGE_NEW);
+        MetaHelper.writeImageChecksum(curFile, saveImage(ckpt, journalId));
+        if (!ckpt.renameTo(curFile)) {
+            curFile.delete();
+            throw new IOException("failed to rename " + ckpt.getAbsolutePath() + " to " + curFile.getAbsolutePath());
+        }
+        setImageJournalId(journalId);
+        return journalId;
+    }
+
+    // return the crc32 of the whole image file, which is served with the image, see MetaHelper.getRemoteImage()
+    public long saveImage(File curFile, long replayedJournalId) throws IOException {
         if (!curFile.exists()) {
             curFile.createNewFile();
         }
@@ -1349,7 +1383,9 @@ public class GlobalStateMgr {
 
         long checksum = 0;
         long saveImageStartTime = System.currentTimeMillis();
-        try (DataOutputStream dos = new DataOutputStream(new FileOutputStream(curFile))) {
+        CRC32 fileChecksum = new CRC32();
+        try (DataOutputStream dos = new DataOutputStream(
+                new CheckedOutputStream(new FileOutputStream(curFile), fileChecksum))) {
             checksum = saveHeader(dos, replayedJournalId, checksum);
             checksum = nodeMgr.saveMasterInfo(dos, checksum);
             checksum = nodeMgr.saveFrontends(dos, checksum);
@@ -1390,6 +1426,7 @@ public class GlobalStateMgr {
         long saveImageEndTime = System.currentTimeMillis();
         LOG.info("finished save image {} in {} ms. checksum is {}",
                 curFile.getAbsolutePath(), (saveImageEndTime - saveImageStartTime), checksum);
+        return fileChecksum.getValue();
     }
 
     public long saveHeader(DataOutputStream dos, long replayedJournalId, long checksum) throws IOException {
@@ -1690,33 +1727,38 @@ public class GlobalStateMgr {
 
         long startTime = System.currentTimeMillis();
         boolean hasLog = false;
-        while (true) {
-            JournalEntity entity = null;
-            try {
-                entity = cursor.next();
-            } catch (InterruptedException | JournalInconsistentException e) {
-                LOG.warn("got interrupt exception or inconsistent exception when get next, will exit, ", e);
-                // TODO exit gracefully
-                Util.stdoutWithTime(e.getMessage());
-                System.exit(-1);
-            }
+        try {
+            while (true) {
+                JournalEntity entity = null;
+                try {
+                    entity = cursor.next();
+                } catch (InterruptedException | JournalInconsistentException e) {
+                    LOG.warn("got interrupt exception or inconsistent exception when get next, will exit, ", e);
+                    // TODO exit gracefully
+                    Util.stdoutWithTime(e.getMessage());
+                    System.exit(-1);
+                }
 
-            // EOF or aggressive retry
-            if (entity == null) {
-                break;
-            }
+                // EOF or aggressive retry
+                if (entity == null) {
+                    break;
+                }
 
-            hasLog = true;
-            EditLog.loadJournal(this, entity);
-            replayedJournalId.incrementAndGet();
-            LOG.debug("journal {} replayed.", replayedJournalId);
-            if (feType != FrontendNodeType.MASTER) {
-                journalObservable.notifyObservers(replayedJournalId.get());
-            }
-            if (MetricRepo.isInit) {
-                // Metric repo may not init after this replay thread start
-                MetricRepo.COUNTER_EDIT_LOG_READ.increase(1L);
+                hasLog = true;
+                EditLog.loadJournal(this, entity);
+                replayedJournalId.incrementAndGet();
+                LOG.debug("journal {} replayed.", replayedJournalId);
+                if (feType != FrontendNodeType.MASTER) {
+                    journalObservable.notifyObservers(replayedJournalId.get());
+                }
+                if (MetricRepo.isInit) {
+                    // Metric repo may not init after this replay thread start
+                    MetricRepo.COUNTER_EDIT_LOG_READ.increase(1L);
+                }
             }
+        } finally {
+            // stop prefetching the journals which are not replayed
+            cursor.close();
         }
         long cost = System.currentTimeMillis() - startTime;
         if (cost >= 1000) {
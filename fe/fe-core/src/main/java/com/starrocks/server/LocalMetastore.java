@@ -166,6 +166,7 @@ import com.starrocks.task.AgentTask;
 import com.starrocks.task.AgentTaskExecutor;
 import com.starrocks.task.AgentTaskQueue;
 import com.starrocks.task.CreateReplicaTask;
+import com.starrocks.task.CreateReplicaTaskPipeline;
 import com.starrocks.task.DropReplicaTask;
 import com.starrocks.thrift.TStatusCode;
 import com.starrocks.thrift.TStorageFormat;
@@ -193,6 +194,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static com.starrocks.server.GlobalStateMgr.NEXT_ID_INIT_VALUE;
@@ -820,6 +822,10 @@ public class LocalMetastore implements ConnectorMetadata {
             List<SingleRangePartitionDesc> singleRangePartitionDescs = multiRangePartitionDesc
                     .convertToSingle(firstPartitionColumn.getType(), properties);
             addPartitions(db, tableName, singleRangePartitionDescs, addPartitionClause);
+        } else if (partitionDesc instanceof RangePartitionDesc) {
+            // partitions added in batch, e.g. by dynamic partition
+            addPartitions(db, tableName, ((RangePartitionDesc) partitionDesc).getSingleRangePartitionDescs(),
+                    addPartitionClause);
         }
     }
 
@@ -1297,9 +1303,9 @@ public class LocalMetastore implements ConnectorMetadata {
             numReplicas += partition.getReplicaCount();
         }
 
-        if (partitions.size() >= 3 && numAliveBackends >= 3 && numReplicas >= numAliveBackends * 500) {
+        if (partitions.size() > 1 && numAliveBackends > 0) {
             LOG.info("creating {} partitions of table {} concurrently", partitions.size(), table.getName());
-            buildPartitionsConcurrently(db.getId(), table, partitions, numReplicas, numAliveBackends);
+            buildPartitionsConcurrently(db.getId(), table, partitions);
         } else if (numAliveBackends > 0) {
             buildPartitionsSequentially(db.getId(), table, partitions, numReplicas, numAliveBackends);
         } else {
@@ -1342,63 +1348,18 @@ public class LocalMetastore implements ConnectorMetadata {
         }
     }
 
-    private void buildPartitionsConcurrently(long dbId, OlapTable table, List<Partition> partitions, int numReplicas,
-                                             int numBackends) throws DdlException {
-        int timeout = numReplicas / numBackends * Config.tablet_create_timeout_second;
+    // Send the tasks of all partitions to all backends by CreateReplicaTaskPipeline, so a backend does not wait for
+    // the other backends to finish a batch of tasks.
+    private void buildPartitionsConcurrently(long dbId, OlapTable table, List<Partition> partitions)
+            throws DdlException {
+        List<CreateReplicaTask> tasks = buildCreateReplicaTasks(dbId, table, partitions);
+        int timeout = Config.tablet_create_timeout_second * countMaxTasksPerBackend(tasks);
+        // Compatible with older versions, `Config.max_create_table_timeout_second` is the timeout time for a single index.
         int numIndexes = partitions.stream().mapToInt(Partition::getVisibleMaterializedIndicesCount).sum();
         int maxTimeout = numIndexes * Config.max_create_table_timeout_second;
-        MarkedCountDownLatch<Long, Long> countDownLatch = new MarkedCountDownLatch<>(numReplicas);
-        Thread t = new Thread(() -> {
-            Map<Long, List<Long>> taskSignatures = new HashMap<>();
-            try {
-                int numFinishedTasks;
-                int numSendedTasks = 0;
-                for (Partition partition : partitions) {
-                    if (!countDownLatch.getStatus().ok()) {
-                        break;
-                    }
-                    List<CreateReplicaTask> tasks = buildCreateReplicaTasks(dbId, table, partition);
-                    for (CreateReplicaTask task : tasks) {
-                        List<Long> signatures =
-                                taskSignatures.computeIfAbsent(task.getBackendId(), k -> new ArrayList<>());
-                        signatures.add(task.getSignature());
-                    }
-                    sendCreateReplicaTasks(tasks, countDownLatch);
-                    numSendedTasks += tasks.size();
-                    numFinishedTasks = numReplicas - (int) countDownLatch.getCount();
-                    // Since there is no mechanism to cancel tasks, if we send a lot of tasks at once and some error or timeout
-                    // occurs in the middle of the process, it will create a lot of useless replicas that will be deleted soon and
-                    // waste machine resources. Sending a lot of tasks at once may also block other users' tasks for a long time.
-                    // To avoid these situations, new tasks are sent only when the average number of tasks on each node is less
-                    // than 200.
-                    // (numSendedTasks - numFinishedTasks) is number of tasks that have been sent but not yet finished.
-                    while (numSendedTasks - numFinishedTasks > 200 * numBackends) {
-                        ThreadUtil.sleepAtLeastIgnoreInterrupts(100);
-                        numFinishedTasks = numReplicas - (int) countDownLatch.getCount();
-                    }
-                }
-                countDownLatch.await();
-                if (countDownLatch.getStatus().ok()) {
-                    taskSignatures.clear();
-                }
-            } catch (Exception e) {
-                LOG.warn(e);
-                countDownLatch.countDownToZero(new Status(TStatusCode.UNKNOWN, e.toString()));
-            } finally {
-                for (Map.Entry<Long, List<Long>> entry : taskSignatures.entrySet()) {
-                    for (Long signature : entry.getValue()) {
-                        AgentTaskQueue.removeTask(entry.getKey(), TTaskType.CREATE, signature);
-                    }
-                }
-            }
-        }, "partition-build");
-        t.start();
-        try {
-            waitForFinished(countDownLatch, Math.min(timeout, maxTimeout));
-        } catch (Exception e) {
-            countDownLatch.countDownToZero(new Status(TStatusCode.UNKNOWN, e.getMessage()));
-            throw e;
-        }
+        CreateReplicaTaskPipeline pipeline = new CreateReplicaTaskPipeline("table " + table.getName(), tasks,
+                Config.create_replica_max_in_flight_per_backend);
+        pipeline.run(Math.min(timeout, maxTimeout));
     }
 
     private List<CreateReplicaTask> buildCreateReplicaTasks(long dbId, OlapTable table, List<Partition> partitions)
@@ -2427,9 +2388,6 @@ public class LocalMetastore implements ConnectorMetadata {
         LOG.debug("replay add a replica {}", info);
         Database db = getDbIncludeRecycleBin(info.getDbId());
         OlapTable olapTable = (OlapTable) getTableIncludeRecycleBin(db, info.getTableId());
-        Partition partition = getPartitionIncludeRecycleBin(olapTable, info.getPartitionId());
-        MaterializedIndex materializedIndex = partition.getIndex(info.getIndexId());
-        LocalTablet tablet = (LocalTablet) materializedIndex.getTablet(info.getTabletId());
 
         // for compatibility
         int schemaHash = info.getSchemaHash();
@@ -2442,20 +2400,33 @@ public class LocalMetastore implements ConnectorMetadata {
                 Replica.ReplicaState.NORMAL,
                 info.getLastFailedVersion(),
                 info.getLastSuccessVersion());
-        tablet.addReplica(replica);
+        replayUpdateTablet(olapTable, info, tablet -> tablet.addReplica(replica));
     }
 
     private void unprotectUpdateReplica(ReplicaPersistInfo info) {
         LOG.debug("replay update a replica {}", info);
         Database db = getDbIncludeRecycleBin(info.getDbId());
         OlapTable olapTable = (OlapTable) getTableIncludeRecycleBin(db, info.getTableId());
-        Partition partition = getPartitionIncludeRecycleBin(olapTable, info.getPartitionId());
-        MaterializedIndex materializedIndex = partition.getIndex(info.getIndexId());
-        LocalTablet tablet = (LocalTablet) materializedIndex.getTablet(info.getTabletId());
-        Replica replica = tablet.getReplicaByBackendId(info.getBackendId());
-        Preconditions.checkNotNull(replica, info);
-        replica.updateRowCount(info.getVersion(), info.getDataSize(), info.getRowCount());
-        replica.setBad(false);
+        replayUpdateTablet(olapTable, info, tablet -> {
+            Replica replica = tablet.getReplicaByBackendId(info.getBackendId());
+            Preconditions.checkNotNull(replica, info);
+            replica.updateRowCount(info.getVersion(), info.getDataSize(), info.getRowCount());
+            replica.setBad(false);
+        });
+    }
+
+    // the partition in recycle bin may be compacted, apply the change by recycle bin in that case
+    private void replayUpdateTablet(OlapTable olapTable, ReplicaPersistInfo info, Consumer<LocalTablet> updater) {
+        Consumer<Partition> partitionUpdater = partition -> {
+            MaterializedIndex materializedIndex = partition.getIndex(info.getIndexId());
+            updater.accept((LocalTablet) materializedIndex.getTablet(info.getTabletId()));
+        };
+        Partition partition = olapTable.getPartition(info.getPartitionId());
+        if (partition != null) {
+            partitionUpdater.accept(partition);
+        } else if (!recycleBin.replayUpdatePartition(info.getPartitionId(), partitionUpdater)) {
+            LOG.warn("partition {} does not exist, skip replaying replica {}", info.getPartitionId(), info);
+        }
     }
 
     public void replayAddReplica(ReplicaPersistInfo info) {
@@ -2481,10 +2452,7 @@ public class LocalMetastore implements ConnectorMetadata {
     public void unprotectDeleteReplica(ReplicaPersistInfo info) {
         Database db = getDbIncludeRecycleBin(info.getDbId());
         OlapTable olapTable = (OlapTable) getTableIncludeRecycleBin(db, info.getTableId());
-        Partition partition = getPartitionIncludeRecycleBin(olapTable, info.getPartitionId());
-        MaterializedIndex materializedIndex = partition.getIndex(info.getIndexId());
-        LocalTablet tablet = (LocalTablet) materializedIndex.getTablet(info.getTabletId());
-        tablet.deleteReplicaByBackendId(info.getBackendId());
+        replayUpdateTablet(olapTable, info, tablet -> tablet.deleteReplicaByBackendId(info.getBackendId()));
     }
 
     public void replayDeleteReplica(ReplicaPersistInfo info) {
@@ -3233,6 +3201,7 @@ public class LocalMetastore implements ConnectorMetadata {
         boolean isInMemory = partitionInfo.getIsInMemory(partition.getId());
         DataProperty newDataProperty = partitionInfo.getDataProperty(partition.getId());
         partitionInfo.setReplicationNum(partition.getId(), replicationNum);
+        GlobalStateMgr.getCurrentState().getTabletChecker().markPartitionDirty(partition);
 
         // update table default replication num
         table.setReplicationNum(replicationNum);
@@ -4063,6 +4032,7 @@ public class LocalMetastore implements ConnectorMetadata {
                         SetReplicaStatusOperationLog log =
                                 new SetReplicaStatusOperationLog(backendId, tabletId, status);
                         editLog.logSetReplicaStatus(log);
+                        stateMgr.getTabletChecker().markTabletDirty(tabletId);
                     }
                     LOG.info("set replica {} of tablet {} on backend {} as {}. is replay: {}",
                             replica.getId(), tabletId, backendId, status, isReplay);
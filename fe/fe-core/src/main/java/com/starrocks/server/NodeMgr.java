@@ -640,8 +640,7 @@ public class NodeMgr {
             LOG.info("start to download image.{} from {}", version, url);
             String filename = Storage.IMAGE + "." + version;
             File dir = new File(this.imageDir);
-            MetaHelper.getRemoteFile(url, HTTP_TIMEOUT_SECOND * 1000, MetaHelper.getOutputStream(filename, dir));
-            MetaHelper.complete(filename, dir);
+            MetaHelper.getRemoteImage(url, HTTP_TIMEOUT_SECOND * 1000, filename, dir);
         } else {
             LOG.info("skip download image, current version {} >= version {} from {}", localImageVersion, version, helperNode);
         }
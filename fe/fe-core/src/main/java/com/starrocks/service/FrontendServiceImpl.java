@@ -53,6 +53,7 @@ import com.starrocks.common.ThriftServerContext;
 import com.starrocks.common.ThriftServerEventProcessor;
 import com.starrocks.common.UserException;
 import com.starrocks.common.util.DebugUtil;
+import com.starrocks.load.StreamLoadRouter;
 import com.starrocks.load.loadv2.ManualLoadTxnCommitAttachment;
 import com.starrocks.load.routineload.RLTaskTxnCommitAttachment;
 import com.starrocks.master.MasterImpl;
@@ -476,6 +477,7 @@ public class FrontendServiceImpl implements FrontendService.Iface {
         GlobalStateMgr globalStateMgr = GlobalStateMgr.getCurrentState();
         TaskManager taskManager = globalStateMgr.getTaskManager();
         List<TaskRunStatus> taskRunList = taskManager.showTaskRunStatus(null);
+        Map<String, String> runningProgress = taskManager.getTaskRunManager().getRunningTaskRunProgress();
 
         for (TaskRunStatus status : taskRunList) {
 
@@ -494,6 +496,10 @@ public class FrontendServiceImpl implements FrontendService.Iface {
             info.setError_code(status.getErrorCode());
             info.setError_message(status.getErrorMessage());
             info.setExpire_time(status.getExpireTime() / 1000);
+            String progress = runningProgress.get(status.getQueryId());
+            if (progress != null) {
+                info.setProgress(progress);
+            }
             tasksResult.add(info);
         }
         return result;
@@ -1008,6 +1014,9 @@ public class FrontendServiceImpl implements FrontendService.Iface {
         }
         // if commit and publish is success, load can be regarded as success
         MetricRepo.COUNTER_LOAD_FINISHED.increase(1L);
+        StreamLoadRouter.getInstance().updateLoadLatency(
+                GlobalStateMgr.getCurrentGlobalTransactionMgr().getTransactionState(db.getId(), request.getTxnId()),
+                request.isSetBackend_id() ? request.getBackend_id() : -1L);
         if (null == attachment) {
             return ret;
         }
@@ -73,16 +73,22 @@ public class PlannerProfile {
         return timers.computeIfAbsent(name, (key) -> new ScopedTimer());
     }
 
-    private static final PlannerProfile DEFAULT_INSTANCE = new PlannerProfile();
+    // total time of the timer in ms, or -1 if the timer has never been started
+    public long getTotalTime(String name) {
+        ScopedTimer timer = timers.get(name);
+        return timer == null ? -1 : timer.getTotalTime();
+    }
 
     public static ScopedTimer getScopedTimer(String name) {
-        // to avoid null.
-        PlannerProfile p = DEFAULT_INSTANCE;
         ConnectContext ctx = ConnectContext.get();
+        ScopedTimer t;
         if (ctx != null) {
-            p = ctx.getPlannerProfile();
+            t = ctx.getPlannerProfile().getOrCreateScopedTimer(name);
+        } else {
+            // not timed, there is no profile to record it, and a timer shared by the threads
+            // without context would be started concurrently
+            t = new ScopedTimer();
         }
-        ScopedTimer t = p.getOrCreateScopedTimer(name);
         t.start();
         return t;
     }
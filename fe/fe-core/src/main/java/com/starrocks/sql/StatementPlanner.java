@@ -13,6 +13,7 @@ import com.starrocks.common.AnalysisException;
 import com.starrocks.planner.PlanFragment;
 import com.starrocks.planner.ResultSink;
 import com.starrocks.qe.ConnectContext;
+import com.starrocks.qe.QueryPhaseStats;
 import com.starrocks.sql.analyzer.Analyzer;
 import com.starrocks.sql.analyzer.AnalyzerUtils;
 import com.starrocks.sql.analyzer.PrivilegeChecker;
@@ -40,8 +41,10 @@ public class StatementPlanner {
         if (stmt instanceof QueryStatement) {
             OptimizerTraceUtil.logQueryStatement(session, "after parse:\n%s", (QueryStatement) stmt);
         }
-        Analyzer.analyze(stmt, session);
-        PrivilegeChecker.check(stmt, session);
+        try (PlannerProfile.ScopedTimer _ = PlannerProfile.getScopedTimer(QueryPhaseStats.ANALYZER)) {
+            Analyzer.analyze(stmt, session);
+            PrivilegeChecker.check(stmt, session);
+        }
         if (stmt instanceof QueryStatement) {
             OptimizerTraceUtil.logQueryStatement(session, "after analyze:\n%s", (QueryStatement) stmt);
         }
@@ -82,7 +85,10 @@ public class StatementPlanner {
 
         //1. Build Logical plan
         ColumnRefFactory columnRefFactory = new ColumnRefFactory();
-        LogicalPlan logicalPlan = new RelationTransformer(columnRefFactory, session).transformWithSelectLimit(query);
+        LogicalPlan logicalPlan;
+        try (PlannerProfile.ScopedTimer _ = PlannerProfile.getScopedTimer("Transformer")) {
+            logicalPlan = new RelationTransformer(columnRefFactory, session).transformWithSelectLimit(query);
+        }
 
         //2. Optimize logical plan and build physical plan
         Optimizer optimizer = new Optimizer();
@@ -99,12 +105,14 @@ public class StatementPlanner {
          * currently only used in Spark/Flink Connector
          * Because the connector sends only simple queries, it only needs to remove the output fragment
          */
-        if (session.getSessionVariable().isSingleNodeExecPlan()) {
-            return new PlanFragmentBuilder().createPhysicalPlanWithoutOutputFragment(
-                    optimizedPlan, session, logicalPlan.getOutputColumn(), columnRefFactory, colNames);
-        } else {
-            return new PlanFragmentBuilder().createPhysicalPlan(
-                    optimizedPlan, session, logicalPlan.getOutputColumn(), columnRefFactory, colNames);
+        try (PlannerProfile.ScopedTimer _ = PlannerProfile.getScopedTimer(QueryPhaseStats.PLAN_BUILDER)) {
+            if (session.getSessionVariable().isSingleNodeExecPlan()) {
+                return new PlanFragmentBuilder().createPhysicalPlanWithoutOutputFragment(
+                        optimizedPlan, session, logicalPlan.getOutputColumn(), columnRefFactory, colNames);
+            } else {
+                return new PlanFragmentBuilder().createPhysicalPlan(
+                        optimizedPlan, session, logicalPlan.getOutputColumn(), columnRefFactory, colNames);
+            }
         }
     }
 
@@ -4,8 +4,10 @@ package com.starrocks.sql.optimizer;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
 import com.starrocks.qe.ConnectContext;
+import com.starrocks.qe.QueryPhaseStats;
 import com.starrocks.qe.SessionVariable;
 import com.starrocks.sql.Explain;
+import com.starrocks.sql.PlannerProfile;
 import com.starrocks.sql.optimizer.base.ColumnRefFactory;
 import com.starrocks.sql.optimizer.base.ColumnRefSet;
 import com.starrocks.sql.optimizer.base.PhysicalPropertySet;
@@ -71,6 +73,17 @@ public class Optimizer {
                                   PhysicalPropertySet requiredProperty,
                                   ColumnRefSet requiredColumns,
                                   ColumnRefFactory columnRefFactory) {
+        try (PlannerProfile.ScopedTimer _ = PlannerProfile.getScopedTimer(QueryPhaseStats.OPTIMIZER)) {
+            return optimizeImpl(connectContext, logicOperatorTree, requiredProperty, requiredColumns,
+                    columnRefFactory);
+        }
+    }
+
+    private OptExpression optimizeImpl(ConnectContext connectContext,
+                                       OptExpression logicOperatorTree,
+                                       PhysicalPropertySet requiredProperty,
+                                       ColumnRefSet requiredColumns,
+                                       ColumnRefFactory columnRefFactory) {
         // Phase 1: none
         OptimizerTraceUtil.logOptExpression(connectContext, "origin logicOperatorTree:\n%s", logicOperatorTree);
         // Phase 2: rewrite based on memo and group
@@ -86,7 +99,9 @@ public class Optimizer {
         // Note: root group of memo maybe change after rewrite,
         // so we should always get root group and root group expression
         // directly from memo.
-        logicalRuleRewrite(memo, rootTaskContext);
+        try (PlannerProfile.ScopedTimer _ = PlannerProfile.getScopedTimer("Optimizer.RuleBaseOptimize")) {
+            logicalRuleRewrite(memo, rootTaskContext);
+        }
         OptimizerTraceUtil.log(connectContext, "after logical rewrite, root group:\n%s", memo.getRootGroup());
 
         // collect all olap scan operator
@@ -101,15 +116,17 @@ public class Optimizer {
         memo.deriveAllGroupLogicalProperty();
 
         // Phase 3: optimize based on memo and group
-        memoOptimize(connectContext, memo, rootTaskContext);
-
         OptExpression result;
-        if (!connectContext.getSessionVariable().isSetUseNthExecPlan()) {
-            result = extractBestPlan(requiredProperty, memo.getRootGroup());
-        } else {
-            // extract the nth execution plan
-            int nthExecPlan = connectContext.getSessionVariable().getUseNthExecPlan();
-            result = EnumeratePlan.extractNthPlan(requiredProperty, memo.getRootGroup(), nthExecPlan);
+        try (PlannerProfile.ScopedTimer _ = PlannerProfile.getScopedTimer("Optimizer.CostBaseOptimize")) {
+            memoOptimize(connectContext, memo, rootTaskContext);
+
+            if (!connectContext.getSessionVariable().isSetUseNthExecPlan()) {
+                result = extractBestPlan(requiredProperty, memo.getRootGroup());
+            } else {
+                // extract the nth execution plan
+                int nthExecPlan = connectContext.getSessionVariable().getUseNthExecPlan();
+                result = EnumeratePlan.extractNthPlan(requiredProperty, memo.getRootGroup(), nthExecPlan);
+            }
         }
         OptimizerTraceUtil.logOptExpression(connectContext, "after extract best plan:\n%s", result);
 
@@ -120,7 +137,10 @@ public class Optimizer {
         connectContext.getAuditEventBuilder().setPlanCpuCosts(costs.getCpuCost())
                 .setPlanMemCosts(costs.getMemoryCost());
 
-        OptExpression finalPlan = physicalRuleRewrite(rootTaskContext, result);
+        OptExpression finalPlan;
+        try (PlannerProfile.ScopedTimer _ = PlannerProfile.getScopedTimer("Optimizer.PhysicalRewrite")) {
+            finalPlan = physicalRuleRewrite(rootTaskContext, result);
+        }
         OptimizerTraceUtil.logOptExpression(connectContext, "final plan after physical rewrite:\n%s", finalPlan);
         OptimizerTraceUtil.log(connectContext, context.getTraceInfo());
         return finalPlan;
@@ -4,6 +4,7 @@ package com.starrocks.sql.optimizer.rewrite;
 
 import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
@@ -21,11 +22,15 @@ import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -90,6 +95,26 @@ public enum ScalarOperatorEvaluator {
      * @return ConstantOperator if the CallOperator is effect (All child constant/FE builtin function support/....)
      */
     public ScalarOperator evaluation(CallOperator root) {
+        return evaluation(root, null);
+    }
+
+    /**
+     * evaluation a batch of fe built-in functions, e.g. the date functions over all the literals of
+     * a big IN list. The invoker of a function shared by several CallOperators is only looked up once.
+     *
+     * @param roots CallOperators to evaluate
+     * @return for each CallOperator, the ConstantOperator result if it can be evaluated, otherwise itself
+     */
+    public List<ScalarOperator> evaluation(List<CallOperator> roots) {
+        Map<Function, FunctionInvoker> invokerCache = new IdentityHashMap<>();
+        List<ScalarOperator> results = new ArrayList<>(roots.size());
+        for (CallOperator root : roots) {
+            results.add(evaluation(root, invokerCache));
+        }
+        return results;
+    }
+
+    private ScalarOperator evaluation(CallOperator root, Map<Function, FunctionInvoker> invokerCache) {
         for (ScalarOperator child : root.getChildren()) {
             if (!OperatorType.CONSTANT.equals(child.getOpType())) {
                 return root;
@@ -124,17 +149,19 @@ public enum ScalarOperatorEvaluator {
             }
         }
 
-        List<Type> argTypes = new ArrayList<>(Arrays.asList(fn.getArgs()));
-
-        FunctionSignature signature =
-                new FunctionSignature(fn.functionName().toUpperCase(), argTypes, fn.getReturnType());
-
-        if (!functions.containsKey(signature)) {
+        FunctionInvoker invoker;
+        if (invokerCache == null) {
+            invoker = lookupInvoker(fn);
+        } else if (invokerCache.containsKey(fn)) {
+            invoker = invokerCache.get(fn);
+        } else {
+            invoker = lookupInvoker(fn);
+            invokerCache.put(fn, invoker);
+        }
+        if (invoker == null) {
             return root;
         }
 
-        FunctionInvoker invoker = functions.get(signature);
-
         try {
             ConstantOperator operator = invoker.invoke(root.getChildren());
 
@@ -153,13 +180,32 @@ public enum ScalarOperatorEvaluator {
         return root;
     }
 
+    private FunctionInvoker lookupInvoker(Function fn) {
+        List<Type> argTypes = Arrays.asList(fn.getArgs());
+        FunctionSignature signature =
+                new FunctionSignature(fn.functionName().toUpperCase(), argTypes, fn.getReturnType());
+        return functions.get(signature);
+    }
+
     private static class FunctionInvoker {
         private final Method method;
         private final FunctionSignature signature;
+        private final Class<?>[] parameterTypes;
+        // the static method adapted to (Object[])ConstantOperator, invoking it is much cheaper than
+        // the reflective Method.invoke which checks access and boxes the arguments on every call
+        private final MethodHandle methodHandle;
 
         public FunctionInvoker(Method method, FunctionSignature signature) {
             this.method = method;
             this.signature = signature;
+            this.parameterTypes = method.getParameterTypes();
+            try {
+                this.methodHandle = MethodHandles.lookup().unreflect(method)
+                        .asSpreader(Object[].class, parameterTypes.length)
+                        .asType(MethodType.methodType(ConstantOperator.class, Object[].class));
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("failed to access fe function " + method.getName(), e);
+            }
         }
 
         public Method getMethod() {
@@ -172,21 +218,25 @@ public enum ScalarOperatorEvaluator {
 
         // Function doesn't support array type
         public ConstantOperator invoke(List<ScalarOperator> args) throws AnalysisException {
-            final List<Object> invokeArgs = createInvokeArgs(args);
+            final Object[] invokeArgs = createInvokeArgs(args);
             try {
-                return (ConstantOperator) method.invoke(null, invokeArgs.toArray());
-            } catch (InvocationTargetException | IllegalAccessException | IllegalArgumentException e) {
+                return (ConstantOperator) methodHandle.invokeExact(invokeArgs);
+            } catch (Exception e) {
                 throw new AnalysisException(e.getLocalizedMessage());
+            } catch (Throwable e) {
+                // invokeExact declares Throwable, errors are not evaluation failures and are not hidden
+                Throwables.throwIfUnchecked(e);
+                throw new IllegalStateException(e);
             }
         }
 
-        private List<Object> createInvokeArgs(List<ScalarOperator> args) throws AnalysisException {
-            final List<Object> invokeArgs = Lists.newArrayList();
-            for (int index = 0; index < method.getParameterTypes().length; index++) {
-                final Class<?> argType = method.getParameterTypes()[index];
+        private Object[] createInvokeArgs(List<ScalarOperator> args) throws AnalysisException {
+            final Object[] invokeArgs = new Object[parameterTypes.length];
+            for (int index = 0; index < parameterTypes.length; index++) {
+                final Class<?> argType = parameterTypes[index];
 
                 if (argType.isArray()) {
-                    Preconditions.checkArgument(method.getParameterTypes().length == index + 1);
+                    Preconditions.checkArgument(parameterTypes.length == index + 1);
                     final List<ConstantOperator> variableArgs = Lists.newArrayList();
                     Set<Type> checkSet = Sets.newHashSet();
 
@@ -203,9 +253,12 @@ public enum ScalarOperatorEvaluator {
 
                     ConstantOperator[] argsArray = new ConstantOperator[variableArgs.size()];
                     argsArray = variableArgs.toArray(argsArray);
-                    invokeArgs.add(argsArray);
+                    invokeArgs[index] = argsArray;
                 } else {
-                    invokeArgs.add(args.get(index));
+                    if (index >= args.size()) {
+                        throw new AnalysisException("Function's args does't match.");
+                    }
+                    invokeArgs[index] = args.get(index);
                 }
             }
             return invokeArgs;
@@ -217,11 +270,16 @@ public enum ScalarOperatorEvaluator {
         private final String name;
         private final List<Type> argTypes;
         private final Type returnType;
+        // computed once, equals and hashCode run for every evaluated CallOperator
+        private final List<PrimitiveType> argPrimitiveTypes;
+        private final int hashCode;
 
         public FunctionSignature(String name, List<Type> argTypes, Type returnType) {
             this.name = name;
             this.argTypes = argTypes;
             this.returnType = returnType;
+            this.argPrimitiveTypes = argTypes.stream().map(Type::getPrimitiveType).collect(Collectors.toList());
+            this.hashCode = Objects.hash(name, argPrimitiveTypes, returnType.getPrimitiveType());
         }
 
         public List<Type> getArgTypes() {
@@ -254,20 +312,15 @@ public enum ScalarOperatorEvaluator {
 
             ScalarOperatorEvaluator.FunctionSignature signature = (ScalarOperatorEvaluator.FunctionSignature) o;
 
-            List<PrimitiveType> primitiveTypes =
-                    argTypes.stream().map(Type::getPrimitiveType).collect(Collectors.toList());
-            List<PrimitiveType> sigPrimitiveTypes =
-                    signature.argTypes.stream().map(Type::getPrimitiveType).collect(Collectors.toList());
-            return Objects.equals(name, signature.name) &&
-                    primitiveTypes.equals(sigPrimitiveTypes) &&
+            return hashCode == signature.hashCode &&
+                    Objects.equals(name, signature.name) &&
+                    argPrimitiveTypes.equals(signature.argPrimitiveTypes) &&
                     returnType.matchesType(signature.returnType);
         }
 
         @Override
         public int hashCode() {
-            List<PrimitiveType> primitiveTypes =
-                    argTypes.stream().map(Type::getPrimitiveType).collect(Collectors.toList());
-            return Objects.hash(name, primitiveTypes, returnType.getPrimitiveType());
+            return hashCode;
         }
     }
 }
@@ -10,4 +10,10 @@ public interface ScalarOperatorRewriteRule {
     boolean isTopDown();
 
     ScalarOperator apply(ScalarOperator root, ScalarOperatorRewriteContext context);
+
+    // Called by the bottom up rewriter before the children of root are rewritten one by one, so that the rule can
+    // rewrite them in one batch. Return true if any child is rewritten.
+    default boolean applyToChildren(ScalarOperator root, ScalarOperatorRewriteContext context) {
+        return false;
+    }
 }
@@ -98,6 +98,9 @@ public class ScalarOperatorRewriter {
     }
 
     private ScalarOperator applyRuleBottomUp(ScalarOperator operator, ScalarOperatorRewriteRule rule) {
+        if (rule.applyToChildren(operator, context)) {
+            context.change();
+        }
         for (int i = 0; i < operator.getChildren().size(); i++) {
             operator.setChild(i, applyRuleBottomUp(operator.getChild(i), rule));
         }
@@ -5,6 +5,7 @@ package com.starrocks.sql.optimizer.rewrite.scalar;
 import com.starrocks.catalog.Type;
 import com.starrocks.sql.optimizer.operator.scalar.BinaryPredicateOperator;
 import com.starrocks.sql.optimizer.operator.scalar.CallOperator;
+import com.starrocks.sql.optimizer.operator.scalar.CaseWhenOperator;
 import com.starrocks.sql.optimizer.operator.scalar.CastOperator;
 import com.starrocks.sql.optimizer.operator.scalar.ConstantOperator;
 import com.starrocks.sql.optimizer.operator.scalar.InPredicateOperator;
@@ -16,11 +17,49 @@ import com.starrocks.sql.optimizer.rewrite.ScalarOperatorRewriteContext;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class FoldConstantsRule extends BottomUpScalarOperatorRewriteRule {
     private static final Logger LOG = LogManager.getLogger(FoldConstantsRule.class);
 
+    // Fold the constant calls in the IN list in one batch, e.g. str_to_date over all the literals of a generated
+    // date list, so that the invoker of the function is looked up once instead of once per literal.
+    @Override
+    public boolean applyToChildren(ScalarOperator root, ScalarOperatorRewriteContext context) {
+        if (!(root instanceof InPredicateOperator)) {
+            return false;
+        }
+        List<Integer> indexes = new ArrayList<>();
+        List<CallOperator> calls = new ArrayList<>();
+        for (int i = 1; i < root.getChildren().size(); i++) {
+            ScalarOperator child = root.getChild(i);
+            // cast and case when are CallOperators too, but they are not fe built-in functions
+            if (!(child instanceof CallOperator) || child instanceof CastOperator
+                    || child instanceof CaseWhenOperator) {
+                continue;
+            }
+            CallOperator call = (CallOperator) child;
+            if (!call.isAggregate() && !notAllConstant(call.getChildren())) {
+                indexes.add(i);
+                calls.add(call);
+            }
+        }
+        if (calls.size() < 2) {
+            return false;
+        }
+
+        List<ScalarOperator> results = ScalarOperatorEvaluator.INSTANCE.evaluation(calls);
+        boolean changed = false;
+        for (int i = 0; i < calls.size(); i++) {
+            if (results.get(i) != calls.get(i)) {
+                root.setChild(indexes.get(i), results.get(i));
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
     @Override
     public ScalarOperator visitCall(CallOperator call, ScalarOperatorRewriteContext context) {
         if (call.isAggregate() || notAllConstant(call.getChildren())) {
@@ -0,0 +1,262 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+package com.starrocks.sql.optimizer.rule.join;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import com.starrocks.sql.optimizer.OptExpression;
+import com.starrocks.sql.optimizer.OptimizerContext;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reorder multi join node by dynamic programming over connected subgraphs.
+ * This implementation refer to "Analysis of Two Existing and One New Dynamic Programming Algorithm
+ * for the Generation of Optimal Bushy Join Trees without Cross Products" (DPccp).
+ * <p>
+ * Unlike {@link JoinReorderDP} which tries every partition of every subset, only the pairs of
+ * disjoint connected subgraphs linked by a join predicate (csg-cmp pairs) are visited, so the
+ * search space of chain and snowflake joins stays polynomial and wider joins can be reordered.
+ * Cross joins are never generated, if the join graph is not connected there is no result and
+ * the plans of the other reorder algorithms are used.
+ * A predicate over more than two atoms (a hyperedge) only connects two sub plans when all of
+ * its atoms are on the two sides.
+ * The enumeration is bounded by a time budget, when it is exceeded there is no result either.
+ */
+public class JoinReorderDPccp extends JoinOrder {
+    private static final Logger LOG = LogManager.getLogger(JoinReorderDPccp.class);
+
+    // the atoms are identified by the bits of a long
+    public static final int MAX_ATOM_SIZE = 63;
+    private static final int MAX_CCP_PAIRS = 1000000;
+
+    private final long timeoutMs;
+    private long deadline;
+    private boolean timeout = false;
+
+    // adjacent atoms of each atom, derived from the atoms referenced by the join predicates
+    private long[] neighbors;
+    // the atoms referenced by each join predicate
+    private long[] edgeMasks;
+    // csg-cmp pairs, emitted as {csg, cmp}
+    private final List<long[]> ccpPairs = Lists.newArrayList();
+    private final Map<Long, GroupInfo> bestPlanMemo = new HashMap<>();
+
+    public JoinReorderDPccp(OptimizerContext context, long timeoutMs) {
+        super(context);
+        this.timeoutMs = timeoutMs;
+    }
+
+    @Override
+    protected void enumerate() {
+        Preconditions.checkState(atomSize <= MAX_ATOM_SIZE);
+        deadline = System.currentTimeMillis() + timeoutMs;
+
+        List<GroupInfo> atoms = joinLevels.get(1).groups;
+        for (int i = 0; i < atomSize; i++) {
+            bestPlanMemo.put(1L << i, atoms.get(i));
+        }
+        buildNeighbors();
+
+        // 1. enumerate all the csg-cmp pairs
+        enumerateCsg();
+        if (timeout) {
+            return;
+        }
+
+        // 2. the sub plans of a pair are always smaller than the pair,
+        // so build plans from the smallest pairs to make sure the sub plans exist
+        ccpPairs.sort(Comparator.comparingInt(pair -> Long.bitCount(pair[0] | pair[1])));
+        for (long[] pair : ccpPairs) {
+            if (checkTimeout()) {
+                return;
+            }
+            joinPair(pair[0], pair[1]);
+        }
+    }
+
+    @Override
+    public List<OptExpression> getResult() {
+        if (timeout) {
+            LOG.debug("join reorder by dpccp exceeds {}ms with {} atoms, fall back to other algorithms",
+                    timeoutMs, atomSize);
+            return Collections.emptyList();
+        }
+        GroupInfo root = bestPlanMemo.get(fullMask());
+        if (root == null || root.bestExprInfo == null) {
+            return Collections.emptyList();
+        }
+        return Lists.newArrayList(root.bestExprInfo.expr);
+    }
+
+    public boolean isTimeout() {
+        return timeout;
+    }
+
+    private long fullMask() {
+        return (1L << atomSize) - 1;
+    }
+
+    private void buildNeighbors() {
+        neighbors = new long[atomSize];
+        edgeMasks = new long[edges.size()];
+        for (int i = 0; i < edges.size(); i++) {
+            long edgeMask = toMask(edges.get(i).vertexes);
+            edgeMasks[i] = edgeMask;
+            if (Long.bitCount(edgeMask) < 2) {
+                continue;
+            }
+            // a hyperedge links its atoms pairwise here, so the enumerated pairs are a superset of
+            // the connected ones, joinPair skips the pairs it does not connect
+            for (int v = 0; v < atomSize; v++) {
+                if ((edgeMask & (1L << v)) != 0) {
+                    neighbors[v] |= edgeMask & ~(1L << v);
+                }
+            }
+        }
+    }
+
+    private long neighborhood(long set, long excluded) {
+        long result = 0;
+        long rest = set;
+        while (rest != 0) {
+            int v = Long.numberOfTrailingZeros(rest);
+            rest &= rest - 1;
+            result |= neighbors[v];
+        }
+        return result & ~set & ~excluded;
+    }
+
+    // atoms with index <= i
+    private static long lowerOrEqual(int i) {
+        return i == 63 ? -1L : (1L << (i + 1)) - 1;
+    }
+
+    private void enumerateCsg() {
+        for (int i = atomSize - 1; i >= 0; i--) {
+            long start = 1L << i;
+            emitCsg(start);
+            enumerateCsgRec(start, lowerOrEqual(i));
+            if (timeout) {
+                return;
+            }
+        }
+    }
+
+    // the order of the emitted pairs does not matter because they are sorted before building plans,
+    // so the subsets of the neighborhood are visited in the cheapest order
+    private void enumerateCsgRec(long set, long excluded) {
+        long neighborhood = neighborhood(set, excluded);
+        if (neighborhood == 0 || checkTimeout()) {
+            return;
+        }
+        for (long subset = neighborhood; subset != 0; subset = (subset - 1) & neighborhood) {
+            emitCsg(set | subset);
+        }
+        for (long subset = neighborhood; subset != 0; subset = (subset - 1) & neighborhood) {
+            enumerateCsgRec(set | subset, excluded | neighborhood);
+        }
+    }
+
+    private void emitCsg(long csg) {
+        int min = Long.numberOfTrailingZeros(csg);
+        long excluded = lowerOrEqual(min) | csg;
+        long neighborhood = neighborhood(csg, excluded);
+        long rest = neighborhood;
+        // visit the neighbors from the largest index
+        while (rest != 0 && !timeout) {
+            int v = 63 - Long.numberOfLeadingZeros(rest);
+            rest &= ~(1L << v);
+            long cmp = 1L << v;
+            emitCcp(csg, cmp);
+            enumerateCmpRec(csg, cmp, excluded | (lowerOrEqual(v) & neighborhood));
+        }
+    }
+
+    // every complement contains a neighbor of the csg, so it is always adjacent to the csg
+    private void enumerateCmpRec(long csg, long cmp, long excluded) {
+        long neighborhood = neighborhood(cmp, excluded);
+        if (neighborhood == 0 || checkTimeout()) {
+            return;
+        }
+        for (long subset = neighborhood; subset != 0; subset = (subset - 1) & neighborhood) {
+            emitCcp(csg, cmp | subset);
+        }
+        for (long subset = neighborhood; subset != 0; subset = (subset - 1) & neighborhood) {
+            enumerateCmpRec(csg, cmp | subset, excluded | neighborhood);
+        }
+    }
+
+    private void emitCcp(long csg, long cmp) {
+        if (ccpPairs.size() >= MAX_CCP_PAIRS) {
+            // building the plans of so many pairs would never finish in time
+            timeout = true;
+            return;
+        }
+        ccpPairs.add(new long[] {csg, cmp});
+    }
+
+    // whether a join predicate references both sides and no other atoms
+    private boolean isConnected(long left, long right) {
+        long joinMask = left | right;
+        for (long edgeMask : edgeMasks) {
+            if ((edgeMask & ~joinMask) == 0 && (edgeMask & left) != 0 && (edgeMask & right) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void joinPair(long left, long right) {
+        GroupInfo leftGroup = bestPlanMemo.get(left);
+        GroupInfo rightGroup = bestPlanMemo.get(right);
+        // a side without plan is only connected through a hyperedge of atoms outside of it
+        if (leftGroup == null || rightGroup == null || !isConnected(left, right)) {
+            return;
+        }
+
+        long joinMask = left | right;
+        GroupInfo joinGroup = bestPlanMemo.get(joinMask);
+        // the cost of a join is never lower than the cost of its children
+        if (joinGroup != null &&
+                leftGroup.bestExprInfo.cost + rightGroup.bestExprInfo.cost >= joinGroup.lowestExprCost) {
+            return;
+        }
+
+        ExpressionInfo joinExpr = buildJoinExpr(leftGroup, rightGroup);
+        joinExpr.expr.deriveLogicalPropertyItself();
+        calculateStatistics(joinExpr.expr);
+        computeCost(joinExpr, false);
+
+        if (joinGroup == null) {
+            joinGroup = new GroupInfo(toBitSet(joinMask));
+            bestPlanMemo.put(joinMask, joinGroup);
+        }
+        if (joinExpr.cost < joinGroup.lowestExprCost) {
+            joinGroup.bestExprInfo = joinExpr;
+            joinGroup.lowestExprCost = joinExpr.cost;
+        }
+    }
+
+    private boolean checkTimeout() {
+        if (!timeout && System.currentTimeMillis() > deadline) {
+            timeout = true;
+        }
+        return timeout;
+    }
+
+    static long toMask(BitSet bitSet) {
+        long[] words = bitSet.toLongArray();
+        return words.length == 0 ? 0 : words[0];
+    }
+
+    static BitSet toBitSet(long mask) {
+        return BitSet.valueOf(new long[] {mask});
+    }
+}
@@ -5,6 +5,7 @@ package com.starrocks.sql.optimizer.rule.join;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.starrocks.common.FeConstants;
+import com.starrocks.qe.SessionVariable;
 import com.starrocks.sql.optimizer.ExpressionContext;
 import com.starrocks.sql.optimizer.OptExpression;
 import com.starrocks.sql.optimizer.OptExpressionVisitor;
@@ -149,11 +150,21 @@ public class ReorderJoinRule extends Rule {
                     continue;
                 }
 
-                if (multiJoinNode.getAtoms().size() <= context.getSessionVariable().getCboMaxReorderNodeUseDP()
-                        && context.getSessionVariable().isCboEnableDPJoinReorder()) {
-                    // 10 table join reorder takes more than 100ms,
-                    // so the join reorder using dp is currently controlled below 10.
-                    enumerate(new JoinReorderDP(context), context, innerJoinRoot, multiJoinNode);
+                SessionVariable sessionVariable = context.getSessionVariable();
+                int atomSize = multiJoinNode.getAtoms().size();
+                if (atomSize <= sessionVariable.getCboMaxReorderNodeUseDP()) {
+                    if (sessionVariable.isCboEnableDPJoinReorder()) {
+                        // 10 table join reorder takes more than 100ms,
+                        // so the join reorder using dp is currently controlled below 10.
+                        enumerate(new JoinReorderDP(context), context, innerJoinRoot, multiJoinNode);
+                    }
+                } else if (atomSize <= sessionVariable.getCboMaxReorderNodeUseDPccp()
+                        && atomSize <= JoinReorderDPccp.MAX_ATOM_SIZE
+                        && sessionVariable.isCboEnableDPccpJoinReorder()) {
+                    // DPccp only visits connected sub graphs, so wider joins could still be reordered
+                    // by dynamic programming. It gives up if the time budget is exceeded.
+                    enumerate(new JoinReorderDPccp(context, sessionVariable.getCboDPccpJoinReorderTimeoutMs()),
+                            context, innerJoinRoot, multiJoinNode);
                 }
 
                 if (context.getSessionVariable().isCboEnableGreedyJoinReorder()) {
@@ -266,6 +266,8 @@ public class Backend extends ComputeNode {
             GlobalStateMgr.getCurrentSystemInfo().updatePathInfo(addedDisks, removedDisks);
             // log disk changing
             GlobalStateMgr.getCurrentState().getEditLog().logBackendStateChange(this);
+            // the replicas on offline disks are not healthy
+            GlobalStateMgr.getCurrentState().getTabletChecker().markBackendDirty(getId());
         }
     }
 
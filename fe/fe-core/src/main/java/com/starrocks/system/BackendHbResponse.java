@@ -48,6 +48,12 @@ public class BackendHbResponse extends HeartbeatResponse implements Writable {
     @SerializedName(value = "cpuCores")
     private int cpuCores;
 
+    @SerializedName(value = "memUsedBytes")
+    private long memUsedBytes;
+    @SerializedName(value = "memLimitBytes")
+    private long memLimitBytes;
+    private int numRunningLoads;
+
     public BackendHbResponse() {
         super(HeartbeatResponse.Type.BACKEND);
     }
@@ -101,6 +107,27 @@ public class BackendHbResponse extends HeartbeatResponse implements Writable {
         return cpuCores;
     }
 
+    public void setMemUsage(long memUsedBytes, long memLimitBytes) {
+        this.memUsedBytes = memUsedBytes;
+        this.memLimitBytes = memLimitBytes;
+    }
+
+    public long getMemUsedBytes() {
+        return memUsedBytes;
+    }
+
+    public long getMemLimitBytes() {
+        return memLimitBytes;
+    }
+
+    public void setNumRunningLoads(int numRunningLoads) {
+        this.numRunningLoads = numRunningLoads;
+    }
+
+    public int getNumRunningLoads() {
+        return numRunningLoads;
+    }
+
     public static BackendHbResponse read(DataInput in) throws IOException {
         BackendHbResponse result = new BackendHbResponse();
         result.readFields(in);
@@ -23,6 +23,9 @@ import java.util.concurrent.atomic.AtomicBoolean;
 public class ComputeNode implements IComputable, Writable {
     private static final Logger LOG = LogManager.getLogger(ComputeNode.class);
 
+    // the memory usage is logged to the other FEs when it changes by this percentage of the memory limit
+    private static final double MEM_USED_PCT_LOG_STEP = 5;
+
     @SerializedName("id")
     private long id;
     @SerializedName("host")
@@ -73,6 +76,16 @@ public class ComputeNode implements IComputable, Writable {
     // port of starlet on BE
     private volatile int starletPort;
 
+    // memory usage reported by the heartbeat, it is not persisted. It is logged with the heartbeat
+    // only when it changes noticeably, so the other FEs know the approximate usage.
+    private volatile long memUsedBytes = 0;
+    private volatile long memLimitBytes = 0;
+    // the memory usage last logged, only used by the master
+    private long loggedMemUsedBytes = 0;
+    private long loggedMemLimitBytes = 0;
+    // number of the stream loads being processed, reported by the heartbeat and not persisted
+    private volatile int numRunningLoads = 0;
+
     public ComputeNode() {
         this.host = "";
         this.version = "";
@@ -244,6 +257,46 @@ public class ComputeNode implements IComputable, Writable {
         return lastMissingHeartbeatTime;
     }
 
+    public long getMemUsedBytes() {
+        return memUsedBytes;
+    }
+
+    public long getMemLimitBytes() {
+        return memLimitBytes;
+    }
+
+    public int getNumRunningLoads() {
+        return numRunningLoads;
+    }
+
+    /*
+     * The usage changes all the time, it makes the heartbeat logged only when it crosses
+     * Config.query_queue_mem_used_pct_limit or changes by MEM_USED_PCT_LOG_STEP since last logged,
+     * so the query queue of the other FEs sees whether the backend is above the limit.
+     */
+    private boolean updateMemUsage(long memUsedBytes, long memLimitBytes) {
+        this.memUsedBytes = memUsedBytes;
+        this.memLimitBytes = memLimitBytes;
+        if (memLimitBytes == loggedMemLimitBytes && memUsedBytes == loggedMemUsedBytes) {
+            return false;
+        }
+        double usedPct = getMemUsedPct(memUsedBytes, memLimitBytes);
+        double loggedUsedPct = getMemUsedPct(loggedMemUsedBytes, loggedMemLimitBytes);
+        double limitPct = Config.query_queue_mem_used_pct_limit;
+        boolean isChanged = memLimitBytes != loggedMemLimitBytes
+                || Math.abs(usedPct - loggedUsedPct) >= MEM_USED_PCT_LOG_STEP
+                || (limitPct > 0 && (usedPct >= limitPct) != (loggedUsedPct >= limitPct));
+        if (isChanged) {
+            loggedMemUsedBytes = memUsedBytes;
+            loggedMemLimitBytes = memLimitBytes;
+        }
+        return isChanged;
+    }
+
+    private static double getMemUsedPct(long memUsedBytes, long memLimitBytes) {
+        return memLimitBytes > 0 ? memUsedBytes * 100.0 / memLimitBytes : 0;
+    }
+
     public boolean isAlive() {
         return this.isAlive.get();
     }
@@ -348,7 +401,7 @@ public class ComputeNode implements IComputable, Writable {
 
     /**
      * handle Compute node's heartbeat response.
-     * return true if any port changed, or alive state is changed.
+     * return true if any port changed, alive state is changed, or memory usage changes noticeably.
      */
     public boolean handleHbResponse(BackendHbResponse hbResponse) {
         boolean isChanged = false;
@@ -394,6 +447,11 @@ public class ComputeNode implements IComputable, Writable {
                 BackendCoreStat.setNumOfHardwareCoresOfBe(hbResponse.getBeId(), hbResponse.getCpuCores());
             }
 
+            if (updateMemUsage(hbResponse.getMemUsedBytes(), hbResponse.getMemLimitBytes())) {
+                isChanged = true;
+            }
+            this.numRunningLoads = hbResponse.getNumRunningLoads();
+
             heartbeatErrMsg = "";
             this.heartbeatRetryTimes = 0;
         } else {
@@ -185,7 +185,12 @@ public class HeartbeatMgr extends MasterDaemon {
                     computeNode = nodeMgr.getComputeNode(hbResponse.getBeId());
                 }
                 if (computeNode != null) {
+                    boolean wasAlive = computeNode.isAlive();
                     boolean isChanged = computeNode.handleHbResponse(hbResponse);
+                    if (!isReplay && wasAlive != computeNode.isAlive()) {
+                        // the health status of tablets on this backend is changed
+                        GlobalStateMgr.getCurrentState().getTabletChecker().markBackendDirty(computeNode.getId());
+                    }
                     if (hbResponse.getStatus() != HbStatus.OK) {
                         // invalid all connections cached in ClientPool
                         ClientPool.backendPool.clearPool(new TNetworkAddress(computeNode.getHost(), computeNode.getBePort()));
@@ -276,8 +281,15 @@ public class HeartbeatMgr extends MasterDaemon {
                     }
 
                     // backend.updateOnce(bePort, httpPort, beRpcPort, brpcPort);
-                    return new BackendHbResponse(computeNodeId, bePort, httpPort, brpcPort, starletPort,
-                            System.currentTimeMillis(), version, cpuCores);
+                    BackendHbResponse hbResponse = new BackendHbResponse(computeNodeId, bePort, httpPort, brpcPort,
+                            starletPort, System.currentTimeMillis(), version, cpuCores);
+                    if (tBackendInfo.isSetMem_used_bytes() && tBackendInfo.isSetMem_limit_bytes()) {
+                        hbResponse.setMemUsage(tBackendInfo.getMem_used_bytes(), tBackendInfo.getMem_limit_bytes());
+                    }
+                    if (tBackendInfo.isSetNum_running_loads()) {
+                        hbResponse.setNumRunningLoads(tBackendInfo.getNum_running_loads());
+                    }
+                    return hbResponse;
                 } else {
                     return new BackendHbResponse(computeNodeId,
                             result.getStatus().getError_msgs().isEmpty() ? "Unknown error"
@@ -410,6 +410,8 @@ public class SystemInfoService {
         }
         // log
         GlobalStateMgr.getCurrentState().getEditLog().logDropBackend(droppedBackend);
+        // the replicas on the dropped backend are missing
+        GlobalStateMgr.getCurrentState().getTabletChecker().markBackendDirty(droppedBackend.getId());
         LOG.info("finished to drop {}", droppedBackend);
 
         // backends is changed, regenerated tablet number metrics
@@ -0,0 +1,208 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.task;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.starrocks.common.DdlException;
+import com.starrocks.common.MarkedCountDownLatch;
+import com.starrocks.common.Status;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.system.Backend;
+import com.starrocks.thrift.TStatusCode;
+import com.starrocks.thrift.TTaskType;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CreateReplicaTaskPipeline sends the CreateReplicaTasks of the partitions being created to all backends
+ * concurrently. At most maxInFlightPerBackend tasks of a backend are sent but not finished, and new tasks are
+ * sent to a backend as soon as half of its tasks are finished, so the backends do not wait for each other like
+ * sending the tasks batch by batch.
+ * Since there is no mechanism to cancel tasks, the limit also bounds the useless replicas created when some error
+ * or timeout occurs in the middle, and avoids blocking other tasks of the backends for a long time.
+ */
+public class CreateReplicaTaskPipeline {
+    private static final Logger LOG = LogManager.getLogger(CreateReplicaTaskPipeline.class);
+
+    private static final long CHECK_INTERVAL_MS = 20;
+    private static final long PROGRESS_LOG_INTERVAL_MS = 10000;
+
+    // send a batch of tasks to a backend
+    public interface TaskSender {
+        void send(AgentBatchTask batchTask);
+    }
+
+    private static final TaskSender AGENT_TASK_SENDER = batchTask -> {
+        AgentTaskQueue.addBatchTask(batchTask);
+        AgentTaskExecutor.submit(batchTask);
+    };
+
+    private final String name;
+    private final int maxInFlightPerBackend;
+    private final TaskSender sender;
+    private final int totalNum;
+    // backend id -> tasks not sent yet
+    private final Map<Long, Deque<CreateReplicaTask>> pendingTasks = Maps.newHashMap();
+    private final List<CreateReplicaTask> sentTasks = Lists.newArrayList();
+    private final MarkedCountDownLatch<Long, Long> latch;
+    // released when a task is finished, to wake up the sending thread
+    private final Semaphore taskFinished = new Semaphore(0);
+    // max number of in-flight tasks of a backend
+    private int maxInFlightNum = 0;
+
+    public CreateReplicaTaskPipeline(String name, List<CreateReplicaTask> tasks, int maxInFlightPerBackend) {
+        this(name, tasks, maxInFlightPerBackend, AGENT_TASK_SENDER);
+    }
+
+    public CreateReplicaTaskPipeline(String name, List<CreateReplicaTask> tasks, int maxInFlightPerBackend,
+                                     TaskSender sender) {
+        this.name = name;
+        this.maxInFlightPerBackend = Math.max(1, maxInFlightPerBackend);
+        this.sender = sender;
+        this.totalNum = tasks.size();
+        for (CreateReplicaTask task : tasks) {
+            pendingTasks.computeIfAbsent(task.getBackendId(), k -> new ArrayDeque<>()).add(task);
+        }
+        this.latch = new MarkedCountDownLatch<Long, Long>(tasks.size()) {
+            @Override
+            public synchronized boolean markedCountDown(Long backendId, Long tabletId) {
+                boolean counted = super.markedCountDown(backendId, tabletId);
+                if (counted) {
+                    taskFinished.release();
+                }
+                return counted;
+            }
+
+            @Override
+            public synchronized void countDownToZero(Status status) {
+                super.countDownToZero(status);
+                taskFinished.release();
+            }
+        };
+    }
+
+    public int getTotalNum() {
+        return totalNum;
+    }
+
+    public int getFinishedNum() {
+        return totalNum - (int) latch.getCount();
+    }
+
+    public int getSentNum() {
+        return sentTasks.size();
+    }
+
+    public int getMaxInFlightNum() {
+        return maxInFlightNum;
+    }
+
+    /**
+     * Send all tasks and wait for them to be finished.
+     * If any task fails or the tasks are not finished in timeoutSecond, the tasks not sent are dropped, the tasks
+     * sent are removed from AgentTaskQueue and DdlException is thrown.
+     */
+    public void run(long timeoutSecond) throws DdlException {
+        long startMs = System.currentTimeMillis();
+        long deadlineMs = startMs + timeoutSecond * 1000;
+        long lastLogMs = startMs;
+        boolean finished = false;
+        try {
+            while (true) {
+                sendPendingTasks();
+                taskFinished.tryAcquire(CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                taskFinished.drainPermits();
+                if (latch.getCount() == 0) {
+                    break;
+                }
+                long nowMs = System.currentTimeMillis();
+                if (nowMs >= deadlineMs) {
+                    String errMsg = buildTimeoutMsg(timeoutSecond);
+                    LOG.warn(errMsg);
+                    latch.countDownToZero(new Status(TStatusCode.TIMEOUT, "timed out"));
+                    throw new DdlException(errMsg);
+                }
+                if (nowMs - lastLogMs >= PROGRESS_LOG_INTERVAL_MS) {
+                    LOG.info("creating replicas of {}, finished: {}, sent: {}, total: {}, cost: {}ms",
+                            name, getFinishedNum(), getSentNum(), totalNum, nowMs - startMs);
+                    lastLogMs = nowMs;
+                }
+            }
+            if (!latch.getStatus().ok()) {
+                String errMsg = "fail to create tablet: " + latch.getStatus().getErrorMsg();
+                LOG.warn(errMsg);
+                throw new DdlException(errMsg);
+            }
+            finished = true;
+            LOG.info("finished creating {} replicas of {}, cost: {}ms",
+                    totalNum, name, System.currentTimeMillis() - startMs);
+        } catch (InterruptedException e) {
+            LOG.warn(e);
+            latch.countDownToZero(new Status(TStatusCode.CANCELLED, "cancelled"));
+            throw new DdlException("fail to create tablet: cancelled");
+        } finally {
+            if (!finished) {
+                for (CreateReplicaTask task : sentTasks) {
+                    AgentTaskQueue.removeTask(task.getBackendId(), TTaskType.CREATE, task.getSignature());
+                }
+            }
+        }
+    }
+
+    // send the pending tasks of each backend until the in-flight tasks of the backend reach the limit.
+    // a backend is refilled only after half of its in-flight tasks are finished, so that the tasks are sent in
+    // batches instead of a batch for every finished task
+    private void sendPendingTasks() {
+        for (Map.Entry<Long, Deque<CreateReplicaTask>> entry : pendingTasks.entrySet()) {
+            long backendId = entry.getKey();
+            Deque<CreateReplicaTask> tasks = entry.getValue();
+            if (tasks.isEmpty() || !latch.getStatus().ok()) {
+                continue;
+            }
+            int inFlightNum = latch.getLeftMarkCount(backendId);
+            if (inFlightNum > maxInFlightPerBackend / 2) {
+                continue;
+            }
+            int sendNum = Math.min(tasks.size(), maxInFlightPerBackend - inFlightNum);
+            if (sendNum <= 0) {
+                continue;
+            }
+            AgentBatchTask batchTask = new AgentBatchTask();
+            for (int i = 0; i < sendNum; i++) {
+                CreateReplicaTask task = tasks.poll();
+                task.setLatch(latch);
+                latch.addMark(backendId, task.getTabletId());
+                batchTask.addTask(task);
+                sentTasks.add(task);
+            }
+            maxInFlightNum = Math.max(maxInFlightNum, inFlightNum + sendNum);
+            sender.send(batchTask);
+        }
+    }
+
+    private String buildTimeoutMsg(long timeoutSecond) {
+        List<Map.Entry<Long, Long>> unfinishedMarks = latch.getLeftMarks();
+        List<Map.Entry<Long, Long>> firstThree = unfinishedMarks.subList(0, Math.min(unfinishedMarks.size(), 3));
+        StringBuilder sb = new StringBuilder("fail to create tablet: timed out. unfinished replicas");
+        sb.append("(").append(firstThree.size()).append("/").append(unfinishedMarks.size()).append("): ");
+        // Show details of the first 3 unfinished tablets.
+        for (Map.Entry<Long, Long> mark : firstThree) {
+            sb.append(mark.getValue()); // TabletId
+            sb.append('(');
+            Backend backend = GlobalStateMgr.getCurrentSystemInfo().getBackend(mark.getKey());
+            sb.append(backend != null ? backend.getHost() : "N/A");
+            sb.append(") ");
+        }
+        sb.append(" unsent replicas: ").append(totalNum - sentTasks.size());
+        sb.append(" timeout=").append(timeoutSecond).append("s");
+        return sb.toString();
+    }
+}
@@ -9,6 +9,7 @@ import com.starrocks.catalog.OlapTable;
 import com.starrocks.catalog.Partition;
 import com.starrocks.catalog.Replica;
 import com.starrocks.catalog.Tablet;
+import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.sql.optimizer.statistics.IDictManager;
 
 import java.util.List;
@@ -21,6 +22,14 @@ public class OlapTableTxnLogApplier implements TransactionLogApplier {
         this.table = table;
     }
 
+    // the replicas missing versions are repaired by TabletChecker, which only runs on master
+    private static void markTabletDirty(Tablet tablet) {
+        GlobalStateMgr globalStateMgr = GlobalStateMgr.getCurrentState();
+        if (globalStateMgr.isMaster()) {
+            globalStateMgr.getTabletChecker().markTabletDirty(tablet.getId());
+        }
+    }
+
     @Override
     public void applyCommitLog(TransactionState txnState, TableCommitInfo commitInfo) {
         Set<Long> errorReplicaIds = txnState.getErrorReplicas();
@@ -35,6 +44,7 @@ public class OlapTableTxnLogApplier implements TransactionLogApplier {
                         if (errorReplicaIds.contains(replica.getId())) {
                             // should get from transaction state
                             replica.updateLastFailedVersion(partitionCommitInfo.getVersion());
+                            markTabletDirty(tablet);
                         }
                     }
                 }
@@ -73,6 +83,7 @@ public class OlapTableTxnLogApplier implements TransactionLogApplier {
                                 // this logic has to be replayed in checkpoint thread
                                 lastFailedVersion = partition.getVisibleVersion();
                                 newVersion = replica.getVersion();
+                                markTabletDirty(tablet);
                             }
 
                             // success version always move forward
@@ -87,6 +98,7 @@ public class OlapTableTxnLogApplier implements TransactionLogApplier {
                             if (newCommitVersion > lastFailedVersion) {
                                 lastFailedVersion = newCommitVersion;
                             }
+                            markTabletDirty(tablet);
                         }
                         replica.updateVersionInfo(newVersion, lastFailedVersion, lastSucessVersion);
                     }
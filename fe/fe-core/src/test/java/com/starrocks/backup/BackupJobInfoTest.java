@@ -17,6 +17,7 @@
 
 package com.starrocks.backup;
 
+import com.google.common.collect.Sets;
 import org.junit.AfterClass;
 import org.junit.Assert;
 import org.junit.BeforeClass;
@@ -177,4 +178,26 @@ public class BackupJobInfoTest {
             tmpFile.delete();
         }
     }
+
+    @Test
+    public void testRestorePipelineState() throws IOException {
+        BackupJobInfo jobInfo = BackupJobInfo.fromFile(fileName);
+        Assert.assertFalse(jobInfo.toJson(true).has("restore_pipelined"));
+
+        jobInfo.restorePipelined = true;
+        jobInfo.restoreVisibleTblIds = Sets.newHashSet(10001L, 10002L);
+        File tmpFile = new File("./tmp_restore_pipeline");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new FileOutputStream(tmpFile))) {
+                jobInfo.write(out);
+            }
+            try (DataInputStream in = new DataInputStream(new FileInputStream(tmpFile))) {
+                BackupJobInfo newInfo = BackupJobInfo.read(in);
+                Assert.assertTrue(newInfo.restorePipelined);
+                Assert.assertEquals(jobInfo.restoreVisibleTblIds, newInfo.restoreVisibleTblIds);
+            }
+        } finally {
+            tmpFile.delete();
+        }
+    }
 }
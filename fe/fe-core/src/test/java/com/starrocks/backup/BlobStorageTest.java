@@ -0,0 +1,267 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.backup;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.starrocks.catalog.BrokerMgr;
+import com.starrocks.catalog.FsBroker;
+import com.starrocks.common.AnalysisException;
+import com.starrocks.common.Config;
+import com.starrocks.common.GenericPool;
+import com.starrocks.service.FrontendOptions;
+import com.starrocks.thrift.TBrokerCloseReaderRequest;
+import com.starrocks.thrift.TBrokerCloseWriterRequest;
+import com.starrocks.thrift.TBrokerFD;
+import com.starrocks.thrift.TBrokerOpenReaderRequest;
+import com.starrocks.thrift.TBrokerOpenReaderResponse;
+import com.starrocks.thrift.TBrokerOpenWriterRequest;
+import com.starrocks.thrift.TBrokerOpenWriterResponse;
+import com.starrocks.thrift.TBrokerOperationStatus;
+import com.starrocks.thrift.TBrokerOperationStatusCode;
+import com.starrocks.thrift.TBrokerPReadRequest;
+import com.starrocks.thrift.TBrokerPWriteRequest;
+import com.starrocks.thrift.TBrokerReadResponse;
+import com.starrocks.thrift.TFileBrokerService;
+import com.starrocks.thrift.TNetworkAddress;
+import mockit.Mock;
+import mockit.MockUp;
+import org.apache.commons.io.FileUtils;
+import org.apache.thrift.TException;
+import org.apache.thrift.transport.TTransportException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class BlobStorageTest {
+    private static final int FILE_SIZE = 10 * 1024 * 1024 + 123;
+    private static final long PART_SIZE = 1024 * 1024;
+
+    private File dir;
+    private File remoteFile;
+    private byte[] data;
+    private BlobStorage storage;
+
+    // a broker on the local file system
+    private final Map<Long, RandomAccessFile> openedFiles = Maps.newConcurrentMap();
+    private final AtomicLong nextFd = new AtomicLong(0);
+    private final AtomicInteger openReaderNum = new AtomicInteger(0);
+    private final AtomicInteger runningReaderNum = new AtomicInteger(0);
+    private final AtomicInteger maxRunningReaderNum = new AtomicInteger(0);
+    private final AtomicInteger pwriteNum = new AtomicInteger(0);
+    // pread at these offsets fails once
+    private final Set<Long> failedOnceOffsets = Sets.newConcurrentHashSet();
+    // pread at these offsets always fails
+    private final Set<Long> failedOffsets = Sets.newConcurrentHashSet();
+
+    private long restoredPartSize;
+    private int restoredConcurrency;
+
+    private static TBrokerOperationStatus okStatus() {
+        return new TBrokerOperationStatus(TBrokerOperationStatusCode.OK);
+    }
+
+    private TBrokerFD open(String path, String mode) throws TException {
+        try {
+            long fd = nextFd.incrementAndGet();
+            openedFiles.put(fd, new RandomAccessFile(path, mode));
+            return new TBrokerFD(0, fd);
+        } catch (IOException e) {
+            throw new TException(e);
+        }
+    }
+
+    private void close(TBrokerFD fd) throws TException {
+        try {
+            openedFiles.remove(fd.getLow()).close();
+        } catch (IOException e) {
+            throw new TException(e);
+        }
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        restoredPartSize = Config.backup_download_part_size;
+        restoredConcurrency = Config.backup_download_concurrency;
+        dir = Files.createTempDirectory("blob_storage_test").toFile();
+        remoteFile = new File(dir, "remote");
+        data = new byte[FILE_SIZE];
+        new Random(0).nextBytes(data);
+        FileUtils.writeByteArrayToFile(remoteFile, data);
+        storage = new BlobStorage("broker", Maps.newHashMap());
+
+        new MockUp<FrontendOptions>() {
+            @Mock
+            String getLocalHostAddress() {
+                return "127.0.0.1";
+            }
+        };
+
+        new MockUp<BrokerMgr>() {
+            @Mock
+            public FsBroker getBroker(String name, String host) throws AnalysisException {
+                return new FsBroker("127.0.0.1", 8111);
+            }
+        };
+
+        new MockUp<GenericPool<TFileBrokerService.Client>>() {
+            @Mock
+            public TFileBrokerService.Client borrowObject(TNetworkAddress address) throws Exception {
+                return new TFileBrokerService.Client(null);
+            }
+
+            @Mock
+            public void returnObject(TNetworkAddress address, TFileBrokerService.Client object) {
+            }
+
+            @Mock
+            public void invalidateObject(TNetworkAddress address, TFileBrokerService.Client object) {
+            }
+        };
+
+        new MockUp<TFileBrokerService.Client>() {
+            @Mock
+            public TBrokerOpenReaderResponse openReader(TBrokerOpenReaderRequest request) throws TException {
+                openReaderNum.incrementAndGet();
+                maxRunningReaderNum.accumulateAndGet(runningReaderNum.incrementAndGet(), Math::max);
+                TBrokerOpenReaderResponse response = new TBrokerOpenReaderResponse(okStatus());
+                response.setFd(open(request.getPath(), "r"));
+                return response;
+            }
+
+            @Mock
+            public TBrokerReadResponse pread(TBrokerPReadRequest request) throws TException {
+                if (failedOffsets.contains(request.getOffset()) || failedOnceOffsets.remove(request.getOffset())) {
+                    throw new TTransportException(TTransportException.TIMED_OUT, "timeout");
+                }
+                try {
+                    RandomAccessFile file = openedFiles.get(request.getFd().getLow());
+                    byte[] buffer = new byte[(int) Math.min(request.getLength(),
+                            file.length() - request.getOffset())];
+                    file.seek(request.getOffset());
+                    file.readFully(buffer);
+                    TBrokerReadResponse response = new TBrokerReadResponse(okStatus());
+                    response.setData(buffer);
+                    return response;
+                } catch (IOException e) {
+                    throw new TException(e);
+                }
+            }
+
+            @Mock
+            public TBrokerOperationStatus closeReader(TBrokerCloseReaderRequest request) throws TException {
+                runningReaderNum.decrementAndGet();
+                close(request.getFd());
+                return okStatus();
+            }
+
+            @Mock
+            public TBrokerOpenWriterResponse openWriter(TBrokerOpenWriterRequest request) throws TException {
+                TBrokerOpenWriterResponse response = new TBrokerOpenWriterResponse(okStatus());
+                response.setFd(open(request.getPath(), "rw"));
+                return response;
+            }
+
+            @Mock
+            public TBrokerOperationStatus pwrite(TBrokerPWriteRequest request) throws TException {
+                pwriteNum.incrementAndGet();
+                try {
+                    RandomAccessFile file = openedFiles.get(request.getFd().getLow());
+                    // the broker writer only appends
+                    Assert.assertEquals(file.length(), request.getOffset());
+                    file.seek(request.getOffset());
+                    file.write(request.getData());
+                    return okStatus();
+                } catch (IOException e) {
+                    throw new TException(e);
+                }
+            }
+
+            @Mock
+            public TBrokerOperationStatus closeWriter(TBrokerCloseWriterRequest request) throws TException {
+                close(request.getFd());
+                return okStatus();
+            }
+        };
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Config.backup_download_part_size = restoredPartSize;
+        Config.backup_download_concurrency = restoredConcurrency;
+        FileUtils.deleteDirectory(dir);
+    }
+
+    private void checkDownloaded(File localFile) throws IOException {
+        Assert.assertArrayEquals(data, FileUtils.readFileToByteArray(localFile));
+        Assert.assertTrue(openedFiles.isEmpty());
+    }
+
+    @Test
+    public void testDownloadByParts() throws IOException {
+        Config.backup_download_part_size = PART_SIZE;
+        Config.backup_download_concurrency = 4;
+        File localFile = new File(dir, "local");
+        Status status = storage.downloadWithFileSize(remoteFile.getPath(), localFile.getPath(), FILE_SIZE);
+        Assert.assertTrue(status.getErrMsg(), status.ok());
+        checkDownloaded(localFile);
+        Assert.assertEquals(11, openReaderNum.get());
+        Assert.assertTrue(maxRunningReaderNum.get() <= 4);
+    }
+
+    @Test
+    public void testRetryPart() throws IOException {
+        Config.backup_download_part_size = PART_SIZE;
+        Config.backup_download_concurrency = 4;
+        failedOnceOffsets.add(3 * PART_SIZE);
+        failedOnceOffsets.add(7 * PART_SIZE);
+        File localFile = new File(dir, "local");
+        Status status = storage.downloadWithFileSize(remoteFile.getPath(), localFile.getPath(), FILE_SIZE);
+        Assert.assertTrue(status.getErrMsg(), status.ok());
+        checkDownloaded(localFile);
+        // only the failed parts are downloaded again
+        Assert.assertEquals(13, openReaderNum.get());
+    }
+
+    @Test
+    public void testPartFailed() {
+        Config.backup_download_part_size = PART_SIZE;
+        Config.backup_download_concurrency = 4;
+        failedOffsets.add(5 * PART_SIZE);
+        File localFile = new File(dir, "local");
+        Status status = storage.downloadWithFileSize(remoteFile.getPath(), localFile.getPath(), FILE_SIZE);
+        Assert.assertFalse(status.ok());
+        Assert.assertTrue(openedFiles.isEmpty());
+    }
+
+    @Test
+    public void testDownloadSequentially() throws IOException {
+        Config.backup_download_concurrency = 1;
+        File localFile = new File(dir, "local");
+        Status status = storage.downloadWithFileSize(remoteFile.getPath(), localFile.getPath(), FILE_SIZE);
+        Assert.assertTrue(status.getErrMsg(), status.ok());
+        checkDownloaded(localFile);
+        Assert.assertEquals(1, openReaderNum.get());
+    }
+
+    @Test
+    public void testUpload() throws IOException {
+        File uploadedFile = new File(dir, "uploaded");
+        Status status = storage.upload(remoteFile.getPath(), uploadedFile.getPath());
+        Assert.assertTrue(status.getErrMsg(), status.ok());
+        checkDownloaded(uploadedFile);
+        // 1MB per pwrite
+        Assert.assertEquals(11, pwriteNum.get());
+    }
+}
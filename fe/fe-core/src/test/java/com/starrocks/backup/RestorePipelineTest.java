@@ -0,0 +1,158 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.backup;
+
+import com.google.common.collect.Lists;
+import com.starrocks.backup.RestorePipeline.Unit;
+import com.starrocks.backup.RestorePipeline.UnitState;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+public class RestorePipelineTest {
+    private static final long DB_ID = 1;
+    private static final long TBL1_ID = 10;
+    private static final long TBL2_ID = 20;
+
+    private long nextSignature = 1000;
+    private RestorePipeline pipeline;
+
+    @Before
+    public void setUp() {
+        List<SnapshotInfo> infos = Lists.newArrayList();
+        long tabletId = 100;
+        // table 2 is added first, but restored after table 1
+        for (long tblId : new long[] {TBL2_ID, TBL1_ID}) {
+            for (long partId = tblId + 1; partId <= tblId + 2; partId++) {
+                for (int i = 0; i < 2; i++, tabletId++) {
+                    for (long beId = 1; beId <= 3; beId++) {
+                        infos.add(new SnapshotInfo(DB_ID, tblId, partId, tblId, tabletId, beId, 0,
+                                "/snapshot/" + tabletId, Lists.newArrayList()));
+                    }
+                }
+            }
+        }
+        pipeline = new RestorePipeline(infos);
+    }
+
+    // send one task to each backend of the unit for download, or one task for each snapshot for dir move
+    private List<Long> sendTasks(Unit unit, boolean download) {
+        List<Long> signatures = Lists.newArrayList();
+        if (download) {
+            for (long beId : unit.getSnapshotInfosByBackend().keySet()) {
+                long signature = nextSignature++;
+                pipeline.addTask(unit, signature, beId);
+                signatures.add(signature);
+            }
+        } else {
+            for (SnapshotInfo info : unit.getSnapshotInfos()) {
+                long signature = nextSignature++;
+                pipeline.addTask(unit, signature, info.getBeId());
+                signatures.add(signature);
+            }
+        }
+        return signatures;
+    }
+
+    @Test
+    public void testUnits() {
+        Assert.assertEquals(4, pipeline.getUnits().size());
+        for (Unit unit : pipeline.getUnits()) {
+            Assert.assertEquals(UnitState.PENDING, unit.getState());
+            Assert.assertEquals(6, unit.getSnapshotInfos().size());
+            Assert.assertEquals(3, unit.getSnapshotInfosByBackend().keySet().size());
+        }
+        Assert.assertFalse(pipeline.isFinished());
+        Assert.assertEquals("committed 0/4 units, downloading: [], moving: []", pipeline.getProgress());
+    }
+
+    @Test
+    public void testPipeline() {
+        // at most 2 download tasks on each backend
+        List<Unit> units = pipeline.startDownloads(2);
+        Assert.assertEquals(2, units.size());
+        Assert.assertEquals(TBL1_ID, units.get(0).getTblId());
+        Assert.assertEquals(TBL1_ID, units.get(1).getTblId());
+        Assert.assertTrue(pipeline.startDownloads(2).isEmpty());
+        List<Long> downloads1 = sendTasks(units.get(0), true);
+        List<Long> downloads2 = sendTasks(units.get(1), true);
+
+        // the first unit is downloaded, then the third unit can be started
+        for (long signature : downloads1) {
+            Assert.assertTrue(pipeline.finishTask(signature));
+        }
+        Assert.assertFalse(pipeline.finishTask(downloads1.get(0)));
+        Assert.assertEquals(UnitState.DOWNLOADED, units.get(0).getState());
+        List<Unit> moveUnits = pipeline.startMoves();
+        Assert.assertEquals(1, moveUnits.size());
+        Assert.assertEquals(UnitState.MOVING, units.get(0).getState());
+        List<Long> moves1 = sendTasks(moveUnits.get(0), false);
+        Assert.assertEquals(6, moves1.size());
+
+        List<Unit> units3 = pipeline.startDownloads(2);
+        Assert.assertEquals(1, units3.size());
+        Assert.assertEquals(TBL2_ID, units3.get(0).getTblId());
+        List<Long> downloads3 = sendTasks(units3.get(0), true);
+        Assert.assertEquals("committed 0/4 units, downloading: [10.12, 20.21], moving: [10.11]",
+                pipeline.getProgress());
+
+        // the first unit is committed, table 1 is not visible until the second unit is committed
+        for (long signature : moves1) {
+            Assert.assertTrue(pipeline.finishTask(signature));
+        }
+        Assert.assertEquals(UnitState.COMMITTED, units.get(0).getState());
+        Assert.assertTrue(pipeline.pollVisibleTables().isEmpty());
+
+        for (long signature : downloads2) {
+            pipeline.finishTask(signature);
+        }
+        for (long signature : sendTasks(pipeline.startMoves().get(0), false)) {
+            pipeline.finishTask(signature);
+        }
+        Assert.assertEquals(Lists.newArrayList(TBL1_ID), pipeline.pollVisibleTables());
+        Assert.assertTrue(pipeline.pollVisibleTables().isEmpty());
+        Assert.assertFalse(pipeline.isFinished());
+
+        // restore table 2
+        List<Unit> units4 = pipeline.startDownloads(2);
+        Assert.assertEquals(1, units4.size());
+        for (long signature : downloads3) {
+            pipeline.finishTask(signature);
+        }
+        for (long signature : sendTasks(units4.get(0), true)) {
+            pipeline.finishTask(signature);
+        }
+        for (Unit unit : pipeline.startMoves()) {
+            for (long signature : sendTasks(unit, false)) {
+                pipeline.finishTask(signature);
+            }
+        }
+        Assert.assertEquals(Lists.newArrayList(TBL2_ID), pipeline.pollVisibleTables());
+        Assert.assertTrue(pipeline.isFinished());
+        Assert.assertEquals("committed 4/4 units, downloading: [], moving: []", pipeline.getProgress());
+    }
+
+    @Test
+    public void testUnitName() {
+        Unit unit = pipeline.getUnits().iterator().next();
+        unit.setName("tbl1.p1");
+        pipeline.startDownloads(1);
+        Assert.assertEquals("committed 0/4 units, downloading: [tbl1.p1], moving: []", pipeline.getProgress());
+    }
+
+    @Test
+    public void testResetUnits() {
+        List<Unit> units = pipeline.startDownloads(1);
+        Assert.assertEquals(1, units.size());
+        List<Long> downloads = sendTasks(units.get(0), true);
+        Assert.assertTrue(pipeline.startDownloads(1).isEmpty());
+
+        // the tasks are not sent, the unit can be started again
+        pipeline.resetUnits(units);
+        Assert.assertEquals(UnitState.PENDING, units.get(0).getState());
+        Assert.assertFalse(pipeline.finishTask(downloads.get(0)));
+        Assert.assertEquals(units, pipeline.startDownloads(1));
+    }
+}
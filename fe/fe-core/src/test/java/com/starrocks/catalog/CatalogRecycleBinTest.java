@@ -8,21 +8,36 @@ import com.google.common.collect.Range;
 import com.google.common.collect.Sets;
 import com.starrocks.analysis.PartitionValue;
 import com.starrocks.common.Config;
+import com.starrocks.common.FeConstants;
 import com.starrocks.common.jmockit.Deencapsulation;
+import com.starrocks.persist.ReplicaPersistInfo;
 import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.server.LocalMetastore;
 import com.starrocks.thrift.TStorageMedium;
 import com.starrocks.thrift.TStorageType;
 import com.starrocks.thrift.TTabletType;
 import mockit.Expectations;
+import mockit.Mock;
+import mockit.MockUp;
 import mockit.Mocked;
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.util.ArrayList;
 import java.util.List;
 
 public class CatalogRecycleBinTest {
 
+    @After
+    public void tearDown() {
+        Config.enable_recycle_bin_partition_compaction = false;
+    }
+
     @Test
     public void testGetDb() {
         CatalogRecycleBin bin = new CatalogRecycleBin();
@@ -208,4 +223,202 @@ public class CatalogRecycleBinTest {
         Assert.assertEquals(replica2, invertedIndex.getReplica(tabletId, backendId + 1));
         Assert.assertEquals(replica3, invertedIndex.getReplica(tabletId, backendId + 2));
     }
+
+    private static final long DB_ID = 1L;
+    private static final long TABLE_ID = 2L;
+    private static final long INDEX_ID = 3L;
+
+    private TabletInvertedIndex mockInvertedIndex() {
+        TabletInvertedIndex invertedIndex = new TabletInvertedIndex();
+        new MockUp<GlobalStateMgr>() {
+            @Mock
+            TabletInvertedIndex getCurrentInvertedIndex() {
+                return invertedIndex;
+            }
+
+            @Mock
+            int getCurrentStateJournalVersion() {
+                return FeConstants.meta_version;
+            }
+        };
+        return invertedIndex;
+    }
+
+    // a partition whose tablets and replicas are in inverted index
+    private static Partition createPartition(long partitionId, int tabletNum, TabletInvertedIndex invertedIndex) {
+        Column k1 = new Column("k1", Type.INT, true, null, "", "");
+        MaterializedIndex index = new MaterializedIndex(INDEX_ID, MaterializedIndex.IndexState.NORMAL);
+        TabletMeta tabletMeta = new TabletMeta(DB_ID, TABLE_ID, partitionId, INDEX_ID, 0, TStorageMedium.HDD);
+        for (int i = 0; i < tabletNum; i++) {
+            long tabletId = partitionId * 100 + i;
+            LocalTablet tablet = new LocalTablet(tabletId);
+            index.addTablet(tablet, tabletMeta, true);
+            invertedIndex.addTablet(tabletId, tabletMeta);
+            for (long backendId = 1; backendId <= 3; backendId++) {
+                Replica replica = new Replica(tabletId * 10 + backendId, backendId, Replica.ReplicaState.NORMAL, 1, 0);
+                tablet.addReplica(replica, true);
+                invertedIndex.addReplica(tabletId, replica);
+            }
+        }
+        DistributionInfo distributionInfo = new HashDistributionInfo(tabletNum, Lists.newArrayList(k1));
+        return new Partition(partitionId, "p" + partitionId, index, distributionInfo);
+    }
+
+    private static Range<PartitionKey> createRange(long partitionId) throws Exception {
+        List<Column> columns = Lists.newArrayList(new Column("k1", Type.INT, true, null, "", ""));
+        return Range.closedOpen(
+                PartitionKey.createPartitionKey(Lists.newArrayList(new PartitionValue(String.valueOf(partitionId))),
+                        columns),
+                PartitionKey.createPartitionKey(Lists.newArrayList(new PartitionValue(String.valueOf(partitionId + 1))),
+                        columns));
+    }
+
+    private static void recyclePartition(CatalogRecycleBin bin, Partition partition) throws Exception {
+        bin.recyclePartition(DB_ID, TABLE_ID, partition, createRange(partition.getId()),
+                new DataProperty(TStorageMedium.HDD), (short) 3, false);
+    }
+
+    @Test
+    public void testCompactPartition() throws Exception {
+        TabletInvertedIndex invertedIndex = mockInvertedIndex();
+        Config.enable_recycle_bin_partition_compaction = true;
+        CatalogRecycleBin bin = new CatalogRecycleBin();
+        Partition partition = createPartition(10L, 4, invertedIndex);
+        recyclePartition(bin, partition);
+
+        // the partition is invisible, its replicas are removed from inverted index, but the tablets are kept
+        Assert.assertTrue(bin.isPartitionCompacted(10L));
+        Assert.assertNull(bin.getPartition(10L));
+        Assert.assertTrue(bin.getPartitions(TABLE_ID).isEmpty());
+        Assert.assertEquals(createRange(10L), bin.getPartitionRange(10L));
+        Assert.assertEquals((short) 3, bin.getPartitionReplicationNum(10L));
+        for (long backendId = 1; backendId <= 3; backendId++) {
+            Assert.assertEquals(0, invertedIndex.getTabletNumByBackendId(backendId));
+        }
+        Assert.assertNotNull(invertedIndex.getTabletMeta(1000L));
+
+        // the image is the same as the uncompacted partition
+        ByteArrayOutputStream compactedImage = new ByteArrayOutputStream();
+        bin.write(new DataOutputStream(compactedImage));
+        Config.enable_recycle_bin_partition_compaction = false;
+        CatalogRecycleBin bin2 = new CatalogRecycleBin();
+        recyclePartition(bin2, partition);
+        Deencapsulation.setField(bin2, "idToRecycleTime", Deencapsulation.getField(bin, "idToRecycleTime"));
+        ByteArrayOutputStream image = new ByteArrayOutputStream();
+        bin2.write(new DataOutputStream(image));
+        Assert.assertArrayEquals(image.toByteArray(), compactedImage.toByteArray());
+
+        CatalogRecycleBin loadedBin = new CatalogRecycleBin();
+        loadedBin.readFields(new DataInputStream(new ByteArrayInputStream(compactedImage.toByteArray())));
+        Assert.assertEquals(4, loadedBin.getPartition(10L).getBaseIndex().getTablets().size());
+    }
+
+    @Test
+    public void testRecoverCompactedPartition() throws Exception {
+        TabletInvertedIndex invertedIndex = mockInvertedIndex();
+        Config.enable_recycle_bin_partition_compaction = true;
+        CatalogRecycleBin bin = new CatalogRecycleBin();
+        recyclePartition(bin, createPartition(10L, 4, invertedIndex));
+
+        Column k1 = new Column("k1", Type.INT, true, null, "", "");
+        RangePartitionInfo partitionInfo = new RangePartitionInfo(Lists.newArrayList(k1));
+        OlapTable table = new OlapTable(TABLE_ID, "t1", Lists.newArrayList(k1), KeysType.DUP_KEYS, partitionInfo,
+                new HashDistributionInfo(4, Lists.newArrayList(k1)));
+        bin.replayRecoverPartition(table, 10L);
+
+        Assert.assertFalse(bin.isPartitionCompacted(10L));
+        Partition partition = table.getPartition(10L);
+        Assert.assertEquals("p10", partition.getName());
+        Assert.assertEquals(createRange(10L), partitionInfo.getRange(10L));
+        for (Tablet tablet : partition.getBaseIndex().getTablets()) {
+            for (Replica replica : ((LocalTablet) tablet).getReplicas()) {
+                Assert.assertSame(replica, invertedIndex.getReplica(tablet.getId(), replica.getBackendId()));
+            }
+        }
+        Assert.assertEquals(4, invertedIndex.getTabletNumByBackendId(1));
+    }
+
+    @Test
+    public void testEraseCompactedPartition() throws Exception {
+        TabletInvertedIndex invertedIndex = mockInvertedIndex();
+        Config.enable_recycle_bin_partition_compaction = true;
+        CatalogRecycleBin bin = new CatalogRecycleBin();
+        recyclePartition(bin, createPartition(10L, 4, invertedIndex));
+        new MockUp<GlobalStateMgr>() {
+            @Mock
+            public void onErasePartition(Partition partition) {
+                for (Tablet tablet : partition.getBaseIndex().getTablets()) {
+                    invertedIndex.deleteTablet(tablet.getId());
+                }
+            }
+        };
+
+        bin.replayErasePartition(10L);
+        Assert.assertFalse(bin.isPartitionCompacted(10L));
+        Assert.assertNull(invertedIndex.getTabletMeta(1000L));
+    }
+
+    @Test
+    public void testReplayReplicaOnCompactedPartition() throws Exception {
+        TabletInvertedIndex invertedIndex = mockInvertedIndex();
+        Config.enable_recycle_bin_partition_compaction = true;
+        CatalogRecycleBin bin = new CatalogRecycleBin();
+        recyclePartition(bin, createPartition(10L, 1, invertedIndex));
+
+        Column k1 = new Column("k1", Type.INT, true, null, "", "");
+        OlapTable table = new OlapTable(TABLE_ID, "t1", Lists.newArrayList(k1), KeysType.DUP_KEYS,
+                new RangePartitionInfo(Lists.newArrayList(k1)), new HashDistributionInfo(1, Lists.newArrayList(k1)));
+        Database db = new Database(DB_ID, "db1");
+        db.createTable(table);
+        LocalMetastore metastore = new LocalMetastore(null, bin, null, null);
+        metastore.getIdToDb().put(DB_ID, db);
+
+        // the journals are written by an FE which does not compact the partition
+        metastore.replayDeleteReplica(ReplicaPersistInfo.createForDelete(DB_ID, TABLE_ID, 10L, INDEX_ID, 1000L, 3L));
+        metastore.replayAddReplica(ReplicaPersistInfo.createForAdd(DB_ID, TABLE_ID, 10L, INDEX_ID, 1000L, 4L,
+                100004L, 2, 0, 10, 1, -1, 2));
+        metastore.replayUpdateReplica(ReplicaPersistInfo.createForClone(DB_ID, TABLE_ID, 10L, INDEX_ID, 1000L, 1L,
+                10001L, 3, 0, 20, 2, -1, 3));
+        // the partition does not exist
+        metastore.replayDeleteReplica(ReplicaPersistInfo.createForDelete(DB_ID, TABLE_ID, 11L, INDEX_ID, 1100L, 1L));
+
+        Assert.assertTrue(bin.isPartitionCompacted(10L));
+        Assert.assertEquals(0, invertedIndex.getTabletNumByBackendId(4L));
+        bin.replayRecoverPartition(table, 10L);
+        LocalTablet tablet = (LocalTablet) table.getPartition(10L).getIndex(INDEX_ID).getTablet(1000L);
+        Assert.assertEquals(3, tablet.getReplicas().size());
+        Assert.assertNull(tablet.getReplicaByBackendId(3L));
+        Assert.assertEquals(2, tablet.getReplicaByBackendId(4L).getVersion());
+        Assert.assertEquals(3, tablet.getReplicaByBackendId(1L).getVersion());
+        Assert.assertEquals(20, tablet.getReplicaByBackendId(1L).getDataSize());
+        Assert.assertSame(tablet.getReplicaByBackendId(4L), invertedIndex.getReplica(1000L, 4L));
+        Assert.assertNull(invertedIndex.getReplica(1000L, 3L));
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        return Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+    }
+
+    // the heap used by recycle bin and inverted index after dropping 100k partitions, with and without compaction
+    @Test
+    public void testCompactedPartitionMemory() throws Exception {
+        int partitionNum = 100000;
+        long[] usedMemory = new long[2];
+        for (int i = 0; i < 2; i++) {
+            Config.enable_recycle_bin_partition_compaction = i == 1;
+            TabletInvertedIndex invertedIndex = mockInvertedIndex();
+            long initMemory = usedHeap();
+            CatalogRecycleBin bin = new CatalogRecycleBin();
+            for (long partitionId = 1; partitionId <= partitionNum; partitionId++) {
+                recyclePartition(bin, createPartition(partitionId, 1, invertedIndex));
+            }
+            usedMemory[i] = usedHeap() - initMemory;
+            Assert.assertEquals(i == 1 ? 0 : partitionNum, invertedIndex.getTabletNumByBackendId(1));
+            Assert.assertEquals(i == 1 ? 0 : partitionNum, bin.getPartitions(TABLE_ID).size());
+        }
+        // the compacted bin still keeps the ranges, the recycle infos and the tablet metas in inverted index
+        Assert.assertTrue("compacted " + usedMemory[1] + " bytes, uncompacted " + usedMemory[0] + " bytes",
+                usedMemory[1] < usedMemory[0] * 3 / 4);
+    }
 }
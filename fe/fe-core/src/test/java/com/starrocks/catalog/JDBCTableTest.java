@@ -147,6 +147,64 @@ public class JDBCTableTest {
         Assert.fail("No exception throws.");
     }
 
+    @Test
+    public void testPartitionPredicates(@Mocked GlobalStateMgr globalStateMgr,
+                                        @Mocked ResourceMgr resourceMgr) throws Exception {
+        new Expectations() {
+            {
+                GlobalStateMgr.getCurrentState();
+                result = globalStateMgr;
+
+                globalStateMgr.getResourceMgr();
+                result = resourceMgr;
+
+                resourceMgr.getResource("jdbc0");
+                result = getMockedJDBCResource(resourceName);
+            }
+        };
+        columns.add(new Column("col2", Type.DATE, true));
+        properties.put("partition_column", "col2");
+        properties.put("partition_num", "3");
+        properties.put("partition_lower_bound", "2022-01-01");
+        properties.put("partition_upper_bound", "2022-01-11");
+        JDBCTable table = new JDBCTable(1000, "jdbc_table", columns, properties);
+        Assert.assertTrue(table.isPartitioned());
+        Assert.assertEquals(Lists.newArrayList("`col2` < '2022-01-05' OR `col2` IS NULL",
+                        "`col2` >= '2022-01-05' AND `col2` < '2022-01-08'", "`col2` >= '2022-01-08'"),
+                table.getPartitionPredicates(true));
+
+        // no more ranges than values
+        properties.put("partition_column", "col1");
+        properties.put("partition_lower_bound", "0");
+        properties.put("partition_upper_bound", "2");
+        table = new JDBCTable(1000, "jdbc_table", columns, properties);
+        Assert.assertEquals(Lists.newArrayList("col1 < 1 OR col1 IS NULL", "col1 >= 1"),
+                table.getPartitionPredicates(false));
+    }
+
+    @Test(expected = DdlException.class)
+    public void testWithIllegalPartitionBound(@Mocked GlobalStateMgr globalStateMgr,
+                                              @Mocked ResourceMgr resourceMgr) throws Exception {
+        new Expectations() {
+            {
+                GlobalStateMgr.getCurrentState();
+                result = globalStateMgr;
+
+                globalStateMgr.getResourceMgr();
+                result = resourceMgr;
+
+                resourceMgr.getResource("jdbc0");
+                result = getMockedJDBCResource(resourceName);
+            }
+        };
+        properties.put("partition_column", "col1");
+        properties.put("partition_num", "3");
+        properties.put("partition_lower_bound", "10");
+        properties.put("partition_upper_bound", "1");
+        new JDBCTable(1000, "jdbc_table", columns, properties);
+        Assert.fail("No exception throws.");
+    }
+
     @Test(expected = DdlException.class)
     public void testNoResource() throws Exception {
         properties.remove("resource");
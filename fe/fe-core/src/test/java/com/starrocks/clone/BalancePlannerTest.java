@@ -0,0 +1,116 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.clone;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.starrocks.clone.BalancePlanner.BackendNode;
+import com.starrocks.clone.BalancePlanner.Candidate;
+import com.starrocks.clone.BalancePlanner.Move;
+import com.starrocks.clone.BalancePlanner.SimulationResult;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class BalancePlannerTest {
+    private static final long GB = 1024L * 1024L * 1024L;
+
+    private static BackendNode createNode(long beId, String domain, long replicaNum, long bandwidthBudgetB) {
+        return new BackendNode(beId, domain, 100 * GB, replicaNum * GB, replicaNum, 4, bandwidthBudgetB, true);
+    }
+
+    @Test
+    public void testSolveAssignment() {
+        double[][] cost = new double[][] {
+                {4, 1, 3, 0},
+                {2, 0, 5, 0},
+                {3, 2, 2, 0}
+        };
+        int[] assignment = BalancePlanner.solveAssignment(cost);
+        Assert.assertArrayEquals(new int[] {1, 0, 2}, assignment);
+
+        // assigning the second row to the dummy column is cheaper
+        cost[1] = new double[] {10, 10, 10, 0};
+        assignment = BalancePlanner.solveAssignment(cost);
+        Assert.assertEquals(3, assignment[1]);
+    }
+
+    @Test
+    public void testPlanWithFailureDomain() {
+        BalancePlanner planner = new BalancePlanner(Lists.newArrayList(
+                createNode(1, "host1", 60, 0),
+                createNode(2, "host2", 40, 0),
+                createNode(3, "host3", 20, 0),
+                createNode(4, "host2", 20, 0)));
+
+        // tablet 100 has a replica on host2, so it can only be moved to backend 3
+        // tablet 101 has a replica on backend 3, so it can only be moved to backend 4
+        List<Candidate> candidates = Lists.newArrayList(
+                new Candidate(100, 1, GB, Sets.newHashSet(1L, 2L)),
+                new Candidate(101, 1, GB, Sets.newHashSet(1L, 3L)));
+        List<Move> moves = planner.plan(candidates);
+        Assert.assertEquals(2, moves.size());
+        for (Move move : moves) {
+            Assert.assertEquals(1, move.getSrcBeId());
+            Assert.assertEquals(move.getTabletId() == 100 ? 3 : 4, move.getDestBeId());
+        }
+
+        // no low load backend out of the failure domains of the replicas
+        candidates = Lists.newArrayList(new Candidate(102, 1, GB, Sets.newHashSet(1L, 2L, 3L)));
+        Assert.assertTrue(planner.plan(candidates).isEmpty());
+    }
+
+    @Test
+    public void testPlanWithBandwidthBudget() {
+        BalancePlanner planner = new BalancePlanner(Lists.newArrayList(
+                createNode(1, "host1", 60, 3 * GB / 2),
+                createNode(2, "host2", 40, 3 * GB / 2),
+                createNode(3, "host3", 20, 3 * GB / 2),
+                createNode(4, "host4", 20, 3 * GB / 2)));
+
+        // the second tablet exceeds the bandwidth budget of backend 1
+        List<Candidate> candidates = Lists.newArrayList(
+                new Candidate(100, 1, GB, Sets.newHashSet(1L)),
+                new Candidate(101, 1, GB, Sets.newHashSet(1L)));
+        Assert.assertEquals(1, planner.plan(candidates).size());
+
+        // a backend can always take part in one move
+        candidates = Lists.newArrayList(new Candidate(102, 1, 2 * GB, Sets.newHashSet(1L)));
+        Assert.assertEquals(1, planner.plan(candidates).size());
+    }
+
+    @Test
+    public void testSimulate() {
+        BalancePlanner planner = new BalancePlanner(Lists.newArrayList(
+                createNode(1, "host1", 35, 0),
+                createNode(2, "host2", 30, 0),
+                createNode(3, "host3", 5, 0),
+                createNode(4, "host3", 0, 0)));
+        Map<Long, Set<Long>> tabletReplicas = Maps.newTreeMap();
+        Map<Long, Long> tabletSizes = Maps.newHashMap();
+        for (long tabletId = 1; tabletId <= 35; tabletId++) {
+            tabletReplicas.put(tabletId, Sets.newHashSet(1L, tabletId <= 30 ? 2L : 3L));
+            tabletSizes.put(tabletId, GB);
+        }
+
+        SimulationResult result = planner.simulate(tabletReplicas, tabletSizes, 100);
+        Assert.assertFalse(result.getMoves().isEmpty());
+        Assert.assertTrue(result.getRounds() > 0);
+        Assert.assertTrue(result.getFinalSkew() < result.getInitialSkew());
+
+        long totalReplicaNum = 0;
+        for (long beId = 1; beId <= 4; beId++) {
+            totalReplicaNum += planner.getNode(beId).getReplicaNum();
+        }
+        Assert.assertEquals(70, totalReplicaNum);
+        for (Set<Long> replicas : tabletReplicas.values()) {
+            Assert.assertEquals(2, replicas.size());
+            // backend 3 and 4 are in the same failure domain
+            Assert.assertFalse(replicas.contains(3L) && replicas.contains(4L));
+        }
+    }
+}
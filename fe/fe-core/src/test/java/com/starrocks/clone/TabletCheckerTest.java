@@ -0,0 +1,121 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.clone;
+
+import com.google.common.collect.Lists;
+import com.starrocks.catalog.Database;
+import com.starrocks.catalog.LocalTablet;
+import com.starrocks.catalog.OlapTable;
+import com.starrocks.catalog.Partition;
+import com.starrocks.catalog.Replica;
+import com.starrocks.catalog.TabletInvertedIndex;
+import com.starrocks.common.Config;
+import com.starrocks.qe.ConnectContext;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.system.SystemInfoService;
+import com.starrocks.utframe.StarRocksAssert;
+import com.starrocks.utframe.UtFrameUtils;
+import mockit.Deencapsulation;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Set;
+
+public class TabletCheckerTest {
+    private TabletChecker tabletChecker;
+    private int maxDirtyTablets;
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        UtFrameUtils.createMinStarRocksCluster();
+        UtFrameUtils.addMockBackend(10002);
+        UtFrameUtils.addMockBackend(10003);
+        ConnectContext connectContext = UtFrameUtils.createDefaultCtx();
+        new StarRocksAssert(connectContext).withDatabase("test").useDatabase("test")
+                .withTable("CREATE TABLE test.tbl1(k1 int, v1 int) distributed by hash(k1) buckets 2 " +
+                        "properties('replication_num' = '3');");
+    }
+
+    @AfterClass
+    public static void afterClass() throws Exception {
+        UtFrameUtils.dropMockBackend(10002);
+        UtFrameUtils.dropMockBackend(10003);
+    }
+
+    @Before
+    public void setUp() {
+        GlobalStateMgr globalStateMgr = GlobalStateMgr.getCurrentState();
+        SystemInfoService systemInfoService = new SystemInfoService();
+        TabletSchedulerStat stat = new TabletSchedulerStat();
+        TabletScheduler tabletScheduler =
+                new TabletScheduler(globalStateMgr, systemInfoService, new TabletInvertedIndex(), stat);
+        tabletChecker = new TabletChecker(globalStateMgr, systemInfoService, tabletScheduler, stat);
+        maxDirtyTablets = Config.tablet_checker_max_dirty_tablets;
+    }
+
+    @After
+    public void tearDown() {
+        Config.tablet_checker_max_dirty_tablets = maxDirtyTablets;
+    }
+
+    @Test
+    public void testMarkDirty() {
+        Set<Long> dirtyTabletIds = Deencapsulation.getField(tabletChecker, "dirtyTabletIds");
+        Set<Long> dirtyBackendIds = Deencapsulation.getField(tabletChecker, "dirtyBackendIds");
+        // the first round is a full round
+        Assert.assertTrue(Deencapsulation.getField(tabletChecker, "needFullCheck"));
+        Deencapsulation.setField(tabletChecker, "needFullCheck", false);
+
+        tabletChecker.markTabletDirty(1L);
+        tabletChecker.markTabletsDirty(Lists.newArrayList(1L, 2L, 3L));
+        tabletChecker.markBackendDirty(10001L);
+        Assert.assertEquals(3, dirtyTabletIds.size());
+        Assert.assertTrue(dirtyBackendIds.contains(10001L));
+        Assert.assertFalse(Deencapsulation.getField(tabletChecker, "needFullCheck"));
+
+        // too many dirty tablets, fall back to a full round
+        Config.tablet_checker_max_dirty_tablets = 3;
+        tabletChecker.markTabletDirty(4L);
+        Assert.assertFalse(dirtyTabletIds.contains(4L));
+        Assert.assertTrue(Deencapsulation.getField(tabletChecker, "needFullCheck"));
+    }
+
+    @Test
+    public void testCheckDirtyTablets() {
+        GlobalStateMgr globalStateMgr = GlobalStateMgr.getCurrentState();
+        SystemInfoService systemInfoService = GlobalStateMgr.getCurrentSystemInfo();
+        TabletSchedulerStat stat = new TabletSchedulerStat();
+        TabletScheduler tabletScheduler = new TabletScheduler(globalStateMgr, systemInfoService,
+                GlobalStateMgr.getCurrentInvertedIndex(), stat);
+        TabletChecker checker = new TabletChecker(globalStateMgr, systemInfoService, tabletScheduler, stat);
+        Deencapsulation.setField(checker, "needFullCheck", false);
+        Deencapsulation.setField(checker, "lastFullCheckTime", System.currentTimeMillis());
+
+        Database db = globalStateMgr.getDb("default_cluster:test");
+        OlapTable table = (OlapTable) db.getTable("tbl1");
+        Partition partition = table.getPartitions().iterator().next();
+        LocalTablet tablet = (LocalTablet) partition.getBaseIndex().getTablets().get(0);
+        Assert.assertEquals(3, tablet.getReplicas().size());
+        // the publish of the next version failed on this replica
+        Replica replica = tablet.getReplicas().get(0);
+        long visibleVersion = partition.getVisibleVersion();
+        replica.updateVersionInfo(visibleVersion, visibleVersion + 1, visibleVersion);
+        try {
+            checker.markTabletDirty(tablet.getId());
+            Deencapsulation.invoke(checker, "runAfterCatalogReady");
+
+            // only the dirty tablet is checked, and it is checked again in the next round
+            // because the replica is not ready to be repaired at the first time it is found
+            Assert.assertEquals(1L, stat.counterTabletChecked.get());
+            Assert.assertEquals(1L, stat.counterUnhealthyTabletNum.get());
+            Set<Long> dirtyTabletIds = Deencapsulation.getField(checker, "dirtyTabletIds");
+            Assert.assertTrue(dirtyTabletIds.contains(tablet.getId()));
+        } finally {
+            replica.updateVersionInfoForRecovery(visibleVersion, -1, visibleVersion);
+        }
+    }
+}
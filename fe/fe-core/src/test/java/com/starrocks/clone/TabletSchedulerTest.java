@@ -0,0 +1,84 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.clone;
+
+import com.google.common.collect.Lists;
+import com.starrocks.catalog.TabletInvertedIndex;
+import com.starrocks.clone.TabletSchedCtx.Type;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.system.SystemInfoService;
+import com.starrocks.task.AgentBatchTask;
+import com.starrocks.task.AgentTask;
+import com.starrocks.task.DropReplicaTask;
+import mockit.Deencapsulation;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+public class TabletSchedulerTest {
+    private TabletScheduler tabletScheduler;
+
+    @Before
+    public void setUp() {
+        tabletScheduler = new TabletScheduler(GlobalStateMgr.getCurrentState(), new SystemInfoService(),
+                new TabletInvertedIndex(), new TabletSchedulerStat());
+    }
+
+    private boolean waitScheduleSignal(long waitMs) {
+        return Deencapsulation.invoke(tabletScheduler, "waitScheduleSignal", System.currentTimeMillis() + waitMs);
+    }
+
+    @Test
+    public void testAddTabletSignalsSchedule() {
+        Assert.assertFalse(waitScheduleSignal(10));
+
+        TabletSchedCtx ctx = new TabletSchedCtx(Type.REPAIR, SystemInfoService.DEFAULT_CLUSTER,
+                1, 2, 3, 4, 1000, System.currentTimeMillis());
+        Assert.assertEquals(TabletScheduler.AddResult.ADDED, tabletScheduler.addTablet(ctx, false));
+        Assert.assertTrue(tabletScheduler.containsTablet(1000));
+        Assert.assertEquals(TabletScheduler.AddResult.ALREADY_IN, tabletScheduler.addTablet(ctx, false));
+        Assert.assertEquals(1, tabletScheduler.getPendingNum());
+
+        // the signal is consumed by the first wait
+        Assert.assertTrue(waitScheduleSignal(10));
+        Assert.assertFalse(waitScheduleSignal(10));
+    }
+
+    @Test
+    public void testSignalWakeUpWaiting() throws InterruptedException {
+        Thread signal = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                // ignore
+            }
+            Deencapsulation.invoke(tabletScheduler, "signalSchedule");
+        });
+        long start = System.currentTimeMillis();
+        signal.start();
+        Assert.assertTrue(waitScheduleSignal(60000));
+        Assert.assertTrue(System.currentTimeMillis() - start < 60000);
+        signal.join();
+    }
+
+    @Test
+    public void testSplitByBackend() {
+        List<AgentTask> tasks = Lists.newArrayList();
+        for (long tabletId = 0; tabletId < 6; tabletId++) {
+            tasks.add(new DropReplicaTask(10001 + tabletId % 3, tabletId, 0, false));
+        }
+        List<AgentBatchTask> batchTasks = TabletScheduler.splitByBackend(tasks);
+
+        Assert.assertEquals(3, batchTasks.size());
+        for (int i = 0; i < 3; i++) {
+            List<AgentTask> backendTasks = batchTasks.get(i).getAllTasks();
+            Assert.assertEquals(2, backendTasks.size());
+            Assert.assertEquals(10001 + i, backendTasks.get(0).getBackendId());
+            Assert.assertEquals(10001 + i, backendTasks.get(1).getBackendId());
+            Assert.assertEquals(i, backendTasks.get(0).getTabletId());
+            Assert.assertEquals(i + 3, backendTasks.get(1).getTabletId());
+        }
+    }
+}
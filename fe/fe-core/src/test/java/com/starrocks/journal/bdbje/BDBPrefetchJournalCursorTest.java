@@ -0,0 +1,246 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.journal.bdbje;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Range;
+import com.starrocks.analysis.PartitionValue;
+import com.starrocks.catalog.Column;
+import com.starrocks.catalog.DataProperty;
+import com.starrocks.catalog.HashDistributionInfo;
+import com.starrocks.catalog.LocalTablet;
+import com.starrocks.catalog.MaterializedIndex;
+import com.starrocks.catalog.Partition;
+import com.starrocks.catalog.PartitionKey;
+import com.starrocks.catalog.Replica;
+import com.starrocks.catalog.TabletMeta;
+import com.starrocks.catalog.Type;
+import com.starrocks.common.FeConstants;
+import com.starrocks.common.io.DataOutputBuffer;
+import com.starrocks.common.io.Text;
+import com.starrocks.common.util.NetUtils;
+import com.starrocks.journal.JournalCursor;
+import com.starrocks.journal.JournalEntity;
+import com.starrocks.journal.JournalException;
+import com.starrocks.meta.MetaContext;
+import com.starrocks.persist.OperationType;
+import com.starrocks.persist.PartitionPersistInfo;
+import com.starrocks.persist.ReplicaPersistInfo;
+import com.starrocks.thrift.TStorageMedium;
+import mockit.Deencapsulation;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+public class BDBPrefetchJournalCursorTest {
+    private static final String PADDING = Strings.repeat("x", 512);
+
+    private File tempDir;
+    private BDBEnvironment environment;
+
+    @Before
+    public void init() throws Exception {
+        // only the replaying thread has the meta context, like the replayer and the checkpoint thread
+        MetaContext metaContext = new MetaContext();
+        metaContext.setMetaVersion(FeConstants.meta_version);
+        metaContext.setStarRocksMetaVersion(FeConstants.starrocks_meta_version);
+        metaContext.setThreadLocalInfo();
+        Path rootDir = Paths.get(System.getenv().getOrDefault("BDB_PUT_PROFILE_TEST_BDB_DIR_ROOT", "."));
+        tempDir = Files.createTempDirectory(rootDir, "BDBPrefetchJournalCursorTest").toFile();
+        String selfNodeHostPort = null;
+        for (int port = 9000; port != 120000; port++) {
+            if (!NetUtils.isPortUsing("127.0.0.1", port)) {
+                selfNodeHostPort = "127.0.0.1:" + port;
+                break;
+            }
+        }
+        Assert.assertNotNull(selfNodeHostPort);
+        environment = new BDBEnvironment(tempDir, "BDBPrefetchJournalCursorTest", selfNodeHostPort,
+                selfNodeHostPort, true);
+        environment.setup();
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        environment.close();
+        FileUtils.deleteDirectory(tempDir);
+        MetaContext.remove();
+    }
+
+    // the journal of key is an add partition, an add replica or a save next id journal in turn,
+    // the first two are read depending on the meta version
+    private static short getOpCode(long key) {
+        switch ((int) (key % 3)) {
+            case 0:
+                return OperationType.OP_ADD_PARTITION;
+            case 1:
+                return OperationType.OP_ADD_REPLICA;
+            default:
+                return OperationType.OP_SAVE_NEXTID;
+        }
+    }
+
+    private static PartitionPersistInfo createPartitionInfo(long key) throws Exception {
+        Column k1 = new Column("k1", Type.INT, true, null, "", "");
+        MaterializedIndex index = new MaterializedIndex(key + 1, MaterializedIndex.IndexState.NORMAL);
+        LocalTablet tablet = new LocalTablet(key + 2);
+        tablet.addReplica(new Replica(key + 3, 1, Replica.ReplicaState.NORMAL, 1, 0), true);
+        index.addTablet(tablet, new TabletMeta(1, 2, key, key + 1, 0, TStorageMedium.HDD), true);
+        Partition partition = new Partition(key, "p" + key, index,
+                new HashDistributionInfo(1, Lists.newArrayList(k1)));
+        Range<PartitionKey> range = Range.closedOpen(
+                PartitionKey.createPartitionKey(Lists.newArrayList(new PartitionValue("0")), Lists.newArrayList(k1)),
+                PartitionKey.createPartitionKey(Lists.newArrayList(new PartitionValue("1")), Lists.newArrayList(k1)));
+        return new PartitionPersistInfo(1, 2, partition, range, new DataProperty(TStorageMedium.HDD), (short) 1,
+                true, key % 2 == 0);
+    }
+
+    private static DataOutputBuffer serialize(short op, long key) throws Exception {
+        DataOutputBuffer buffer = new DataOutputBuffer();
+        buffer.writeShort(op);
+        if (op == OperationType.OP_ADD_PARTITION) {
+            createPartitionInfo(key).write(buffer);
+        } else if (op == OperationType.OP_ADD_REPLICA) {
+            ReplicaPersistInfo.createForAdd(1, 2, 3, 4, 5, 6, key, 7, 0, 1024, 10, key - 1, key + 1).write(buffer);
+        } else {
+            Text.writeString(buffer, key + PADDING);
+        }
+        return buffer;
+    }
+
+    // write journals [fromKey, toKey] to a new database named fromKey, the journal of badKey can not be deserialized
+    private void writeJournals(long fromKey, long toKey, long badKey) throws Exception {
+        CloseSafeDatabase database = environment.openDatabase(Long.toString(fromKey));
+        BDBJEJournal journal = new BDBJEJournal(environment, database);
+        journal.batchWriteBegin();
+        for (long key = fromKey; key <= toKey; key++) {
+            short op = key == badKey ? Short.MAX_VALUE : getOpCode(key);
+            journal.batchWriteAppend(key, serialize(op, key));
+            if (key % 1000 == 0) {
+                journal.batchWriteCommit();
+                journal.batchWriteBegin();
+            }
+        }
+        journal.batchWriteCommit();
+    }
+
+    private static void checkEntity(long key, JournalEntity entity) {
+        Assert.assertNotNull(entity);
+        Assert.assertEquals(getOpCode(key), entity.getOpCode());
+        if (entity.getOpCode() == OperationType.OP_ADD_PARTITION) {
+            PartitionPersistInfo info = (PartitionPersistInfo) entity.getData();
+            Assert.assertEquals(key, info.getPartition().getId());
+            Assert.assertTrue(info.isInMemory());
+            Assert.assertEquals(key % 2 == 0, info.isTempPartition());
+            LocalTablet tablet = (LocalTablet) info.getPartition().getBaseIndex().getTablet(key + 2);
+            Assert.assertEquals(key + 3, tablet.getReplicaByBackendId(1).getId());
+        } else if (entity.getOpCode() == OperationType.OP_ADD_REPLICA) {
+            ReplicaPersistInfo info = (ReplicaPersistInfo) entity.getData();
+            Assert.assertEquals(key, info.getReplicaId());
+            Assert.assertEquals(key - 1, info.getLastFailedVersion());
+            Assert.assertEquals(key + 1, info.getLastSuccessVersion());
+        } else {
+            Assert.assertEquals(key + PADDING, entity.getData().toString());
+        }
+    }
+
+    @Test
+    public void testReadAll() throws Exception {
+        writeJournals(1, 2500, -1);
+        writeJournals(2501, 5000, -1);
+
+        JournalCursor cursor = BDBPrefetchJournalCursor.getJournalCursor(environment, 10, 4990, 100, 2);
+        for (long key = 10; key <= 4990; key++) {
+            checkEntity(key, cursor.next());
+        }
+        Assert.assertNull(cursor.next());
+        Assert.assertNull(cursor.next());
+        cursor.close();
+    }
+
+    @Test
+    public void testNotFound() throws Exception {
+        writeJournals(1, 1050, -1);
+
+        // the journals after 1050 are not written yet
+        JournalCursor cursor = BDBPrefetchJournalCursor.getJournalCursor(environment, 1, 1100, 100, 2);
+        for (long key = 1; key <= 1050; key++) {
+            checkEntity(key, cursor.next());
+        }
+        Assert.assertNull(cursor.next());
+        cursor.close();
+    }
+
+    @Test
+    public void testDeserializeFailed() throws Exception {
+        writeJournals(1, 1000, 555);
+
+        JournalCursor cursor = BDBPrefetchJournalCursor.getJournalCursor(environment, 1, 1000, 100, 2);
+        for (long key = 1; key < 555; key++) {
+            checkEntity(key, cursor.next());
+        }
+        try {
+            cursor.next();
+            Assert.fail();
+        } catch (JournalException e) {
+            Assert.assertTrue(e.getMessage().contains("key=555"));
+        }
+        cursor.close();
+    }
+
+    @Test
+    public void testCloseBeforeEnd() throws Exception {
+        writeJournals(1, 3000, -1);
+
+        JournalCursor cursor = BDBPrefetchJournalCursor.getJournalCursor(environment, 1, 3000, 10, 1);
+        checkEntity(1, cursor.next());
+        // the reading thread is blocked on the full queue, and exits before close returns
+        cursor.close();
+        Thread readThread = Deencapsulation.getField(cursor, "readThread");
+        Assert.assertFalse(readThread.isAlive());
+    }
+
+    // replay the journals by the cursor, the replay of a journal takes replayNanos
+    private static long replay(JournalCursor cursor, long fromKey, long toKey, long replayNanos) throws Exception {
+        long start = System.nanoTime();
+        for (long key = fromKey; key <= toKey; key++) {
+            JournalEntity entity = cursor.next();
+            checkEntity(key, entity);
+            long deadline = System.nanoTime() + replayNanos;
+            while (System.nanoTime() < deadline) {
+                entity.getData().hashCode();
+            }
+        }
+        Assert.assertNull(cursor.next());
+        cursor.close();
+        return System.nanoTime() - start;
+    }
+
+    @Test
+    public void testBenchmark() throws Exception {
+        writeJournals(1, 30000, -1);
+        long replayNanos = 5000;
+
+        List<Long> cursorNs = Lists.newArrayList();
+        List<Long> prefetchNs = Lists.newArrayList();
+        for (int i = 0; i < 2; i++) {
+            cursorNs.add(replay(BDBJournalCursor.getJournalCursor(environment, 1, 30000), 1, 30000, replayNanos));
+            prefetchNs.add(replay(BDBPrefetchJournalCursor.getJournalCursor(environment, 1, 30000, 1000, 8),
+                    1, 30000, replayNanos));
+        }
+        // reading bdb is overlapped with the replay, the margin is for the noise of a shared test machine
+        long bestCursorNs = Math.min(cursorNs.get(0), cursorNs.get(1));
+        long bestPrefetchNs = Math.min(prefetchNs.get(0), prefetchNs.get(1));
+        Assert.assertTrue("prefetch cursor: " + bestPrefetchNs + " ns, cursor: " + bestCursorNs + " ns",
+                bestPrefetchNs < bestCursorNs * 1.2);
+    }
+}
@@ -0,0 +1,158 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.load;
+
+import com.google.common.collect.Lists;
+import com.starrocks.load.StreamLoadRouter.BackendLoad;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.system.Backend;
+import com.starrocks.system.SystemInfoService;
+import com.starrocks.transaction.TransactionState;
+import com.starrocks.transaction.TransactionState.LoadJobSourceType;
+import com.starrocks.transaction.TransactionState.TxnCoordinator;
+import com.starrocks.transaction.TransactionState.TxnSourceType;
+import mockit.Mock;
+import mockit.MockUp;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class StreamLoadRouterTest {
+    private SystemInfoService systemInfo;
+
+    @Test
+    public void testChooseByLoad() {
+        List<BackendLoad> loads = Lists.newArrayList(
+                new BackendLoad(1, 2.0, -1, 0, 0),
+                new BackendLoad(2, 0.5, -1, 0, 0),
+                new BackendLoad(3, 1.0, -1, 0, 0));
+        Assert.assertEquals(1, StreamLoadRouter.chooseBackend(loads, 0.5, 0.5, 0));
+        Assert.assertEquals(1, StreamLoadRouter.chooseBackend(loads, 0.5, 0.5, 2));
+    }
+
+    @Test
+    public void testChooseByLatency() {
+        // the same load, backend 1 is slow
+        List<BackendLoad> loads = Lists.newArrayList(
+                new BackendLoad(1, 1.0, 3000, 0, 0),
+                new BackendLoad(2, 1.0, 1000, 0, 0),
+                new BackendLoad(3, 1.0, -1, 0, 0));
+        Assert.assertEquals(1, StreamLoadRouter.chooseBackend(loads, 0.5, 0.5, 0));
+    }
+
+    @Test
+    public void testChooseByLocality() {
+        List<BackendLoad> loads = Lists.newArrayList(
+                new BackendLoad(1, 1.0, -1, 0, 0),
+                new BackendLoad(2, 1.0, -1, 0, 10),
+                new BackendLoad(3, 1.0, -1, 0, 5));
+        Assert.assertEquals(1, StreamLoadRouter.chooseBackend(loads, 0.5, 0.5, 0));
+
+        // the locality can not make an overloaded backend chosen
+        loads.set(1, new BackendLoad(2, 3.0, -1, 0, 10));
+        Assert.assertEquals(2, StreamLoadRouter.chooseBackend(loads, 0.5, 0.5, 0));
+    }
+
+    @Test
+    public void testRoundRobinWithSameCost() {
+        List<BackendLoad> loads = Lists.newArrayList(
+                new BackendLoad(1, 0, -1, 0, 0),
+                new BackendLoad(2, 0, -1, 0, 0),
+                new BackendLoad(3, 0, -1, 0, 0));
+        for (int i = 0; i < 6; i++) {
+            Assert.assertEquals(i % 3, StreamLoadRouter.chooseBackend(loads, 0.5, 0.5, i % 3));
+        }
+    }
+
+    @Test
+    public void testChooseByCompaction() {
+        // the same load and latency, backend 1 is behind in compaction
+        List<BackendLoad> loads = Lists.newArrayList(
+                new BackendLoad(1, 1.0, 1000, 800, 0),
+                new BackendLoad(2, 1.0, 1000, 100, 0),
+                new BackendLoad(3, 1.0, 1000, 300, 0));
+        Assert.assertEquals(1, StreamLoadRouter.chooseBackend(loads, 0.5, 0.5, 0));
+        // the compaction is ignored if its weight is 0
+        Assert.assertEquals(0, StreamLoadRouter.chooseBackend(loads, 0.5, 0, 0));
+
+        // the locality can make a backend with more compaction chosen
+        loads.set(2, new BackendLoad(3, 1.0, 1000, 300, 10));
+        Assert.assertEquals(2, StreamLoadRouter.chooseBackend(loads, 0.5, 0.5, 0));
+    }
+
+    @Test
+    public void testUpdateRouteStats() {
+        new MockUp<GlobalStateMgr>() {
+            @Mock
+            public SystemInfoService getCurrentSystemInfo() {
+                return systemInfo;
+            }
+        };
+        new MockUp<Backend>() {
+            @Mock
+            public boolean diskExceedLimit() {
+                return false;
+            }
+        };
+
+        Backend be1 = new Backend(1, "127.0.0.1", 9050);
+        Backend be2 = new Backend(2, "127.0.0.2", 9050);
+        Backend be3 = new Backend(3, "127.0.0.3", 9050);
+        systemInfo = new SystemInfoService();
+        for (Backend be : Lists.newArrayList(be1, be2, be3)) {
+            be.setAlive(true);
+            systemInfo.addBackend(be);
+        }
+        be1.setTabletMaxCompactionScore(1000);
+        be2.setTabletMaxCompactionScore(10);
+        be3.setTabletMaxCompactionScore(10);
+
+        StreamLoadRouter router = new StreamLoadRouter();
+        try {
+            // backend 1 is avoided for its compaction, the routed loads spread the others
+            Backend first = router.chooseBackend("db", null);
+            Backend second = router.chooseBackend("db", null);
+            Assert.assertNotEquals(1, first.getId());
+            Assert.assertNotEquals(1, second.getId());
+            Assert.assertNotEquals(first.getId(), second.getId());
+            Assert.assertEquals(0, router.getRouteNum(1));
+            Assert.assertEquals(1, router.getRouteNum(2));
+            Assert.assertEquals(1, router.getRouteNum(3));
+        } catch (Exception e) {
+            Assert.fail(e.getMessage());
+        }
+
+        TransactionState txnState = new TransactionState(1, Lists.newArrayList(10L), 100, "label", null,
+                LoadJobSourceType.BACKEND_STREAMING, new TxnCoordinator(TxnSourceType.BE, "127.0.0.3"), -1, 10000);
+        txnState.setPrepareTime(System.currentTimeMillis() - 1000);
+        router.updateLoadLatency(txnState, 2);
+        Assert.assertTrue(router.getLoadLatencyMs(2) >= 1000);
+        // the backend is resolved by the host of the coordinator
+        router.updateLoadLatency(txnState, -1);
+        Assert.assertTrue(router.getLoadLatencyMs(3) >= 1000);
+        Assert.assertEquals(-1, router.getLoadLatencyMs(1), 0);
+
+        // a load not coordinated by a backend is ignored
+        TransactionState insertTxn = new TransactionState(1, Lists.newArrayList(10L), 101, "insert", null,
+                LoadJobSourceType.INSERT_STREAMING, new TxnCoordinator(TxnSourceType.FE, "127.0.0.1"), -1, 10000);
+        insertTxn.setPrepareTime(System.currentTimeMillis() - 1000);
+        router.updateLoadLatency(insertTxn, 1);
+        Assert.assertEquals(-1, router.getLoadLatencyMs(1), 0);
+
+        // backend 2 is dropped, its stats are pruned by the next routing and not added back
+        systemInfo = new SystemInfoService();
+        systemInfo.addBackend(be1);
+        systemInfo.addBackend(be3);
+        try {
+            Assert.assertNotEquals(2, router.chooseBackend("db", null).getId());
+        } catch (Exception e) {
+            Assert.fail(e.getMessage());
+        }
+        Assert.assertEquals(0, router.getRouteNum(2));
+        Assert.assertEquals(-1, router.getLoadLatencyMs(2), 0);
+        router.updateLoadLatency(txnState, 2);
+        Assert.assertEquals(-1, router.getLoadLatencyMs(2), 0);
+        Assert.assertEquals(3, router.getRouteNum(1) + router.getRouteNum(3));
+    }
+}
@@ -179,6 +179,85 @@ public class KafkaRoutineLoadJobTest {
         }
     }
 
+    @Test
+    public void testAssignPartitionsByLag() {
+        List<Integer> partitions = Arrays.asList(1, 2, 3, 4, 5);
+        // no lag, round robin
+        List<List<Integer>> taskPartitions =
+                KafkaRoutineLoadJob.assignPartitionsByLag(partitions, Maps.newHashMap(), 2);
+        Assert.assertEquals(Arrays.asList(1, 3, 5), taskPartitions.get(0));
+        Assert.assertEquals(Arrays.asList(2, 4), taskPartitions.get(1));
+
+        // the partitions with large lags are put in different tasks
+        Map<Integer, Long> lags = Maps.newHashMap();
+        lags.put(1, 1000L);
+        lags.put(2, 10L);
+        lags.put(3, 900L);
+        lags.put(4, 10L);
+        lags.put(5, 100L);
+        taskPartitions = KafkaRoutineLoadJob.assignPartitionsByLag(partitions, lags, 2);
+        Assert.assertEquals(Arrays.asList(1, 2), taskPartitions.get(0));
+        Assert.assertEquals(Arrays.asList(3, 5, 4), taskPartitions.get(1));
+
+        // more tasks than partitions
+        taskPartitions = KafkaRoutineLoadJob.assignPartitionsByLag(Arrays.asList(1), lags, 2);
+        Assert.assertEquals(2, taskPartitions.size());
+        Assert.assertTrue(taskPartitions.get(1).isEmpty());
+    }
+
+    @Test
+    public void testDivideRoutineLoadJobByLag(@Injectable RoutineLoadManager routineLoadManager,
+                                              @Mocked RoutineLoadDesc routineLoadDesc)
+            throws UserException {
+        GlobalStateMgr globalStateMgr = Deencapsulation.newInstance(GlobalStateMgr.class);
+        KafkaRoutineLoadJob routineLoadJob =
+                new KafkaRoutineLoadJob(1L, "kafka_routine_load_job", "default", 1L,
+                        1L, "127.0.0.1:9020", "topic1");
+
+        new Expectations(globalStateMgr) {
+            {
+                globalStateMgr.getRoutineLoadManager();
+                minTimes = 0;
+                result = routineLoadManager;
+            }
+        };
+
+        // partition 0 and 1 are hot partitions
+        new MockUp<KafkaUtil>() {
+            @Mock
+            public Map<Integer, Long> getLatestOffsets(String brokerList, String topic,
+                                                       ImmutableMap<String, String> properties,
+                                                       List<Integer> partitions) throws UserException {
+                Map<Integer, Long> offsets = Maps.newHashMap();
+                for (Integer partition : partitions) {
+                    offsets.put(partition, partition <= 1 ? 100000L : 110L);
+                }
+                return offsets;
+            }
+        };
+
+        RoutineLoadTaskScheduler routineLoadTaskScheduler = new RoutineLoadTaskScheduler(routineLoadManager);
+        Deencapsulation.setField(globalStateMgr, "routineLoadTaskScheduler", routineLoadTaskScheduler);
+        Deencapsulation.setField(routineLoadJob, "currentKafkaPartitions", Arrays.asList(0, 1, 2, 3));
+        KafkaProgress progress = (KafkaProgress) routineLoadJob.getProgress();
+        for (int partition = 0; partition < 4; partition++) {
+            progress.addPartitionOffset(Pair.create(partition, 100L));
+        }
+
+        routineLoadJob.divideRoutineLoadJob(2);
+
+        Assert.assertEquals(2 * 99900L + 2 * 10L, routineLoadJob.getTotalLag());
+        List<RoutineLoadTaskInfo> routineLoadTaskInfoList =
+                Deencapsulation.getField(routineLoadJob, "routineLoadTaskInfoList");
+        Assert.assertEquals(2, routineLoadTaskInfoList.size());
+        for (RoutineLoadTaskInfo routineLoadTaskInfo : routineLoadTaskInfoList) {
+            List<Integer> partitions = ((KafkaTaskInfo) routineLoadTaskInfo).getPartitions();
+            Assert.assertEquals(2, partitions.size());
+            // each task has one hot partition
+            Assert.assertTrue(partitions.contains(0) ^ partitions.contains(1));
+        }
+    }
+
     @Test
     public void testProcessTimeOutTasks(@Injectable GlobalTransactionMgr globalTransactionMgr,
                                         @Injectable RoutineLoadManager routineLoadManager) {
@@ -3,6 +3,7 @@ package com.starrocks.load.routineload;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.starrocks.common.Config;
 import com.starrocks.common.Pair;
 import com.starrocks.common.UserException;
 import com.starrocks.common.util.KafkaUtil;
@@ -100,4 +101,41 @@ public class KafkaTaskInfoTest {
         kafkaProgress.modifyOffset(Lists.newArrayList(new Pair<>(1, 99L)));
         Assert.assertTrue(kafkaTaskInfo.isProgressKeepUp(kafkaProgress));
     }
+
+    @Test
+    public void testAdjustConsumeSecond() {
+        KafkaTaskInfo kafkaTaskInfo = new KafkaTaskInfo(UUID.randomUUID(), 1L, System.currentTimeMillis(),
+                System.currentTimeMillis(), Maps.newHashMap());
+        long minConsumeSecond = Config.routine_load_task_consume_second;
+        long maxConsumeSecond = Config.routine_load_task_timeout_second / 2;
+        Assert.assertEquals(minConsumeSecond, kafkaTaskInfo.getConsumeSecond());
+
+        // can not keep up, consume more data in a task
+        kafkaTaskInfo.adjustConsumeSecond(minConsumeSecond, false, 0);
+        Assert.assertEquals(Math.min(minConsumeSecond * 2, maxConsumeSecond), kafkaTaskInfo.getConsumeSecond());
+        kafkaTaskInfo.adjustConsumeSecond(maxConsumeSecond, false, 0);
+        Assert.assertEquals(maxConsumeSecond, kafkaTaskInfo.getConsumeSecond());
+
+        // keep up, back to the configured consume time
+        kafkaTaskInfo.adjustConsumeSecond(minConsumeSecond * 2, true, 0);
+        Assert.assertEquals(minConsumeSecond, kafkaTaskInfo.getConsumeSecond());
+
+        // the commit latency is large
+        kafkaTaskInfo.adjustConsumeSecond(minConsumeSecond, true, (minConsumeSecond + 1) * 1000 / 4);
+        Assert.assertEquals(Math.min(minConsumeSecond + 1, maxConsumeSecond), kafkaTaskInfo.getConsumeSecond());
+
+        Config.enable_routine_load_adaptive_consume_time = false;
+        try {
+            kafkaTaskInfo.adjustConsumeSecond(minConsumeSecond, false, 0);
+            Assert.assertEquals(minConsumeSecond, kafkaTaskInfo.getConsumeSecond());
+        } finally {
+            Config.enable_routine_load_adaptive_consume_time = true;
+        }
+
+        // the consume time is inherited by the renewed task
+        kafkaTaskInfo.adjustConsumeSecond(minConsumeSecond, false, 0);
+        KafkaTaskInfo renewedTaskInfo = new KafkaTaskInfo(System.currentTimeMillis(), kafkaTaskInfo,
+                Maps.newHashMap());
+        Assert.assertEquals(kafkaTaskInfo.getConsumeSecond(), renewedTaskInfo.getConsumeSecond());
+    }
 }
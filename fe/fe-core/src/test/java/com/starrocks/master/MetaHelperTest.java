@@ -0,0 +1,316 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.master;
+
+import com.starrocks.common.Config;
+import com.starrocks.http.BaseRequest;
+import com.starrocks.http.HttpServer;
+import com.starrocks.persist.MetaCleaner;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.system.Frontend;
+import mockit.Invocation;
+import mockit.Mock;
+import mockit.MockUp;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+
+public class MetaHelperTest {
+    private static final int IMAGE_SIZE = 1024 * 1024 + 17;
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    // the images are served by MetaService.ImageAction of the real http server
+    private static File serverDir;
+    private static HttpServer server;
+    private static int port;
+
+    private File dir;
+    private File imageFile;
+    private byte[] image;
+    // the chunk request which fails, -1 means no failure
+    private int failedRequest = -1;
+    // false to send the whole image like the FEs which do not support chunks
+    private boolean chunkSupported = true;
+    private final AtomicInteger requestNum = new AtomicInteger();
+    private final AtomicInteger minOffset = new AtomicInteger(Integer.MAX_VALUE);
+
+    @BeforeClass
+    public static void startServer() throws Exception {
+        serverDir = Files.createTempDirectory("meta_helper_test_server").toFile();
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        new MockUp<MetaHelper>() {
+            @Mock
+            public File getMasterImageDir() {
+                return serverDir;
+            }
+        };
+        server = new HttpServer(port);
+        server.setup();
+        server.start();
+        while (!server.isStarted()) {
+            Thread.sleep(100);
+        }
+    }
+
+    @AfterClass
+    public static void stopServer() {
+        server.shutDown();
+        serverDir.delete();
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("meta_helper_test").toFile();
+        imageFile = new File(serverDir, "image.100");
+        // half random and half repeated bytes
+        image = new byte[IMAGE_SIZE];
+        new Random(0).nextBytes(image);
+        Arrays.fill(image, IMAGE_SIZE / 2, IMAGE_SIZE, (byte) 'a');
+        writeImage();
+
+        new MockUp<GlobalStateMgr>() {
+            @Mock
+            public Frontend getFeByHost(String host) {
+                return new Frontend();
+            }
+        };
+        new MockUp<BaseRequest>() {
+            @Mock
+            public String getSingleParameter(Invocation invocation, String key) {
+                if (!chunkSupported && "offset".equals(key)) {
+                    return null;
+                }
+                return invocation.proceed(key);
+            }
+        };
+        new MockUp<MetaHelper>() {
+            @Mock
+            public MetaHelper.ImageChunk readChunk(Invocation invocation, File file, long offset, int length,
+                                                   String compression) throws IOException {
+                if (requestNum.getAndIncrement() == failedRequest) {
+                    throw new IOException("injected failure");
+                }
+                minOffset.accumulateAndGet((int) offset, Math::min);
+                return invocation.proceed(file, offset, length, compression);
+            }
+        };
+
+        Config.image_transfer_chunk_size = CHUNK_SIZE;
+        Config.image_transfer_chunk_retry_times = 3;
+    }
+
+    @After
+    public void tearDown() {
+        Config.image_transfer_chunk_size = 16 * 1024 * 1024;
+        Config.image_transfer_chunk_retry_times = 3;
+        Config.enable_image_transfer_compression = true;
+        for (File file : dir.listFiles()) {
+            file.delete();
+        }
+        dir.delete();
+        for (File file : serverDir.listFiles()) {
+            file.delete();
+        }
+    }
+
+    private static long checksum(byte[] data) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(data, 0, data.length);
+        return crc32.getValue();
+    }
+
+    // write the image and its checksum like GlobalStateMgr.saveImage()
+    private void writeImage() throws IOException {
+        try (OutputStream out = new FileOutputStream(imageFile)) {
+            out.write(image);
+        }
+        MetaHelper.writeImageChecksum(imageFile, checksum(image));
+    }
+
+    private String getUrl() {
+        return "http://127.0.0.1:" + port + "/image?version=100";
+    }
+
+    private void checkDownloaded(File file) throws IOException {
+        Assert.assertEquals("image.100", file.getName());
+        Assert.assertArrayEquals(image, Files.readAllBytes(file.toPath()));
+        Assert.assertFalse(new File(dir, "image.100.part").exists());
+        Assert.assertFalse(new File(dir, "checksum.100.part").exists());
+        // the checksum is saved with the downloaded image, so that this node can serve it too
+        Assert.assertEquals(checksum(image), MetaHelper.readImageChecksum(file));
+    }
+
+    // download the first chunks of image and fail
+    private void downloadPart(int chunkNum) {
+        Config.image_transfer_chunk_retry_times = 0;
+        failedRequest = requestNum.get() + chunkNum;
+        try {
+            MetaHelper.getRemoteImage(getUrl(), 10000, "image.100", dir);
+            Assert.fail();
+        } catch (IOException e) {
+            // expected
+        }
+        Assert.assertEquals((long) CHUNK_SIZE * chunkNum, new File(dir, "image.100.part").length());
+        Config.image_transfer_chunk_retry_times = 3;
+        failedRequest = -1;
+        minOffset.set(Integer.MAX_VALUE);
+    }
+
+    @Test
+    public void testChunk() throws IOException {
+        for (String compression : new String[] {MetaHelper.COMPRESSION_NONE, MetaHelper.COMPRESSION_SNAPPY}) {
+            MetaHelper.ImageChunk chunk = MetaHelper.readChunk(imageFile, IMAGE_SIZE - 100, CHUNK_SIZE, compression);
+            Assert.assertEquals(IMAGE_SIZE, chunk.getImageSize());
+            Assert.assertEquals(100, chunk.getSize());
+            Assert.assertArrayEquals(Arrays.copyOfRange(image, IMAGE_SIZE - 100, IMAGE_SIZE),
+                    MetaHelper.decodeChunk(chunk));
+        }
+
+        // the repeated bytes are compressed
+        MetaHelper.ImageChunk chunk = MetaHelper.readChunk(imageFile, IMAGE_SIZE / 2, CHUNK_SIZE,
+                MetaHelper.COMPRESSION_SNAPPY);
+        Assert.assertEquals(CHUNK_SIZE, chunk.getSize());
+        Assert.assertTrue(chunk.getData().length < CHUNK_SIZE / 10);
+
+        // empty chunk after the end of file
+        chunk = MetaHelper.readChunk(imageFile, IMAGE_SIZE + 1, CHUNK_SIZE, MetaHelper.COMPRESSION_SNAPPY);
+        Assert.assertEquals(0, chunk.getSize());
+        Assert.assertEquals(0, MetaHelper.decodeChunk(chunk).length);
+    }
+
+    @Test(expected = IOException.class)
+    public void testChecksumMismatch() throws IOException {
+        MetaHelper.ImageChunk chunk = MetaHelper.readChunk(imageFile, 0, CHUNK_SIZE, MetaHelper.COMPRESSION_NONE);
+        chunk.getData()[10]++;
+        MetaHelper.decodeChunk(chunk);
+    }
+
+    @Test
+    public void testGetRemoteImage() throws IOException {
+        Config.enable_image_transfer_compression = true;
+        checkDownloaded(MetaHelper.getRemoteImage(getUrl(), 10000, "image.100", dir));
+        Assert.assertEquals(IMAGE_SIZE / CHUNK_SIZE + 1, requestNum.get());
+    }
+
+    @Test
+    public void testRetryChunk() throws IOException {
+        Config.enable_image_transfer_compression = false;
+        failedRequest = 3;
+        checkDownloaded(MetaHelper.getRemoteImage(getUrl(), 10000, "image.100", dir));
+        Assert.assertEquals(IMAGE_SIZE / CHUNK_SIZE + 2, requestNum.get());
+    }
+
+    @Test
+    public void testResume() throws IOException {
+        downloadPart(3);
+        checkDownloaded(MetaHelper.getRemoteImage(getUrl(), 10000, "image.100", dir));
+        Assert.assertEquals(CHUNK_SIZE * 3, minOffset.get());
+    }
+
+    @Test
+    public void testResumeFromAnotherImage() throws IOException {
+        downloadPart(3);
+        // the image of the same version on another node
+        image[0]++;
+        writeImage();
+        checkDownloaded(MetaHelper.getRemoteImage(getUrl(), 10000, "image.100", dir));
+        Assert.assertEquals(0, minOffset.get());
+    }
+
+    @Test
+    public void testResumeWithoutChecksum() throws IOException {
+        try (OutputStream out = new FileOutputStream(new File(dir, "image.100.part"))) {
+            out.write(image, 0, CHUNK_SIZE * 3 + 5);
+        }
+        checkDownloaded(MetaHelper.getRemoteImage(getUrl(), 10000, "image.100", dir));
+        Assert.assertEquals(0, minOffset.get());
+    }
+
+    @Test
+    public void testImageWithoutChecksum() throws IOException {
+        // the image saved by the FEs which do not save its checksum can be downloaded, but can not be resumed
+        Files.delete(MetaHelper.getImageChecksumFile(imageFile).toPath());
+        downloadPart(3);
+        Assert.assertFalse(new File(dir, "checksum.100.part").exists());
+        checkDownloaded(MetaHelper.getRemoteImage(getUrl(), 10000, "image.100", dir));
+        Assert.assertEquals(0, minOffset.get());
+    }
+
+    @Test
+    public void testCorruptedPartFile() throws IOException {
+        downloadPart(3);
+        try (RandomAccessFile raf = new RandomAccessFile(new File(dir, "image.100.part"), "rw")) {
+            raf.seek(10);
+            raf.write(image[10] + 1);
+        }
+        try {
+            MetaHelper.getRemoteImage(getUrl(), 10000, "image.100", dir);
+            Assert.fail();
+        } catch (IOException e) {
+            Assert.assertTrue(e.getMessage().contains("checksum"));
+        }
+        Assert.assertFalse(new File(dir, "image.100.part").exists());
+        Assert.assertFalse(new File(dir, "image.100").exists());
+
+        checkDownloaded(MetaHelper.getRemoteImage(getUrl(), 10000, "image.100", dir));
+    }
+
+    @Test
+    public void testPartFileLargerThanImage() throws IOException {
+        try (OutputStream out = new FileOutputStream(new File(dir, "image.100.part"))) {
+            out.write(new byte[IMAGE_SIZE + 1]);
+        }
+        checkDownloaded(MetaHelper.getRemoteImage(getUrl(), 10000, "image.100", dir));
+        Assert.assertEquals(0, minOffset.get());
+    }
+
+    @Test
+    public void testWholeImage() throws IOException {
+        chunkSupported = false;
+        try (OutputStream out = new FileOutputStream(new File(dir, "image.100.part"))) {
+            out.write(image, 0, CHUNK_SIZE);
+        }
+        checkDownloaded(MetaHelper.getRemoteImage(getUrl(), 10000, "image.100", dir));
+        Assert.assertEquals(0, requestNum.get());
+    }
+
+    @Test
+    public void testImageChecksumFile() throws IOException {
+        Assert.assertEquals(new File(dir, "checksum.100"),
+                MetaHelper.getImageChecksumFile(new File(dir, "image.100")));
+        Assert.assertEquals(new File(dir, "checksum.100.part"),
+                MetaHelper.getImageChecksumFile(new File(dir, "image.100.part")));
+        Assert.assertEquals(-1, MetaHelper.readImageChecksum(new File(dir, "image.100")));
+
+        // the checksum files are not taken as images, and are cleaned with their images
+        for (long version : new long[] {1, 5, 10}) {
+            File file = new File(dir, "image." + version);
+            Assert.assertTrue(file.createNewFile());
+            MetaHelper.writeImageChecksum(file, version);
+        }
+        Assert.assertTrue(new File(dir, "checksum.1.part").createNewFile());
+        new MetaCleaner(dir.getPath()).clean();
+        Assert.assertFalse(new File(dir, "image.1").exists());
+        Assert.assertFalse(new File(dir, "checksum.1").exists());
+        Assert.assertFalse(new File(dir, "checksum.1.part").exists());
+        Assert.assertFalse(new File(dir, "checksum.5").exists());
+        Assert.assertEquals(10, MetaHelper.readImageChecksum(new File(dir, "image.10")));
+    }
+}
@@ -0,0 +1,385 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.master;
+
+import com.google.common.collect.Lists;
+import com.starrocks.catalog.AggregateType;
+import com.starrocks.catalog.Column;
+import com.starrocks.catalog.DataProperty;
+import com.starrocks.catalog.Database;
+import com.starrocks.catalog.KeysType;
+import com.starrocks.catalog.LocalTablet;
+import com.starrocks.catalog.MaterializedIndex;
+import com.starrocks.catalog.MaterializedIndex.IndexState;
+import com.starrocks.catalog.OlapTable;
+import com.starrocks.catalog.Partition;
+import com.starrocks.catalog.PartitionInfo;
+import com.starrocks.catalog.RandomDistributionInfo;
+import com.starrocks.catalog.Replica;
+import com.starrocks.catalog.Replica.ReplicaState;
+import com.starrocks.catalog.SinglePartitionInfo;
+import com.starrocks.catalog.TabletMeta;
+import com.starrocks.catalog.Type;
+import com.starrocks.common.Config;
+import com.starrocks.common.FeConstants;
+import com.starrocks.ha.FrontendNodeType;
+import com.starrocks.http.HttpServer;
+import com.starrocks.journal.Journal;
+import com.starrocks.meta.MetaContext;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.system.Frontend;
+import com.starrocks.thrift.TStorageMedium;
+import com.starrocks.thrift.TStorageType;
+import com.starrocks.thrift.TTabletType;
+import mockit.Deencapsulation;
+import mockit.Mock;
+import mockit.MockUp;
+import mockit.Mocked;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+// The snapshot checkpoint: GlobalStateMgr.saveSnapshotImage() on a follower, MetaService.SnapshotAction which calls
+// it, and Checkpoint.createImageBySnapshot() on master which calls the action and downloads the image.
+// GlobalStateMgr.saveImage() is replaced by writing a synthetic catalog.
+public class SnapshotImageTest {
+    private static final String MASTER_IP = "10.0.0.1";
+    private static final long SAMPLE_BYTES = 1024L * 1024;
+
+    // the follower which saves the snapshot image, served by the real http server
+    private static File followerDir;
+    private static HttpServer server;
+    private static int port;
+    private static int httpPort;
+
+    // the image dir of master
+    private File masterDir;
+    private List<Database> dbs;
+    private boolean isMaster = false;
+    private int savedImageNum = 0;
+    private long maxUsedHeap = 0;
+    private List<Frontend> frontends;
+
+    @Mocked
+    private Journal journal;
+
+    // record the used heap after gc every SAMPLE_BYTES bytes written
+    private class HeapSamplingOutputStream extends FilterOutputStream {
+        private long bytes = 0;
+        private long nextSampleBytes = SAMPLE_BYTES;
+
+        HeapSamplingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            bytes += len;
+            if (bytes >= nextSampleBytes) {
+                maxUsedHeap = Math.max(maxUsedHeap, usedHeap());
+                nextSampleBytes += SAMPLE_BYTES;
+            }
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+    }
+
+    @BeforeClass
+    public static void startServer() throws Exception {
+        followerDir = Files.createTempDirectory("snapshot_image_test_follower").toFile();
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        new MockUp<MetaHelper>() {
+            @Mock
+            public File getMasterImageDir() {
+                return followerDir;
+            }
+        };
+        server = new HttpServer(port);
+        server.setup();
+        server.start();
+        while (!server.isStarted()) {
+            Thread.sleep(100);
+        }
+        httpPort = Config.http_port;
+        Config.http_port = port;
+    }
+
+    @AfterClass
+    public static void stopServer() {
+        Config.http_port = httpPort;
+        server.shutDown();
+        followerDir.delete();
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        MetaContext metaContext = new MetaContext();
+        metaContext.setMetaVersion(FeConstants.meta_version);
+        metaContext.setStarRocksMetaVersion(FeConstants.starrocks_meta_version);
+        metaContext.setThreadLocalInfo();
+        masterDir = Files.createTempDirectory("snapshot_image_test_master").toFile();
+        dbs = createCatalog(2, 2, 4);
+
+        GlobalStateMgr globalStateMgr = GlobalStateMgr.getCurrentState();
+        Deencapsulation.setField(globalStateMgr, "imageDir", followerDir.getPath());
+        Deencapsulation.setField(globalStateMgr, "replayedJournalId", new AtomicLong(200));
+
+        Frontend master = new Frontend(FrontendNodeType.MASTER, "master", MASTER_IP, 9010);
+        Frontend follower = new Frontend(FrontendNodeType.FOLLOWER, "follower", "127.0.0.1", 9010);
+        Deencapsulation.setField(master, "isAlive", true);
+        Deencapsulation.setField(follower, "isAlive", true);
+        frontends = Lists.newArrayList(master, follower);
+
+        new MockUp<GlobalStateMgr>() {
+            @Mock
+            public boolean isMaster() {
+                return isMaster;
+            }
+
+            @Mock
+            public String getMasterIp() {
+                return MASTER_IP;
+            }
+
+            @Mock
+            public List<Frontend> getFrontends(FrontendNodeType nodeType) {
+                return frontends;
+            }
+
+            @Mock
+            public Frontend getFeByHost(String host) {
+                return new Frontend();
+            }
+
+            @Mock
+            public long saveImage(File curFile, long replayedJournalId) throws IOException {
+                savedImageNum++;
+                CRC32 crc32 = new CRC32();
+                try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(
+                        new HeapSamplingOutputStream(new FileOutputStream(curFile)), crc32)))) {
+                    for (Database db : dbs) {
+                        db.write(dos);
+                    }
+                }
+                return crc32.getValue();
+            }
+        };
+    }
+
+    @After
+    public void tearDown() {
+        for (File file : followerDir.listFiles()) {
+            file.delete();
+        }
+        for (File file : masterDir.listFiles()) {
+            file.delete();
+        }
+        masterDir.delete();
+        MetaContext.remove();
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static List<Database> loadCatalog(File imageFile, int dbNum) throws IOException {
+        List<Database> loadedDbs = Lists.newArrayList();
+        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(imageFile)))) {
+            for (int i = 0; i < dbNum; i++) {
+                loadedDbs.add(Database.read(dis));
+            }
+        }
+        return loadedDbs;
+    }
+
+    private void checkImage(File imageFile) throws IOException {
+        Assert.assertTrue(imageFile.exists());
+        CRC32 crc32 = new CRC32();
+        byte[] data = Files.readAllBytes(imageFile.toPath());
+        crc32.update(data, 0, data.length);
+        Assert.assertEquals(crc32.getValue(), MetaHelper.readImageChecksum(imageFile));
+
+        List<Database> loadedDbs = loadCatalog(imageFile, dbs.size());
+        for (int i = 0; i < dbs.size(); i++) {
+            Assert.assertEquals(dbs.get(i).getId(), loadedDbs.get(i).getId());
+            Assert.assertEquals(dbs.get(i).getTables().size(), loadedDbs.get(i).getTables().size());
+        }
+        OlapTable table = (OlapTable) loadedDbs.get(0).getTable("tbl0");
+        Assert.assertEquals(4, table.getPartition("tbl0").getBaseIndex().getTablets().size());
+    }
+
+    private static List<Database> createCatalog(int dbNum, int tableNumPerDb, int tabletNumPerTable) {
+        List<Column> columns = Lists.newArrayList();
+        Column k1 = new Column("k1", Type.INT);
+        k1.setIsKey(true);
+        columns.add(k1);
+        columns.add(new Column("v", Type.DOUBLE, false, AggregateType.SUM, "0", ""));
+
+        List<Database> dbs = Lists.newArrayList();
+        long id = 10000;
+        for (int i = 0; i < dbNum; i++) {
+            long dbId = id++;
+            Database db = new Database(dbId, "db" + i);
+            for (int j = 0; j < tableNumPerDb; j++) {
+                long tableId = id++;
+                long partitionId = id++;
+                long indexId = id++;
+                MaterializedIndex index = new MaterializedIndex(indexId, IndexState.NORMAL);
+                TabletMeta tabletMeta = new TabletMeta(dbId, tableId, partitionId, indexId, 0, TStorageMedium.HDD);
+                for (int k = 0; k < tabletNumPerTable; k++) {
+                    LocalTablet tablet = new LocalTablet(id++);
+                    for (int r = 0; r < 3; r++) {
+                        tablet.addReplica(new Replica(id++, r, ReplicaState.NORMAL, 1, 0), false);
+                    }
+                    // do not add the tablets to the inverted index
+                    index.addTablet(tablet, tabletMeta, true);
+                }
+
+                RandomDistributionInfo distributionInfo = new RandomDistributionInfo(tabletNumPerTable);
+                PartitionInfo partitionInfo = new SinglePartitionInfo();
+                partitionInfo.setDataProperty(partitionId, DataProperty.DEFAULT_DATA_PROPERTY);
+                partitionInfo.setReplicationNum(partitionId, (short) 3);
+                partitionInfo.setIsInMemory(partitionId, false);
+                partitionInfo.setTabletType(partitionId, TTabletType.TABLET_TYPE_DISK);
+                OlapTable table = new OlapTable(tableId, "tbl" + j, columns, KeysType.AGG_KEYS, partitionInfo,
+                        distributionInfo);
+                Deencapsulation.setField(table, "baseIndexId", indexId);
+                table.addPartition(new Partition(partitionId, "tbl" + j, index, distributionInfo));
+                table.setIndexMeta(indexId, "tbl" + j, columns, 0, 0, (short) 1, TStorageType.COLUMN,
+                        KeysType.AGG_KEYS);
+                db.createTable(table);
+            }
+            dbs.add(db);
+        }
+        return dbs;
+    }
+
+    @Test
+    public void testSaveSnapshotImage() throws IOException {
+        GlobalStateMgr globalStateMgr = GlobalStateMgr.getCurrentState();
+        Assert.assertEquals(200, globalStateMgr.saveSnapshotImage());
+        checkImage(new File(followerDir, "image.200"));
+        Assert.assertFalse(new File(followerDir, "image.ckpt").exists());
+        Assert.assertEquals(200, globalStateMgr.getImageJournalId());
+        Assert.assertEquals(1, savedImageNum);
+
+        // the image of the replayed journal id is saved already
+        Assert.assertEquals(200, globalStateMgr.saveSnapshotImage());
+        Assert.assertEquals(1, savedImageNum);
+
+        isMaster = true;
+        Deencapsulation.setField(globalStateMgr, "replayedJournalId", new AtomicLong(300));
+        try {
+            globalStateMgr.saveSnapshotImage();
+            Assert.fail();
+        } catch (IOException e) {
+            // expected
+        }
+        Assert.assertFalse(new File(followerDir, "image.300").exists());
+    }
+
+    private HttpURLConnection getSnapshot() throws IOException {
+        HttpURLConnection conn = (HttpURLConnection) new URL("http://127.0.0.1:" + port + "/snapshot")
+                .openConnection();
+        conn.setReadTimeout(10000);
+        return conn;
+    }
+
+    @Test
+    public void testSnapshotAction() throws IOException {
+        HttpURLConnection conn = getSnapshot();
+        try {
+            Assert.assertEquals(HttpURLConnection.HTTP_OK, conn.getResponseCode());
+            Assert.assertEquals("200", conn.getHeaderField("version"));
+        } finally {
+            conn.disconnect();
+        }
+        checkImage(new File(followerDir, "image.200"));
+
+        isMaster = true;
+        conn = getSnapshot();
+        try {
+            Assert.assertEquals(HttpURLConnection.HTTP_BAD_REQUEST, conn.getResponseCode());
+        } finally {
+            conn.disconnect();
+        }
+        Assert.assertEquals(1, savedImageNum);
+    }
+
+    @Test
+    public void testCreateImageBySnapshot() throws IOException {
+        Checkpoint checkpoint = new Checkpoint(journal);
+        Deencapsulation.setField(checkpoint, "imageDir", masterDir.getPath());
+
+        long version = Deencapsulation.invoke(checkpoint, "createImageBySnapshot", 100L);
+        Assert.assertEquals(200, version);
+        checkImage(new File(masterDir, "image.200"));
+        Assert.assertFalse(new File(masterDir, "image.200.part").exists());
+
+        // the snapshot image is not newer than the image of master
+        version = Deencapsulation.invoke(checkpoint, "createImageBySnapshot", 200L);
+        Assert.assertEquals(-1, version);
+
+        // no alive follower
+        Deencapsulation.setField(frontends.get(1), "isAlive", false);
+        Deencapsulation.setField(GlobalStateMgr.getCurrentState(), "replayedJournalId", new AtomicLong(300));
+        version = Deencapsulation.invoke(checkpoint, "createImageBySnapshot", 200L);
+        Assert.assertEquals(-1, version);
+        Assert.assertFalse(new File(masterDir, "image.300").exists());
+    }
+
+    // The peak heap of saving the image of a synthetic large catalog by the snapshot checkpoint is a small
+    // fraction of the catalog, while the replaying checkpoint loads another copy of it.
+    @Test
+    public void testPeakHeap() throws IOException {
+        long baseHeap = usedHeap();
+        dbs = createCatalog(10, 40, 128);
+        long catalogHeap = usedHeap() - baseHeap;
+
+        // snapshot checkpoint: serialize the serving catalog
+        maxUsedHeap = 0;
+        Assert.assertEquals(200, GlobalStateMgr.getCurrentState().saveSnapshotImage());
+        long snapshotHeap = Math.max(0, maxUsedHeap - baseHeap - catalogHeap);
+
+        // replaying checkpoint: load another copy of the catalog
+        List<Database> copiedDbs = loadCatalog(new File(followerDir, "image.200"), dbs.size());
+        long replayHeap = usedHeap() - baseHeap - catalogHeap;
+
+        Assert.assertEquals(dbs.size(), copiedDbs.size());
+        Assert.assertTrue(maxUsedHeap > 0);
+        Assert.assertTrue("snapshot: " + snapshotHeap + ", catalog: " + catalogHeap,
+                snapshotHeap < catalogHeap / 4);
+        Assert.assertTrue("replay: " + replayHeap + ", catalog: " + catalogHeap,
+                replayHeap > catalogHeap / 2);
+    }
+}
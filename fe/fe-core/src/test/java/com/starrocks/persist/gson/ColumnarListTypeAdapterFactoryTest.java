@@ -0,0 +1,188 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.persist.gson;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.starrocks.catalog.LocalTablet;
+import com.starrocks.catalog.MaterializedIndex;
+import com.starrocks.catalog.MaterializedIndex.IndexState;
+import com.starrocks.catalog.Replica;
+import com.starrocks.catalog.Replica.ReplicaState;
+import com.starrocks.catalog.Tablet;
+import com.starrocks.catalog.TabletMeta;
+import com.starrocks.catalog.lake.LakeTablet;
+import com.starrocks.common.Config;
+import com.starrocks.thrift.TStorageMedium;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class ColumnarListTypeAdapterFactoryTest {
+    private static final long INDEX_ID = 10000;
+
+    @After
+    public void tearDown() {
+        Config.enable_columnar_gson_serialization = false;
+    }
+
+    // an index of a synthetic large table, the tablets have 3 replicas on backends in round robin
+    private static MaterializedIndex createLocalIndex(int tabletNum) {
+        MaterializedIndex index = new MaterializedIndex(INDEX_ID, IndexState.NORMAL);
+        TabletMeta tabletMeta = new TabletMeta(1, 2, 3, INDEX_ID, 0, TStorageMedium.HDD);
+        long id = INDEX_ID + 1;
+        for (int i = 0; i < tabletNum; i++) {
+            LocalTablet tablet = new LocalTablet(id++);
+            for (int r = 0; r < 3; r++) {
+                Replica replica = new Replica(id++, (i + r) % 20, ReplicaState.NORMAL, 100 + i % 3, 0);
+                replica.updateRowCount(replica.getVersion(), 1024L * i, 10L * i);
+                tablet.addReplica(replica, false);
+            }
+            index.addTablet(tablet, tabletMeta, true);
+        }
+        return index;
+    }
+
+    private static MaterializedIndex createLakeIndex(int tabletNum) {
+        MaterializedIndex index = new MaterializedIndex(INDEX_ID, IndexState.NORMAL);
+        TabletMeta tabletMeta = new TabletMeta(1, 2, 3, INDEX_ID, 0, TStorageMedium.HDD);
+        for (int i = 0; i < tabletNum; i++) {
+            LakeTablet tablet = new LakeTablet(INDEX_ID + 1 + i);
+            tablet.setDataSize(1024L * i);
+            tablet.setRowCount(10L * i);
+            index.addTablet(tablet, tabletMeta, true);
+        }
+        return index;
+    }
+
+    private static void checkReplicas(LocalTablet expected, LocalTablet actual) {
+        Assert.assertEquals(expected.getId(), actual.getId());
+        List<Replica> expectedReplicas = expected.getReplicas();
+        List<Replica> actualReplicas = actual.getReplicas();
+        Assert.assertEquals(expectedReplicas.size(), actualReplicas.size());
+        for (int i = 0; i < expectedReplicas.size(); i++) {
+            Replica e = expectedReplicas.get(i);
+            Replica a = actualReplicas.get(i);
+            Assert.assertEquals(e.getId(), a.getId());
+            Assert.assertEquals(e.getBackendId(), a.getBackendId());
+            Assert.assertEquals(e.getVersion(), a.getVersion());
+            Assert.assertEquals(e.getDataSize(), a.getDataSize());
+            Assert.assertEquals(e.getRowCount(), a.getRowCount());
+            Assert.assertEquals(e.getState(), a.getState());
+            Assert.assertEquals(e.getLastFailedVersion(), a.getLastFailedVersion());
+            Assert.assertEquals(e.getLastSuccessVersion(), a.getLastSuccessVersion());
+        }
+    }
+
+    private static void checkIndex(MaterializedIndex expected, MaterializedIndex actual) {
+        Assert.assertEquals(expected.getTablets().size(), actual.getTablets().size());
+        for (int i = 0; i < expected.getTablets().size(); i++) {
+            Tablet e = expected.getTablets().get(i);
+            Tablet a = actual.getTablets().get(i);
+            Assert.assertEquals(e.getClass(), a.getClass());
+            Assert.assertEquals(e.getId(), a.getId());
+            Assert.assertSame(a, actual.getTablet(a.getId()));
+            if (e instanceof LocalTablet) {
+                checkReplicas((LocalTablet) e, (LocalTablet) a);
+            } else {
+                Assert.assertEquals(e.getDataSize(true), a.getDataSize(true));
+                Assert.assertEquals(e.getRowCount(0), a.getRowCount(0));
+            }
+        }
+    }
+
+    private static MaterializedIndex roundTrip(MaterializedIndex index) {
+        String json = GsonUtils.GSON.toJson(index);
+        return GsonUtils.GSON.fromJson(json, MaterializedIndex.class);
+    }
+
+    @Test
+    public void testLocalTablets() {
+        MaterializedIndex index = createLocalIndex(10);
+        Config.enable_columnar_gson_serialization = true;
+        String json = GsonUtils.GSON.toJson(index);
+        JsonObject replicas = JsonParser.parseString(json).getAsJsonObject().getAsJsonArray("tablets").get(0)
+                .getAsJsonObject().getAsJsonObject("replicas");
+        Assert.assertEquals("Replica", replicas.get("clazz").getAsString());
+        Assert.assertEquals(3, replicas.get("size").getAsInt());
+        Assert.assertEquals("NORMAL", replicas.getAsJsonObject("columns").getAsJsonObject("state")
+                .getAsJsonArray("dict").get(0).getAsString());
+        checkIndex(index, GsonUtils.GSON.fromJson(json, MaterializedIndex.class));
+    }
+
+    @Test
+    public void testLakeTablets() {
+        MaterializedIndex index = createLakeIndex(10);
+        Config.enable_columnar_gson_serialization = true;
+        String json = GsonUtils.GSON.toJson(index);
+        JsonObject tablets = JsonParser.parseString(json).getAsJsonObject().getAsJsonObject("tablets");
+        Assert.assertEquals("LakeTablet", tablets.get("clazz").getAsString());
+        Assert.assertEquals(10, tablets.get("size").getAsInt());
+        checkIndex(index, GsonUtils.GSON.fromJson(json, MaterializedIndex.class));
+    }
+
+    @Test
+    public void testReadJsonArray() {
+        // written by the earlier versions
+        Config.enable_columnar_gson_serialization = false;
+        MaterializedIndex localIndex = createLocalIndex(10);
+        String localJson = GsonUtils.GSON.toJson(localIndex);
+        MaterializedIndex lakeIndex = createLakeIndex(10);
+        String lakeJson = GsonUtils.GSON.toJson(lakeIndex);
+        Assert.assertTrue(JsonParser.parseString(lakeJson).getAsJsonObject().get("tablets").isJsonArray());
+
+        Config.enable_columnar_gson_serialization = true;
+        checkIndex(localIndex, GsonUtils.GSON.fromJson(localJson, MaterializedIndex.class));
+        checkIndex(lakeIndex, GsonUtils.GSON.fromJson(lakeJson, MaterializedIndex.class));
+    }
+
+    @Test
+    public void testMixedElements() {
+        Config.enable_columnar_gson_serialization = true;
+        MaterializedIndex index = createLocalIndex(2);
+        index.addTablet(new LakeTablet(INDEX_ID + 100), null, true);
+        String json = GsonUtils.GSON.toJson(index);
+        Assert.assertTrue(JsonParser.parseString(json).getAsJsonObject().get("tablets").isJsonArray());
+        checkIndex(index, GsonUtils.GSON.fromJson(json, MaterializedIndex.class));
+
+        // empty list
+        index = new MaterializedIndex(INDEX_ID, IndexState.NORMAL);
+        checkIndex(index, roundTrip(index));
+    }
+
+    @Test
+    public void testVarint() {
+        long[] values = {0, 1, -1, 63, -64, 64, 127, 128, Integer.MAX_VALUE, Integer.MIN_VALUE,
+                Long.MAX_VALUE, Long.MIN_VALUE};
+        ColumnarListTypeAdapterFactory.VarintWriter writer = new ColumnarListTypeAdapterFactory.VarintWriter(1);
+        for (long value : values) {
+            writer.writeSigned(value);
+            writer.writeUnsigned(value);
+        }
+        ColumnarListTypeAdapterFactory.VarintReader reader =
+                new ColumnarListTypeAdapterFactory.VarintReader(writer.toBase64());
+        for (long value : values) {
+            Assert.assertEquals(value, reader.readSigned());
+            Assert.assertEquals(value, reader.readUnsigned());
+        }
+    }
+
+    // the columnar json of a large index is less than half of the json array, and reads back the same
+    private static void checkSize(MaterializedIndex index) {
+        Config.enable_columnar_gson_serialization = false;
+        String arrayJson = GsonUtils.GSON.toJson(index);
+        Config.enable_columnar_gson_serialization = true;
+        String columnarJson = GsonUtils.GSON.toJson(index);
+        Assert.assertTrue("columnar " + columnarJson.length() + " bytes, json array " + arrayJson.length() + " bytes",
+                columnarJson.length() < arrayJson.length() / 2);
+        checkIndex(index, GsonUtils.GSON.fromJson(columnarJson, MaterializedIndex.class));
+    }
+
+    @Test
+    public void testSize() {
+        checkSize(createLocalIndex(100000));
+        checkSize(createLakeIndex(300000));
+    }
+}
@@ -7,18 +7,23 @@ import com.google.common.collect.ImmutableMap;
 import com.starrocks.analysis.TupleId;
 import com.starrocks.planner.DataPartition;
 import com.starrocks.planner.EmptySetNode;
+import com.starrocks.planner.ExchangeNode;
 import com.starrocks.planner.JoinNode;
 import com.starrocks.planner.PlanFragment;
 import com.starrocks.planner.PlanFragmentId;
 import com.starrocks.planner.PlanNodeId;
 import com.starrocks.planner.RuntimeFilterDescription;
 import com.starrocks.thrift.TDescriptorTable;
+import com.starrocks.thrift.TExecBatchPlanFragmentsParams;
+import com.starrocks.thrift.TExecPlanFragmentParams;
 import com.starrocks.thrift.TNetworkAddress;
 import com.starrocks.thrift.TPartitionType;
 import com.starrocks.thrift.TScanRangeParams;
 import com.starrocks.thrift.TUniqueId;
 import com.starrocks.utframe.UtFrameUtils;
+import mockit.Deencapsulation;
 import org.apache.commons.compress.utils.Lists;
+import org.apache.thrift.TSerializer;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -28,8 +33,10 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class CoordinatorTest {
     ConnectContext ctx;
@@ -331,4 +338,78 @@ public class CoordinatorTest {
                 expectedNumScanRangesList, expectedDriverSeq2NumScanRangesList);
 
     }
+
+    @Test
+    public void testComputeTopologicalOrderFragments() {
+        ArrayList<TupleId> tupleIdArrayList = new ArrayList<>();
+        tupleIdArrayList.add(new TupleId(1));
+        List<PlanFragment> fragments = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            fragments.add(new PlanFragment(new PlanFragmentId(i),
+                    new EmptySetNode(new PlanNodeId(i), tupleIdArrayList), DataPartition.RANDOM));
+        }
+        // fragment 0 <- fragment 1 <- fragment 3
+        //            <- fragment 2
+        int[] destFragmentIndexes = new int[] {-1, 0, 0, 1};
+        for (int i = 1; i < fragments.size(); i++) {
+            PlanFragment fragment = fragments.get(i);
+            ExchangeNode exchangeNode = new ExchangeNode(new PlanNodeId(10 + i), fragment.getPlanRoot(), false);
+            exchangeNode.setFragment(fragments.get(destFragmentIndexes[i]));
+            fragment.setDestination(exchangeNode);
+        }
+
+        Coordinator coord = new Coordinator(ctx, fragments, Lists.newArrayList(), new TDescriptorTable());
+        List<List<PlanFragment>> fragmentGroups = coord.computeTopologicalOrderFragments();
+        Assert.assertEquals(3, fragmentGroups.size());
+        Assert.assertEquals(Collections.singletonList(fragments.get(0)), fragmentGroups.get(0));
+        Assert.assertEquals(Arrays.asList(fragments.get(1), fragments.get(2)), fragmentGroups.get(1));
+        Assert.assertEquals(Collections.singletonList(fragments.get(3)), fragmentGroups.get(2));
+    }
+
+    @Test
+    public void testBatchFragmentsParamsSize() throws Exception {
+        ArrayList<TupleId> tupleIdArrayList = new ArrayList<>();
+        tupleIdArrayList.add(new TupleId(1));
+        PlanFragment fragment =
+                new PlanFragment(new PlanFragmentId(1), new EmptySetNode(new PlanNodeId(1), tupleIdArrayList),
+                        new DataPartition(TPartitionType.RANDOM));
+        Coordinator.FragmentExecParams params = coordinator.new FragmentExecParams(fragment);
+        TNetworkAddress host = new TNetworkAddress("host1", 8000);
+        int numInstances = 16;
+        Set<TUniqueId> instanceIds = new HashSet<>();
+        for (int i = 0; i < numInstances; i++) {
+            TUniqueId instanceId = new TUniqueId(0xdeadbeef, i);
+            Coordinator.FInstanceExecParam instance = new Coordinator.FInstanceExecParam(instanceId, host, i, params);
+            instance.perNodeScanRanges = createScanId2scanRanges(1, 4);
+            params.instanceExecParams.add(instance);
+            instanceIds.add(instanceId);
+        }
+        Map<TNetworkAddress, Integer> hostToNumbers = Deencapsulation.getField(coordinator, "hostToNumbers");
+        hostToNumbers.put(host, numInstances);
+
+        TSerializer serializer = new TSerializer();
+        long legacyBytes = 0;
+        for (TExecPlanFragmentParams instanceParams : params.toThrift(instanceIds, new TDescriptorTable(), null,
+                false)) {
+            legacyBytes += serializer.serialize(instanceParams).length;
+        }
+
+        TExecBatchPlanFragmentsParams batchParams = new TExecBatchPlanFragmentsParams();
+        TExecPlanFragmentParams commonParams =
+                params.toThriftForCommonParams(host, new TDescriptorTable(), false, null);
+        commonParams.params.setFragment_instance_id(params.instanceExecParams.get(0).instanceId);
+        batchParams.setCommon_param(commonParams);
+        for (int i = 0; i < numInstances; i++) {
+            TExecPlanFragmentParams uniqueParams = params.toThriftForUniqueParams(i, false);
+            Assert.assertEquals(i, uniqueParams.params.getSender_id());
+            Assert.assertEquals(params.instanceExecParams.get(i).instanceId,
+                    uniqueParams.params.getFragment_instance_id());
+            Assert.assertEquals(4, uniqueParams.params.getPer_node_scan_ranges().get(1).size());
+            batchParams.addToUnique_param_per_instance(uniqueParams);
+        }
+        long batchBytes = serializer.serialize(batchParams).length;
+
+        // the common part is only serialized once in the batch
+        Assert.assertTrue("batch: " + batchBytes + ", legacy: " + legacyBytes, batchBytes * 2 < legacyBytes);
+    }
 }
@@ -0,0 +1,105 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.qe;
+
+import com.google.common.collect.ImmutableMap;
+import com.starrocks.common.Config;
+import com.starrocks.sql.PlannerProfile;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+public class QueryPhaseStatsTest {
+    @After
+    public void tearDown() {
+        QueryPhaseStats.clear();
+    }
+
+    private static Map<String, Long> phaseTimes(long analyze, long optimize, long deploy) {
+        return ImmutableMap.of(QueryPhaseStats.PARSER, 1L,
+                QueryPhaseStats.ANALYZER, analyze,
+                QueryPhaseStats.OPTIMIZER, optimize,
+                QueryPhaseStats.PLAN_BUILDER, 2L,
+                QueryPhaseStats.DEPLOY, deploy);
+    }
+
+    @Test
+    public void testTopNByPlannerTime() {
+        QueryPhaseStats.addDigestStats("d1", "select * from t0", phaseTimes(1, 10, 100));
+        QueryPhaseStats.addDigestStats("d2", "select * from t0 join t1", phaseTimes(5, 200, 10));
+        QueryPhaseStats.addDigestStats("d1", "select * from t0", phaseTimes(1, 30, 100));
+        QueryPhaseStats.addDigestStats("d3", "select 1", phaseTimes(0, 0, 0));
+
+        List<QueryPhaseStats.DigestStats> top = QueryPhaseStats.getTopNByPlannerTime(2);
+        Assert.assertEquals(2, top.size());
+        Assert.assertEquals("d2", top.get(0).getDigest());
+        Assert.assertEquals(207, top.get(0).getPlannerTimeMs());
+
+        QueryPhaseStats.DigestStats d1 = top.get(1);
+        Assert.assertEquals("d1", d1.getDigest());
+        Assert.assertEquals(2, d1.getCount());
+        Assert.assertEquals(2, d1.getParseTimeMs());
+        Assert.assertEquals(40, d1.getOptimizeTimeMs());
+        Assert.assertEquals(200, d1.getDeployTimeMs());
+        Assert.assertEquals(33, d1.getMaxPlannerTimeMs());
+
+        Assert.assertEquals(3, QueryPhaseStats.getTopNByPlannerTime(10).size());
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUpdated() {
+        int maxNum = Config.query_digest_stats_max_num;
+        try {
+            Config.query_digest_stats_max_num = 2;
+            QueryPhaseStats.addDigestStats("d1", "select 1", phaseTimes(1, 100, 0));
+            QueryPhaseStats.addDigestStats("d2", "select 2", phaseTimes(1, 1, 0));
+            QueryPhaseStats.addDigestStats("d1", "select 1", phaseTimes(1, 100, 0));
+            QueryPhaseStats.addDigestStats("d3", "select 3", phaseTimes(1, 10, 0));
+
+            List<QueryPhaseStats.DigestStats> top = QueryPhaseStats.getTopNByPlannerTime(10);
+            Assert.assertEquals(2, top.size());
+            Assert.assertEquals("d1", top.get(0).getDigest());
+            Assert.assertEquals("d3", top.get(1).getDigest());
+
+            Config.query_digest_stats_max_num = 0;
+            QueryPhaseStats.addDigestStats("d4", "select 4", phaseTimes(1, 1, 0));
+            Assert.assertTrue(QueryPhaseStats.getTopNByPlannerTime(10).isEmpty());
+        } finally {
+            Config.query_digest_stats_max_num = maxNum;
+        }
+    }
+
+    @Test
+    public void testPhaseTimes() {
+        ConnectContext ctx = new ConnectContext();
+        ctx.setThreadLocalInfo();
+        try {
+            try (PlannerProfile.ScopedTimer deploy = PlannerProfile.getScopedTimer(QueryPhaseStats.DEPLOY)) {
+                try (PlannerProfile.ScopedTimer queue = PlannerProfile.getScopedTimer(QueryPhaseStats.QUERY_QUEUE)) {
+                    Assert.assertNotSame(deploy, queue);
+                }
+            }
+            Map<String, Long> phaseTimes = QueryPhaseStats.getPhaseTimes(ctx.getPlannerProfile());
+            Assert.assertEquals(1, phaseTimes.size());
+            Assert.assertTrue(phaseTimes.get(QueryPhaseStats.DEPLOY) >= 0);
+
+            ctx.getPlannerProfile().reset();
+            Assert.assertTrue(QueryPhaseStats.getPhaseTimes(ctx.getPlannerProfile()).isEmpty());
+        } finally {
+            ConnectContext.remove();
+        }
+    }
+
+    @Test
+    public void testTimerWithoutContext() {
+        ConnectContext.remove();
+        // not recorded, so the same timer could be started again before it is closed
+        try (PlannerProfile.ScopedTimer outer = PlannerProfile.getScopedTimer(QueryPhaseStats.OPTIMIZER);
+                PlannerProfile.ScopedTimer inner = PlannerProfile.getScopedTimer(QueryPhaseStats.OPTIMIZER)) {
+            Assert.assertNotSame(outer, inner);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.qe;
+
+import com.starrocks.catalog.WorkGroup;
+import com.starrocks.common.Config;
+import com.starrocks.common.UserException;
+import com.starrocks.utframe.UtFrameUtils;
+import mockit.Mock;
+import mockit.MockUp;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class QueryQueueManagerTest {
+    private QueryQueueManager manager;
+
+    @Before
+    public void setUp() {
+        manager = new QueryQueueManager();
+        Config.query_queue_concurrency_limit = 1;
+        Config.query_queue_mem_used_pct_limit = 0;
+        Config.query_queue_max_queued_queries = 1024;
+    }
+
+    @After
+    public void tearDown() {
+        Config.query_queue_concurrency_limit = 0;
+    }
+
+    private ConnectContext createContext(int priority) throws IOException {
+        ConnectContext ctx = UtFrameUtils.createDefaultCtx();
+        ctx.getSessionVariable().setQueryQueuePriority(priority);
+        return ctx;
+    }
+
+    private WorkGroup createGroup(long id, int concurrencyLimit) {
+        WorkGroup group = new WorkGroup();
+        group.setId(id);
+        group.setName("wg" + id);
+        group.setConcurrencyLimit(concurrencyLimit);
+        return group;
+    }
+
+    private Thread acquireAsync(ConnectContext ctx, WorkGroup group, List<String> admitted, String name) {
+        Thread thread = new Thread(() -> {
+            try {
+                manager.acquireSlot(ctx, group, 10000, () -> false);
+                admitted.add(name);
+            } catch (UserException e) {
+                admitted.add(name + " failed");
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private void waitPending(int num) throws InterruptedException {
+        while (manager.getNumPendingQueries() != num) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void testConcurrencyLimit() throws Exception {
+        manager.acquireSlot(createContext(0), null, 1000, () -> false);
+        Assert.assertEquals(1, manager.getNumRunningQueries());
+
+        List<String> admitted = new CopyOnWriteArrayList<>();
+        Thread thread = acquireAsync(createContext(0), null, admitted, "q2");
+        waitPending(1);
+        Assert.assertTrue(admitted.isEmpty());
+
+        manager.releaseSlot(null);
+        thread.join();
+        Assert.assertEquals("q2", admitted.get(0));
+        Assert.assertEquals(1, manager.getNumRunningQueries());
+        Assert.assertEquals(0, manager.getNumPendingQueries());
+    }
+
+    @Test
+    public void testPendingTimeoutAndCancel() throws Exception {
+        manager.acquireSlot(createContext(0), null, 1000, () -> false);
+        try {
+            manager.acquireSlot(createContext(0), null, 100, () -> false);
+            Assert.fail();
+        } catch (UserException e) {
+            Assert.assertTrue(e.getMessage().contains("Pending timeout"));
+        }
+        try {
+            manager.acquireSlot(createContext(0), null, 1000, () -> true);
+            Assert.fail();
+        } catch (UserException e) {
+            Assert.assertTrue(e.getMessage().contains("Cancelled"));
+        }
+        Assert.assertEquals(0, manager.getNumPendingQueries());
+
+        Config.query_queue_max_queued_queries = 0;
+        try {
+            manager.acquireSlot(createContext(0), null, 1000, () -> false);
+            Assert.fail();
+        } catch (UserException e) {
+            Assert.assertTrue(e.getMessage().contains("query queue is full"));
+        }
+    }
+
+    @Test
+    public void testPriority() throws Exception {
+        manager.acquireSlot(createContext(0), null, 1000, () -> false);
+
+        List<String> admitted = new CopyOnWriteArrayList<>();
+        Thread low = acquireAsync(createContext(0), null, admitted, "low");
+        waitPending(1);
+        Thread high = acquireAsync(createContext(10), null, admitted, "high");
+        waitPending(2);
+
+        manager.releaseSlot(null);
+        high.join();
+        manager.releaseSlot(null);
+        low.join();
+        Assert.assertEquals("high", admitted.get(0));
+        Assert.assertEquals("low", admitted.get(1));
+    }
+
+    @Test
+    public void testGroupConcurrencyLimitAndFairness() throws Exception {
+        Config.query_queue_concurrency_limit = 2;
+        WorkGroup group1 = createGroup(1, 1);
+        WorkGroup group2 = createGroup(2, 10);
+
+        // the limit of group1 does not block group2
+        manager.acquireSlot(createContext(0), group1, 1000, () -> false);
+        List<String> admitted = new CopyOnWriteArrayList<>();
+        Thread group1Query = acquireAsync(createContext(0), group1, admitted, "group1");
+        waitPending(1);
+        manager.acquireSlot(createContext(0), group2, 1000, () -> false);
+        Assert.assertEquals(2, manager.getNumRunningQueries());
+
+        // group2 queries arrive before the slot of group1 is returned, but group1 is served in turn
+        Thread group2Query1 = acquireAsync(createContext(0), group2, admitted, "group2-1");
+        waitPending(2);
+        Thread group2Query2 = acquireAsync(createContext(0), group2, admitted, "group2-2");
+        waitPending(3);
+
+        manager.releaseSlot(group1);
+        group1Query.join();
+        Assert.assertEquals("group1", admitted.get(0));
+
+        manager.releaseSlot(group2);
+        group2Query1.join();
+        manager.releaseSlot(group2);
+        group2Query2.join();
+        Assert.assertEquals("group2-1", admitted.get(1));
+        Assert.assertEquals("group2-2", admitted.get(2));
+    }
+
+    @Test
+    public void testClusterConcurrencyLimit() throws Exception {
+        Assert.assertEquals(2, QueryQueueManager.getLocalLimit(3, 2));
+        Assert.assertEquals(1, QueryQueueManager.getLocalLimit(1, 3));
+        Assert.assertEquals(3, QueryQueueManager.getLocalLimit(3, 1));
+
+        new MockUp<QueryQueueManager>() {
+            @Mock
+            int getNumAliveFrontends() {
+                return 2;
+            }
+        };
+        // this FE takes 2 of the cluster limit 4, and 1 of the group limit 2
+        Config.query_queue_concurrency_limit = 4;
+        WorkGroup group = createGroup(1, 2);
+        manager.acquireSlot(createContext(0), group, 1000, () -> false);
+        try {
+            manager.acquireSlot(createContext(0), group, 100, () -> false);
+            Assert.fail();
+        } catch (UserException e) {
+            Assert.assertTrue(e.getMessage().contains("Pending timeout"));
+        }
+        manager.acquireSlot(createContext(0), null, 1000, () -> false);
+        try {
+            manager.acquireSlot(createContext(0), null, 100, () -> false);
+            Assert.fail();
+        } catch (UserException e) {
+            Assert.assertTrue(e.getMessage().contains("Pending timeout"));
+        }
+        Assert.assertEquals(2, manager.getNumRunningQueries());
+    }
+}
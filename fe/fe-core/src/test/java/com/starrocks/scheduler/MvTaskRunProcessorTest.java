@@ -1,10 +1,13 @@
 package com.starrocks.scheduler;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.starrocks.analysis.DmlStmt;
 import com.starrocks.catalog.Database;
 import com.starrocks.catalog.ExpressionRangePartitionInfo;
 import com.starrocks.catalog.MaterializedView;
+import com.starrocks.catalog.OlapTable;
 import com.starrocks.catalog.Partition;
 import com.starrocks.common.Config;
 import com.starrocks.common.FeConstants;
@@ -22,6 +25,7 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 public class MvTaskRunProcessorTest {
@@ -68,7 +72,86 @@ public class MvTaskRunProcessorTest {
                         "distributed by hash(k2)\n" +
                         "refresh manual\n" +
                         "properties('replication_num' = '1')\n" +
-                        "as select tbl1.k1, tbl2.k2 from tbl1 join tbl2 on tbl1.k2 = tbl2.k2;");
+                        "as select tbl1.k1, tbl2.k2 from tbl1 join tbl2 on tbl1.k2 = tbl2.k2;")
+                .withTable("CREATE TABLE test.tbl3\n" +
+                        "(\n" +
+                        "    k1 date,\n" +
+                        "    k2 int,\n" +
+                        "    v1 int\n" +
+                        ")\n" +
+                        "DUPLICATE KEY(k1, k2)\n" +
+                        "PARTITION BY RANGE(k1)\n" +
+                        "(\n" +
+                        "    PARTITION p1 values [('2022-02-01'),('2022-02-16')),\n" +
+                        "    PARTITION p2 values [('2022-02-16'),('2022-03-01'))\n" +
+                        ")\n" +
+                        "DISTRIBUTED BY HASH(k2) BUCKETS 3\n" +
+                        "PROPERTIES('replication_num' = '1');")
+                .withNewMaterializedView("create materialized view test.mv2\n" +
+                        "partition by tbl3.k1\n" +
+                        "distributed by hash(k2)\n" +
+                        "refresh manual\n" +
+                        "properties('replication_num' = '1')\n" +
+                        "as select tbl3.k1, tbl3.k2, tbl3.v1 from tbl3 where tbl3.v1 > 0;")
+                .withTable("CREATE TABLE test.tbl4\n" +
+                        "(\n" +
+                        "    k1 date,\n" +
+                        "    k2 int,\n" +
+                        "    v1 int\n" +
+                        ")\n" +
+                        "DUPLICATE KEY(k1, k2)\n" +
+                        "PARTITION BY RANGE(k1)\n" +
+                        "(\n" +
+                        "    PARTITION p1 values [('2022-02-01'),('2022-02-16')),\n" +
+                        "    PARTITION p2 values [('2022-02-16'),('2022-03-01'))\n" +
+                        ")\n" +
+                        "DISTRIBUTED BY HASH(k2) BUCKETS 3\n" +
+                        "PROPERTIES('replication_num' = '1');")
+                .withNewMaterializedView("create materialized view test.mv3\n" +
+                        "partition by tbl4.k1\n" +
+                        "distributed by hash(k1)\n" +
+                        "refresh manual\n" +
+                        "properties('replication_num' = '1')\n" +
+                        "as select tbl4.k1, sum(tbl4.v1) as total from tbl4 group by tbl4.k1;")
+                .withTable("CREATE TABLE test.tbl5\n" +
+                        "(\n" +
+                        "    k1 date,\n" +
+                        "    k2 int,\n" +
+                        "    v1 int\n" +
+                        ")\n" +
+                        "DUPLICATE KEY(k1, k2)\n" +
+                        "PARTITION BY RANGE(k1)\n" +
+                        "(\n" +
+                        "    PARTITION p1 values [('2022-02-01'),('2022-02-16')),\n" +
+                        "    PARTITION p2 values [('2022-02-16'),('2022-03-01'))\n" +
+                        ")\n" +
+                        "DISTRIBUTED BY HASH(k2) BUCKETS 3\n" +
+                        "PROPERTIES('replication_num' = '1');")
+                .withNewMaterializedView("create materialized view test.mv4\n" +
+                        "distributed by hash(k2)\n" +
+                        "refresh manual\n" +
+                        "properties('replication_num' = '1')\n" +
+                        "as select tbl5.k2, sum(tbl5.v1) as total from tbl5 group by tbl5.k2;")
+                .withTable("CREATE TABLE test.tbl6\n" +
+                        "(\n" +
+                        "    k1 date,\n" +
+                        "    k2 int,\n" +
+                        "    v1 int\n" +
+                        ")\n" +
+                        "DUPLICATE KEY(k1, k2)\n" +
+                        "PARTITION BY RANGE(k1)\n" +
+                        "(\n" +
+                        "    PARTITION p1 values [('2022-02-01'),('2022-02-16')),\n" +
+                        "    PARTITION p2 values [('2022-02-16'),('2022-03-01')),\n" +
+                        "    PARTITION p3 values [('2022-03-01'),('2022-03-16'))\n" +
+                        ")\n" +
+                        "DISTRIBUTED BY HASH(k2) BUCKETS 3\n" +
+                        "PROPERTIES('replication_num' = '1');")
+                .withNewMaterializedView("create materialized view test.mv5\n" +
+                        "distributed by hash(k2)\n" +
+                        "refresh manual\n" +
+                        "properties('replication_num' = '1')\n" +
+                        "as select tbl6.k1, tbl6.k2, tbl6.v1 from tbl6;");
     }
 
     @Test
@@ -120,4 +203,145 @@ public class MvTaskRunProcessorTest {
             Assert.fail(e.getMessage());
         }
     }
+
+    @Test
+    public void testIncrementalRefresh() {
+        new MockUp<StmtExecutor>() {
+            @Mock
+            public void handleDMLStmt(ExecPlan execPlan, DmlStmt stmt) throws Exception {}
+        };
+
+        Database testDb = GlobalStateMgr.getCurrentState().getDb("default_cluster:test");
+        MaterializedView materializedView = ((MaterializedView) testDb.getTable("mv2"));
+        OlapTable baseTable = (OlapTable) testDb.getTable("tbl3");
+        Task task = TaskBuilder.buildMvTask(materializedView, testDb.getFullName());
+        TaskRun taskRun = TaskRunBuilder.newBuilder(task).build();
+
+        boolean enableIncrementalRefresh = Config.enable_mv_incremental_refresh;
+        Config.enable_mv_incremental_refresh = true;
+        try {
+            // first sync partition
+            taskRun.initStatus(UUIDUtil.genUUID().toString(), System.currentTimeMillis());
+            taskRun.executeTaskRun();
+            Assert.assertEquals(2, materializedView.getPartitions().size());
+
+            // data appended to an empty partition is a delta
+            Partition p1 = baseTable.getPartition("p1");
+            p1.setVisibleVersion(p1.getVisibleVersion() + 1, System.currentTimeMillis());
+            taskRun.initStatus(UUIDUtil.genUUID().toString(), System.currentTimeMillis());
+            taskRun.executeTaskRun();
+            Assert.assertEquals(Constants.MvRefreshMode.INCREMENTAL.name(), taskRun.getStatus().getMvRefreshMode());
+            Assert.assertEquals(1, taskRun.getStatus().getMvScanPartitionNum());
+
+            // data appended to a partition already consumed by the mv must be recomputed
+            p1.setVisibleVersion(p1.getVisibleVersion() + 1, System.currentTimeMillis());
+            taskRun.initStatus(UUIDUtil.genUUID().toString(), System.currentTimeMillis());
+            taskRun.executeTaskRun();
+            Assert.assertEquals(Constants.MvRefreshMode.PARTITION.name(), taskRun.getStatus().getMvRefreshMode());
+        } catch (Exception e) {
+            Assert.fail(e.getMessage());
+        } finally {
+            Config.enable_mv_incremental_refresh = enableIncrementalRefresh;
+        }
+    }
+
+    private String refreshAfterAppend(String mvName, String baseTableName) throws Exception {
+        Database testDb = GlobalStateMgr.getCurrentState().getDb("default_cluster:test");
+        MaterializedView materializedView = ((MaterializedView) testDb.getTable(mvName));
+        OlapTable baseTable = (OlapTable) testDb.getTable(baseTableName);
+        Task task = TaskBuilder.buildMvTask(materializedView, testDb.getFullName());
+        TaskRun taskRun = TaskRunBuilder.newBuilder(task).build();
+        taskRun.initStatus(UUIDUtil.genUUID().toString(), System.currentTimeMillis());
+        taskRun.executeTaskRun();
+
+        // append data to an empty partition
+        Partition p1 = baseTable.getPartition("p1");
+        p1.setVisibleVersion(p1.getVisibleVersion() + 1, System.currentTimeMillis());
+        taskRun.initStatus(UUIDUtil.genUUID().toString(), System.currentTimeMillis());
+        taskRun.executeTaskRun();
+        return taskRun.getStatus().getMvRefreshMode();
+    }
+
+    @Test
+    public void testIncrementalRefreshAggregation() {
+        new MockUp<StmtExecutor>() {
+            @Mock
+            public void handleDMLStmt(ExecPlan execPlan, DmlStmt stmt) throws Exception {}
+        };
+
+        boolean enableIncrementalRefresh = Config.enable_mv_incremental_refresh;
+        Config.enable_mv_incremental_refresh = true;
+        try {
+            // the groups of the new partition are new groups of the mv
+            Assert.assertEquals(Constants.MvRefreshMode.INCREMENTAL.name(), refreshAfterAppend("mv3", "tbl4"));
+            // the groups of the new partition may already exist in the mv
+            Assert.assertEquals(Constants.MvRefreshMode.FULL.name(), refreshAfterAppend("mv4", "tbl5"));
+        } catch (Exception e) {
+            Assert.fail(e.getMessage());
+        } finally {
+            Config.enable_mv_incremental_refresh = enableIncrementalRefresh;
+        }
+    }
+
+    @Test
+    public void testSplitRefreshBatches() {
+        List<List<Long>> batches = MvTaskRunProcessor.splitRefreshBatches(Sets.newHashSet(5L, 1L, 3L, 2L, 4L), 2);
+        Assert.assertEquals(3, batches.size());
+        Assert.assertEquals(Lists.newArrayList(1L, 2L), batches.get(0));
+        Assert.assertEquals(Lists.newArrayList(3L, 4L), batches.get(1));
+        Assert.assertEquals(Lists.newArrayList(5L), batches.get(2));
+
+        // non positive batch size refreshes partition by partition
+        batches = MvTaskRunProcessor.splitRefreshBatches(Sets.newHashSet(1L, 2L), 0);
+        Assert.assertEquals(2, batches.size());
+        Assert.assertTrue(MvTaskRunProcessor.splitRefreshBatches(Sets.newHashSet(), 8).isEmpty());
+    }
+
+    @Test
+    public void testIncrementalRefreshAfterDropPartition() {
+        new MockUp<StmtExecutor>() {
+            @Mock
+            public void handleDMLStmt(ExecPlan execPlan, DmlStmt stmt) throws Exception {}
+        };
+
+        Database testDb = GlobalStateMgr.getCurrentState().getDb("default_cluster:test");
+        MaterializedView materializedView = ((MaterializedView) testDb.getTable("mv5"));
+        OlapTable baseTable = (OlapTable) testDb.getTable("tbl6");
+        Task task = TaskBuilder.buildMvTask(materializedView, testDb.getFullName());
+        TaskRun taskRun = TaskRunBuilder.newBuilder(task).build();
+
+        boolean enableIncrementalRefresh = Config.enable_mv_incremental_refresh;
+        Config.enable_mv_incremental_refresh = true;
+        try {
+            taskRun.initStatus(UUIDUtil.genUUID().toString(), System.currentTimeMillis());
+            taskRun.executeTaskRun();
+            Partition p1 = baseTable.getPartition("p1");
+            p1.setVisibleVersion(p1.getVisibleVersion() + 1, System.currentTimeMillis());
+            taskRun.initStatus(UUIDUtil.genUUID().toString(), System.currentTimeMillis());
+            taskRun.executeTaskRun();
+            Assert.assertEquals(Constants.MvRefreshMode.INCREMENTAL.name(), taskRun.getStatus().getMvRefreshMode());
+
+            // the rows of the dropped partition are still in the mv, appending p3 alone is not a delta
+            long p2Id = baseTable.getPartition("p2").getId();
+            new StmtExecutor(connectContext, "ALTER TABLE test.tbl6 DROP PARTITION p2").execute();
+            Partition p3 = baseTable.getPartition("p3");
+            p3.setVisibleVersion(p3.getVisibleVersion() + 1, System.currentTimeMillis());
+            taskRun.initStatus(UUIDUtil.genUUID().toString(), System.currentTimeMillis());
+            taskRun.executeTaskRun();
+            Assert.assertEquals(Constants.MvRefreshMode.FULL.name(), taskRun.getStatus().getMvRefreshMode());
+            Map<Long, Long> versions = materializedView.getRefreshScheme().getAsyncRefreshContext()
+                    .getBaseTableVisibleVersionMap().get(baseTable.getId());
+            Assert.assertFalse(versions.containsKey(p2Id));
+
+            // a dropped partition alone also needs a refresh
+            new StmtExecutor(connectContext, "ALTER TABLE test.tbl6 DROP PARTITION p3").execute();
+            taskRun.initStatus(UUIDUtil.genUUID().toString(), System.currentTimeMillis());
+            taskRun.executeTaskRun();
+            Assert.assertEquals(Constants.MvRefreshMode.FULL.name(), taskRun.getStatus().getMvRefreshMode());
+        } catch (Exception e) {
+            Assert.fail(e.getMessage());
+        } finally {
+            Config.enable_mv_incremental_refresh = enableIncrementalRefresh;
+        }
+    }
 }
@@ -19,6 +19,7 @@ import org.junit.Test;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -141,4 +142,33 @@ public class ScalarOperatorEvaluatorTest {
         assertEquals(result, operator);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void evaluationBatch() {
+        Function fn =
+                new Function(new FunctionName(FunctionSet.STR_TO_DATE), new Type[] {Type.VARCHAR, Type.VARCHAR},
+                        Type.DATETIME,
+                        false);
+        List<CallOperator> operators = Lists.newArrayList();
+        for (int day = 1; day <= 3; day++) {
+            CallOperator operator = new CallOperator(FunctionSet.STR_TO_DATE, Type.DATETIME, Lists.newArrayList(
+                    ConstantOperator.createVarchar("2003-10-0" + day),
+                    ConstantOperator.createVarchar("%Y-%m-%d")
+            ), fn);
+            operators.add(operator);
+        }
+        CallOperator notConstant = new CallOperator(FunctionSet.STR_TO_DATE, Type.DATETIME, Lists.newArrayList(
+                new ColumnRefOperator(1, Type.VARCHAR, "test", true),
+                ConstantOperator.createVarchar("%Y-%m-%d")
+        ), fn);
+        operators.add(notConstant);
+
+        List<ScalarOperator> results = ScalarOperatorEvaluator.INSTANCE.evaluation(operators);
+
+        assertEquals(4, results.size());
+        for (int day = 1; day <= 3; day++) {
+            assertEquals(LocalDateTime.of(2003, 10, day, 0, 0, 0),
+                    ((ConstantOperator) results.get(day - 1)).getDatetime());
+        }
+        assertEquals(notConstant, results.get(3));
+    }
+}
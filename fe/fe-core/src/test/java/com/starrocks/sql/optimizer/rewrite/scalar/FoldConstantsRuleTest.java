@@ -17,12 +17,20 @@ import com.starrocks.sql.optimizer.operator.scalar.ConstantOperator;
 import com.starrocks.sql.optimizer.operator.scalar.InPredicateOperator;
 import com.starrocks.sql.optimizer.operator.scalar.IsNullPredicateOperator;
 import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
+import com.starrocks.sql.optimizer.rewrite.ScalarOperatorEvaluator;
 import com.starrocks.sql.optimizer.rewrite.ScalarOperatorRewriteContext;
+import com.starrocks.sql.optimizer.rewrite.ScalarOperatorRewriteRule;
+import com.starrocks.sql.optimizer.rewrite.ScalarOperatorRewriter;
 import mockit.Expectations;
+import mockit.Invocation;
+import mockit.Mock;
+import mockit.MockUp;
 import org.junit.Test;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
 
@@ -94,6 +102,40 @@ public class FoldConstantsRuleTest {
         assertEquals(OB_NULL, rule.apply(ipo6, null));
     }
 
+    @Test
+    public void applyInWithCalls() {
+        Function fn =
+                new Function(new FunctionName(FunctionSet.STR_TO_DATE), new Type[] {Type.VARCHAR, Type.VARCHAR},
+                        Type.DATETIME, false);
+        List<ScalarOperator> arguments = Lists.newArrayList(new ColumnRefOperator(1, Type.DATETIME, "dt", true));
+        for (int day = 1; day <= 3; day++) {
+            arguments.add(new CallOperator(FunctionSet.STR_TO_DATE, Type.DATETIME, Lists.newArrayList(
+                    ConstantOperator.createVarchar("2003-10-0" + day),
+                    ConstantOperator.createVarchar("%Y-%m-%d")
+            ), fn));
+        }
+        InPredicateOperator in = new InPredicateOperator(false, arguments);
+
+        AtomicInteger batchNum = new AtomicInteger();
+        new MockUp<ScalarOperatorEvaluator>() {
+            @Mock
+            public List<ScalarOperator> evaluation(Invocation invocation, List<CallOperator> roots) {
+                batchNum.incrementAndGet();
+                return invocation.proceed(roots);
+            }
+        };
+        ScalarOperator result = new ScalarOperatorRewriter().rewrite(in,
+                Lists.<ScalarOperatorRewriteRule>newArrayList(rule));
+
+        // the calls in the IN list are folded in one batch
+        assertEquals(1, batchNum.get());
+        assertEquals(in, result);
+        for (int day = 1; day <= 3; day++) {
+            assertEquals(LocalDateTime.of(2003, 10, day, 0, 0, 0),
+                    ((ConstantOperator) result.getChild(day)).getDatetime());
+        }
+    }
+
     @Test
     public void applyInNull() {
         InPredicateOperator ipo2 = new InPredicateOperator(ConstantOperator.createInt(0),
@@ -2,6 +2,7 @@
 
 package com.starrocks.sql.plan;
 
+import com.google.common.collect.Lists;
 import com.starrocks.catalog.Database;
 import com.starrocks.catalog.LocalTablet;
 import com.starrocks.catalog.MaterializedIndex;
@@ -9,10 +10,17 @@ import com.starrocks.catalog.OlapTable;
 import com.starrocks.catalog.Partition;
 import com.starrocks.catalog.Replica;
 import com.starrocks.catalog.Tablet;
+import com.starrocks.common.FeConstants;
+import com.starrocks.planner.JDBCScanNode;
 import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.thrift.TExplainLevel;
+import com.starrocks.thrift.TScanRangeLocations;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class ExternalTableTest extends PlanTestBase {
     @Test
     public void testMysqlTableFilter() throws Exception {
@@ -151,6 +159,40 @@ public class ExternalTableTest extends PlanTestBase {
 
     }
 
+    @Test
+    public void testPartitionedJDBCTable() throws Exception {
+        FeConstants.runningUnitTest = true;
+        starRocksAssert.withTable("create external table test.jdbc_partitioned_test\n" +
+                "(a int, b varchar(20), c date)\n" +
+                "ENGINE=jdbc\n" +
+                "PROPERTIES (\n" +
+                "\"resource\"=\"jdbc_test\",\n" +
+                "\"table\"=\"test_table\",\n" +
+                "\"partition_column\"=\"a\",\n" +
+                "\"partition_num\"=\"4\",\n" +
+                "\"partition_lower_bound\"=\"0\",\n" +
+                "\"partition_upper_bound\"=\"100\"\n" +
+                ");");
+        FeConstants.runningUnitTest = false;
+
+        String sql = "select * from test.jdbc_partitioned_test where b < 'abc'";
+        ExecPlan plan = getExecPlan(sql);
+        Assert.assertTrue(plan.getExplainString(TExplainLevel.NORMAL).contains("0:SCAN JDBC\n" +
+                "     TABLE: `test_table`\n" +
+                "     QUERY: SELECT a, b, c FROM `test_table` WHERE (b < 'abc')\n" +
+                "     PARTITION COLUMN: a\n" +
+                "     PARTITIONS: 4"));
+
+        JDBCScanNode scanNode = (JDBCScanNode) plan.getScanNodes().get(0);
+        List<String> predicates = new ArrayList<>();
+        for (TScanRangeLocations locations : scanNode.getScanRangeLocations(0)) {
+            predicates.add(locations.getScan_range().getJdbc_scan_range().getPartition_predicate());
+        }
+        Assert.assertEquals(Lists.newArrayList("a < 25 OR a IS NULL", "a >= 25 AND a < 50",
+                "a >= 50 AND a < 75", "a >= 75"), predicates);
+        Assert.assertEquals(4, scanNode.getNumInstances());
+    }
+
     @Test
     public void testJDBCTableAggregation() throws Exception {
         String sql = "select b, sum(a) from test.jdbc_test group by b";
@@ -4,6 +4,7 @@ package com.starrocks.sql.plan;
 
 import com.starrocks.catalog.OlapTable;
 import com.starrocks.common.FeConstants;
+import com.starrocks.qe.SessionVariable;
 import com.starrocks.server.GlobalStateMgr;
 import org.junit.Assert;
 import org.junit.BeforeClass;
@@ -476,6 +477,89 @@ public class MultiJoinReorderTest extends PlanTestBase {
                 "  |  join op: INNER JOIN (BUCKET_SHUFFLE)"));
     }
 
+    @Test
+    public void testInnerJoinReorderDPccp() throws Exception {
+        SessionVariable sessionVariable = connectContext.getSessionVariable();
+        long maxReorderNodeUseDP = sessionVariable.getCboMaxReorderNodeUseDP();
+        try {
+            sessionVariable.setCboMaxReorderNodeUseDP(2);
+            sessionVariable.enableDPccpJoinReorder();
+            sessionVariable.disableGreedyJoinReorder();
+            String sql = "select * from t1 join t3 on t1.v4 = t3.v10 join t0 on t0.v1 = t1.v4 " +
+                    "join t2 on t2.v7 = t3.v10";
+            String planFragment = getFragmentPlan(sql);
+            Assert.assertFalse(planFragment, planFragment.contains("CROSS JOIN"));
+            Assert.assertTrue(planFragment, planFragment.contains("HASH JOIN"));
+
+            // the join graph is not connected, DPccp gives up and the plan of left deep is used
+            sql = "select * from t1 join t3 on t1.v4 = t3.v10 join t0 join t2 on t2.v7 = t0.v1";
+            planFragment = getFragmentPlan(sql);
+            Assert.assertTrue(planFragment, planFragment.contains("CROSS JOIN"));
+        } finally {
+            sessionVariable.setCboMaxReorderNodeUseDP(maxReorderNodeUseDP);
+            sessionVariable.disableDPccpJoinReorder();
+            sessionVariable.enableGreedyJoinReorder();
+        }
+    }
+
+    @Test
+    public void testJoinReorderDPccpHyperEdge() throws Exception {
+        SessionVariable sessionVariable = connectContext.getSessionVariable();
+        long maxReorderNodeUseDP = sessionVariable.getCboMaxReorderNodeUseDP();
+        try {
+            sessionVariable.setCboMaxReorderNodeUseDP(2);
+            sessionVariable.enableDPccpJoinReorder();
+            sessionVariable.disableGreedyJoinReorder();
+            // t0 and t2 are only linked by the predicate over t0, t1 and t2, they can not be joined
+            // before t1 without a cross join
+            String sql = "select * from t0 join t1 on t0.v1 = t1.v4 join t2 on t0.v2 + t1.v5 = t2.v7 " +
+                    "join t3 on t2.v8 = t3.v10";
+            String planFragment = getFragmentPlan(sql);
+            Assert.assertFalse(planFragment, planFragment.contains("CROSS JOIN"));
+            Assert.assertTrue(planFragment, planFragment.contains("HASH JOIN"));
+        } finally {
+            sessionVariable.setCboMaxReorderNodeUseDP(maxReorderNodeUseDP);
+            sessionVariable.disableDPccpJoinReorder();
+            sessionVariable.enableGreedyJoinReorder();
+        }
+    }
+
+    @Test
+    public void testJoinReorderDPccpCost() throws Exception {
+        SessionVariable sessionVariable = connectContext.getSessionVariable();
+        long maxReorderNodeUseDP = sessionVariable.getCboMaxReorderNodeUseDP();
+        String[] sqls = {
+                "select * from t1 join t3 on t1.v4 = t3.v10 join t0 on t0.v1 = t1.v4 join t2 on t2.v7 = t3.v10",
+                "select * from t0 join t1 on t0.v1 = t1.v4 join t2 on t0.v2 + t1.v5 = t2.v7 " +
+                        "join t3 on t2.v8 = t3.v10"
+        };
+        try {
+            sessionVariable.disableGreedyJoinReorder();
+            for (String sql : sqls) {
+                // the exhaustive DP only
+                String dpPlan = getFragmentPlan(sql);
+
+                // DPccp only, both find the cheapest bushy join tree without cross join
+                sessionVariable.setCboMaxReorderNodeUseDP(2);
+                sessionVariable.enableDPccpJoinReorder();
+                String dpccpPlan = getFragmentPlan(sql);
+                Assert.assertEquals(dpPlan, dpccpPlan);
+
+                // the greedy plan never beats the DPccp plan
+                sessionVariable.enableGreedyJoinReorder();
+                Assert.assertEquals(dpccpPlan, getFragmentPlan(sql));
+
+                sessionVariable.setCboMaxReorderNodeUseDP(maxReorderNodeUseDP);
+                sessionVariable.disableDPccpJoinReorder();
+                sessionVariable.disableGreedyJoinReorder();
+            }
+        } finally {
+            sessionVariable.setCboMaxReorderNodeUseDP(maxReorderNodeUseDP);
+            sessionVariable.disableDPccpJoinReorder();
+            sessionVariable.enableGreedyJoinReorder();
+        }
+    }
+
     @Test
     public void testMultiCrossJoinReorder() throws Exception {
         // check multi cross join reorder without exception
@@ -22,10 +22,13 @@
 package com.starrocks.system;
 
 import com.starrocks.catalog.FsBroker;
+import com.starrocks.common.Config;
 import com.starrocks.common.GenericPool;
 import com.starrocks.common.Pair;
+import com.starrocks.common.io.DataOutputBuffer;
 import com.starrocks.common.util.Util;
 import com.starrocks.ha.FrontendNodeType;
+import com.starrocks.persist.HbPackage;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.system.HeartbeatMgr.BrokerHeartbeatHandler;
 import com.starrocks.system.HeartbeatMgr.FrontendHeartbeatHandler;
@@ -43,6 +46,9 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+
 public class HeartbeatMgrTest {
 
     @Mocked
@@ -148,4 +154,43 @@ public class HeartbeatMgrTest {
         Assert.assertEquals(HbStatus.OK, hbResponse.getStatus());
     }
 
+    private static BackendHbResponse createBackendHbResponse(long memUsedBytes) {
+        BackendHbResponse hbResponse = new BackendHbResponse(10001, 9060, 8040, 8060, 0,
+                System.currentTimeMillis(), "", 0);
+        hbResponse.setMemUsage(memUsedBytes, 100);
+        return hbResponse;
+    }
+
+    @Test
+    public void testBackendMemUsageLogged() throws Exception {
+        double oldLimit = Config.query_queue_mem_used_pct_limit;
+        Config.query_queue_mem_used_pct_limit = 90;
+        try {
+            Backend backend = new Backend(10001, "192.168.1.1", 9050);
+            Assert.assertTrue(backend.handleHbResponse(createBackendHbResponse(80)));
+            // small changes are not logged, but are known by the master
+            Assert.assertFalse(backend.handleHbResponse(createBackendHbResponse(84)));
+            Assert.assertEquals(84, backend.getMemUsedBytes());
+            Assert.assertTrue(backend.handleHbResponse(createBackendHbResponse(86)));
+            // crossing the limit of the query queue
+            BackendHbResponse hbResponse = createBackendHbResponse(90);
+            Assert.assertTrue(backend.handleHbResponse(hbResponse));
+            Assert.assertFalse(backend.handleHbResponse(createBackendHbResponse(91)));
+            Assert.assertTrue(backend.handleHbResponse(createBackendHbResponse(89)));
+
+            // the other FEs get the usage by replaying the logged heartbeat
+            HbPackage hbPackage = new HbPackage();
+            hbPackage.addHbResponse(hbResponse);
+            DataOutputBuffer buffer = new DataOutputBuffer();
+            hbPackage.write(buffer);
+            HbPackage replayed = HbPackage.readV2(new DataInputStream(
+                    new ByteArrayInputStream(buffer.getData(), 0, buffer.getLength())));
+            Backend follower = new Backend(10001, "192.168.1.1", 9050);
+            follower.handleHbResponse((BackendHbResponse) replayed.getHbResults().get(0));
+            Assert.assertEquals(90, follower.getMemUsedBytes());
+            Assert.assertEquals(100, follower.getMemLimitBytes());
+        } finally {
+            Config.query_queue_mem_used_pct_limit = oldLimit;
+        }
+    }
 }
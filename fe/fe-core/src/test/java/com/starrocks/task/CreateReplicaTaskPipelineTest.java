@@ -0,0 +1,172 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.task;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.starrocks.catalog.KeysType;
+import com.starrocks.common.DdlException;
+import com.starrocks.common.MarkedCountDownLatch;
+import com.starrocks.thrift.TStorageMedium;
+import com.starrocks.thrift.TStorageType;
+import com.starrocks.thrift.TTabletType;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+public class CreateReplicaTaskPipelineTest {
+
+    // a mock backend agent which creates the replicas of each backend one by one
+    private static class MockBackendAgent implements CreateReplicaTaskPipeline.TaskSender {
+        private final Map<Long, ExecutorService> executors = Maps.newConcurrentMap();
+        private final Random random = new Random(0);
+        private final long maxLatencyNanos;
+        private final long failedTabletId;
+        private final boolean hang;
+
+        MockBackendAgent(long maxLatencyNanos, long failedTabletId, boolean hang) {
+            this.maxLatencyNanos = maxLatencyNanos;
+            this.failedTabletId = failedTabletId;
+            this.hang = hang;
+        }
+
+        @Override
+        public void send(AgentBatchTask batchTask) {
+            for (AgentTask task : batchTask.getAllTasks()) {
+                long latencyNanos = maxLatencyNanos == 0 ? 0 : (long) (random.nextDouble() * maxLatencyNanos);
+                executors.computeIfAbsent(task.getBackendId(), k -> Executors.newSingleThreadExecutor()).submit(() -> {
+                    if (hang) {
+                        return;
+                    }
+                    if (latencyNanos > 0) {
+                        LockSupport.parkNanos(latencyNanos);
+                    }
+                    CreateReplicaTask createReplicaTask = (CreateReplicaTask) task;
+                    if (task.getTabletId() == failedTabletId) {
+                        createReplicaTask.countDownToZero("failed to create tablet " + task.getTabletId());
+                    } else {
+                        createReplicaTask.countDownLatch(task.getBackendId(), task.getTabletId());
+                    }
+                });
+            }
+        }
+
+        void shutdown() {
+            executors.values().forEach(ExecutorService::shutdownNow);
+        }
+    }
+
+    private MockBackendAgent agent;
+
+    @After
+    public void tearDown() {
+        if (agent != null) {
+            agent.shutdown();
+        }
+    }
+
+    private static List<CreateReplicaTask> createTasks(int tabletNum, int replicaNum, int backendNum) {
+        List<CreateReplicaTask> tasks = Lists.newArrayList();
+        for (int tabletId = 0; tabletId < tabletNum; tabletId++) {
+            for (int i = 0; i < replicaNum; i++) {
+                long backendId = 10000 + (tabletId + i) % backendNum;
+                tasks.add(new CreateReplicaTask(backendId, 1, 2, 3, 4, tabletId, (short) 1, 0, 1,
+                        KeysType.DUP_KEYS, TStorageType.COLUMN, TStorageMedium.HDD, Lists.newArrayList(), null, 0,
+                        null, null, false, false, TTabletType.TABLET_TYPE_DISK));
+            }
+        }
+        return tasks;
+    }
+
+    @Test
+    public void testRun() throws DdlException {
+        agent = new MockBackendAgent(100000, -1, false);
+        List<CreateReplicaTask> tasks = createTasks(1000, 3, 4);
+        CreateReplicaTaskPipeline pipeline = new CreateReplicaTaskPipeline("test", tasks, 16, agent);
+        pipeline.run(60);
+        Assert.assertEquals(3000, pipeline.getFinishedNum());
+        Assert.assertEquals(3000, pipeline.getSentNum());
+        Assert.assertTrue(pipeline.getMaxInFlightNum() <= 16);
+    }
+
+    @Test
+    public void testFailure() {
+        agent = new MockBackendAgent(0, 0, false);
+        CreateReplicaTaskPipeline pipeline = new CreateReplicaTaskPipeline("test", createTasks(1000, 3, 4), 2, agent);
+        try {
+            pipeline.run(60);
+            Assert.fail();
+        } catch (DdlException e) {
+            Assert.assertTrue(e.getMessage().contains("failed to create tablet 0"));
+        }
+        // the tasks after the failure are not sent
+        Assert.assertTrue(pipeline.getSentNum() < pipeline.getTotalNum());
+    }
+
+    @Test
+    public void testTimeout() {
+        agent = new MockBackendAgent(0, -1, true);
+        CreateReplicaTaskPipeline pipeline = new CreateReplicaTaskPipeline("test", createTasks(100, 3, 4), 10, agent);
+        try {
+            pipeline.run(1);
+            Assert.fail();
+        } catch (DdlException e) {
+            Assert.assertTrue(e.getMessage().contains("timed out"));
+        }
+        Assert.assertEquals(40, pipeline.getSentNum());
+    }
+
+    // send the tasks batch by batch, and wait for all tasks of a batch before sending the next one
+    private long runByBatches(List<CreateReplicaTask> tasks, int batchSize, int backendNum) throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < tasks.size(); i += batchSize * backendNum) {
+            List<CreateReplicaTask> batch = tasks.subList(i, Math.min(tasks.size(), i + batchSize * backendNum));
+            MarkedCountDownLatch<Long, Long> latch = new MarkedCountDownLatch<>(batch.size());
+            Map<Long, AgentBatchTask> batchTasks = Maps.newHashMap();
+            for (CreateReplicaTask task : batch) {
+                task.setLatch(latch);
+                latch.addMark(task.getBackendId(), task.getTabletId());
+                batchTasks.computeIfAbsent(task.getBackendId(), k -> new AgentBatchTask()).addTask(task);
+            }
+            batchTasks.values().forEach(agent::send);
+            Assert.assertTrue(latch.await(60, TimeUnit.SECONDS));
+        }
+        return System.nanoTime() - start;
+    }
+
+    // with the same number of tasks in flight on each backend, the pipeline does not wait for the slowest
+    // backend of every batch, so it creates the replicas faster than batch by batch
+    @Test
+    public void testBenchmark() throws Exception {
+        final int tabletNum = 2000;
+        final int backendNum = 8;
+        final int batchSize = 50;
+        final int rounds = 3;
+
+        agent = new MockBackendAgent(400000, -1, false);
+        long bestBatchNs = Long.MAX_VALUE;
+        long bestPipelineNs = Long.MAX_VALUE;
+        for (int round = 0; round < rounds; round++) {
+            bestBatchNs = Math.min(bestBatchNs, runByBatches(createTasks(tabletNum, 3, backendNum), batchSize,
+                    backendNum));
+
+            CreateReplicaTaskPipeline pipeline = new CreateReplicaTaskPipeline("test",
+                    createTasks(tabletNum, 3, backendNum), batchSize, agent);
+            long start = System.nanoTime();
+            pipeline.run(60);
+            bestPipelineNs = Math.min(bestPipelineNs, System.nanoTime() - start);
+            Assert.assertEquals(tabletNum * 3, pipeline.getFinishedNum());
+            Assert.assertTrue(pipeline.getMaxInFlightNum() <= batchSize);
+        }
+        Assert.assertTrue("pipeline " + bestPipelineNs / 1000000 + " ms, batch " + bestBatchNs / 1000000 + " ms",
+                bestPipelineNs < bestBatchNs);
+    }
+}
@@ -0,0 +1,264 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.load.loadv2.dpp;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.Arrays;
+
+// DppRowKey is the shuffle key of the aggregation and the bucket sorting in dpp,
+// it contains the bucket (partition id and bucket id) and the key columns of a row.
+// The hash code is computed once when the key is built and is carried by the serialized key,
+// so it is not recomputed from boxed columns after shuffle.
+class DppRowKey implements Comparable<DppRowKey>, Serializable {
+    private final long partitionId;
+    private final int bucketId;
+    private final Object[] columns;
+    private final int hash;
+
+    public DppRowKey(long partitionId, int bucketId, Object[] columns) {
+        this.partitionId = partitionId;
+        this.bucketId = bucketId;
+        this.columns = columns;
+        this.hash = computeHash(partitionId, bucketId, columns);
+    }
+
+    private DppRowKey(long partitionId, int bucketId, Object[] columns, int hash) {
+        this.partitionId = partitionId;
+        this.bucketId = bucketId;
+        this.columns = columns;
+        this.hash = hash;
+    }
+
+    private static int computeHash(long partitionId, int bucketId, Object[] columns) {
+        int result = 31 * Long.hashCode(partitionId) + bucketId;
+        return 31 * result + Arrays.hashCode(columns);
+    }
+
+    public long getPartitionId() {
+        return partitionId;
+    }
+
+    public int getBucketId() {
+        return bucketId;
+    }
+
+    // bucket key is partitionId_bucketId
+    public String getBucketKey() {
+        return partitionId + "_" + bucketId;
+    }
+
+    public boolean isSameBucket(DppRowKey other) {
+        return partitionId == other.partitionId && bucketId == other.bucketId;
+    }
+
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    public Object getColumn(int index) {
+        return columns[index];
+    }
+
+    // null is less than any value
+    @Override
+    public int compareTo(DppRowKey other) {
+        int cmp = Long.compare(partitionId, other.partitionId);
+        if (cmp != 0) {
+            return cmp;
+        }
+        cmp = Integer.compare(bucketId, other.bucketId);
+        if (cmp != 0) {
+            return cmp;
+        }
+        for (int i = 0; i < columns.length; i++) {
+            Object key1 = columns[i];
+            Object key2 = other.columns[i];
+            if (key1 == key2) {
+                continue;
+            }
+            if (key1 == null || key2 == null) {
+                return key1 == null ? -1 : 1;
+            }
+            if (key1 instanceof Comparable && key2 instanceof Comparable) {
+                cmp = ((Comparable) key1).compareTo(key2);
+            } else {
+                throw new RuntimeException(String.format("uncomparable column type %s", key1.getClass().toString()));
+            }
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return cmp;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        DppRowKey other = (DppRowKey) o;
+        return hash == other.hash && partitionId == other.partitionId && bucketId == other.bucketId
+                && Arrays.equals(columns, other.columns);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "DppRowKey{" +
+                "bucket=" + getBucketKey() +
+                ", columns=" + Arrays.toString(columns) +
+                '}';
+    }
+
+    // Kryo serializer of DppRowKey, registered by StarRocksKryoRegistrator.
+    // Each column is written as a type tag followed by its value, numeric values are fixed-width,
+    // strings are length-prefixed, so the class name and the object header of every boxed column
+    // are not written to the shuffle files. Columns of other types fall back to the Kryo serializer of their class.
+    static class KryoSerializer extends Serializer<DppRowKey> {
+        private static final byte TYPE_NULL = 0;
+        private static final byte TYPE_BOOLEAN = 1;
+        private static final byte TYPE_BYTE = 2;
+        private static final byte TYPE_SHORT = 3;
+        private static final byte TYPE_INT = 4;
+        private static final byte TYPE_LONG = 5;
+        private static final byte TYPE_FLOAT = 6;
+        private static final byte TYPE_DOUBLE = 7;
+        private static final byte TYPE_STRING = 8;
+        private static final byte TYPE_DATE = 9;
+        private static final byte TYPE_TIMESTAMP = 10;
+        private static final byte TYPE_DECIMAL = 11;
+        private static final byte TYPE_OTHER = 12;
+
+        public KryoSerializer() {
+            // keys are never modified after they are built
+            setImmutable(true);
+        }
+
+        @Override
+        public void write(Kryo kryo, Output output, DppRowKey key) {
+            output.writeVarLong(key.partitionId, true);
+            output.writeVarInt(key.bucketId, true);
+            output.writeInt(key.hash);
+            output.writeVarInt(key.columns.length, true);
+            for (Object column : key.columns) {
+                writeColumn(kryo, output, column);
+            }
+        }
+
+        @Override
+        public DppRowKey read(Kryo kryo, Input input, Class<DppRowKey> type) {
+            long partitionId = input.readVarLong(true);
+            int bucketId = input.readVarInt(true);
+            int hash = input.readInt();
+            Object[] columns = new Object[input.readVarInt(true)];
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = readColumn(kryo, input);
+            }
+            return new DppRowKey(partitionId, bucketId, columns, hash);
+        }
+
+        private static void writeColumn(Kryo kryo, Output output, Object column) {
+            if (column == null) {
+                output.writeByte(TYPE_NULL);
+            } else if (column instanceof Boolean) {
+                output.writeByte(TYPE_BOOLEAN);
+                output.writeBoolean((Boolean) column);
+            } else if (column instanceof Byte) {
+                output.writeByte(TYPE_BYTE);
+                output.writeByte((Byte) column);
+            } else if (column instanceof Short) {
+                output.writeByte(TYPE_SHORT);
+                output.writeShort((Short) column);
+            } else if (column instanceof Integer) {
+                output.writeByte(TYPE_INT);
+                output.writeInt((Integer) column);
+            } else if (column instanceof Long) {
+                output.writeByte(TYPE_LONG);
+                output.writeLong((Long) column);
+            } else if (column instanceof Float) {
+                output.writeByte(TYPE_FLOAT);
+                output.writeFloat((Float) column);
+            } else if (column instanceof Double) {
+                output.writeByte(TYPE_DOUBLE);
+                output.writeDouble((Double) column);
+            } else if (column instanceof String) {
+                output.writeByte(TYPE_STRING);
+                output.writeString((String) column);
+            } else if (column instanceof Date) {
+                output.writeByte(TYPE_DATE);
+                output.writeLong(((Date) column).getTime());
+            } else if (column instanceof Timestamp) {
+                Timestamp timestamp = (Timestamp) column;
+                output.writeByte(TYPE_TIMESTAMP);
+                output.writeLong(timestamp.getTime());
+                output.writeInt(timestamp.getNanos());
+            } else if (column instanceof BigDecimal) {
+                BigDecimal decimal = (BigDecimal) column;
+                byte[] unscaled = decimal.unscaledValue().toByteArray();
+                output.writeByte(TYPE_DECIMAL);
+                output.writeVarInt(decimal.scale(), false);
+                output.writeVarInt(unscaled.length, true);
+                output.writeBytes(unscaled);
+            } else {
+                output.writeByte(TYPE_OTHER);
+                kryo.writeClassAndObject(output, column);
+            }
+        }
+
+        private static Object readColumn(Kryo kryo, Input input) {
+            byte type = input.readByte();
+            switch (type) {
+                case TYPE_NULL:
+                    return null;
+                case TYPE_BOOLEAN:
+                    return input.readBoolean();
+                case TYPE_BYTE:
+                    return input.readByte();
+                case TYPE_SHORT:
+                    return input.readShort();
+                case TYPE_INT:
+                    return input.readInt();
+                case TYPE_LONG:
+                    return input.readLong();
+                case TYPE_FLOAT:
+                    return input.readFloat();
+                case TYPE_DOUBLE:
+                    return input.readDouble();
+                case TYPE_STRING:
+                    return input.readString();
+                case TYPE_DATE:
+                    return new Date(input.readLong());
+                case TYPE_TIMESTAMP: {
+                    Timestamp timestamp = new Timestamp(input.readLong());
+                    timestamp.setNanos(input.readInt());
+                    return timestamp;
+                }
+                case TYPE_DECIMAL: {
+                    int scale = input.readVarInt(false);
+                    byte[] unscaled = input.readBytes(input.readVarInt(true));
+                    return new BigDecimal(new BigInteger(unscaled), scale);
+                }
+                case TYPE_OTHER:
+                    return kryo.readClassAndObject(input);
+                default:
+                    throw new RuntimeException("unknown column type tag " + type + " of dpp row key");
+            }
+        }
+    }
+}
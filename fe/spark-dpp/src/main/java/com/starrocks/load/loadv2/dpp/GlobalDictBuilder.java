@@ -21,22 +21,31 @@ import org.apache.commons.collections.map.MultiValueMap;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
+import org.apache.spark.HashPartitioner;
+import org.apache.spark.api.java.JavaPairRDD;
+import org.apache.spark.api.java.JavaRDD;
 import org.apache.spark.sql.AnalysisException;
 import org.apache.spark.sql.Dataset;
 import org.apache.spark.sql.Row;
+import org.apache.spark.sql.RowFactory;
 import org.apache.spark.sql.SparkSession;
 import org.apache.spark.sql.catalog.Column;
 import org.apache.spark.sql.types.DataTypes;
 import org.apache.spark.sql.types.StructField;
 import org.apache.spark.sql.types.StructType;
+import scala.Tuple2;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -59,6 +68,9 @@ import java.util.stream.Collectors;
  * GlobalDictBuilder.buildGlobalDict()
  * step4, encode intermediate hive table with global dict
  * GlobalDictBuilder.encodeStarRocksIntermediateHiveTable()
+ * <p>
+ * In incremental mode, step3 only appends the new keys of a column to its dict instead of rewriting the whole dict,
+ * see {@link #assignNewDictValues}.
  */
 
 public class GlobalDictBuilder {
@@ -105,6 +117,12 @@ public class GlobalDictBuilder {
 
     private StructType distinctValueSchema;
 
+    // build the dict by appending the new keys, the number of partitions to merge the keys with the dict
+    private boolean incrementalBuild = false;
+    private int incrementalBuildPartitionNum = 1;
+    // dict column -> number of values added by this load
+    private final Map<String, Long> dictColumnGrowth = new ConcurrentHashMap<>();
+
     public GlobalDictBuilder(MultiValueMap dictColumn,
                              List<String> intermediateTableColumnList,
                              List<String> mapSideJoinColumns,
@@ -134,6 +152,16 @@ public class GlobalDictBuilder {
         spark.sql("use " + starrocksHiveDB);
     }
 
+    public void setIncrementalBuild(boolean incrementalBuild, int partitionNum) {
+        this.incrementalBuild = incrementalBuild;
+        this.incrementalBuildPartitionNum = Math.max(1, partitionNum);
+    }
+
+    // the number of values added to each dict column by this load, only recorded by the incremental build
+    public Map<String, Long> getDictColumnGrowth() {
+        return dictColumnGrowth;
+    }
+
     /**
      * Check if doris global dict table already exist.
      * If exist, use old name for compatibility.
@@ -223,7 +251,9 @@ public class GlobalDictBuilder {
                             distinctColumnNameTmp));
                 }
 
-                if (veryHighCardinalityColumn.contains(distinctColumnNameTmp) &&
+                if (incrementalBuild) {
+                    buildGlobalDictIncrementally(maxDictValue, distinctColumnNameTmp);
+                } else if (veryHighCardinalityColumn.contains(distinctColumnNameTmp) &&
                         veryHighCardinalityColumnSplitNum > 1) {
                     // split distinct key first and then encode with count
                     buildGlobalDictBySplit(maxDictValue, distinctColumnNameTmp);
@@ -327,6 +357,133 @@ public class GlobalDictBuilder {
 
     }
 
+    // @VisibleForTesting
+    void buildGlobalDictIncrementally(long maxGlobalDictValue, String distinctColumnName) {
+        Dataset<Row> distinctKeys = spark.sql("select dict_key from " + distinctKeyTableName +
+                " where dict_column='" + distinctColumnName + "' and dict_key is not null");
+        Dataset<Row> dict = spark.sql("select dict_key from " + globalDictTableName +
+                " where dict_column='" + distinctColumnName + "' and dict_key is not null");
+        Tuple2<Dataset<Row>, Long> newDict =
+                assignNewDictValues(spark, distinctKeys, dict, maxGlobalDictValue, incrementalBuildPartitionNum);
+
+        String newDictTableName = String.format("%s_new_dict_%s", distinctKeyTableName, distinctColumnName);
+        newDict._1().createOrReplaceTempView(newDictTableName);
+        spark.sql("insert into table " + globalDictTableName + " partition(dict_column='" + distinctColumnName +
+                "') select dict_key, dict_value from " + newDictTableName);
+
+        long numNewValues = newDict._2();
+        dictColumnGrowth.put(distinctColumnName, numNewValues);
+        LOG.info(String.format("global dict of column %s grows from %d to %d values, %d new values",
+                distinctColumnName, maxGlobalDictValue, maxGlobalDictValue + numNewValues, numNewValues));
+    }
+
+    /**
+     * Assign dict values to the keys which are not in the dict yet.
+     * <p>
+     * The keys and the dict keys are partitioned by hash and sorted in each partition, then the new keys are found
+     * by merging the sorted partitions. The values of new keys are maxDictValue + 1, maxDictValue + 2 ...,
+     * assigned by the offset of each partition, so no single partition window over the new keys is needed.
+     * Only the keys of the dict are read, and the sorts spill to disk when they do not fit in memory.
+     *
+     * @param distinctKeys distinct non-null keys of the load, with a string column dict_key
+     * @param dict         keys of the existing dict, with a string column dict_key
+     * @return the new keys and values with columns dict_key and dict_value, and the number of new keys
+     */
+    public static Tuple2<Dataset<Row>, Long> assignNewDictValues(SparkSession spark, Dataset<Row> distinctKeys,
+                                                                 Dataset<Row> dict, long maxDictValue,
+                                                                 int partitionNum) {
+        HashPartitioner partitioner = new HashPartitioner(partitionNum);
+        JavaPairRDD<String, Boolean> sortedKeys = distinctKeys.select("dict_key").toJavaRDD()
+                .mapToPair(row -> new Tuple2<>(row.getString(0), Boolean.TRUE))
+                .repartitionAndSortWithinPartitions(partitioner);
+        JavaPairRDD<String, Boolean> sortedDictKeys = dict.select("dict_key").toJavaRDD()
+                .mapToPair(row -> new Tuple2<>(row.getString(0), Boolean.TRUE))
+                .repartitionAndSortWithinPartitions(partitioner);
+        JavaRDD<String> newKeys = sortedKeys.zipPartitions(sortedDictKeys,
+                (keys, dictKeys) -> new SortedAntiJoinIterator(keys, dictKeys));
+
+        // the first value of each partition
+        List<Long> partitionCounts = newKeys.mapPartitions(keys -> {
+            long count = 0;
+            while (keys.hasNext()) {
+                keys.next();
+                count++;
+            }
+            return Collections.singletonList(count).iterator();
+        }).collect();
+        long[] partitionStartValues = new long[partitionCounts.size()];
+        long nextValue = maxDictValue + 1;
+        for (int i = 0; i < partitionCounts.size(); i++) {
+            partitionStartValues[i] = nextValue;
+            nextValue += partitionCounts.get(i);
+        }
+
+        JavaRDD<Row> newDict = newKeys.mapPartitionsWithIndex((index, keys) -> new Iterator<Row>() {
+            private long value = partitionStartValues[index];
+
+            @Override
+            public boolean hasNext() {
+                return keys.hasNext();
+            }
+
+            @Override
+            public Row next() {
+                return RowFactory.create(keys.next(), value++);
+            }
+        }, true);
+
+        List<StructField> fields = new ArrayList<>();
+        fields.add(DataTypes.createStructField("dict_key", DataTypes.StringType, false));
+        fields.add(DataTypes.createStructField("dict_value", DataTypes.LongType, false));
+        return new Tuple2<>(spark.createDataFrame(newDict, DataTypes.createStructType(fields)),
+                nextValue - maxDictValue - 1);
+    }
+
+    // keys of the first sorted iterator which are not in the second one
+    private static class SortedAntiJoinIterator implements Iterator<String> {
+        private final Iterator<Tuple2<String, Boolean>> keys;
+        private final Iterator<Tuple2<String, Boolean>> excludedKeys;
+        private String excludedKey;
+        private String nextKey;
+
+        SortedAntiJoinIterator(Iterator<Tuple2<String, Boolean>> keys,
+                               Iterator<Tuple2<String, Boolean>> excludedKeys) {
+            this.keys = keys;
+            this.excludedKeys = excludedKeys;
+            this.excludedKey = excludedKeys.hasNext() ? excludedKeys.next()._1() : null;
+            advance();
+        }
+
+        private void advance() {
+            nextKey = null;
+            while (keys.hasNext()) {
+                String key = keys.next()._1();
+                while (excludedKey != null && excludedKey.compareTo(key) < 0) {
+                    excludedKey = excludedKeys.hasNext() ? excludedKeys.next()._1() : null;
+                }
+                if (!key.equals(excludedKey)) {
+                    nextKey = key;
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextKey != null;
+        }
+
+        @Override
+        public String next() {
+            if (nextKey == null) {
+                throw new NoSuchElementException();
+            }
+            String key = nextKey;
+            advance();
+            return key;
+        }
+    }
+
     private String getSplitBuildGlobalDictSql(Map<String, Long> distinctKeyMap, String distinctColumnName) {
         StringBuilder sql = new StringBuilder();
         sql.append("insert overwrite table ").append(globalDictTableName).append(" partition(dict_column='")
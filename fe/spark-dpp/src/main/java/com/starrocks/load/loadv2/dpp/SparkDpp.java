@@ -151,7 +151,7 @@ public final class SparkDpp implements java.io.Serializable {
         this.serializableHadoopConf = new SerializableConfiguration(spark.sparkContext().hadoopConfiguration());
     }
 
-    private JavaPairRDD<List<Object>, Object[]> processRDDAggregate(JavaPairRDD<List<Object>, Object[]> currentPairRDD,
+    private JavaPairRDD<DppRowKey, Object[]> processRDDAggregate(JavaPairRDD<DppRowKey, Object[]> currentPairRDD,
                                                                     RollupTreeNode curNode,
                                                                     SparkRDDAggregator[] sparkRDDAggregators)
             throws SparkDppException {
@@ -172,12 +172,12 @@ public final class SparkDpp implements java.io.Serializable {
             }
 
             if (curNode.indexMeta.isBaseIndex) {
-                JavaPairRDD<List<Object>, Object[]> result =
+                JavaPairRDD<DppRowKey, Object[]> result =
                         currentPairRDD.mapToPair(new EncodeBaseAggregateTableFunction(sparkRDDAggregators))
                                 .reduceByKey(new AggregateReduceFunction(sparkRDDAggregators), aggregateConcurrency);
                 return result;
             } else {
-                JavaPairRDD<List<Object>, Object[]> result = currentPairRDD
+                JavaPairRDD<DppRowKey, Object[]> result = currentPairRDD
                         .mapToPair(new EncodeRollupAggregateTableFunction(
                                 getColumnIndexInParentRollup(curNode.keyColumnNames, curNode.valueColumnNames,
                                         curNode.parent.keyColumnNames,
@@ -207,7 +207,7 @@ public final class SparkDpp implements java.io.Serializable {
     }
 
     // write data to parquet file by using writing the parquet scheme of spark.
-    private void writeRepartitionAndSortedRDDToParquet(JavaPairRDD<List<Object>, Object[]> resultRDD,
+    private void writeRepartitionAndSortedRDDToParquet(JavaPairRDD<DppRowKey, Object[]> resultRDD,
                                                        String pathPattern,
                                                        long tableId,
                                                        EtlJobConfig.EtlIndex indexMeta,
@@ -219,13 +219,13 @@ public final class SparkDpp implements java.io.Serializable {
         ExpressionEncoder encoder = RowEncoder.apply(dstSchema);
 
         resultRDD.repartitionAndSortWithinPartitions(new BucketPartitioner(bucketKeyMap), new BucketComparator())
-                .foreachPartition(new VoidFunction<Iterator<Tuple2<List<Object>, Object[]>>>() {
+                .foreachPartition(new VoidFunction<Iterator<Tuple2<DppRowKey, Object[]>>>() {
                     @Override
-                    public void call(Iterator<Tuple2<List<Object>, Object[]>> t) throws Exception {
+                    public void call(Iterator<Tuple2<DppRowKey, Object[]>> t) throws Exception {
                         // write the data to dst file
                         Configuration conf = new Configuration(serializableHadoopConf.value());
                         FileSystem fs = FileSystem.get(URI.create(etlJobConfig.outputPath), conf);
-                        String lastBucketKey = null;
+                        DppRowKey lastKey = null;
                         ParquetWriter<InternalRow> parquetWriter = null;
                         TaskContext taskContext = TaskContext.get();
                         long taskAttemptId = taskContext.taskAttemptId();
@@ -233,26 +233,26 @@ public final class SparkDpp implements java.io.Serializable {
                         String tmpPath = "";
 
                         while (t.hasNext()) {
-                            Tuple2<List<Object>, Object[]> pair = t.next();
-                            List<Object> keyColumns = pair._1();
+                            Tuple2<DppRowKey, Object[]> pair = t.next();
+                            DppRowKey curKey = pair._1();
                             Object[] valueColumns = pair._2();
-                            if ((keyColumns.size() + valueColumns.length) <= 1) {
+                            int keyColumnCount = curKey.getColumnCount();
+                            if ((keyColumnCount + valueColumns.length) < 1) {
                                 LOG.warn("invalid row:" + pair);
                                 continue;
                             }
 
-                            String curBucketKey = keyColumns.get(0).toString();
-                            List<Object> columnObjects = new ArrayList<>();
-                            for (int i = 1; i < keyColumns.size(); ++i) {
-                                columnObjects.add(keyColumns.get(i));
+                            Object[] columnObjects = new Object[keyColumnCount + valueColumns.length];
+                            for (int i = 0; i < keyColumnCount; ++i) {
+                                columnObjects[i] = curKey.getColumn(i);
                             }
                             for (int i = 0; i < valueColumns.length; ++i) {
-                                columnObjects.add(sparkRDDAggregators[i].finalize(valueColumns[i]));
+                                columnObjects[keyColumnCount + i] = sparkRDDAggregators[i].finalize(valueColumns[i]);
                             }
 
-                            Row rowWithoutBucketKey = RowFactory.create(columnObjects.toArray());
+                            Row rowWithoutBucketKey = RowFactory.create(columnObjects);
                             // if the bucket key is new, it will belong to a new tablet
-                            if (lastBucketKey == null || !curBucketKey.equals(lastBucketKey)) {
+                            if (lastKey == null || !curKey.isSameBucket(lastKey)) {
                                 if (parquetWriter != null) {
                                     parquetWriter.close();
                                     // rename tmpPath to path
@@ -265,15 +265,8 @@ public final class SparkDpp implements java.io.Serializable {
                                     }
                                 }
                                 // flush current writer and create a new writer
-                                String[] bucketKey = curBucketKey.split("_");
-                                if (bucketKey.length != 2) {
-                                    LOG.warn("invalid bucket key:" + curBucketKey);
-                                    continue;
-                                }
-                                int partitionId = Integer.parseInt(bucketKey[0]);
-                                int bucketId = Integer.parseInt(bucketKey[1]);
-                                dstPath = String.format(pathPattern, tableId, partitionId, indexMeta.indexId,
-                                        bucketId, indexMeta.schemaHash);
+                                dstPath = String.format(pathPattern, tableId, curKey.getPartitionId(),
+                                        indexMeta.indexId, curKey.getBucketId(), indexMeta.schemaHash);
                                 tmpPath = dstPath + "." + taskAttemptId;
                                 conf.setBoolean("spark.sql.parquet.writeLegacyFormat", false);
                                 conf.setBoolean("spark.sql.parquet.int64AsTimestampMillis", false);
@@ -292,7 +285,7 @@ public final class SparkDpp implements java.io.Serializable {
                                 if (parquetWriter != null) {
                                     LOG.info("[HdfsOperate]>> initialize writer succeed! path:" + tmpPath);
                                 }
-                                lastBucketKey = curBucketKey;
+                                lastKey = curKey;
                             }
                             InternalRow internalRow = encoder.toRow(rowWithoutBucketKey);
                             parquetWriter.write(internalRow);
@@ -314,15 +307,15 @@ public final class SparkDpp implements java.io.Serializable {
 
     // TODO(wb) one shuffle to calculate the rollup in the same level
     private void processRollupTree(RollupTreeNode rootNode,
-                                   JavaPairRDD<List<Object>, Object[]> rootRDD,
+                                   JavaPairRDD<DppRowKey, Object[]> rootRDD,
                                    long tableId, EtlJobConfig.EtlIndex baseIndex) throws SparkDppException {
         Queue<RollupTreeNode> nodeQueue = new LinkedList<>();
         nodeQueue.offer(rootNode);
         int currentLevel = 0;
         // level travel the tree
-        Map<Long, JavaPairRDD<List<Object>, Object[]>> parentRDDMap = new HashMap<>();
+        Map<Long, JavaPairRDD<DppRowKey, Object[]>> parentRDDMap = new HashMap<>();
         parentRDDMap.put(baseIndex.indexId, rootRDD);
-        Map<Long, JavaPairRDD<List<Object>, Object[]>> childrenRDDMap = new HashMap<>();
+        Map<Long, JavaPairRDD<DppRowKey, Object[]>> childrenRDDMap = new HashMap<>();
         String pathPattern = etlJobConfig.outputPath + "/" + etlJobConfig.outputFilePattern;
         while (!nodeQueue.isEmpty()) {
             RollupTreeNode curNode = nodeQueue.poll();
@@ -332,10 +325,10 @@ public final class SparkDpp implements java.io.Serializable {
                     nodeQueue.offer(child);
                 }
             }
-            JavaPairRDD<List<Object>, Object[]> curRDD = null;
+            JavaPairRDD<DppRowKey, Object[]> curRDD = null;
             // column select for rollup
             if (curNode.level != currentLevel) {
-                for (JavaPairRDD<List<Object>, Object[]> rdd : parentRDDMap.values()) {
+                for (JavaPairRDD<DppRowKey, Object[]> rdd : parentRDDMap.values()) {
                     rdd.unpersist();
                 }
                 currentLevel = curNode.level;
@@ -349,7 +342,7 @@ public final class SparkDpp implements java.io.Serializable {
                 parentIndexId = curNode.parent.indexId;
             }
 
-            JavaPairRDD<List<Object>, Object[]> parentRDD = parentRDDMap.get(parentIndexId);
+            JavaPairRDD<DppRowKey, Object[]> parentRDD = parentRDDMap.get(parentIndexId);
 
             // aggregate
             SparkRDDAggregator[] sparkRDDAggregators = new SparkRDDAggregator[curNode.valueColumnNames.size()];
@@ -456,7 +449,7 @@ public final class SparkDpp implements java.io.Serializable {
      * 2 validate data
      * 3 fill tuple with partition column
      */
-    private JavaPairRDD<List<Object>, Object[]> fillTupleWithPartitionColumn(
+    private JavaPairRDD<DppRowKey, Object[]> fillTupleWithPartitionColumn(
             Dataset<Row> dataframe,
             EtlJobConfig.EtlPartitionInfo partitionInfo,
             List<Integer> partitionKeyIndex,
@@ -475,11 +468,11 @@ public final class SparkDpp implements java.io.Serializable {
 
         // use PairFlatMapFunction instead of PairMapFunction because the there will be
         // 0 or 1 output row for 1 input row
-        JavaPairRDD<List<Object>, Object[]> resultPairRDD =
-                dataframe.toJavaRDD().flatMapToPair(new PairFlatMapFunction<Row, List<Object>, Object[]>() {
+        JavaPairRDD<DppRowKey, Object[]> resultPairRDD =
+                dataframe.toJavaRDD().flatMapToPair(new PairFlatMapFunction<Row, DppRowKey, Object[]>() {
                     @Override
-                    public Iterator<Tuple2<List<Object>, Object[]>> call(Row row) throws Exception {
-                        List<Tuple2<List<Object>, Object[]>> result = new ArrayList<>();
+                    public Iterator<Tuple2<DppRowKey, Object[]>> call(Row row) throws Exception {
+                        List<Tuple2<DppRowKey, Object[]>> result = new ArrayList<>();
                         List<Object> keyColumns = new ArrayList<>();
                         List<Object> valueColumns = new ArrayList<>(valueColumnNames.size());
                         List<Object> allColumns = new ArrayList<>();
@@ -521,13 +514,8 @@ public final class SparkDpp implements java.io.Serializable {
                             int bucketId =
                                     (int) ((hashValue & 0xffffffff) % partitionInfo.partitions.get(pid).bucketNum);
                             long partitionId = partitionInfo.partitions.get(pid).partitionId;
-                            // bucketKey is partitionId_bucketId
-                            String bucketKey = partitionId + "_" + bucketId;
-
-                            List<Object> tuple = new ArrayList<>();
-                            tuple.add(bucketKey);
-                            tuple.addAll(keyColumns);
-                            result.add(new Tuple2<>(tuple, valueColumns.toArray()));
+                            DppRowKey key = new DppRowKey(partitionId, bucketId, keyColumns.toArray());
+                            result.add(new Tuple2<>(key, valueColumns.toArray()));
                         }
                         return result.iterator();
                     }
@@ -1147,7 +1135,7 @@ public final class SparkDpp implements java.io.Serializable {
                 }
                 LOG.info("bucket key map:" + bucketKeyMap.toString());
 
-                JavaPairRDD<List<Object>, Object[]> tablePairRDD = null;
+                JavaPairRDD<DppRowKey, Object[]> tablePairRDD = null;
                 for (EtlJobConfig.EtlFileGroup fileGroup : etlTable.fileGroups) {
                     List<String> filePaths = fileGroup.filePaths;
                     Dataset<Row> fileGroupDataframe = null;
@@ -1186,7 +1174,7 @@ public final class SparkDpp implements java.io.Serializable {
                             partitionInfo.partitionType, partitionInfo.partitionColumnRefs,
                             partitionInfo.distributionColumnRefs, fileGroupPartitions);
 
-                    JavaPairRDD<List<Object>, Object[]> ret = fillTupleWithPartitionColumn(
+                    JavaPairRDD<DppRowKey, Object[]> ret = fillTupleWithPartitionColumn(
                             fileGroupDataframe, fileGroupPartitionInfo, partitionKeyIndex, fileGroupPartitionRangeKeys,
                             keyColumnNames, valueColumnNames, dstTableSchema, baseIndex);
                     if (tablePairRDD == null) {
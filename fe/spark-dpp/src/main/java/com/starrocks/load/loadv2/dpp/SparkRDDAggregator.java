@@ -34,9 +34,7 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.List;
 import java.util.Map;
 
 // contains all class about spark aggregate
@@ -155,7 +153,7 @@ class DefaultSparkRDDAggregator extends SparkRDDAggregator {
 }
 
 // just encode value column,used for base rollup
-class EncodeBaseAggregateTableFunction implements PairFunction<Tuple2<List<Object>, Object[]>, List<Object>, Object[]> {
+class EncodeBaseAggregateTableFunction implements PairFunction<Tuple2<DppRowKey, Object[]>, DppRowKey, Object[]> {
 
     private SparkRDDAggregator[] valueAggregators;
 
@@ -164,7 +162,7 @@ class EncodeBaseAggregateTableFunction implements PairFunction<Tuple2<List<Objec
     }
 
     @Override
-    public Tuple2<List<Object>, Object[]> call(Tuple2<List<Object>, Object[]> srcPair) throws Exception {
+    public Tuple2<DppRowKey, Object[]> call(Tuple2<DppRowKey, Object[]> srcPair) throws Exception {
         for (int i = 0; i < srcPair._2().length; i++) {
             srcPair._2()[i] = valueAggregators[i].init(srcPair._2()[i]);
         }
@@ -174,7 +172,7 @@ class EncodeBaseAggregateTableFunction implements PairFunction<Tuple2<List<Objec
 
 // just map column from parent rollup index to child rollup index,used for child rollup
 class EncodeRollupAggregateTableFunction
-        implements PairFunction<Tuple2<List<Object>, Object[]>, List<Object>, Object[]> {
+        implements PairFunction<Tuple2<DppRowKey, Object[]>, DppRowKey, Object[]> {
 
     Pair<Integer[], Integer[]> columnIndexInParentRollup;
 
@@ -183,34 +181,34 @@ class EncodeRollupAggregateTableFunction
     }
 
     @Override
-    public Tuple2<List<Object>, Object[]> call(Tuple2<List<Object>, Object[]> parentRollupKeyValuePair)
+    public Tuple2<DppRowKey, Object[]> call(Tuple2<DppRowKey, Object[]> parentRollupKeyValuePair)
             throws Exception {
         Integer[] keyColumnIndexMap = columnIndexInParentRollup.getKey();
         Integer[] valueColumnIndexMap = columnIndexInParentRollup.getValue();
 
-        List<Object> keys = new ArrayList();
+        DppRowKey parentKey = parentRollupKeyValuePair._1();
+        Object[] keys = new Object[keyColumnIndexMap.length];
         Object[] values = new Object[valueColumnIndexMap.length];
 
-        int parentRollupKeysSize = parentRollupKeyValuePair._1.size() - 1;
+        int parentRollupKeysSize = parentKey.getColumnCount();
 
-        // deal bucket_id column
-        keys.add(parentRollupKeyValuePair._1().get(0));
         for (int i = 0; i < keyColumnIndexMap.length; i++) {
             if (keyColumnIndexMap[i] < parentRollupKeysSize) {
-                keys.add(parentRollupKeyValuePair._1().get(keyColumnIndexMap[i] + 1));
+                keys[i] = parentKey.getColumn(keyColumnIndexMap[i]);
             } else {
-                keys.add(parentRollupKeyValuePair._2()[keyColumnIndexMap[i] - parentRollupKeysSize]);
+                keys[i] = parentRollupKeyValuePair._2()[keyColumnIndexMap[i] - parentRollupKeysSize];
             }
         }
 
         for (int i = 0; i < valueColumnIndexMap.length; i++) {
             if (valueColumnIndexMap[i] < parentRollupKeysSize) {
-                values[i] = parentRollupKeyValuePair._1().get(valueColumnIndexMap[i] + 1);
+                values[i] = parentKey.getColumn(valueColumnIndexMap[i]);
             } else {
                 values[i] = parentRollupKeyValuePair._2()[valueColumnIndexMap[i] - parentRollupKeysSize];
             }
         }
-        return new Tuple2<>(keys, values);
+        // keep the bucket of parent rollup
+        return new Tuple2<>(new DppRowKey(parentKey.getPartitionId(), parentKey.getBucketId(), keys), values);
     }
 }
 
@@ -554,32 +552,11 @@ class BigDecimalSumAggregator extends SparkRDDAggregator<BigDecimal> {
     }
 }
 
-class BucketComparator implements Comparator<List<Object>>, Serializable {
+class BucketComparator implements Comparator<DppRowKey>, Serializable {
 
     @Override
-    public int compare(List<Object> keyArray1, List<Object> keyArray2) {
-        int cmp = 0;
-
-        for (int i = 0; i < keyArray1.size(); i++) {
-            Object key1 = keyArray1.get(i);
-            Object key2 = keyArray2.get(i);
-            if (key1 == key2) {
-                continue;
-            }
-            if (key1 == null || key2 == null) {
-                return key1 == null ? -1 : 1;
-            }
-            if (key1 instanceof Comparable && key2 instanceof Comparable) {
-                cmp = ((Comparable) key1).compareTo(key2);
-            } else {
-                throw new RuntimeException(String.format("uncomparable column type %s", key1.getClass().toString()));
-            }
-            if (cmp != 0) {
-                return cmp;
-            }
-        }
-
-        return cmp;
+    public int compare(DppRowKey key1, DppRowKey key2) {
+        return key1.compareTo(key2);
     }
 }
 
@@ -598,7 +575,7 @@ class BucketPartitioner extends Partitioner {
 
     @Override
     public int getPartition(Object key) {
-        List<Object> rddKey = (List<Object>) key;
-        return bucketKeyMap.get(String.valueOf(rddKey.get(0)));
+        DppRowKey rddKey = (DppRowKey) key;
+        return bucketKeyMap.get(rddKey.getBucketKey());
     }
 }
\ No newline at end of file
@@ -20,6 +20,11 @@ package com.starrocks.load.loadv2.dpp;
 import com.esotericsoftware.kryo.Kryo;
 import org.apache.spark.serializer.KryoRegistrator;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Date;
+import java.sql.Timestamp;
+
 /**
  * register etl classes with Kryo when using Kryo serialization.
  */
@@ -29,5 +34,13 @@ public class StarRocksKryoRegistrator implements KryoRegistrator {
     public void registerClasses(Kryo kryo) {
         kryo.register(Roaring64Map.class);
         kryo.register(BitmapValue.class);
+        kryo.register(Hll.class);
+        // shuffle key and value of the dpp aggregation
+        kryo.register(DppRowKey.class, new DppRowKey.KryoSerializer());
+        kryo.register(Object[].class);
+        kryo.register(BigInteger.class);
+        kryo.register(BigDecimal.class);
+        kryo.register(Date.class);
+        kryo.register(Timestamp.class);
     }
 }
@@ -51,6 +51,10 @@ public class SparkEtlJob {
     private static final String BITMAP_DICT_FUNC = "bitmap_dict";
     private static final String TO_BITMAP_FUNC = "to_bitmap";
     private static final String BITMAP_HASH = "bitmap_hash";
+    // build global dicts by appending new keys, and the number of partitions to merge the keys with the dicts
+    private static final String INCREMENTAL_GLOBAL_DICT_CONF = "spark.starrocks.global_dict.incremental";
+    private static final String INCREMENTAL_GLOBAL_DICT_PARTITIONS_CONF = "spark.starrocks.global_dict.partitions";
+    private static final int DEFAULT_INCREMENTAL_GLOBAL_DICT_PARTITIONS = 200;
 
     private String jobConfigFilePath;
     private EtlJobConfig etlJobConfig;
@@ -183,10 +187,14 @@ public class SparkEtlJob {
                     sourceHiveFilter, starrocksHiveDB, distinctKeyTableName, globalDictTableName,
                     starrocksIntermediateHiveTable,
                     buildConcurrency, veryHighCardinalityColumn, veryHighCardinalityColumnSplitNum, spark);
+            SparkConf conf = spark.sparkContext().conf();
+            globalDictBuilder.setIncrementalBuild(conf.getBoolean(INCREMENTAL_GLOBAL_DICT_CONF, false),
+                    conf.getInt(INCREMENTAL_GLOBAL_DICT_PARTITIONS_CONF, DEFAULT_INCREMENTAL_GLOBAL_DICT_PARTITIONS));
             globalDictBuilder.checkGlobalDictTableName(dorisGlobalDictTableName);
             globalDictBuilder.createHiveIntermediateTable();
             globalDictBuilder.extractDistinctColumn();
             globalDictBuilder.buildGlobalDict();
+            LOG.info("global dict growth: " + globalDictBuilder.getDictColumnGrowth());
             globalDictBuilder.encodeStarRocksIntermediateHiveTable();
         } catch (Exception e) {
             throw new RuntimeException(e);
@@ -0,0 +1,141 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.load.loadv2.dpp;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class DppRowKeyTest {
+
+    private static Kryo createKryo() {
+        Kryo kryo = new Kryo();
+        kryo.setRegistrationRequired(false);
+        new StarRocksKryoRegistrator().registerClasses(kryo);
+        return kryo;
+    }
+
+    @Test
+    public void testCompareAndEquals() {
+        DppRowKey key1 = new DppRowKey(10001, 1, new Object[] {1, "a", null});
+        DppRowKey key2 = new DppRowKey(10001, 1, new Object[] {1, "a", null});
+        DppRowKey key3 = new DppRowKey(10001, 1, new Object[] {1, "b", null});
+        DppRowKey key4 = new DppRowKey(10001, 2, new Object[] {1, "a", null});
+        DppRowKey key5 = new DppRowKey(10001, 1, new Object[] {null, "a", null});
+
+        Assert.assertEquals(key1, key2);
+        Assert.assertEquals(key1.hashCode(), key2.hashCode());
+        Assert.assertNotEquals(key1, key3);
+        Assert.assertNotEquals(key1, key4);
+        Assert.assertTrue(key1.isSameBucket(key3));
+        Assert.assertFalse(key1.isSameBucket(key4));
+        Assert.assertEquals("10001_2", key4.getBucketKey());
+
+        Assert.assertEquals(0, key1.compareTo(key2));
+        Assert.assertTrue(key1.compareTo(key3) < 0);
+        Assert.assertTrue(key4.compareTo(key3) > 0);
+        // null is less than any value
+        Assert.assertTrue(key5.compareTo(key1) < 0);
+    }
+
+    @Test
+    public void testKryoSerialize() {
+        Timestamp timestamp = Timestamp.valueOf("2021-01-01 12:00:00.123456789");
+        Object[] columns = new Object[] {true, (byte) 1, (short) 2, 3, 4L, 5.5f, 6.6d, "中文", Date.valueOf("2021-01-01"),
+                timestamp, new BigDecimal("-12345678901234567890.123"), null, new Hll()};
+        DppRowKey key = new DppRowKey(10001, 3, columns);
+
+        Kryo kryo = createKryo();
+        Output output = new Output(1024, -1);
+        kryo.writeObject(output, key);
+        DppRowKey result = kryo.readObject(new Input(output.toBytes()), DppRowKey.class);
+
+        Assert.assertEquals(key.hashCode(), result.hashCode());
+        Assert.assertEquals(10001, result.getPartitionId());
+        Assert.assertEquals(3, result.getBucketId());
+        Assert.assertEquals(columns.length, result.getColumnCount());
+        for (int i = 0; i < columns.length - 1; i++) {
+            Assert.assertEquals(columns[i], result.getColumn(i));
+        }
+        Assert.assertEquals(timestamp.getNanos(), ((Timestamp) result.getColumn(9)).getNanos());
+        Assert.assertTrue(result.getColumn(columns.length - 1) instanceof Hll);
+    }
+
+    // the row key is serialized smaller than the list of the bucket key and columns it replaces
+    @Test
+    public void testSerializedSize() {
+        Object[] columns = new Object[] {1, 2L, "key_1", Date.valueOf("2021-01-01"), new BigDecimal("1.23")};
+        List<Object> listKey = new ArrayList<>();
+        listKey.add(10001 + "_" + 3);
+        listKey.addAll(Arrays.asList(columns));
+        DppRowKey rowKey = new DppRowKey(10001, 3, columns);
+
+        Kryo kryo = createKryo();
+        Output output = new Output(1024, -1);
+        kryo.writeClassAndObject(output, listKey);
+        long listKeyBytes = output.total();
+
+        output = new Output(1024, -1);
+        kryo.writeClassAndObject(output, rowKey);
+        long rowKeyBytes = output.total();
+        Assert.assertTrue(rowKeyBytes < listKeyBytes);
+    }
+
+    private static long serialize(Kryo kryo, List<?> keys, Output output) {
+        output.clear();
+        long start = System.nanoTime();
+        for (Object key : keys) {
+            kryo.writeClassAndObject(output, key);
+        }
+        return System.nanoTime() - start;
+    }
+
+    // serialized size and time of the shuffle keys of a synthetic load, compared with the list key
+    @Test
+    public void testSerializedSizeOfLoad() {
+        final int rows = 100000;
+        final int rounds = 5;
+        List<List<Object>> listKeys = new ArrayList<>(rows);
+        List<DppRowKey> rowKeys = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Object[] columns = new Object[] {i % 100, (long) i, "key_" + (i % 1000), Date.valueOf("2021-01-01"),
+                    new BigDecimal(i).movePointLeft(2)};
+            List<Object> listKey = new ArrayList<>();
+            listKey.add(10001 + "_" + (i % 16));
+            listKey.addAll(Arrays.asList(columns));
+            listKeys.add(listKey);
+            rowKeys.add(new DppRowKey(10001, i % 16, columns));
+        }
+
+        // keep the best round of each key, the first rounds also warm up the JIT
+        Kryo kryo = createKryo();
+        Output listOutput = new Output(4096, -1);
+        Output rowOutput = new Output(4096, -1);
+        long listKeyNs = Long.MAX_VALUE;
+        long rowKeyNs = Long.MAX_VALUE;
+        for (int round = 0; round < rounds; round++) {
+            listKeyNs = Math.min(listKeyNs, serialize(kryo, listKeys, listOutput));
+            rowKeyNs = Math.min(rowKeyNs, serialize(kryo, rowKeys, rowOutput));
+        }
+        long listKeyBytes = listOutput.total();
+        long rowKeyBytes = rowOutput.total();
+        Assert.assertTrue("row key " + rowKeyBytes + " bytes, list key " + listKeyBytes + " bytes",
+                rowKeyBytes < listKeyBytes);
+        Assert.assertTrue("row key " + rowKeyNs / 1000000 + " ms, list key " + listKeyNs / 1000000 + " ms",
+                rowKeyNs < listKeyNs);
+
+        Input input = new Input(rowOutput.toBytes());
+        for (DppRowKey rowKey : rowKeys) {
+            Assert.assertEquals(rowKey, kryo.readClassAndObject(input));
+        }
+    }
+}
@@ -0,0 +1,118 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.load.loadv2.dpp;
+
+import org.apache.spark.sql.Dataset;
+import org.apache.spark.sql.Encoders;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.SparkSession;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import scala.Tuple2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class GlobalDictBuilderTest {
+    private static SparkSession spark;
+
+    @BeforeClass
+    public static void setUp() {
+        spark = SparkSession.builder().master("local[2]").appName("GlobalDictBuilderTest").getOrCreate();
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        spark.stop();
+    }
+
+    private Dataset<Row> createKeys(List<String> keys) {
+        return spark.createDataset(keys, Encoders.STRING()).toDF("dict_key");
+    }
+
+    @Test
+    public void testAssignNewDictValues() {
+        List<String> dictKeys = Arrays.asList("a", "c", "e", "g");
+        List<String> loadKeys = new ArrayList<>(Arrays.asList("a", "b", "e", "f", "h"));
+        for (int i = 0; i < 100; i++) {
+            loadKeys.add("k" + i);
+        }
+
+        Tuple2<Dataset<Row>, Long> result =
+                GlobalDictBuilder.assignNewDictValues(spark, createKeys(loadKeys), createKeys(dictKeys), 4, 3);
+        Assert.assertEquals(103L, (long) result._2());
+
+        Map<String, Long> newDict = new HashMap<>();
+        for (Row row : result._1().collectAsList()) {
+            newDict.put(row.getString(0), row.getLong(1));
+        }
+        Set<String> expectedKeys = new HashSet<>(loadKeys);
+        expectedKeys.removeAll(dictKeys);
+        Assert.assertEquals(expectedKeys, newDict.keySet());
+        // the values are continuous after the max value of the dict
+        Assert.assertEquals(103, new HashSet<>(newDict.values()).size());
+        for (long value : newDict.values()) {
+            Assert.assertTrue(value >= 5 && value <= 107);
+        }
+    }
+
+    @Test
+    public void testAssignNewDictValuesToEmptyDict() {
+        Tuple2<Dataset<Row>, Long> result = GlobalDictBuilder.assignNewDictValues(spark,
+                createKeys(Arrays.asList("x", "y")), createKeys(new ArrayList<>()), 0, 4);
+        Assert.assertEquals(2L, (long) result._2());
+        Set<Long> values = new HashSet<>();
+        for (Row row : result._1().collectAsList()) {
+            values.add(row.getLong(1));
+        }
+        Assert.assertEquals(new HashSet<>(Arrays.asList(1L, 2L)), values);
+
+        result = GlobalDictBuilder.assignNewDictValues(spark, createKeys(Arrays.asList("x", "y")),
+                createKeys(Arrays.asList("x", "y")), 2, 4);
+        Assert.assertEquals(0L, (long) result._2());
+        Assert.assertEquals(0, result._1().count());
+    }
+
+    @Test
+    public void testBuildGlobalDictIncrementally() {
+        spark.sql("create table dict_test_distinct_keys (dict_key string, dict_column string) using parquet "
+                + "partitioned by (dict_column)");
+        spark.sql("create table dict_test_global_dict (dict_key string, dict_value bigint, dict_column string) "
+                + "using parquet partitioned by (dict_column)");
+        try {
+            spark.sql("insert into table dict_test_distinct_keys partition(dict_column='c1') "
+                    + "values ('a'), ('b'), ('c')");
+            spark.sql("insert into table dict_test_distinct_keys partition(dict_column='c2') values ('x')");
+            spark.sql("insert into table dict_test_global_dict partition(dict_column='c1') values ('a', 1)");
+
+            GlobalDictBuilder builder = new GlobalDictBuilder(null, null, null, null, null, "default",
+                    "dict_test_distinct_keys", "dict_test_global_dict", null, 1, null, 1, spark);
+            builder.setIncrementalBuild(true, 2);
+            builder.buildGlobalDictIncrementally(1, "c1");
+            builder.buildGlobalDictIncrementally(0, "c2");
+
+            Map<String, Long> expectedGrowth = new HashMap<>();
+            expectedGrowth.put("c1", 2L);
+            expectedGrowth.put("c2", 1L);
+            Assert.assertEquals(expectedGrowth, builder.getDictColumnGrowth());
+
+            Map<String, Long> dict = new HashMap<>();
+            for (Row row : spark.sql("select dict_key, dict_value from dict_test_global_dict "
+                    + "where dict_column='c1'").collectAsList()) {
+                dict.put(row.getString(0), row.getLong(1));
+            }
+            Assert.assertEquals(new HashSet<>(Arrays.asList("a", "b", "c")), dict.keySet());
+            Assert.assertEquals(new HashSet<>(Arrays.asList(1L, 2L, 3L)), new HashSet<>(dict.values()));
+        } finally {
+            spark.sql("drop table if exists dict_test_distinct_keys");
+            spark.sql("drop table if exists dict_test_global_dict");
+        }
+    }
+}
@@ -364,6 +364,7 @@ struct TTaskRunInfo {
     8: optional i64 expire_time
     9: optional i32 error_code
     10: optional string error_message
+    11: optional string progress
 }
 
 struct TGetTaskRunInfoResult {
@@ -631,6 +632,8 @@ struct TLoadTxnCommitRequest {
     10: optional i64 auth_code
     11: optional TTxnCommitAttachment txnCommitAttachment
     12: optional i64 thrift_rpc_timeout_ms
+    // the backend which coordinates the load
+    13: optional i64 backend_id
 }
 
 struct TLoadTxnCommitResult {
@@ -39,6 +39,11 @@ struct TBackendInfo {
     5: optional string version
     6: optional i32 num_hardware_cores
     7: optional Types.TPort starlet_port
+    // memory usage of the process, used by the query queue of FE
+    8: optional i64 mem_used_bytes
+    9: optional i64 mem_limit_bytes
+    // number of the stream loads being processed, used by the stream load routing of FE
+    10: optional i32 num_running_loads
 }
 
 struct THeartbeatResult {
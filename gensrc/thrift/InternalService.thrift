@@ -303,6 +303,16 @@ struct TExecPlanFragmentParams {
   56: optional bool enable_shared_scan
 }
 
+// The fragment instances of one fragment on one backend, delivered by a single rpc.
+// The fields shared by all the instances are only serialized once in common_param,
+// each element of unique_param_per_instance only sets the fields of its own instance:
+// params.fragment_instance_id, params.per_node_scan_ranges, params.node_to_per_driver_seq_scan_ranges,
+// params.sender_id, backend_num and pipeline_dop.
+struct TExecBatchPlanFragmentsParams {
+  1: optional TExecPlanFragmentParams common_param
+  2: optional list<TExecPlanFragmentParams> unique_param_per_instance
+}
+
 struct TExecPlanFragmentResult {
   // required in V1
   1: optional Status.TStatus status
@@ -227,6 +227,12 @@ struct THdfsScanRange {
     8: optional string full_path
 }
 
+// A range of a partitioned JDBC table
+struct TJDBCScanRange {
+  // the predicate on the partition column selecting the rows of this range
+  1: optional string partition_predicate
+}
+
 // Specification of an individual data range which is held in its entirety
 // by a storage server
 struct TScanRange {
@@ -238,6 +244,9 @@ struct TScanRange {
 
   // scan range for hdfs
   20: optional THdfsScanRange hdfs_scan_range
+
+  // scan range for jdbc
+  21: optional TJDBCScanRange jdbc_scan_range
 }
 
 struct TMySQLScanNode {
@@ -2,23 +2,27 @@
 
 package com.starrocks.jdbcbridge;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import org.apache.logging.log4j.Level;
 
 import java.io.File;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 /*
 * In order to simplify the implementation of jni cpp code, we add JDBCBridge as a bridge,
 * encapsulate some complex logic, and only provide the simplest interface for C++ calls.
 *
-* Currently, the implementation is relatively simple.
-* Each query will create a separate thread, load the JDBC driver class and create a short connection.
-* In fact, this has additional overhead.
-*
-* @TODO(silverbullet233):
-*   We can consider letting JDBCBridge manage the driver class loading and JDBC connection pool in the future.
+* The connections are taken from a connection pool shared by all the scans of the same JDBC source,
+* so the scans of the ranges of a partitioned table and the following queries reuse the connections.
+* Idle connections are closed after the idle timeout, and so are the pools not used for that long.
+* When the shared pool is exhausted, the scan takes a connection from the overflow pool of the same JDBC source,
+* which is created on the first exhaustion and closed together with the shared pool.
 * */
 public class JDBCBridge {
 
@@ -26,6 +30,47 @@ public class JDBCBridge {
         org.apache.logging.log4j.core.config.Configurator.setLevel("org.zaxxer.hikari", Level.ERROR);
     }
 
+    // how long a scan waits for a connection of the shared pool before using the overflow pool
+    static final long SHARED_POOL_WAIT_TIMEOUT_MS = 1000;
+    // how long a scan waits for a connection of the overflow pool
+    static final long OVERFLOW_POOL_WAIT_TIMEOUT_MS = 30000;
+
+    private static class SharedDataSource {
+        private final HikariDataSource dataSource;
+        // created when the shared pool is exhausted for the first time, only changed in DATA_SOURCES.compute
+        private volatile HikariDataSource overflowDataSource;
+        private volatile long lastAccessTimeMs;
+
+        SharedDataSource(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+            this.lastAccessTimeMs = System.currentTimeMillis();
+        }
+
+        private static boolean hasActiveConnections(HikariDataSource dataSource) {
+            if (dataSource == null) {
+                return false;
+            }
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            return pool != null && pool.getActiveConnections() > 0;
+        }
+
+        boolean isIdle(long nowMs, long idleTimeoutMs) {
+            return nowMs - lastAccessTimeMs > idleTimeoutMs && !hasActiveConnections(dataSource)
+                    && !hasActiveConnections(overflowDataSource);
+        }
+
+        void close() {
+            dataSource.close();
+            if (overflowDataSource != null) {
+                overflowDataSource.close();
+            }
+        }
+    }
+
+    // driver class, url, user and password of the JDBC source -> connection pool,
+    // the pool of a changed password is closed once it is idle
+    private static final Map<String, SharedDataSource> DATA_SOURCES = new ConcurrentHashMap<>();
+
     public JDBCBridge() {
     }
 
@@ -37,7 +82,67 @@ public class JDBCBridge {
     }
 
     public JDBCScanner getScanner(JDBCScanContext scanContext) throws Exception {
-        JDBCScanner scanner = new JDBCScanner(scanContext);
+        JDBCScanner scanner = new JDBCScanner(scanContext, getDataSource(scanContext));
         return scanner;
     }
+
+    static HikariDataSource getDataSource(JDBCScanContext scanContext) {
+        evictIdleDataSources(scanContext.getConnectionIdleTimeoutMs());
+        return getSharedDataSource(scanContext, false).dataSource;
+    }
+
+    // the pool used when the shared pool of the same JDBC source is exhausted
+    static HikariDataSource getOverflowDataSource(JDBCScanContext scanContext) {
+        return getSharedDataSource(scanContext, true).overflowDataSource;
+    }
+
+    private static SharedDataSource getSharedDataSource(JDBCScanContext scanContext, boolean overflow) {
+        String key = String.join("\u0000", scanContext.getDriverClassName(), scanContext.getJdbcURL(),
+                scanContext.getUser(), scanContext.getPassword());
+        int poolSize = Math.max(1, scanContext.getConnectionPoolSize());
+        // the access time is updated in compute, so the pool could not be evicted concurrently
+        return DATA_SOURCES.compute(key, (k, v) -> {
+            if (v == null) {
+                v = new SharedDataSource(createDataSource(scanContext, poolSize, SHARED_POOL_WAIT_TIMEOUT_MS));
+            }
+            if (overflow && v.overflowDataSource == null) {
+                v.overflowDataSource = createDataSource(scanContext, poolSize, OVERFLOW_POOL_WAIT_TIMEOUT_MS);
+            }
+            v.lastAccessTimeMs = System.currentTimeMillis();
+            return v;
+        });
+    }
+
+    static HikariDataSource createDataSource(JDBCScanContext scanContext, int poolSize, long connectionTimeoutMs) {
+        HikariConfig config = new HikariConfig();
+        config.setDriverClassName(scanContext.getDriverClassName());
+        config.setJdbcUrl(scanContext.getJdbcURL());
+        config.setUsername(scanContext.getUser());
+        config.setPassword(scanContext.getPassword());
+        config.setMaximumPoolSize(poolSize);
+        config.setConnectionTimeout(connectionTimeoutMs);
+        // keep no connection when the source is not queried
+        config.setMinimumIdle(0);
+        if (scanContext.getConnectionIdleTimeoutMs() > 0) {
+            config.setIdleTimeout(scanContext.getConnectionIdleTimeoutMs());
+        }
+        return new HikariDataSource(config);
+    }
+
+    // close the pools which have no connection in use and have not been used for the idle timeout
+    static void evictIdleDataSources(long idleTimeoutMs) {
+        if (idleTimeoutMs <= 0) {
+            return;
+        }
+        long nowMs = System.currentTimeMillis();
+        for (String key : DATA_SOURCES.keySet()) {
+            DATA_SOURCES.computeIfPresent(key, (k, v) -> {
+                if (!v.isIdle(nowMs, idleTimeoutMs)) {
+                    return v;
+                }
+                v.close();
+                return null;
+            });
+        }
+    }
 }
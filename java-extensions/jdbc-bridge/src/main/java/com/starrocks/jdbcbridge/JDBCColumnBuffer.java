@@ -0,0 +1,251 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.jdbcbridge;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/*
+ * Typed buffer of a result column, filled by the ResultSet getter of the column type,
+ * so values are not boxed and BE could copy a column of the chunk by one JNI call.
+ *
+ * The data of numeric columns is a primitive array, the data of other columns is UTF-8 strings
+ * stored in bytes and offsets, the string of row i is bytes[offsets[i], offsets[i + 1]).
+ * Values of null rows are undefined.
+ * */
+public abstract class JDBCColumnBuffer {
+    protected byte[] nulls;
+
+    protected JDBCColumnBuffer(int capacity) {
+        nulls = new byte[capacity];
+    }
+
+    // choose the buffer by the class name of the result column
+    public static JDBCColumnBuffer create(String className, int capacity) {
+        switch (className) {
+            case "java.lang.Short":
+                return new ShortColumnBuffer(capacity);
+            case "java.lang.Integer":
+                return new IntColumnBuffer(capacity);
+            case "java.lang.Long":
+                return new LongColumnBuffer(capacity);
+            case "java.lang.Boolean":
+                return new BooleanColumnBuffer(capacity);
+            case "java.lang.Float":
+                return new FloatColumnBuffer(capacity);
+            case "java.lang.Double":
+                return new DoubleColumnBuffer(capacity);
+            case "java.lang.String":
+                return new StringColumnBuffer(capacity, (rs, idx) -> rs.getString(idx));
+            case "java.sql.Timestamp":
+                return new StringColumnBuffer(capacity, (rs, idx) -> {
+                    Timestamp value = rs.getTimestamp(idx);
+                    return value == null ? null : value.toString();
+                });
+            case "java.sql.Date":
+                return new StringColumnBuffer(capacity, (rs, idx) -> {
+                    Date value = rs.getDate(idx);
+                    return value == null ? null : JDBCUtil.formatDate(value);
+                });
+            case "java.time.LocalDateTime":
+                return new StringColumnBuffer(capacity, (rs, idx) -> {
+                    LocalDateTime value = (LocalDateTime) rs.getObject(idx);
+                    return value == null ? null : JDBCUtil.formatLocalDatetime(value);
+                });
+            case "java.math.BigDecimal":
+                return new StringColumnBuffer(capacity, (rs, idx) -> {
+                    BigDecimal value = rs.getBigDecimal(idx);
+                    return value == null ? null : value.toString();
+                });
+            default:
+                throw new UnsupportedOperationException("unsupported column type: " + className);
+        }
+    }
+
+    // read the column at columnIndex of the current row of resultSet as the row-th value
+    public abstract void append(ResultSet resultSet, int columnIndex, int row) throws SQLException;
+
+    public byte[] getNulls() {
+        return nulls;
+    }
+
+    public abstract Object getData();
+
+    public int[] getOffsets() {
+        return null;
+    }
+
+    private static class ShortColumnBuffer extends JDBCColumnBuffer {
+        private final short[] data;
+
+        ShortColumnBuffer(int capacity) {
+            super(capacity);
+            data = new short[capacity];
+        }
+
+        @Override
+        public void append(ResultSet resultSet, int columnIndex, int row) throws SQLException {
+            data[row] = resultSet.getShort(columnIndex);
+            nulls[row] = (byte) (resultSet.wasNull() ? 1 : 0);
+        }
+
+        @Override
+        public Object getData() {
+            return data;
+        }
+    }
+
+    private static class IntColumnBuffer extends JDBCColumnBuffer {
+        private final int[] data;
+
+        IntColumnBuffer(int capacity) {
+            super(capacity);
+            data = new int[capacity];
+        }
+
+        @Override
+        public void append(ResultSet resultSet, int columnIndex, int row) throws SQLException {
+            data[row] = resultSet.getInt(columnIndex);
+            nulls[row] = (byte) (resultSet.wasNull() ? 1 : 0);
+        }
+
+        @Override
+        public Object getData() {
+            return data;
+        }
+    }
+
+    private static class LongColumnBuffer extends JDBCColumnBuffer {
+        private final long[] data;
+
+        LongColumnBuffer(int capacity) {
+            super(capacity);
+            data = new long[capacity];
+        }
+
+        @Override
+        public void append(ResultSet resultSet, int columnIndex, int row) throws SQLException {
+            data[row] = resultSet.getLong(columnIndex);
+            nulls[row] = (byte) (resultSet.wasNull() ? 1 : 0);
+        }
+
+        @Override
+        public Object getData() {
+            return data;
+        }
+    }
+
+    // 1 for true and 0 for false
+    private static class BooleanColumnBuffer extends JDBCColumnBuffer {
+        private final byte[] data;
+
+        BooleanColumnBuffer(int capacity) {
+            super(capacity);
+            data = new byte[capacity];
+        }
+
+        @Override
+        public void append(ResultSet resultSet, int columnIndex, int row) throws SQLException {
+            data[row] = (byte) (resultSet.getBoolean(columnIndex) ? 1 : 0);
+            nulls[row] = (byte) (resultSet.wasNull() ? 1 : 0);
+        }
+
+        @Override
+        public Object getData() {
+            return data;
+        }
+    }
+
+    private static class FloatColumnBuffer extends JDBCColumnBuffer {
+        private final float[] data;
+
+        FloatColumnBuffer(int capacity) {
+            super(capacity);
+            data = new float[capacity];
+        }
+
+        @Override
+        public void append(ResultSet resultSet, int columnIndex, int row) throws SQLException {
+            data[row] = resultSet.getFloat(columnIndex);
+            nulls[row] = (byte) (resultSet.wasNull() ? 1 : 0);
+        }
+
+        @Override
+        public Object getData() {
+            return data;
+        }
+    }
+
+    private static class DoubleColumnBuffer extends JDBCColumnBuffer {
+        private final double[] data;
+
+        DoubleColumnBuffer(int capacity) {
+            super(capacity);
+            data = new double[capacity];
+        }
+
+        @Override
+        public void append(ResultSet resultSet, int columnIndex, int row) throws SQLException {
+            data[row] = resultSet.getDouble(columnIndex);
+            nulls[row] = (byte) (resultSet.wasNull() ? 1 : 0);
+        }
+
+        @Override
+        public Object getData() {
+            return data;
+        }
+    }
+
+    private interface StringGetter {
+        String get(ResultSet resultSet, int columnIndex) throws SQLException;
+    }
+
+    private static class StringColumnBuffer extends JDBCColumnBuffer {
+        private static final int INIT_BYTES_PER_ROW = 16;
+
+        private final StringGetter getter;
+        private final int[] offsets;
+        private byte[] bytes;
+
+        StringColumnBuffer(int capacity, StringGetter getter) {
+            super(capacity);
+            this.getter = getter;
+            this.offsets = new int[capacity + 1];
+            this.bytes = new byte[capacity * INIT_BYTES_PER_ROW];
+        }
+
+        @Override
+        public void append(ResultSet resultSet, int columnIndex, int row) throws SQLException {
+            String value = getter.get(resultSet, columnIndex);
+            int offset = offsets[row];
+            if (value == null) {
+                nulls[row] = 1;
+                offsets[row + 1] = offset;
+                return;
+            }
+            nulls[row] = 0;
+            byte[] valueBytes = value.getBytes(StandardCharsets.UTF_8);
+            if (offset + valueBytes.length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, offset + valueBytes.length));
+            }
+            System.arraycopy(valueBytes, 0, bytes, offset, valueBytes.length);
+            offsets[row + 1] = offset + valueBytes.length;
+        }
+
+        @Override
+        public Object getData() {
+            return bytes;
+        }
+
+        @Override
+        public int[] getOffsets() {
+            return offsets;
+        }
+    }
+}
@@ -10,16 +10,20 @@ public class JDBCScanContext {
     private String sql;
 
     private int statementFetchSize;
+    private int connectionPoolSize;
+    private int connectionIdleTimeoutMs;
 
     public JDBCScanContext() {}
     public JDBCScanContext(String driverClassName, String jdbcURL, String user, String password,
-                           String sql, int statementFetchSize) {
+                           String sql, int statementFetchSize, int connectionPoolSize, int connectionIdleTimeoutMs) {
         this.driverClassName = driverClassName;
         this.jdbcURL = jdbcURL;
         this.user = user;
         this.password = password;
         this.sql = sql;
         this.statementFetchSize = statementFetchSize;
+        this.connectionPoolSize = connectionPoolSize;
+        this.connectionIdleTimeoutMs = connectionIdleTimeoutMs;
     }
 
     public void setDriverClassName(String driverClassName) {
@@ -46,6 +50,14 @@ public class JDBCScanContext {
         this.statementFetchSize = statementFetchSize;
     }
 
+    public void setConnectionPoolSize(int connectionPoolSize) {
+        this.connectionPoolSize = connectionPoolSize;
+    }
+
+    public void setConnectionIdleTimeoutMs(int connectionIdleTimeoutMs) {
+        this.connectionIdleTimeoutMs = connectionIdleTimeoutMs;
+    }
+
     public String getDriverClassName() {
         return driverClassName;
     }
@@ -70,5 +82,13 @@ public class JDBCScanContext {
         return statementFetchSize;
     }
 
+    public int getConnectionPoolSize() {
+        return connectionPoolSize;
+    }
+
+    public int getConnectionIdleTimeoutMs() {
+        return connectionIdleTimeoutMs;
+    }
+
 
 }
@@ -2,12 +2,12 @@
 
 package com.starrocks.jdbcbridge;
 
-import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
+import java.sql.SQLTransientConnectionException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
@@ -20,22 +20,20 @@ public class JDBCScanner {
     private ResultSet resultSet;
     private ResultSetMetaData resultSetMetaData;
     private List<String> resultColumnClassNames;
+    private JDBCColumnBuffer[] columnBuffers;
 
-    public JDBCScanner(JDBCScanContext scanContext) {
+    public JDBCScanner(JDBCScanContext scanContext, HikariDataSource dataSource) {
         this.scanContext = scanContext;
+        this.dataSource = dataSource;
     }
 
     public void open() throws Exception {
-        HikariConfig config = new HikariConfig();
-        config.setDriverClassName(scanContext.getDriverClassName());
-        config.setJdbcUrl(scanContext.getJdbcURL());
-        config.setUsername(scanContext.getUser());
-        config.setPassword(scanContext.getPassword());
-        // one connection per query, so just set max pool size to 1
-        config.setMaximumPoolSize(1);
-
-        dataSource = new HikariDataSource(config);
-        connection = dataSource.getConnection();
+        try {
+            connection = dataSource.getConnection();
+        } catch (SQLTransientConnectionException e) {
+            // all the connections of the shared pool are in use, do not wait for them
+            connection = JDBCBridge.getOverflowDataSource(scanContext).getConnection();
+        }
         statement = connection.createStatement();
         statement.setFetchSize(scanContext.getStatementFetchSize());
         statement.execute(scanContext.getSql());
@@ -47,6 +45,14 @@ public class JDBCScanner {
         }
     }
 
+    private void initColumnBuffers() {
+        int chunkSize = scanContext.getStatementFetchSize();
+        columnBuffers = new JDBCColumnBuffer[resultColumnClassNames.size()];
+        for (int i = 0; i < columnBuffers.length; i++) {
+            columnBuffers[i] = JDBCColumnBuffer.create(resultColumnClassNames.get(i), chunkSize);
+        }
+    }
+
     // used for cpp interface
     public List<String> getResultColumnClassNames() {
         return resultColumnClassNames;
@@ -56,22 +62,26 @@ public class JDBCScanner {
         return resultSet.next();
     }
 
-    // return columnar chunk
-    public List<List<Object>> getNextChunk() throws Exception {
-        int chunkSize = scanContext.getStatementFetchSize();
-        int columnCount = resultSetMetaData.getColumnCount();
-        List<List<Object>> chunk = new ArrayList<>(columnCount);
-        for (int i = 0; i < columnCount; i++) {
-            chunk.add(new ArrayList<Object>(chunkSize));
+    // read the next chunk into the column buffers, return the number of rows
+    public int getNextChunk() throws Exception {
+        if (columnBuffers == null) {
+            // the types are checked by BE before reading data
+            initColumnBuffers();
         }
+        int chunkSize = scanContext.getStatementFetchSize();
         int numRows = 0;
         do {
-            for (int i = 0; i < columnCount; i++) {
-                chunk.get(i).add(resultSet.getObject(i + 1));
+            for (int i = 0; i < columnBuffers.length; i++) {
+                columnBuffers[i].append(resultSet, i + 1, numRows);
             }
             numRows++;
         } while (numRows < chunkSize && resultSet.next());
-        return chunk;
+        return numRows;
+    }
+
+    // used for cpp interface, the buffers are valid until the next call of getNextChunk
+    public JDBCColumnBuffer getColumnBuffer(int columnIndex) {
+        return columnBuffers[columnIndex];
     }
 
     public void close() throws Exception {
@@ -81,11 +91,9 @@ public class JDBCScanner {
         if (statement != null) {
             statement.close();
         }
+        // the connection is returned to the shared pool or the overflow pool
         if (connection != null) {
             connection.close();
         }
-        if (dataSource != null) {
-            dataSource.close();
-        }
     }
 }
@@ -0,0 +1,150 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.jdbcbridge;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+public class JDBCColumnBufferTest {
+    // a ResultSet of a single column, the getters return the value of the current row
+    // and the default value of the primitive type for null like the drivers do
+    private static class MockResultSet {
+        private final Object[] values;
+        private int row = -1;
+        private boolean wasNull = false;
+        private final ResultSet resultSet;
+
+        MockResultSet(Object... values) {
+            this.values = values;
+            this.resultSet = (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                    new Class<?>[] {ResultSet.class}, (proxy, method, args) -> {
+                        if (method.getName().equals("wasNull")) {
+                            return wasNull;
+                        }
+                        Assert.assertEquals(1, args[0]);
+                        Object value = this.values[row];
+                        wasNull = value == null;
+                        switch (method.getName()) {
+                            case "getShort":
+                                return value == null ? (short) 0 : value;
+                            case "getInt":
+                                return value == null ? 0 : value;
+                            case "getLong":
+                                return value == null ? 0L : value;
+                            case "getBoolean":
+                                return value == null ? false : value;
+                            case "getFloat":
+                                return value == null ? 0f : value;
+                            case "getDouble":
+                                return value == null ? 0d : value;
+                            case "getString":
+                            case "getTimestamp":
+                            case "getDate":
+                            case "getBigDecimal":
+                            case "getObject":
+                                return value;
+                            default:
+                                throw new UnsupportedOperationException(method.getName());
+                        }
+                    });
+        }
+
+        JDBCColumnBuffer fill(String className) throws SQLException {
+            JDBCColumnBuffer buffer = JDBCColumnBuffer.create(className, values.length);
+            for (row = 0; row < values.length; row++) {
+                buffer.append(resultSet, 1, row);
+            }
+            return buffer;
+        }
+    }
+
+    private static String[] getStrings(JDBCColumnBuffer buffer, int rows) {
+        byte[] bytes = (byte[]) buffer.getData();
+        int[] offsets = buffer.getOffsets();
+        String[] strings = new String[rows];
+        for (int i = 0; i < rows; i++) {
+            strings[i] = buffer.getNulls()[i] == 1 ? null :
+                    new String(bytes, offsets[i], offsets[i + 1] - offsets[i], StandardCharsets.UTF_8);
+        }
+        return strings;
+    }
+
+    @Test
+    public void testNumericColumns() throws SQLException {
+        byte[] nulls = {0, 1, 0};
+
+        JDBCColumnBuffer buffer = new MockResultSet((short) 1, null, Short.MIN_VALUE).fill("java.lang.Short");
+        Assert.assertArrayEquals(new short[] {1, 0, Short.MIN_VALUE}, (short[]) buffer.getData());
+        Assert.assertArrayEquals(nulls, buffer.getNulls());
+        Assert.assertNull(buffer.getOffsets());
+
+        buffer = new MockResultSet(1, null, Integer.MAX_VALUE).fill("java.lang.Integer");
+        Assert.assertArrayEquals(new int[] {1, 0, Integer.MAX_VALUE}, (int[]) buffer.getData());
+        Assert.assertArrayEquals(nulls, buffer.getNulls());
+
+        buffer = new MockResultSet(1L, null, Long.MIN_VALUE).fill("java.lang.Long");
+        Assert.assertArrayEquals(new long[] {1, 0, Long.MIN_VALUE}, (long[]) buffer.getData());
+        Assert.assertArrayEquals(nulls, buffer.getNulls());
+
+        buffer = new MockResultSet(true, null, false).fill("java.lang.Boolean");
+        Assert.assertArrayEquals(new byte[] {1, 0, 0}, (byte[]) buffer.getData());
+        Assert.assertArrayEquals(nulls, buffer.getNulls());
+
+        buffer = new MockResultSet(1.5f, null, -2.5f).fill("java.lang.Float");
+        Assert.assertArrayEquals(new float[] {1.5f, 0, -2.5f}, (float[]) buffer.getData(), 0);
+        Assert.assertArrayEquals(nulls, buffer.getNulls());
+
+        buffer = new MockResultSet(1.5d, null, -2.5d).fill("java.lang.Double");
+        Assert.assertArrayEquals(new double[] {1.5d, 0, -2.5d}, (double[]) buffer.getData(), 0);
+        Assert.assertArrayEquals(nulls, buffer.getNulls());
+    }
+
+    @Test
+    public void testStringColumns() throws SQLException {
+        JDBCColumnBuffer buffer = new MockResultSet("abc", null, "", "中文").fill("java.lang.String");
+        Assert.assertArrayEquals(new byte[] {0, 1, 0, 0}, buffer.getNulls());
+        Assert.assertArrayEquals(new String[] {"abc", null, "", "中文"}, getStrings(buffer, 4));
+
+        Timestamp timestamp = Timestamp.valueOf("2022-01-02 03:04:05.678");
+        buffer = new MockResultSet(timestamp, null).fill("java.sql.Timestamp");
+        Assert.assertArrayEquals(new String[] {timestamp.toString(), null}, getStrings(buffer, 2));
+
+        Date date = Date.valueOf("2022-01-02");
+        buffer = new MockResultSet(null, date).fill("java.sql.Date");
+        Assert.assertArrayEquals(new String[] {null, JDBCUtil.formatDate(date)}, getStrings(buffer, 2));
+
+        LocalDateTime localDateTime = LocalDateTime.of(2022, 1, 2, 3, 4, 5);
+        buffer = new MockResultSet(localDateTime, null).fill("java.time.LocalDateTime");
+        Assert.assertArrayEquals(new String[] {"2022-01-02 03:04:05", null}, getStrings(buffer, 2));
+
+        buffer = new MockResultSet(new BigDecimal("123.4500"), null, new BigDecimal("-0.01"))
+                .fill("java.math.BigDecimal");
+        Assert.assertArrayEquals(new String[] {"123.4500", null, "-0.01"}, getStrings(buffer, 3));
+    }
+
+    @Test
+    public void testStringBufferGrowth() throws SQLException {
+        // longer than the initial bytes of the buffer
+        char[] chars = new char[100];
+        Arrays.fill(chars, 'x');
+        String longValue = new String(chars);
+        JDBCColumnBuffer buffer = new MockResultSet("a", longValue, null, longValue + "y").fill("java.lang.String");
+        Assert.assertArrayEquals(new String[] {"a", longValue, null, longValue + "y"}, getStrings(buffer, 4));
+        Assert.assertEquals(202, buffer.getOffsets()[4]);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testUnsupportedType() {
+        JDBCColumnBuffer.create("java.sql.Blob", 1);
+    }
+}
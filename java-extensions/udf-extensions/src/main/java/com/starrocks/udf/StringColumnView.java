@@ -0,0 +1,52 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.udf;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+
+// A read-only view of a string column, the input of batch UDF methods for string arguments.
+// It reads the offsets and bytes of the column in BE memory directly, so values are only copied
+// to the java heap when they are accessed.
+// The memory is only valid during the call, the view must not be kept after the method returns.
+public final class StringColumnView {
+    private final int numRows;
+    private final IntBuffer offsets;
+    private final ByteBuffer bytes;
+
+    public StringColumnView(int numRows, ByteBuffer offsetBuffer, ByteBuffer dataBuffer) {
+        this.numRows = numRows;
+        this.offsets = offsetBuffer.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        this.bytes = dataBuffer;
+    }
+
+    public int size() {
+        return numRows;
+    }
+
+    // length of the value in bytes
+    public int length(int row) {
+        return offsets.get(row + 1) - offsets.get(row);
+    }
+
+    public byte byteAt(int row, int index) {
+        return bytes.get(offsets.get(row) + index);
+    }
+
+    public String getString(int row) {
+        byte[] value = new byte[length(row)];
+        copyBytes(row, value, 0);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    // copy the bytes of the value to dst, return the number of bytes copied
+    public int copyBytes(int row, byte[] dst, int dstOffset) {
+        int length = length(row);
+        ByteBuffer value = bytes.duplicate();
+        value.position(offsets.get(row));
+        value.get(dst, dstOffset, length);
+        return length;
+    }
+}
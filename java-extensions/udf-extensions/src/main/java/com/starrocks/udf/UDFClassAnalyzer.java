@@ -5,8 +5,11 @@ package com.starrocks.udf;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 public class UDFClassAnalyzer {
     static Map<String, String> anlyMap = new HashMap<>();
@@ -23,6 +26,14 @@ public class UDFClassAnalyzer {
         anlyMap.put("void", "V");
     }
 
+    // column types of batch methods
+    private static final Set<Class<?>> BATCH_INPUT_TYPES = new HashSet<>(Arrays.asList(
+            boolean[].class, byte[].class, short[].class, int[].class, long[].class, float[].class, double[].class,
+            StringColumnView.class));
+    private static final Set<Class<?>> BATCH_RESULT_TYPES = new HashSet<>(Arrays.asList(
+            boolean[].class, byte[].class, short[].class, int[].class, long[].class, float[].class, double[].class,
+            String[].class));
+
     private static String getSignature(String typeName) {
         String prefix = "";
         if (typeName.contains("[]")) {
@@ -75,5 +86,32 @@ public class UDFClassAnalyzer {
         }
         return null;
     }
-}
 
+    // Batch methods process a batch of rows in one call, the columns are passed as primitive arrays
+    // or StringColumnView without boxing:
+    //   R[] evaluate(int rows, T1[] a, T2[] b, ...)
+    //   void updateBatch(State state, int rows, T1[] a, T2[] b, ...)
+    // The values of null rows are undefined, and the result of a row is null if any argument is null.
+    public static boolean isBatchMethod(String methodName, Class clazz) {
+        Method method = getMethodObject(methodName, clazz);
+        if (method == null || Modifier.isStatic(method.getModifiers())) {
+            return false;
+        }
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        Class<?> returnType = method.getReturnType();
+        // the state of aggregate functions is before the number of rows
+        int rowsIdx = returnType == void.class ? 1 : 0;
+        if (parameterTypes.length <= rowsIdx || parameterTypes[rowsIdx] != int.class) {
+            return false;
+        }
+        if (rowsIdx == 1 && parameterTypes[0].isPrimitive()) {
+            return false;
+        }
+        for (int i = rowsIdx + 1; i < parameterTypes.length; i++) {
+            if (!BATCH_INPUT_TYPES.contains(parameterTypes[i])) {
+                return false;
+            }
+        }
+        return returnType == void.class || BATCH_RESULT_TYPES.contains(returnType);
+    }
+}
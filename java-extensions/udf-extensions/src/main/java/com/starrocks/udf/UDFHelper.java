@@ -498,6 +498,111 @@ public class UDFHelper {
         return strings;
     }
 
+    // create primitive array or StringColumnView for batch methods
+    // buffers are the data of the column without null data, so values of null rows are undefined
+    public static Object createPrimitiveArray(int type, int numRows, ByteBuffer... buffer) {
+        switch (type) {
+            case TYPE_BOOLEAN: {
+                byte[] dataArr = new byte[numRows];
+                buffer[0].get(dataArr);
+                boolean[] res = new boolean[numRows];
+                for (int i = 0; i < numRows; i++) {
+                    res[i] = dataArr[i] == 1;
+                }
+                return res;
+            }
+            case TYPE_TINYINT: {
+                byte[] res = new byte[numRows];
+                buffer[0].get(res);
+                return res;
+            }
+            case TYPE_SMALLINT: {
+                short[] res = new short[numRows];
+                buffer[0].order(ByteOrder.LITTLE_ENDIAN).asShortBuffer().get(res);
+                return res;
+            }
+            case TYPE_INT: {
+                int[] res = new int[numRows];
+                buffer[0].order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(res);
+                return res;
+            }
+            case TYPE_BIGINT: {
+                long[] res = new long[numRows];
+                buffer[0].order(ByteOrder.LITTLE_ENDIAN).asLongBuffer().get(res);
+                return res;
+            }
+            case TYPE_FLOAT: {
+                float[] res = new float[numRows];
+                buffer[0].order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(res);
+                return res;
+            }
+            case TYPE_DOUBLE: {
+                double[] res = new double[numRows];
+                buffer[0].order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(res);
+                return res;
+            }
+            case TYPE_VARCHAR: {
+                return new StringColumnView(numRows, buffer[0], buffer[1]);
+            }
+            default:
+                throw new RuntimeException("Unsupported UDF TYPE:" + type);
+        }
+    }
+
+    // copy the result of batch methods to column, null map of primitive results is filled by caller
+    public static void getResultFromPrimitiveArray(int type, int numRows, Object result, long columnAddr) {
+        if (Array.getLength(result) < numRows) {
+            throw new IllegalArgumentException(
+                    "result size " + Array.getLength(result) + " is less than the number of rows " + numRows);
+        }
+        if (type == TYPE_VARCHAR) {
+            getStringBoxedResult(numRows, (String[]) result, columnAddr);
+            return;
+        }
+        copyPrimitiveResult(type, numRows, result, getAddrs(columnAddr)[1]);
+    }
+
+    // copy the first numRows values of a primitive array to the data of a fixed length column
+    static void copyPrimitiveResult(int type, int numRows, Object result, long dataAddr) {
+        switch (type) {
+            case TYPE_BOOLEAN: {
+                boolean[] values = (boolean[]) result;
+                byte[] dataArr = new byte[numRows];
+                for (int i = 0; i < numRows; i++) {
+                    dataArr[i] = (byte) (values[i] ? 1 : 0);
+                }
+                unsafe.copyMemory(dataArr, byteArrayBaseOffset, null, dataAddr, numRows);
+                break;
+            }
+            case TYPE_TINYINT: {
+                unsafe.copyMemory((byte[]) result, byteArrayBaseOffset, null, dataAddr, numRows);
+                break;
+            }
+            case TYPE_SMALLINT: {
+                unsafe.copyMemory((short[]) result, shortArrayBaseOffset, null, dataAddr, numRows * 2L);
+                break;
+            }
+            case TYPE_INT: {
+                unsafe.copyMemory((int[]) result, intArrayBaseOffset, null, dataAddr, numRows * 4L);
+                break;
+            }
+            case TYPE_BIGINT: {
+                unsafe.copyMemory((long[]) result, longArrayBaseOffset, null, dataAddr, numRows * 8L);
+                break;
+            }
+            case TYPE_FLOAT: {
+                unsafe.copyMemory((float[]) result, floatArrayBaseOffset, null, dataAddr, numRows * 4L);
+                break;
+            }
+            case TYPE_DOUBLE: {
+                unsafe.copyMemory((double[]) result, doubleArrayBaseOffset, null, dataAddr, numRows * 8L);
+                break;
+            }
+            default:
+                throw new UnsupportedOperationException("unsupported type:" + type);
+        }
+    }
+
     // batch call void(Object...)
     public static void batchUpdate(Object o, Method method, FunctionStates ctx, int[] states, Object[] column)
             throws Throwable {
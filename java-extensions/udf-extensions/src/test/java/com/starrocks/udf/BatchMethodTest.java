@@ -0,0 +1,308 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.udf;
+
+import org.junit.Assert;
+import org.junit.Test;
+import sun.misc.Unsafe;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+public class BatchMethodTest {
+    public static class BoxedAdd {
+        public Long evaluate(Integer a, Long b) {
+            return a + b;
+        }
+    }
+
+    public static class BatchAdd {
+        public long[] evaluate(int rows, int[] a, long[] b) {
+            long[] res = new long[rows];
+            for (int i = 0; i < rows; i++) {
+                res[i] = a[i] + b[i];
+            }
+            return res;
+        }
+    }
+
+    public static class BatchConcat {
+        public String[] evaluate(int rows, StringColumnView a, int[] b) {
+            String[] res = new String[rows];
+            for (int i = 0; i < rows; i++) {
+                res[i] = a.getString(i) + b[i];
+            }
+            return res;
+        }
+    }
+
+    public static class BatchSum {
+        public static class State {
+            public long val = 0;
+        }
+
+        public void update(State state, Integer val) {
+            state.val += val;
+        }
+
+        public void updateBatch(State state, int rows, int[] val) {
+            for (int i = 0; i < rows; i++) {
+                state.val += val[i];
+            }
+        }
+    }
+
+    public static class InvalidBatch {
+        public static class State {
+        }
+
+        public long evaluate(int rows, int[] a) {
+            return rows;
+        }
+
+        public void updateBatch(State state, int rows, Integer[] val) {
+        }
+    }
+
+    @Test
+    public void testIsBatchMethod() {
+        Assert.assertFalse(UDFClassAnalyzer.isBatchMethod("evaluate", BoxedAdd.class));
+        Assert.assertTrue(UDFClassAnalyzer.isBatchMethod("evaluate", BatchAdd.class));
+        Assert.assertTrue(UDFClassAnalyzer.isBatchMethod("evaluate", BatchConcat.class));
+        Assert.assertFalse(UDFClassAnalyzer.isBatchMethod("update", BatchSum.class));
+        Assert.assertTrue(UDFClassAnalyzer.isBatchMethod("updateBatch", BatchSum.class));
+        Assert.assertFalse(UDFClassAnalyzer.isBatchMethod("evaluate", InvalidBatch.class));
+        Assert.assertFalse(UDFClassAnalyzer.isBatchMethod("updateBatch", InvalidBatch.class));
+        Assert.assertFalse(UDFClassAnalyzer.isBatchMethod("notExist", BatchAdd.class));
+    }
+
+    private static ByteBuffer directBuffer(int size) {
+        return ByteBuffer.allocateDirect(size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Test
+    public void testCreatePrimitiveArray() {
+        int rows = 4;
+        ByteBuffer ints = directBuffer(rows * 4);
+        ByteBuffer longs = directBuffer(rows * 8);
+        for (int i = 0; i < rows; i++) {
+            ints.putInt(i * 4, i);
+            longs.putLong(i * 8, i * 10L);
+        }
+        int[] a = (int[]) UDFHelper.createPrimitiveArray(UDFHelper.TYPE_INT, rows, ints);
+        long[] b = (long[]) UDFHelper.createPrimitiveArray(UDFHelper.TYPE_BIGINT, rows, longs);
+        long[] res = new BatchAdd().evaluate(rows, a, b);
+        Assert.assertArrayEquals(new long[] {0, 11, 22, 33}, res);
+
+        String[] values = {"a", "", "bcd", "中文"};
+        ByteBuffer offsets = directBuffer((rows + 1) * 4);
+        ByteBuffer bytes = directBuffer(32);
+        int offset = 0;
+        for (int i = 0; i < rows; i++) {
+            byte[] value = values[i].getBytes(StandardCharsets.UTF_8);
+            for (byte v : value) {
+                bytes.put(offset++, v);
+            }
+            offsets.putInt((i + 1) * 4, offset);
+        }
+        StringColumnView view = (StringColumnView) UDFHelper.createPrimitiveArray(UDFHelper.TYPE_VARCHAR, rows,
+                offsets, bytes);
+        Assert.assertEquals(rows, view.size());
+        for (int i = 0; i < rows; i++) {
+            Assert.assertEquals(values[i], view.getString(i));
+            Assert.assertEquals(values[i].getBytes(StandardCharsets.UTF_8).length, view.length(i));
+        }
+        Assert.assertEquals('c', view.byteAt(2, 1));
+        Assert.assertArrayEquals(new String[] {"a0", "1", "bcd2", "中文3"},
+                new BatchConcat().evaluate(rows, view, new int[] {0, 1, 2, 3}));
+    }
+
+    private static Method getBatchCallV(Class<?> clazz, Method method, boolean scalar) throws Exception {
+        final String genClassName = CallStubGenerator.CLAZZ_NAME.replace("/", ".");
+        byte[] bytes = scalar ? CallStubGenerator.generateScalarCallStub(clazz, method) :
+                CallStubGenerator.generateCallStubV(clazz, method);
+        Class<?> stubClazz = new CallStubGeneratorTest.TestClassLoader(genClassName, bytes).loadClass(genClassName);
+        for (Method stub : stubClazz.getMethods()) {
+            if (stub.getName().equals("batchCallV")) {
+                return stub;
+            }
+        }
+        throw new AssertionError("batchCallV is not generated");
+    }
+
+    private static Unsafe getUnsafe() throws Exception {
+        Field f = Unsafe.class.getDeclaredField("theUnsafe");
+        f.setAccessible(true);
+        return (Unsafe) f.get(null);
+    }
+
+    // the column data that BE passes to createPrimitiveArray
+    private static ByteBuffer intColumn(int[] values) {
+        ByteBuffer buffer = directBuffer(values.length * 4);
+        for (int i = 0; i < values.length; i++) {
+            buffer.putInt(i * 4, values[i]);
+        }
+        return buffer;
+    }
+
+    private static ByteBuffer longColumn(long[] values) {
+        ByteBuffer buffer = directBuffer(values.length * 8);
+        for (int i = 0; i < values.length; i++) {
+            buffer.putLong(i * 8, values[i]);
+        }
+        return buffer;
+    }
+
+    // the batch methods called through createPrimitiveArray and copyPrimitiveResult
+    // get the same results as the boxed call stubs
+    @Test
+    public void testBatchMatchesBoxed() throws Throwable {
+        final int rows = 8;
+        int[] ints = new int[rows];
+        long[] longs = new long[rows];
+        Integer[] boxedInts = new Integer[rows];
+        Long[] boxedLongs = new Long[rows];
+        for (int i = 0; i < rows; i++) {
+            ints[i] = i;
+            longs[i] = i * 10L;
+            boxedInts[i] = ints[i];
+            boxedLongs[i] = longs[i];
+        }
+        ByteBuffer intData = intColumn(ints);
+        ByteBuffer longData = longColumn(longs);
+
+        Method scalarStub = getBatchCallV(BoxedAdd.class,
+                BoxedAdd.class.getMethod("evaluate", Integer.class, Long.class), true);
+        Long[] boxedRes = (Long[]) scalarStub.invoke(null, rows, new BoxedAdd(), boxedInts, boxedLongs);
+        long[] batchRes = new BatchAdd().evaluate(rows,
+                (int[]) UDFHelper.createPrimitiveArray(UDFHelper.TYPE_INT, rows, intData),
+                (long[]) UDFHelper.createPrimitiveArray(UDFHelper.TYPE_BIGINT, rows, longData));
+
+        Unsafe unsafe = getUnsafe();
+        long resultAddr = unsafe.allocateMemory(rows * 8L);
+        try {
+            UDFHelper.copyPrimitiveResult(UDFHelper.TYPE_BIGINT, rows, batchRes, resultAddr);
+            for (int i = 0; i < rows; i++) {
+                Assert.assertEquals(boxedRes[i].longValue(), unsafe.getLong(resultAddr + i * 8L));
+            }
+        } finally {
+            unsafe.freeMemory(resultAddr);
+        }
+        try {
+            UDFHelper.getResultFromPrimitiveArray(UDFHelper.TYPE_BIGINT, rows + 1, batchRes, 0);
+            Assert.fail("a result shorter than the rows should be rejected");
+        } catch (IllegalArgumentException e) {
+            Assert.assertTrue(e.getMessage().contains("less than the number of rows"));
+        }
+
+        Method aggStub = getBatchCallV(BatchSum.class,
+                BatchSum.class.getMethod("update", BatchSum.State.class, Integer.class), false);
+        BatchSum sum = new BatchSum();
+        BatchSum.State boxedState = new BatchSum.State();
+        aggStub.invoke(null, rows, sum, boxedState, boxedInts);
+        BatchSum.State batchState = new BatchSum.State();
+        sum.updateBatch(batchState, rows, (int[]) UDFHelper.createPrimitiveArray(UDFHelper.TYPE_INT, rows, intData));
+        Assert.assertEquals(28, batchState.val);
+        Assert.assertEquals(boxedState.val, batchState.val);
+    }
+
+    private static double rowsPerSec(int rows, int loops, long elapsedNs) {
+        return rows * (double) loops / (elapsedNs / 1e9);
+    }
+
+    // rows/sec of the boxed call stubs and of the batch methods, the batch path includes copying the
+    // inputs out of the column buffers and the results back, the boxed path includes boxing and unboxing
+    @Test
+    public void testThroughput() throws Throwable {
+        final int rows = 4096;
+        final int loops = 200;
+        final int rounds = 5;
+        int[] ints = new int[rows];
+        long[] longs = new long[rows];
+        for (int i = 0; i < rows; i++) {
+            ints[i] = i;
+            longs[i] = i;
+        }
+        ByteBuffer intData = intColumn(ints);
+        ByteBuffer longData = longColumn(longs);
+        Unsafe unsafe = getUnsafe();
+        long resultAddr = unsafe.allocateMemory(rows * 8L);
+
+        Method scalarStub = getBatchCallV(BoxedAdd.class,
+                BoxedAdd.class.getMethod("evaluate", Integer.class, Long.class), true);
+        Method aggStub = getBatchCallV(BatchSum.class,
+                BatchSum.class.getMethod("update", BatchSum.State.class, Integer.class), false);
+        BoxedAdd boxedAdd = new BoxedAdd();
+        BatchAdd batchAdd = new BatchAdd();
+        BatchSum sum = new BatchSum();
+        BatchSum.State boxedState = new BatchSum.State();
+        BatchSum.State batchState = new BatchSum.State();
+
+        // keep the best round of each path, the first rounds also warm up the JIT
+        long bestScalarBoxedNs = Long.MAX_VALUE;
+        long bestScalarBatchNs = Long.MAX_VALUE;
+        long bestAggBoxedNs = Long.MAX_VALUE;
+        long bestAggBatchNs = Long.MAX_VALUE;
+        try {
+            for (int round = 0; round < rounds; round++) {
+                long start = System.nanoTime();
+                for (int loop = 0; loop < loops; loop++) {
+                    Integer[] a = new Integer[rows];
+                    Long[] b = new Long[rows];
+                    for (int i = 0; i < rows; i++) {
+                        a[i] = ints[i];
+                        b[i] = longs[i];
+                    }
+                    Long[] res = (Long[]) scalarStub.invoke(null, rows, boxedAdd, a, b);
+                    for (int i = 0; i < rows; i++) {
+                        unsafe.putLong(resultAddr + i * 8L, res[i]);
+                    }
+                }
+                bestScalarBoxedNs = Math.min(bestScalarBoxedNs, System.nanoTime() - start);
+                Assert.assertEquals(2L * (rows - 1), unsafe.getLong(resultAddr + (rows - 1) * 8L));
+
+                start = System.nanoTime();
+                for (int loop = 0; loop < loops; loop++) {
+                    long[] res = batchAdd.evaluate(rows,
+                            (int[]) UDFHelper.createPrimitiveArray(UDFHelper.TYPE_INT, rows, intData),
+                            (long[]) UDFHelper.createPrimitiveArray(UDFHelper.TYPE_BIGINT, rows, longData));
+                    UDFHelper.copyPrimitiveResult(UDFHelper.TYPE_BIGINT, rows, res, resultAddr);
+                }
+                bestScalarBatchNs = Math.min(bestScalarBatchNs, System.nanoTime() - start);
+                Assert.assertEquals(2L * (rows - 1), unsafe.getLong(resultAddr + (rows - 1) * 8L));
+
+                start = System.nanoTime();
+                for (int loop = 0; loop < loops; loop++) {
+                    Integer[] a = new Integer[rows];
+                    for (int i = 0; i < rows; i++) {
+                        a[i] = ints[i];
+                    }
+                    aggStub.invoke(null, rows, sum, boxedState, a);
+                }
+                bestAggBoxedNs = Math.min(bestAggBoxedNs, System.nanoTime() - start);
+
+                start = System.nanoTime();
+                for (int loop = 0; loop < loops; loop++) {
+                    sum.updateBatch(batchState, rows,
+                            (int[]) UDFHelper.createPrimitiveArray(UDFHelper.TYPE_INT, rows, intData));
+                }
+                bestAggBatchNs = Math.min(bestAggBatchNs, System.nanoTime() - start);
+            }
+        } finally {
+            unsafe.freeMemory(resultAddr);
+        }
+        Assert.assertEquals(boxedState.val, batchState.val);
+
+        double scalarBoxed = rowsPerSec(rows, loops, bestScalarBoxedNs);
+        double scalarBatch = rowsPerSec(rows, loops, bestScalarBatchNs);
+        Assert.assertTrue("scalar batch " + scalarBatch + " rows/sec, boxed " + scalarBoxed + " rows/sec",
+                scalarBatch > scalarBoxed);
+        double aggBoxed = rowsPerSec(rows, loops, bestAggBoxedNs);
+        double aggBatch = rowsPerSec(rows, loops, bestAggBatchNs);
+        Assert.assertTrue("aggregate batch " + aggBatch + " rows/sec, boxed " + aggBoxed + " rows/sec",
+                aggBatch > aggBoxed);
+    }
+}